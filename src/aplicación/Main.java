@@ -9,22 +9,76 @@ package aplicación;
 import controlador.Controlador;
 import javax.swing.SwingUtilities;
 import modelo.GestionarUsuario;
+import modelo.TiemposCarga;
+import servidor.ServidorCitas;
 import service.InicializarDatos;
 import service.Service;
 import vista.Vista;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+
 /**
  * Método principal del sistema.
  * Inicia la aplicación creando las instancias del servicio, controlador y vista principal.
+ * Con el argumento --servidor (y opcionalmente --puerto=N) inicia en cambio el servidor HTTP sin
+ * interfaz gráfica; en ese modo no se carga ninguna clase de Swing. El servidor solo escucha en la
+ * interfaz local salvo que se indique otra con --host=DIRECCION (por ejemplo --host=0.0.0.0).
  */
 public class Main {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        boolean modoServidor = false;
+        int puerto = ServidorCitas.PUERTO_POR_DEFECTO;
+        String host = null;
+        for (String arg : args) {
+            if (arg.equals("--servidor")) {
+                modoServidor = true;
+            } else if (arg.startsWith("--puerto=")) {
+                puerto = Integer.parseInt(arg.substring("--puerto=".length()));
+            } else if (arg.startsWith("--host=")) {
+                host = arg.substring("--host=".length());
+            }
+        }
+
+        if (modoServidor) {
+            iniciarServidor(host, puerto);
+        } else {
+            iniciarInterfaz();
+        }
+    }
+
+    private static Service crearServicio() {
+        GestionarUsuario gestionarUsuario = new GestionarUsuario();
+        TiemposCarga tiempos = gestionarUsuario.cargarDesdeArchivo();
+        InicializarDatos inicializador = new InicializarDatos(gestionarUsuario);
+        inicializador.inicializarDatosEjemplo();
+        Service service = new Service(gestionarUsuario);
+        tiempos.agregar(service.getTiemposCarga());
+        System.out.print("Tiempos de carga:\n" + tiempos);
+        return service;
+    }
+
+    private static void iniciarServidor(String host, int puerto) throws IOException {
+        Service service = crearServicio();
+        ServidorCitas servidor = host == null
+                ? new ServidorCitas(service, puerto)
+                : new ServidorCitas(service, new InetSocketAddress(host, puerto));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            servidor.detener();
+            service.getAlmacenCitas().detener();
+            service.getGestionarUsuario().detener();
+        }, "cierre-servidor"));
+        servidor.iniciar();
+    }
+
+    /**
+     * Carga los datos en el hilo principal y solo crea las ventanas en el hilo de eventos, asi la
+     * lectura de archivos, la reproduccion del journal y los indices nunca bloquean la interfaz.
+     */
+    private static void iniciarInterfaz() {
+        Service service = crearServicio();
+        Controlador controlador = new Controlador(service);
         SwingUtilities.invokeLater(() -> {
-            GestionarUsuario gestionarUsuario = new GestionarUsuario();
-            InicializarDatos inicializador = new InicializarDatos(gestionarUsuario);
-            inicializador.inicializarDatosEjemplo();
-            Service service = new Service(gestionarUsuario);
-            Controlador controlador = new Controlador(service);
             Vista vista = new Vista(controlador);
             vista.setVisible(true);
         });
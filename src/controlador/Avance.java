@@ -0,0 +1,46 @@
+package controlador;
+
+import java.util.concurrent.CancellationException;
+
+/**
+ * Canal por el que una operacion larga del controlador informa su avance y se entera
+ * de si el usuario la cancelo.
+ */
+public interface Avance {
+
+    /**
+     * Avance que no informa nada y nunca se cancela, para las llamadas sincronas.
+     */
+    Avance NINGUNO = new Avance() {
+        @Override
+        public void reportar(int hechos, int total) {
+        }
+
+        @Override
+        public boolean isCancelado() {
+            return false;
+        }
+    };
+
+    /**
+     * Informa cuantos elementos se han procesado
+     * @param hechos Elementos procesados
+     * @param total Total de elementos
+     */
+    void reportar(int hechos, int total);
+
+    /**
+     * @return true si quien pidio la operacion ya no quiere el resultado
+     */
+    boolean isCancelado();
+
+    /**
+     * Corta la operacion si fue cancelada
+     * @throws CancellationException si la operacion fue cancelada
+     */
+    default void comprobarCancelacion() {
+        if (isCancelado()) {
+            throw new CancellationException("Operación cancelada");
+        }
+    }
+}
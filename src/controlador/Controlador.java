@@ -1,18 +1,42 @@
 package controlador;
 
 import modelo.*;
+import service.FilaCita;
+import service.FilaUsuario;
+import service.HorarioDisponible;
+import service.Pagina;
 import service.Service;
 import vista.*;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 public class Controlador {
+    // Cada cuantas citas las operaciones largas informan avance y revisan si fueron canceladas
+    private static final int PASO_AVANCE = 256;
+    private static final String SEPARADOR = "-".repeat(50);
+
     private Service service;
+    private ControladorAsincrono asincrono;
 
     public Controlador(Service service) {
         this.service = service;
     }
 
+    /**
+     * Obtiene la version asincrona de este controlador, que las vistas usan para no ejecutar
+     * operaciones largas en el hilo de eventos de Swing.
+     * @return el controlador asincrono, se crea la primera vez que se pide
+     */
+    public synchronized ControladorAsincrono getAsincrono() {
+        if (asincrono == null) {
+            asincrono = new ControladorAsincrono(this);
+        }
+        return asincrono;
+    }
+
     public String procesarLogin(String id, String password, String tipoEsperado, Vista vistaActual) {
         if (id == null || id.trim().isEmpty() || password == null || password.isEmpty()) {
             return "Por favor completa todos los campos";
@@ -71,7 +95,12 @@ public class Controlador {
      */
     public String procesarRegistroMedico(String id, String nombre, String apellido, String telefono,
                                          String email, String password, String especialidad) {
-        Medico medico = service.registrarMedico(id, nombre, apellido, telefono, email, password, especialidad);
+        Medico medico;
+        try {
+            medico = service.registrarMedico(id, nombre, apellido, telefono, email, password, especialidad);
+        } catch (UncheckedIOException e) {
+            return "Usuario registrado, pero no se pudo guardar en el archivo: " + e.getMessage();
+        }
 
         if (medico != null) {
             return null;
@@ -97,8 +126,13 @@ public class Controlador {
     public String procesarRegistroPaciente(String id, String nombre, String apellido, String telefono,
                                            String email, String password, String historiaClinica,
                                            String fechaNacimiento, String tipoSangre, String sexo) {
-        Paciente paciente = service.registrarPaciente(id, nombre, apellido, telefono, email, password,
-                historiaClinica, fechaNacimiento, tipoSangre, sexo);
+        Paciente paciente;
+        try {
+            paciente = service.registrarPaciente(id, nombre, apellido, telefono, email, password,
+                    historiaClinica, fechaNacimiento, tipoSangre, sexo);
+        } catch (UncheckedIOException e) {
+            return "Usuario registrado, pero no se pudo guardar en el archivo: " + e.getMessage();
+        }
 
         if (paciente != null) {
             return null;
@@ -121,8 +155,13 @@ public class Controlador {
     public String procesarRegistroRecepcionista(String id, String nombre, String apellido,
                                                 String telefono, String email, String password,
                                                 String turno) {
-        Recepcionista recepcionista = service.registrarRecepcionista(id, nombre, apellido, telefono,
-                email, password, turno);
+        Recepcionista recepcionista;
+        try {
+            recepcionista = service.registrarRecepcionista(id, nombre, apellido, telefono,
+                    email, password, turno);
+        } catch (UncheckedIOException e) {
+            return "Usuario registrado, pero no se pudo guardar en el archivo: " + e.getMessage();
+        }
 
         if (recepcionista != null) {
             return null;
@@ -161,92 +200,12 @@ public class Controlador {
         return service.consultarMedico(idMedico);
     }
 
-    /**
-     * Obtiene una lista en texto con todas las citas registradas.
-     * @return Cadena con cada cita separada por líneas.
-     */
-    public String obtenerTodasLasCitas() {
-        StringBuilder sb = new StringBuilder();
-        List<Cita> citas = service.enlistarCitas();
-
-        for (Cita cita : citas) {
-            sb.append(cita.toString()).append("\n").append("-".repeat(70)).append("\n\n");
-        }
-
-        return sb.toString();
-    }
-
-    /**
-     * Obtiene una lista en texto con todos los médicos registrados.
-     * @return Cadena con la información de los médicos o un mensaje si no hay registros.
-     */
-    public String obtenerListaMedicos() {
-        StringBuilder sb = new StringBuilder("MÉDICOS REGISTRADOS EN EL SISTEMA\n\n");
-        List<Medico> medicos = service.enlistarMedicos();
-
-        if (medicos.isEmpty()) {
-            sb.append("No hay médicos registrados.");
-        } else {
-            for (Medico medico : medicos) {
-                sb.append(medico.toString()).append("\n").append("-".repeat(70)).append("\n");
-            }
-        }
-
-        return sb.toString();
-    }
-
-    /**
-     * Obtiene una lista en texto con todos los pacientes registrados.
-     * @return Cadena con la información de los pacientes o un mensaje si no hay registros.
-     */
-    public String obtenerListaPacientes() {
-        StringBuilder sb = new StringBuilder("PACIENTES REGISTRADOS EN EL SISTEMA\n\n");
-        List<Paciente> pacientes = service.enlistarPacientes();
-
-        if (pacientes.isEmpty()) {
-            sb.append("No hay pacientes registrados.");
-        } else {
-            for (Paciente paciente : pacientes) {
-                sb.append(paciente.toString()).append("\n").append("-".repeat(70)).append("\n");
-            }
-        }
-
-        return sb.toString();
-    }
-
-
     public String obtenerDetalleConsultorios() {
         return service.obtenerDetalleConsultorios();
     }
 
     // ==================== MÉTODOS PARA MÉDICO ====================
 
-    /**
-     * Obtiene la agenda del médico formateada como String.
-     * @param idMedico ID del médico
-     * @return String con la agenda formateada
-     */
-    public String obtenerAgendaMedico(String idMedico) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("AGENDA DEL MEDICO: ").append(idMedico).append("\n\n");
-
-        List<Cita> todas = service.enlistarCitas(); // debe devolver la lista en memoria
-        int encontradas = 0;
-
-        for (Cita c : todas) {
-            String mid = (c.getMedico() != null ? c.getMedico().getId() : null);
-            if (mid != null && mid.equals(idMedico)) {
-                sb.append(c.toString()).append("\n").append("-".repeat(40)).append("\n");
-                encontradas++;
-            }
-        }
-
-        if (encontradas == 0) {
-            sb.append("No hay citas asignadas a este médico.\n");
-        }
-        return sb.toString();
-    }
-
     /**
      * Procesa la atención de una cita.
      * @return null si fue exitoso, mensaje de error en caso contrario
@@ -275,25 +234,27 @@ public class Controlador {
      * @return String con el historial formateado
      */
     public String obtenerHistorialCitasMedico(String idMedico) {
+        return obtenerHistorialCitasMedico(idMedico, Avance.NINGUNO);
+    }
+
+    /**
+     * Igual que {@link #obtenerHistorialCitasMedico(String)} pero informando el avance y permitiendo cancelar.
+     */
+    public String obtenerHistorialCitasMedico(String idMedico, Avance avance) {
         if (idMedico == null || idMedico.trim().isEmpty()) {
             return "ID de médico inválido.";
         }
-        String buscado = idMedico.trim();
 
         StringBuilder historial = new StringBuilder("HISTORIAL DE CITAS ATENDIDAS\n\n");
+        List<Cita> atendidas = service.historialMedico(idMedico.trim());
         int citasAtendidas = 0;
-
-
-        List<Cita> todas = service.enlistarCitas();
-        for (Cita cita : todas) {
-            if (cita == null) continue;
-            if (cita.getMedico() == null || cita.getMedico().getId() == null) continue;
-
-            if (cita.getMedico().getId().trim().equalsIgnoreCase(buscado)
-                    && cita.getEstadoCita() == citaState.COMPLETADA) {
-                historial.append(cita.toString()).append("\n").append("-".repeat(50)).append("\n\n");
-                citasAtendidas++;
+        for (Cita cita : atendidas) {
+            if (citasAtendidas++ % PASO_AVANCE == 0) {
+                avance.comprobarCancelacion();
+                avance.reportar(citasAtendidas, atendidas.size());
             }
+            FormatoCita.escribirTarjeta(cita, historial);
+            historial.append('\n').append(SEPARADOR).append("\n\n");
         }
 
         if (citasAtendidas == 0) {
@@ -305,12 +266,45 @@ public class Controlador {
         return historial.toString();
     }
 
+    /**
+     * Obtiene las citas de hoy del médico.
+     * @param idMedico ID del médico
+     * @return String con las citas del día formateadas
+     */
+    public String obtenerAgendaDelDia(String idMedico) {
+        return agendaComoTexto("AGENDA DE HOY", service.agendaMedicoDelDia(idMedico, LocalDate.now()));
+    }
+
+    /**
+     * Obtiene las citas de la semana actual del médico, de lunes a domingo.
+     * @param idMedico ID del médico
+     * @return String con las citas de la semana formateadas
+     */
+    public String obtenerAgendaDeLaSemana(String idMedico) {
+        return agendaComoTexto("AGENDA DE ESTA SEMANA", service.agendaMedicoDeLaSemana(idMedico, LocalDate.now()));
+    }
+
+    private static String agendaComoTexto(String titulo, List<Cita> citas) {
+        StringBuilder agenda = new StringBuilder(titulo).append("\n\n");
+        for (Cita cita : citas) {
+            FormatoCita.escribirTarjeta(cita, agenda);
+            agenda.append('\n').append(SEPARADOR).append("\n\n");
+        }
+        if (citas.isEmpty()) {
+            agenda.append("No hay citas programadas.");
+        } else {
+            agenda.append("\nTotal: ").append(citas.size()).append("\n");
+        }
+        return agenda.toString();
+    }
+
     /**
      * Remite un paciente a otra especialidad.
+     * @param consultorios números de consultorio permitidos separados por comas, vacío o null para usar todos
      * @return String con el resultado de la operación
      */
-    public String remitirPaciente(String idCita, String especialidad, String motivo) {
-        return service.remitirPaciente(idCita, especialidad, motivo);
+    public String remitirPaciente(String idCita, String especialidad, String motivo, String consultorios) {
+        return service.remitirPaciente(idCita, especialidad, motivo, numerosConsultorio(consultorios));
     }
 
     /**
@@ -340,6 +334,34 @@ public class Controlador {
         }
     }
 
+    /**
+     * Busca los próximos horarios libres de una especialidad durante los siguientes 30 días.
+     * @param especialidad especialidad requerida
+     * @param idMedicoPreferido ID del médico preferido, vacío o null si no hay preferencia
+     * @param consultorios números de consultorio permitidos separados por comas, vacío o null para usar todos
+     * @param cantidad cantidad máxima de horarios
+     * @return lista de horarios ordenada por fecha, vacía si no hay ninguno
+     */
+    public List<HorarioDisponible> buscarHorariosDisponibles(String especialidad, String idMedicoPreferido,
+                                                            String consultorios, int cantidad) {
+        String preferido = idMedicoPreferido == null || idMedicoPreferido.trim().isEmpty() ? null : idMedicoPreferido.trim();
+        LocalDateTime desde = LocalDateTime.now().plusMinutes(30);
+        return service.buscarHorarios(especialidad, desde, desde.plusDays(30), preferido,
+                numerosConsultorio(consultorios), cantidad);
+    }
+
+    /**
+     * @return los números escritos separados por comas, sin vacíos; lista vacía si no hay ninguno
+     */
+    private static List<String> numerosConsultorio(String texto) {
+        List<String> numeros = new ArrayList<>();
+        if (texto == null) return numeros;
+        for (String numero : texto.split(",")) {
+            if (!numero.trim().isEmpty()) numeros.add(numero.trim());
+        }
+        return numeros;
+    }
+
     /**
      * Procesa la cancelación de una cita.
      * @return null si fue exitoso, mensaje de error en caso contrario
@@ -376,27 +398,77 @@ public class Controlador {
         }
     }
 
+    // ==================== LISTADOS PAGINADOS ====================
+
     /**
-     * Obtiene todas las citas de un paciente.
+     * Pagina de todas las citas del sistema ordenadas por fecha.
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     * @param limite cantidad de filas por pagina
+     * @return filas de la pagina
+     */
+    public Pagina<FilaCita> paginaCitas(ClaveCita despuesDe, int limite) {
+        return service.paginaCitas(despuesDe, limite);
+    }
+
+    /**
+     * Pagina de la agenda del médico, sin las citas canceladas.
+     * @param idMedico ID del médico
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     * @param limite cantidad de filas por pagina
+     * @return filas de la pagina
+     */
+    public Pagina<FilaCita> paginaAgendaMedico(String idMedico, ClaveCita despuesDe, int limite) {
+        return service.paginaAgendaMedico(idMedico, despuesDe, limite);
+    }
+
+    /**
+     * Pagina de las citas agendadas de un paciente.
      * @param idPaciente ID del paciente
-     * @return String con las citas formateadas
+     * @param despuesDe cursor de la pagina anterior, null para la primera
+     * @param limite cantidad de filas por pagina
+     * @return filas de la pagina
      */
-    public String obtenerCitasPaciente(String idPaciente) {
-        StringBuilder citas = new StringBuilder("MIS CITAS AGENDADAS\n\n");
-        List<Cita> todasLasCitas = service.enlistarCitas();
-        int citasEncontradas = 0;
-
-        for (Cita cita : todasLasCitas) {
-            if (cita.getPaciente().getId().equals(idPaciente)) {
-                citas.append(cita.toString()).append("\n").append("-".repeat(50)).append("\n\n");
-                citasEncontradas++;
-            }
-        }
+    public Pagina<FilaCita> paginaCitasPaciente(String idPaciente, ClaveCita despuesDe, int limite) {
+        return service.paginaCitasPaciente(idPaciente, despuesDe, limite);
+    }
 
-        if (citasEncontradas == 0) {
-            citas.append("No tienes citas agendadas.");
-        }
+    /**
+     * Pagina de los médicos registrados.
+     * @param desde posicion del primer médico
+     * @param limite cantidad de filas por pagina
+     * @return filas de la pagina
+     */
+    public Pagina<FilaUsuario> paginaMedicos(int desde, int limite) {
+        return service.paginaMedicos(desde, limite);
+    }
+
+    /**
+     * Pagina de los pacientes registrados.
+     * @param desde posicion del primer paciente
+     * @param limite cantidad de filas por pagina
+     * @return filas de la pagina
+     */
+    public Pagina<FilaUsuario> paginaPacientes(int desde, int limite) {
+        return service.paginaPacientes(desde, limite);
+    }
 
-        return citas.toString();
+    /**
+     * Pagina de citas con filtros, para la tabla de citas de recepción.
+     * @param filtro condiciones y orden
+     * @param despuesDe cursor de la ultima fila ya cargada, null para empezar por el principio
+     * @param saltar filas a saltar despues del cursor
+     * @param limite cantidad de filas
+     * @return filas de la pagina
+     */
+    public Pagina<FilaCita> consultarCitas(FiltroCitas filtro, ClaveCita despuesDe, int saltar, int limite) {
+        return service.consultarCitas(filtro, despuesDe, saltar, limite);
+    }
+
+    /**
+     * @param filtro condiciones de la consulta
+     * @return cantidad de citas que cumplen el filtro
+     */
+    public int contarCitas(FiltroCitas filtro) {
+        return service.contarCitas(filtro);
     }
-}
\ No newline at end of file
+}
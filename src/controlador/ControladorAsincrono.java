@@ -0,0 +1,177 @@
+package controlador;
+
+import modelo.ClaveCita;
+import modelo.FiltroCitas;
+import service.FilaCita;
+import service.FilaUsuario;
+import service.HorarioDisponible;
+import service.Pagina;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Version asincrona del {@link Controlador}.
+ *
+ * <p>
+ *     Cada operacion se ejecuta en un grupo de hilos propio del controlador y devuelve un
+ *     {@link CompletableFuture}, asi ninguna lectura de archivos ni recorrido de todas las citas corre en el
+ *     hilo de eventos de Swing. Las operaciones que recorren todas las citas reciben un {@link Avance}
+ *     para informar el progreso y detenerse si el usuario las cancela.
+ * </p>
+ */
+public class ControladorAsincrono {
+    private final Controlador controlador;
+    private final ExecutorService ejecutor;
+
+    /**
+     * @param controlador Controlador sincrono al que se delega cada operacion
+     */
+    public ControladorAsincrono(Controlador controlador) {
+        this.controlador = controlador;
+        int hilos = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger contador = new AtomicInteger();
+        this.ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "controlador-asincrono-" + contador.incrementAndGet());
+            hilo.setDaemon(true);
+            return hilo;
+        });
+    }
+
+    /**
+     * Ejecuta cualquier operacion en el grupo de hilos del controlador
+     * @param operacion Operacion a ejecutar
+     * @return Futuro con el resultado de la operacion
+     */
+    public <T> CompletableFuture<T> ejecutar(Supplier<T> operacion) {
+        return CompletableFuture.supplyAsync(operacion, ejecutor);
+    }
+
+    /**
+     * Ejecuta una operacion que informa avance
+     * @param avance Canal de avance y cancelacion
+     * @param operacion Operacion a ejecutar
+     * @return Futuro con el resultado de la operacion
+     */
+    public <T> CompletableFuture<T> ejecutar(Avance avance, Function<Avance, T> operacion) {
+        return CompletableFuture.supplyAsync(() -> operacion.apply(avance), ejecutor);
+    }
+
+    // ==================== RECEPCIONISTA ====================
+
+    public CompletableFuture<String> procesarRegistroMedico(String id, String nombre, String apellido, String telefono,
+                                                            String email, String password, String especialidad) {
+        return ejecutar(() -> controlador.procesarRegistroMedico(id, nombre, apellido, telefono, email, password, especialidad));
+    }
+
+    public CompletableFuture<String> procesarRegistroPaciente(String id, String nombre, String apellido, String telefono,
+                                                              String email, String password, String historiaClinica,
+                                                              String fechaNacimiento, String tipoSangre, String sexo) {
+        return ejecutar(() -> controlador.procesarRegistroPaciente(id, nombre, apellido, telefono, email, password,
+                historiaClinica, fechaNacimiento, tipoSangre, sexo));
+    }
+
+    public CompletableFuture<String> procesarRegistroRecepcionista(String id, String nombre, String apellido,
+                                                                   String telefono, String email, String password,
+                                                                   String turno) {
+        return ejecutar(() -> controlador.procesarRegistroRecepcionista(id, nombre, apellido, telefono, email, password, turno));
+    }
+
+    public CompletableFuture<Boolean> asignarConsultorioAMedico(String idMedico, String numeroConsultorio, LocalDateTime fecha) {
+        return ejecutar(() -> controlador.asignarConsultorioAMedico(idMedico, numeroConsultorio, fecha));
+    }
+
+    public CompletableFuture<String> consultarPaciente(String idPaciente) {
+        return ejecutar(() -> controlador.consultarPaciente(idPaciente));
+    }
+
+    public CompletableFuture<String> consultarMedico(String idMedico) {
+        return ejecutar(() -> controlador.consultarMedico(idMedico));
+    }
+
+    public CompletableFuture<String> obtenerDetalleConsultorios() {
+        return ejecutar(controlador::obtenerDetalleConsultorios);
+    }
+
+    // ==================== MÉDICO ====================
+
+    public CompletableFuture<String> procesarAtencionCita(String idCita, String diagnostico, String tratamiento, String observaciones) {
+        return ejecutar(() -> controlador.procesarAtencionCita(idCita, diagnostico, tratamiento, observaciones));
+    }
+
+    public CompletableFuture<String> obtenerHistorialCitasMedico(String idMedico, Avance avance) {
+        return ejecutar(avance, a -> controlador.obtenerHistorialCitasMedico(idMedico, a));
+    }
+
+    public CompletableFuture<String> remitirPaciente(String idCita, String especialidad, String motivo, String consultorios) {
+        return ejecutar(() -> controlador.remitirPaciente(idCita, especialidad, motivo, consultorios));
+    }
+
+    public CompletableFuture<String> consultarHistoriaClinica(String idPaciente) {
+        return ejecutar(() -> controlador.consultarHistoriaClinica(idPaciente));
+    }
+
+    // ==================== PACIENTE ====================
+
+    public CompletableFuture<String> procesarReservaCita(String idPaciente, String idMedico, String numeroConsultorio,
+                                                         String motivo, LocalDateTime fecha) {
+        return ejecutar(() -> controlador.procesarReservaCita(idPaciente, idMedico, numeroConsultorio, motivo, fecha));
+    }
+
+    public CompletableFuture<List<HorarioDisponible>> buscarHorariosDisponibles(String especialidad, String idMedicoPreferido,
+                                                                                String consultorios, int cantidad) {
+        return ejecutar(() -> controlador.buscarHorariosDisponibles(especialidad, idMedicoPreferido, consultorios, cantidad));
+    }
+
+    public CompletableFuture<String> procesarCancelacionCita(String idCita) {
+        return ejecutar(() -> controlador.procesarCancelacionCita(idCita));
+    }
+
+    public CompletableFuture<String> procesarReprogramacionCita(String idCita, LocalDateTime nuevaFecha) {
+        return ejecutar(() -> controlador.procesarReprogramacionCita(idCita, nuevaFecha));
+    }
+
+    // ==================== LISTADOS PAGINADOS ====================
+
+    public CompletableFuture<Pagina<FilaCita>> paginaCitas(ClaveCita despuesDe, int limite) {
+        return ejecutar(() -> controlador.paginaCitas(despuesDe, limite));
+    }
+
+    public CompletableFuture<String> obtenerAgendaDelDia(String idMedico) {
+        return ejecutar(() -> controlador.obtenerAgendaDelDia(idMedico));
+    }
+
+    public CompletableFuture<String> obtenerAgendaDeLaSemana(String idMedico) {
+        return ejecutar(() -> controlador.obtenerAgendaDeLaSemana(idMedico));
+    }
+
+    public CompletableFuture<Pagina<FilaCita>> paginaAgendaMedico(String idMedico, ClaveCita despuesDe, int limite) {
+        return ejecutar(() -> controlador.paginaAgendaMedico(idMedico, despuesDe, limite));
+    }
+
+    public CompletableFuture<Pagina<FilaCita>> paginaCitasPaciente(String idPaciente, ClaveCita despuesDe, int limite) {
+        return ejecutar(() -> controlador.paginaCitasPaciente(idPaciente, despuesDe, limite));
+    }
+
+    public CompletableFuture<Pagina<FilaUsuario>> paginaMedicos(int desde, int limite) {
+        return ejecutar(() -> controlador.paginaMedicos(desde, limite));
+    }
+
+    public CompletableFuture<Pagina<FilaUsuario>> paginaPacientes(int desde, int limite) {
+        return ejecutar(() -> controlador.paginaPacientes(desde, limite));
+    }
+
+    public CompletableFuture<Pagina<FilaCita>> consultarCitas(FiltroCitas filtro, ClaveCita despuesDe, int saltar, int limite) {
+        return ejecutar(() -> controlador.consultarCitas(filtro, despuesDe, saltar, limite));
+    }
+
+    public CompletableFuture<Integer> contarCitas(FiltroCitas filtro) {
+        return ejecutar(() -> controlador.contarCitas(filtro));
+    }
+}
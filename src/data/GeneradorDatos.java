@@ -0,0 +1,462 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package data;
+
+import modelo.Consultorio;
+import modelo.FormatoCita;
+import modelo.GestionarUsuario;
+import modelo.Medico;
+import modelo.Paciente;
+import modelo.PoliticaFsync;
+import modelo.Recepcionista;
+import modelo.Usuario;
+import modelo.citaState;
+import persistencia.AlmacenCitas;
+import persistencia.GeneradorIdCitas;
+import persistencia.JournalCitas;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Genera conjuntos de datos grandes y reproducibles para probar el sistema a escala.
+ * <p>
+ *     Empieza con los registros de {@link DatosEjemplo}, para que sus usuarios sigan pudiendo iniciar
+ *     sesion, y completa las cantidades pedidas con registros sinteticos. Con la misma semilla y
+ *     configuracion los archivos generados son identicos byte a byte.
+ * </p>
+ * <p>
+ *     Las citas se reparten en turnos de 30 minutos de 8:00 a 18:00, de lunes a viernes. En cada turno
+ *     se agendan tantas citas como el menor entre medicos, consultorios y pacientes, cada una con un
+ *     medico, un consultorio y un paciente distintos, asi ningun horario tiene cruces. Los medicos y
+ *     consultorios rotan entre turnos para que todos tengan una carga parecida.
+ * </p>
+ * Los usuarios se escriben en el formato de {@code archivos/} y las citas directamente como el
+ * snapshot inicial de la carpeta de datos ({@link AlmacenCitas}), linea por linea y sin crear objetos
+ * por cita, junto con la marca de agua de IDs para que las citas nuevas sigan la numeracion.
+ * <p>
+ *     Uso: {@code java data.GeneradorDatos --citas=10000000 --pacientes=500000 --medicos=2000
+ *     --consultorios=1500 --semilla=42 --archivos=./archivos --datos=data --estados=PENDIENTE:45,CANCELADA:10}
+ * </p>
+ */
+public class GeneradorDatos {
+    private static final String[] ESPECIALIDADES = {"Medicina General", "Pediatría", "Ginecología", "Cardiología",
+            "Dermatología", "Traumatología", "Psiquiatría", "Neurología", "Oftalmología"};
+    // Proporcion de medicos de cada especialidad, en el mismo orden
+    private static final double[] PESOS_ESPECIALIDADES = {34, 14, 10, 8, 8, 8, 7, 6, 5};
+
+    private static final String[] NOMBRES = {"María", "Juan", "Camila", "Andrés", "Laura", "Carlos", "Valentina",
+            "Santiago", "Daniela", "Luis", "Sofía", "Jorge", "Paula", "Felipe", "Natalia", "Diego"};
+    private static final String[] APELLIDOS = {"López", "Martínez", "González", "Rodríguez", "Gómez", "Pérez",
+            "Díaz", "Herrera", "Ramírez", "Torres", "Castro", "Vargas", "Rojas", "Moreno", "Medina", "Plata"};
+    private static final String[] TIPOS_SANGRE = {"O+", "O-", "A+", "A-", "B+", "B-", "AB+", "AB-"};
+    private static final String[] SEXOS = {"Femenino", "Masculino"};
+    private static final String[] MOTIVOS = {"Control general", "Dolor de cabeza", "Revision de examenes",
+            "Fiebre persistente", "Control de tension", "Dolor abdominal", "Seguimiento de tratamiento",
+            "Chequeo anual", "Dolor de espalda", "Renovacion de formula"};
+    private static final String[] UBICACIONES = {"Mar caribe norte", "Mar caribe sur", "Torre central", "Anexo"};
+
+    private static final LocalTime PRIMER_TURNO = LocalTime.of(8, 0);
+    private static final int TURNOS_POR_DIA = 20;
+    private static final int TAMANO_BUFFER = 1 << 16;
+
+    private final long semilla;
+    private final int pacientes;
+    private final int medicos;
+    private final int consultorios;
+    private final long citas;
+    private final Map<citaState, Double> pesosEstados;
+    private LocalDate inicio;
+
+    /**
+     * Crea el generador con una mezcla de estados por defecto: 45% pendientes, 20% confirmadas,
+     * 25% completadas y 10% canceladas
+     * @param semilla Semilla de los valores aleatorios
+     * @param pacientes Cantidad de pacientes
+     * @param medicos Cantidad de medicos
+     * @param consultorios Cantidad de consultorios
+     * @param citas Cantidad de citas
+     */
+    public GeneradorDatos(long semilla, int pacientes, int medicos, int consultorios, long citas) {
+        if (pacientes < 0 || medicos < 0 || consultorios < 0 || citas < 0) {
+            throw new IllegalArgumentException("Las cantidades no pueden ser negativas");
+        }
+        if (citas > 0 && (pacientes == 0 || medicos == 0 || consultorios == 0)) {
+            throw new IllegalArgumentException("Para generar citas se necesita al menos un paciente, un medico y un consultorio");
+        }
+        this.semilla = semilla;
+        this.pacientes = pacientes;
+        this.medicos = medicos;
+        this.consultorios = consultorios;
+        this.citas = citas;
+        this.pesosEstados = new EnumMap<>(citaState.class);
+        pesosEstados.put(citaState.PENDIENTE, 45.0);
+        pesosEstados.put(citaState.CONFIRMADA, 20.0);
+        pesosEstados.put(citaState.COMPLETADA, 25.0);
+        pesosEstados.put(citaState.CANCELADA, 10.0);
+        this.inicio = LocalDate.of(2025, 1, 6);
+    }
+
+    /**
+     * Cambia el peso relativo de un estado en la mezcla de estados de las citas
+     * @param estado Estado a configurar
+     * @param peso Peso relativo, 0 para que ninguna cita tenga ese estado
+     */
+    public void setPesoEstado(citaState estado, double peso) {
+        if (peso < 0) throw new IllegalArgumentException("El peso de un estado no puede ser negativo");
+        pesosEstados.put(estado, peso);
+    }
+
+    /**
+     * @param inicio Dia del primer turno; si cae en fin de semana se empieza el lunes siguiente
+     */
+    public void setInicio(LocalDate inicio) {
+        this.inicio = inicio;
+    }
+
+    /**
+     * Escribe todos los archivos. Los archivos de usuarios existentes se reemplazan.
+     * @param directorioArchivos Carpeta de los archivos de usuarios y consultorios
+     * @param directorioDatos Carpeta de datos de las citas; no debe tener citas
+     * @throws IOException si falla la escritura de algun archivo
+     * @throws IllegalStateException si la carpeta de datos ya tiene citas
+     */
+    public void generar(Path directorioArchivos, Path directorioDatos) throws IOException {
+        if (AlmacenCitas.contieneCitas(directorioDatos)) {
+            throw new IllegalStateException("La carpeta " + directorioDatos + " ya tiene citas");
+        }
+        if (citas > 0 && pesoTotal() <= 0) {
+            throw new IllegalStateException("La mezcla de estados no tiene ningun peso positivo");
+        }
+        Files.createDirectories(directorioArchivos);
+        SplittableRandom random = new SplittableRandom(semilla);
+
+        String[] idsPacientes = escribirPacientes(directorioArchivos.resolve(GestionarUsuario.ARCHIVO_PACIENTES), random);
+        String[] idsMedicos = escribirMedicos(directorioArchivos.resolve(GestionarUsuario.ARCHIVO_MEDICOS), random);
+        escribirRecepcionistas(directorioArchivos.resolve(GestionarUsuario.ARCHIVO_RECEPCIONISTAS));
+        String[] numerosConsultorios = escribirConsultorios(directorioArchivos.resolve(GestionarUsuario.ARCHIVO_CONSULTORIOS));
+
+        Path snapshot = AlmacenCitas.rutaSnapshotInicial(directorioDatos);
+        Files.createDirectories(snapshot.getParent());
+        Path temporal = snapshot.resolveSibling(snapshot.getFileName() + ".tmp");
+        try (OutputStream salida = new BufferedOutputStream(Files.newOutputStream(temporal), TAMANO_BUFFER)) {
+            escribirCitas(salida, idsPacientes, idsMedicos, numerosConsultorios, random);
+        }
+        Files.move(temporal, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        GeneradorIdCitas.guardarMarca(AlmacenCitas.rutaMarcaIds(directorioDatos), citas + 1, PoliticaFsync.configurada());
+    }
+
+    private String[] escribirPacientes(Path archivo, SplittableRandom random) throws IOException {
+        List<Paciente> ejemplos = DatosEjemplo.inicializarPacienteEJ();
+        String[] ids = new String[pacientes];
+        try (Writer escritor = abrir(archivo)) {
+            for (int i = 0; i < pacientes; i++) {
+                Paciente paciente;
+                if (i < ejemplos.size()) {
+                    paciente = ejemplos.get(i);
+                } else {
+                    String id = conCeros("P", i + 1, 7);
+                    paciente = new Paciente(id, elegir(NOMBRES, random), elegir(APELLIDOS, random),
+                            conCeros("300", i + 1, 7), id.toLowerCase() + "@correo.com", "clave" + id,
+                            "HC-" + id, fechaNacimiento(random), elegir(TIPOS_SANGRE, random), elegir(SEXOS, random));
+                }
+                ids[i] = paciente.getId();
+                escribirLinea(escritor, paciente);
+            }
+        }
+        return ids;
+    }
+
+    private String[] escribirMedicos(Path archivo, SplittableRandom random) throws IOException {
+        List<Medico> ejemplos = DatosEjemplo.inicializarMedicoEJ();
+        String[] ids = new String[medicos];
+        try (Writer escritor = abrir(archivo)) {
+            for (int i = 0; i < medicos; i++) {
+                Medico medico;
+                if (i < ejemplos.size()) {
+                    medico = ejemplos.get(i);
+                } else {
+                    String id = conCeros("M", i + 1, 6);
+                    medico = new Medico(id, elegir(NOMBRES, random), elegir(APELLIDOS, random),
+                            conCeros("601", i + 1, 7), id.toLowerCase() + "@hospital.com", "clave" + id,
+                            especialidad(random));
+                }
+                ids[i] = medico.getId();
+                escribirLinea(escritor, medico);
+            }
+        }
+        return ids;
+    }
+
+    private void escribirRecepcionistas(Path archivo) throws IOException {
+        List<Recepcionista> ejemplos = DatosEjemplo.inicializarRecepcionista();
+        int cantidad = Math.max(ejemplos.size(), medicos / 10);
+        try (Writer escritor = abrir(archivo)) {
+            for (int i = 0; i < cantidad; i++) {
+                Recepcionista recepcionista;
+                if (i < ejemplos.size()) {
+                    recepcionista = ejemplos.get(i);
+                } else {
+                    String id = conCeros("R", i + 1, 6);
+                    recepcionista = new Recepcionista(id, NOMBRES[i % NOMBRES.length], APELLIDOS[i % APELLIDOS.length],
+                            conCeros("602", i + 1, 7), id.toLowerCase() + "@hospital.com", "clave" + id, "turnoActivo");
+                }
+                escribirLinea(escritor, recepcionista);
+            }
+        }
+    }
+
+    private String[] escribirConsultorios(Path archivo) throws IOException {
+        List<Consultorio> ejemplos = DatosEjemplo.inicializarConsultorioEJ();
+        String[] numeros = new String[consultorios];
+        try (Writer escritor = abrir(archivo)) {
+            for (int i = 0; i < consultorios; i++) {
+                Consultorio consultorio = i < ejemplos.size()
+                        ? ejemplos.get(i)
+                        : new Consultorio(String.valueOf(i + 1), true,
+                                UBICACIONES[i % UBICACIONES.length] + ", piso " + (1 + i / 20 % 10));
+                numeros[i] = consultorio.getNumero();
+                escritor.write(consultorio.toCSV());
+                escritor.write('\n');
+            }
+        }
+        return numeros;
+    }
+
+    /**
+     * Escribe las citas como registros de creacion del journal, con el formato de {@code Cita#toCSV()}.
+     * Todos los textos se codifican una sola vez y cada linea se arma copiando bytes.
+     */
+    private void escribirCitas(OutputStream salida, String[] idsPacientes, String[] idsMedicos,
+                               String[] numerosConsultorios, SplittableRandom random) throws IOException {
+        citaState[] estados = citaState.values();
+        byte[][] nombresEstados = new byte[estados.length][];
+        double[] acumulados = new double[estados.length];
+        double total = 0;
+        for (int i = 0; i < estados.length; i++) {
+            nombresEstados[i] = bytes(";" + estados[i].name() + "\n");
+            total += pesosEstados.getOrDefault(estados[i], 0.0);
+            acumulados[i] = total;
+        }
+        byte[][] pacientesCsv = bytes(idsPacientes, ";");
+        byte[][] medicosCsv = bytes(idsMedicos, ";");
+        byte[][] consultoriosCsv = bytes(numerosConsultorios, ";");
+        byte[][] motivosCsv = bytes(MOTIVOS, ";");
+        byte[] prefijo = bytes(JournalCitas.CREAR + ";" + GeneradorIdCitas.PREFIJO);
+
+        int paralelas = Math.min(medicos, Math.min(consultorios, pacientes));
+        // Cada linea se arma completa y se entrega a la salida de una vez
+        byte[] linea = new byte[prefijo.length + 20 + maximo(pacientesCsv) + maximo(medicosCsv)
+                + maximo(consultoriosCsv) + maximo(motivosCsv) + 32 + maximo(nombresEstados)];
+        LocalDate dia = diaHabil(inicio);
+        int turno = 0;
+        int desplazamientoMedicos = 0;
+        int desplazamientoConsultorios = 0;
+        long creadas = 0;
+
+        while (creadas < citas) {
+            byte[] fecha = bytes(textoFecha(LocalDateTime.of(dia, PRIMER_TURNO.plusMinutes(30L * turno))));
+            int enTurno = (int) Math.min(paralelas, citas - creadas);
+            int primerPaciente = random.nextInt(pacientes);
+            for (int j = 0; j < enTurno; j++) {
+                creadas++;
+                int largo = copiar(prefijo, linea, 0);
+                largo = escribirNumero(creadas, 7, linea, largo);
+                linea[largo++] = ';';
+                largo = copiar(pacientesCsv[(primerPaciente + j) % pacientes], linea, largo);
+                largo = copiar(medicosCsv[(desplazamientoMedicos + j) % medicos], linea, largo);
+                largo = copiar(consultoriosCsv[(desplazamientoConsultorios + j) % consultorios], linea, largo);
+                largo = copiar(motivosCsv[random.nextInt(motivosCsv.length)], linea, largo);
+                largo = copiar(fecha, linea, largo);
+                largo = copiar(nombresEstados[estado(acumulados, total, random)], linea, largo);
+                salida.write(linea, 0, largo);
+            }
+
+            desplazamientoMedicos = (desplazamientoMedicos + paralelas) % medicos;
+            desplazamientoConsultorios = (desplazamientoConsultorios + paralelas) % consultorios;
+            if (++turno == TURNOS_POR_DIA) {
+                turno = 0;
+                dia = diaHabil(dia.plusDays(1));
+            }
+        }
+    }
+
+    private double pesoTotal() {
+        double total = 0;
+        for (double peso : pesosEstados.values()) total += peso;
+        return total;
+    }
+
+    /**
+     * @return Posicion del estado elegido segun los pesos acumulados
+     */
+    private static int estado(double[] acumulados, double total, SplittableRandom random) {
+        double valor = random.nextDouble() * total;
+        for (int i = 0; i < acumulados.length; i++) {
+            if (valor < acumulados[i]) return i;
+        }
+        return acumulados.length - 1;
+    }
+
+    private static String especialidad(SplittableRandom random) {
+        double total = 0;
+        for (double peso : PESOS_ESPECIALIDADES) total += peso;
+        double valor = random.nextDouble() * total;
+        for (int i = 0; i < ESPECIALIDADES.length; i++) {
+            valor -= PESOS_ESPECIALIDADES[i];
+            if (valor < 0) return ESPECIALIDADES[i];
+        }
+        return ESPECIALIDADES[0];
+    }
+
+    private static String fechaNacimiento(SplittableRandom random) {
+        StringBuilder fecha = new StringBuilder(10);
+        int dia = 1 + random.nextInt(28);
+        int mes = 1 + random.nextInt(12);
+        if (dia < 10) fecha.append('0');
+        fecha.append(dia).append('/');
+        if (mes < 10) fecha.append('0');
+        return fecha.append(mes).append('/').append(1940 + random.nextInt(80)).toString();
+    }
+
+    private static LocalDate diaHabil(LocalDate dia) {
+        while (dia.getDayOfWeek() == DayOfWeek.SATURDAY || dia.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            dia = dia.plusDays(1);
+        }
+        return dia;
+    }
+
+    private static String textoFecha(LocalDateTime fecha) {
+        StringBuilder sb = new StringBuilder(16);
+        FormatoCita.escribirFecha(fecha, false, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Escribe un numero positivo con ceros a la izquierda hasta completar el ancho minimo
+     * @return Posicion siguiente al ultimo digito escrito
+     */
+    private static int escribirNumero(long numero, int ancho, byte[] destino, int posicion) {
+        int digitos = 1;
+        for (long resto = numero / 10; resto > 0; resto /= 10) digitos++;
+        int largo = Math.max(ancho, digitos);
+        for (int i = posicion + largo - 1; i >= posicion; i--) {
+            destino[i] = (byte) ('0' + numero % 10);
+            numero /= 10;
+        }
+        return posicion + largo;
+    }
+
+    private static int copiar(byte[] origen, byte[] destino, int posicion) {
+        System.arraycopy(origen, 0, destino, posicion, origen.length);
+        return posicion + origen.length;
+    }
+
+    private static int maximo(byte[][] textos) {
+        int maximo = 0;
+        for (byte[] texto : textos) maximo = Math.max(maximo, texto.length);
+        return maximo;
+    }
+
+    private static String conCeros(String prefijo, long numero, int ancho) {
+        String digitos = Long.toString(numero);
+        StringBuilder texto = new StringBuilder(prefijo.length() + Math.max(ancho, digitos.length())).append(prefijo);
+        for (int i = digitos.length(); i < ancho; i++) {
+            texto.append('0');
+        }
+        return texto.append(digitos).toString();
+    }
+
+    private static byte[] bytes(String texto) {
+        return texto.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[][] bytes(String[] textos, String sufijo) {
+        byte[][] resultado = new byte[textos.length][];
+        for (int i = 0; i < textos.length; i++) {
+            resultado[i] = bytes(textos[i] + sufijo);
+        }
+        return resultado;
+    }
+
+    private static String elegir(String[] opciones, SplittableRandom random) {
+        return opciones[random.nextInt(opciones.length)];
+    }
+
+    private static void escribirLinea(Writer escritor, Usuario usuario) throws IOException {
+        escritor.write(usuario.toCSV());
+        escritor.write('\n');
+    }
+
+    /**
+     * Abre un archivo de usuarios con el juego de caracteres con el que los lee y escribe {@link GestionarUsuario}
+     */
+    private static Writer abrir(Path archivo) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(archivo), Charset.defaultCharset()), TAMANO_BUFFER);
+    }
+
+    public static void main(String[] args) throws IOException {
+        long semilla = 42;
+        int pacientes = 10000;
+        int medicos = 200;
+        int consultorios = 150;
+        long citas = 100000;
+        Path archivos = Paths.get("archivos");
+        Path datos = Paths.get("data");
+        String estados = null;
+        LocalDate inicio = null;
+
+        for (String arg : args) {
+            String valor = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--semilla=")) semilla = Long.parseLong(valor);
+            else if (arg.startsWith("--pacientes=")) pacientes = Integer.parseInt(valor);
+            else if (arg.startsWith("--medicos=")) medicos = Integer.parseInt(valor);
+            else if (arg.startsWith("--consultorios=")) consultorios = Integer.parseInt(valor);
+            else if (arg.startsWith("--citas=")) citas = Long.parseLong(valor);
+            else if (arg.startsWith("--archivos=")) archivos = Paths.get(valor);
+            else if (arg.startsWith("--datos=")) datos = Paths.get(valor);
+            else if (arg.startsWith("--estados=")) estados = valor;
+            else if (arg.startsWith("--inicio=")) inicio = LocalDate.parse(valor, DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+            else throw new IllegalArgumentException("Argumento desconocido: " + arg);
+        }
+
+        GeneradorDatos generador = new GeneradorDatos(semilla, pacientes, medicos, consultorios, citas);
+        if (estados != null) {
+            // Los estados que no se mencionan quedan con peso 0
+            for (citaState estado : citaState.values()) generador.setPesoEstado(estado, 0);
+            for (String parte : estados.split(",")) {
+                String[] estadoPeso = parte.split(":");
+                generador.setPesoEstado(citaState.valueOf(estadoPeso[0].trim()), Double.parseDouble(estadoPeso[1].trim()));
+            }
+        }
+        if (inicio != null) generador.setInicio(inicio);
+
+        long comienzo = System.nanoTime();
+        generador.generar(archivos, datos);
+        System.out.printf("Generados %d pacientes, %d medicos, %d consultorios y %d citas en %d ms%n",
+                pacientes, medicos, consultorios, citas, (System.nanoTime() - comienzo) / 1_000_000);
+    }
+}
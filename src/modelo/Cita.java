@@ -8,6 +8,7 @@ package modelo;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.Objects;
 
 /**
  * Clase que representa una cita medica dentro del sistema.
@@ -15,6 +16,11 @@ import java.time.format.DateTimeParseException;
  * el paciente, el medico y otros datos basicos de la cita como el lugar y la fecha.
  */
 public class Cita {
+    /**
+     * Duracion de todas las citas del sistema, en minutos
+     */
+    public static final int DURACION_MINUTOS = 30;
+
     private String id;
     private Paciente paciente;
     private Medico medico;
@@ -25,7 +31,8 @@ public class Cita {
     private String tratamiento;
     private String motivo;
     private LocalDateTime fecha;
-    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    // Repositorio que indexa la cita, se le avisa cuando cambia la fecha o el estado
+    private ObservadorCita observador;
 
 
     /**
@@ -89,6 +96,34 @@ public class Cita {
         return medico;
     }
 
+    /**
+     * @return Motivo por el que se agendo la cita
+     */
+    public String getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * @return Diagnostico establecido por el medico, vacio si no se ha atendido
+     */
+    public String getDiagnostico() {
+        return diagnostico;
+    }
+
+    /**
+     * @return Tratamiento establecido por el medico, vacio si no se ha atendido
+     */
+    public String getTratamiento() {
+        return tratamiento;
+    }
+
+    /**
+     * @return Observaciones realizadas por el medico, vacio si no se ha atendido
+     */
+    public String getObservaciones() {
+        return observaciones;
+    }
+
     /**
      * @param observaciones Observaciones realizadas por el medico
      */
@@ -100,7 +135,11 @@ public class Cita {
      * @param fecha Fecha nueva en la que se va a hacer la cita
      */
     public void setFecha(LocalDateTime fecha) {
+        LocalDateTime anterior = this.fecha;
         this.fecha = fecha;
+        if (observador != null && !Objects.equals(anterior, fecha)) {
+            observador.fechaCambiada(this, anterior);
+        }
     }
 
     /**
@@ -121,33 +160,47 @@ public class Cita {
      * Cambia el estado de la cita a CANCELADA si la cita se llega a cancelar
      */
     public void cancelarCita() {
-        this.estadoCita = citaState.CANCELADA;
+        setEstadoCita(citaState.CANCELADA);
     }
 
     /**
      * Cambia el estado de la cita a COMPLETADA
      */
     public void completar() {
-        this.estadoCita = citaState.COMPLETADA;
+        setEstadoCita(citaState.COMPLETADA);
     }
 
+    /**
+     * @param nuevoEstado Estado que va a tomar la cita
+     */
     public void setEstadoCita(citaState nuevoEstado) {
+        citaState anterior = this.estadoCita;
         this.estadoCita = nuevoEstado;
+        if (observador != null && anterior != nuevoEstado) {
+            observador.estadoCambiado(this, anterior);
+        }
     }
 
     /**
      * Cambia el estado de la cita a EN_ATENCION si la cita se encuentra en atencion
      */
     public void iniciarAtencion() {
-        this.estadoCita = citaState.EN_ATENCION;
+        setEstadoCita(citaState.EN_ATENCION);
+    }
 
+    /**
+     * Registra quien debe enterarse de los cambios de fecha y estado de la cita
+     * @param observador Observador de la cita, null para dejar de notificar
+     */
+    public void setObservador(ObservadorCita observador) {
+        this.observador = observador;
     }
 
     private static String escape(String s) {
         if (s == null) return "";
         return s.replace(";", ",").replace("\n", " ").replace("\r", " ").trim();
     }
-    private static final DateTimeFormatter WRITE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter WRITE_FORMATTER = FormatoCita.FECHA_HORA;
     private static final DateTimeFormatter READ_FORMATTER = WRITE_FORMATTER;
 
     public String toCSV() {
@@ -186,9 +239,11 @@ public class Cita {
         Consultorio consultorio = null;
         LocalDateTime fecha = null;
 
-        if (!pacienteId.isEmpty()) paciente = getPacienteById(pacienteId, gu);
-        if (!medicoId.isEmpty()) medico = getMedicoById(medicoId, gu);
-        if (!consultorioNum.isEmpty()) consultorio = getConsultorioByNumero(consultorioNum, gu);
+        if (gu != null) {
+            if (!pacienteId.isEmpty()) paciente = gu.buscarPaciente(pacienteId);
+            if (!medicoId.isEmpty()) medico = gu.buscarMedico(medicoId);
+            if (!consultorioNum.isEmpty()) consultorio = gu.buscarConsultorio(consultorioNum);
+        }
 
         if (!fechaStr.isEmpty()) {
             try {
@@ -202,55 +257,19 @@ public class Cita {
         }
         return c;
     }
-    private static Paciente getPacienteById(String id, GestionarUsuario gu) {
-        if (id == null || gu == null) return null;
-        for (Paciente p : gu.getPacientes()) if (id.equals(p.getId())) return p;
-        return null;
-    }
-    private static Medico getMedicoById(String id, GestionarUsuario gu) {
-        if (id == null || gu == null) return null;
-        for (Medico m : gu.getMedicos()) if (id.equals(m.getId())) return m;
-        return null;
-    }
-    private static Consultorio getConsultorioByNumero(String numero, GestionarUsuario gu) {
-        if (numero == null || gu == null) return null;
-        for (Consultorio c : gu.getConsultorios()) if (numero.equals(c.getNumero())) return c;
-        return null;
-    }
     public String getId() {
         return id;
     }
 
     /**
-     * Formato de impresion que muestra la informacion basica de la cita medica
+     * Formato de impresion que muestra la informacion basica de la cita medica.
+     * Para listados conviene {@link FormatoCita#escribirTarjeta(Cita, StringBuilder)} con un solo texto para todas
      * @return String con toda la informacion basica de la cita
      */
     @Override
     public String toString() {
-        DateTimeFormatter fechaFormattter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
-        StringBuilder sb = new StringBuilder();
-        sb.append("ID Cita: ").append(this.id).append("\n");
-        sb.append("Fecha: ").append(fechaFormattter.format(this.fecha)).append("\n");
-        sb.append("Estado: ").append(this.estadoCita.toString()).append("\n");
-        sb.append("Paciente: ").append(this.paciente.nombreCompleto()).append("\n");
-        sb.append("Historia clinica: ").append(this.paciente.getHistoriaClinica()).append("\n");
-        sb.append("Medico: Dr(a). ").append(this.medico.nombreCompleto()).append("\n");
-        sb.append("Especialidad del medico: ").append(this.medico.getEspecialidad()).append("\n");
-        sb.append("Consultorio: ").append(this.consultorio.toString());
-        sb.append("Motivos: ").append(motivo).append("\n");
-
-        if(!diagnostico.isEmpty()){
-            sb.append("Diagnostico: ").append(this.diagnostico).append("\n");
-        }
-
-        if(!observaciones.isEmpty()) {
-            sb.append("Observaciones: ").append(this.observaciones).append("\n");
-        }
-
-        if(!tratamiento.isEmpty()) {
-            sb.append("Tratamiento: ").append(this.tratamiento).append("\n");
-        }
-
+        StringBuilder sb = new StringBuilder(256);
+        FormatoCita.escribirTarjeta(this, sb);
         return sb.toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,543 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Repositorio unico de las citas del sistema.
+ * <p>
+ *     Es dueño de la unica copia en memoria de las citas y de sus indices; tanto el servicio
+ *     como el gestor de usuarios y el controlador leen y escriben a traves de el. La persistencia
+ *     de los cambios la hace el almacen de citas, no el repositorio.
+ * </p>
+ * <p>
+ *     El repositorio se registra como observador de cada cita que recibe, asi los indices se
+ *     actualizan solos cuando una cita se reprograma, se cancela o se completa.
+ * </p>
+ */
+public class CitaRepository implements ObservadorCita {
+    private final List<Cita> citas;
+    // Clave normalizada (sin espacios alrededor y en mayusculas) -> primera cita con ese ID
+    private final Map<String, Cita> porId;
+    // Citas no canceladas de cada medico ordenadas por fecha, para validar choques de horario
+    private final Map<String, LineaDeTiempo> activasPorMedico;
+    // Lo mismo por numero de consultorio; respalda el calendario de ocupacion de cada consultorio
+    private final Map<String, LineaDeTiempo> activasPorConsultorio;
+    // Todas las citas con fecha, canceladas incluidas, ordenadas por (fecha, id) para paginar
+    private final LineaDeTiempo porFecha;
+    // Lo mismo por ID de paciente, asi las consultas de un paciente solo recorren sus propias citas
+    private final Map<String, LineaDeTiempo> porPaciente;
+    // Lo mismo por ID de medico, para las consultas de un medico que incluyen canceladas
+    private final Map<String, LineaDeTiempo> porMedico;
+    // Citas de cada estado vigente (pendiente, confirmada, en atencion); las canceladas y completadas
+    // son historial y no tienen linea propia
+    private final EnumMap<citaState, LineaDeTiempo> vigentesPorEstado;
+    // Cantidad de citas en cada estado, incluidas las que no tienen fecha
+    private final EnumMap<citaState, Integer> conteoPorEstado;
+
+    /**
+     * Constructor del repositorio, inicia sin citas
+     */
+    public CitaRepository() {
+        this.citas = new ArrayList<>();
+        this.porId = new HashMap<>();
+        this.activasPorMedico = new HashMap<>();
+        this.activasPorConsultorio = new HashMap<>();
+        this.porFecha = new LineaDeTiempo();
+        this.porPaciente = new HashMap<>();
+        this.porMedico = new HashMap<>();
+        this.vigentesPorEstado = new EnumMap<>(citaState.class);
+        this.conteoPorEstado = new EnumMap<>(citaState.class);
+        for (citaState estado : citaState.values()) {
+            conteoPorEstado.put(estado, 0);
+            if (esVigente(estado)) {
+                vigentesPorEstado.put(estado, new LineaDeTiempo());
+            }
+        }
+    }
+
+    /**
+     * Agrega una cita al repositorio
+     * @param cita Cita que se va a agregar
+     */
+    public synchronized void agregar(Cita cita) {
+        if (cita != null) {
+            citas.add(cita);
+            if (cita.getId() != null) {
+                porId.putIfAbsent(normalizarId(cita.getId()), cita);
+            }
+            cita.setObservador(this);
+            porFecha.agregar(cita);
+            if (cita.getPaciente() != null) {
+                porPaciente.computeIfAbsent(cita.getPaciente().getId(), k -> new LineaDeTiempo()).agregar(cita);
+            }
+            if (cita.getMedico() != null) {
+                porMedico.computeIfAbsent(cita.getMedico().getId(), k -> new LineaDeTiempo()).agregar(cita);
+            }
+            entrarEnEstado(cita, cita.getEstadoCita());
+            if (estaActiva(cita.getEstadoCita())) {
+                indexar(cita);
+            }
+        }
+    }
+
+    /**
+     * Agrega todas las citas cargadas desde el almacen, conservando su orden
+     * @param cargadas Citas a agregar
+     */
+    public synchronized void agregarTodas(Collection<Cita> cargadas) {
+        for (Cita cita : cargadas) {
+            agregar(cita);
+        }
+    }
+
+    /**
+     * Busca una cita por su ID sin distinguir mayusculas ni espacios alrededor, en el indice por ID
+     * @param id ID de la cita
+     * @return la cita encontrada o null si no existe
+     */
+    public synchronized Cita buscarPorId(String id) {
+        if (id == null) return null;
+        String buscado = normalizarId(id);
+        if (buscado.isEmpty()) return null;
+        return porId.get(buscado);
+    }
+
+    /**
+     * Clave del indice por ID. Los IDs generados ya estan normalizados, y en ese caso trim y
+     * toUpperCase devuelven el mismo texto sin crear uno nuevo.
+     */
+    static String normalizarId(String id) {
+        return id.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return Copia de todas las citas en el orden en que fueron agregadas
+     */
+    public synchronized List<Cita> todas() {
+        return new ArrayList<>(citas);
+    }
+
+    /**
+     * @return Cantidad de citas en el repositorio
+     */
+    public synchronized int tamano() {
+        return citas.size();
+    }
+
+    /**
+     * Indica si el medico tiene una cita no cancelada que se cruce con el turno que empieza en fechaHora
+     * @param idMedico ID del medico
+     * @param fechaHora Inicio del turno de {@link Cita#DURACION_MINUTOS} minutos
+     * @return true si el medico ya esta ocupado en ese turno
+     */
+    public synchronized boolean medicoOcupado(String idMedico, LocalDateTime fechaHora) {
+        LineaDeTiempo linea = activasPorMedico.get(idMedico);
+        return linea != null && linea.haySolapamiento(fechaHora);
+    }
+
+    /**
+     * Indica si el consultorio tiene una cita no cancelada que se cruce con el turno que empieza en fechaHora.
+     * Primero mira el calendario de ocupacion del consultorio y solo si la franja esta marcada
+     * revisa las citas, porque un turno que no esta alineado a la media hora puede compartir franja sin chocar.
+     * @param consultorio Consultorio a revisar
+     * @param fechaHora Inicio del turno de {@link Cita#DURACION_MINUTOS} minutos
+     * @return true si el consultorio ya esta ocupado en ese turno
+     */
+    public synchronized boolean consultorioOcupado(Consultorio consultorio, LocalDateTime fechaHora) {
+        if (consultorio.franjasLibres(fechaHora)) {
+            return false;
+        }
+        LineaDeTiempo linea = activasPorConsultorio.get(consultorio.getNumero());
+        return linea != null && linea.haySolapamiento(fechaHora);
+    }
+
+    /**
+     * Copia el calendario de ocupacion de un dia de varios consultorios. Para los turnos que empiezan en
+     * la cuadricula de media hora el calendario es exacto: el bit de una franja esta encendido si y solo
+     * si alguna cita activa se cruza con el turno que empieza en esa franja.
+     * @param consultorios Consultorios a leer
+     * @param dia Dia a leer
+     * @return Un long por consultorio, en el mismo orden, con el bit i encendido si la franja i esta ocupada
+     */
+    public synchronized long[] ocupacionDelDia(List<Consultorio> consultorios, LocalDate dia) {
+        long[] ocupacion = new long[consultorios.size()];
+        for (int i = 0; i < ocupacion.length; i++) {
+            ocupacion[i] = consultorios.get(i).ocupacionDelDia(dia);
+        }
+        return ocupacion;
+    }
+
+    /**
+     * Obtiene los huecos en los que el medico no tiene citas activas
+     * @param idMedico ID del medico
+     * @param desde Inicio del rango
+     * @param hasta Fin del rango, excluido
+     * @return Huecos libres ordenados por fecha
+     */
+    public synchronized List<Intervalo> libresMedico(String idMedico, LocalDateTime desde, LocalDateTime hasta) {
+        LineaDeTiempo linea = activasPorMedico.get(idMedico);
+        return linea != null ? linea.libresEntre(desde, hasta) : List.of(new Intervalo(desde, hasta));
+    }
+
+    /**
+     * Obtiene los huecos en los que el consultorio no tiene citas activas
+     * @param numeroConsultorio Numero del consultorio
+     * @param desde Inicio del rango
+     * @param hasta Fin del rango, excluido
+     * @return Huecos libres ordenados por fecha
+     */
+    public synchronized List<Intervalo> libresConsultorio(String numeroConsultorio, LocalDateTime desde, LocalDateTime hasta) {
+        LineaDeTiempo linea = activasPorConsultorio.get(numeroConsultorio);
+        return linea != null ? linea.libresEntre(desde, hasta) : List.of(new Intervalo(desde, hasta));
+    }
+
+    /**
+     * Obtiene las citas no canceladas de un consultorio que empiezan desde una fecha
+     * @param numeroConsultorio Numero del consultorio
+     * @param desde Fecha desde la que se buscan las citas, incluida
+     * @return Lista ordenada por fecha con las citas del consultorio
+     */
+    public synchronized List<Cita> activasConsultorioDesde(String numeroConsultorio, LocalDateTime desde) {
+        LineaDeTiempo linea = activasPorConsultorio.get(numeroConsultorio);
+        return linea != null ? linea.entre(desde, null) : new ArrayList<>();
+    }
+
+    /**
+     * Obtiene una pagina de todas las citas, canceladas incluidas, ordenadas por fecha e ID
+     * @param despuesDe Clave de la ultima cita de la pagina anterior; null para la primera pagina
+     * @param limite Cantidad maxima de citas
+     * @return Citas de la pagina
+     */
+    public synchronized List<Cita> paginaCitas(ClaveCita despuesDe, int limite) {
+        return porFecha.despuesDe(despuesDe, limite, cita -> true);
+    }
+
+    /**
+     * Igual que {@link #paginaCitas(ClaveCita, int)} pero ubicando la pagina por posicion
+     * @param desde Posicion de la primera cita, empezando en 0
+     * @param limite Cantidad maxima de citas
+     * @return Citas de la pagina
+     */
+    public synchronized List<Cita> paginaCitas(int desde, int limite) {
+        return porFecha.enPosicion(desde, limite);
+    }
+
+    /**
+     * @return Cantidad de citas que tienen fecha, es decir las que se pueden paginar
+     */
+    public synchronized int tamanoPaginable() {
+        return porFecha.tamano();
+    }
+
+    /**
+     * Obtiene una pagina de las citas no canceladas de un medico, ordenadas por fecha
+     * @param idMedico ID del medico
+     * @param despuesDe Clave de la ultima cita de la pagina anterior; null para la primera pagina
+     * @param limite Cantidad maxima de citas
+     * @return Citas de la pagina
+     */
+    public synchronized List<Cita> paginaAgendaMedico(String idMedico, ClaveCita despuesDe, int limite) {
+        LineaDeTiempo linea = activasPorMedico.get(idMedico);
+        return linea != null ? linea.despuesDe(despuesDe, limite, cita -> true) : new ArrayList<>();
+    }
+
+    /**
+     * @param idMedico ID del medico
+     * @return Cantidad de citas no canceladas del medico
+     */
+    public synchronized int tamanoAgendaMedico(String idMedico) {
+        LineaDeTiempo linea = activasPorMedico.get(idMedico);
+        return linea != null ? linea.tamano() : 0;
+    }
+
+    /**
+     * Obtiene las citas de un paciente dentro de un rango de fechas, recorriendo solo las citas de ese paciente
+     * @param idPaciente ID del paciente
+     * @param desde Fecha minima, incluida; null para no poner limite (por ejemplo ahora, para las proximas)
+     * @param hasta Fecha maxima, excluida; null para no poner limite (por ejemplo ahora, para el historial)
+     * @param descendente true para ir de la cita mas tardia a la mas temprana
+     * @param filtro Condicion de las citas; null para aceptar todas, canceladas incluidas
+     * @return Lista nueva ordenada por fecha e ID
+     */
+    public synchronized List<Cita> citasPaciente(String idPaciente, LocalDateTime desde, LocalDateTime hasta,
+                                                 boolean descendente, Predicate<Cita> filtro) {
+        LineaDeTiempo linea = porPaciente.get(idPaciente);
+        if (linea == null) return new ArrayList<>();
+        return linea.consultar(desde, hasta, descendente, null, 0, Integer.MAX_VALUE, filtro);
+    }
+
+    /**
+     * Obtiene una pagina de las citas de un paciente que cumplen un filtro, ordenadas por fecha
+     * @param idPaciente ID del paciente
+     * @param filtro Condicion de las citas
+     * @param despuesDe Clave de la ultima cita de la pagina anterior; null para la primera pagina
+     * @param limite Cantidad maxima de citas
+     * @return Citas de la pagina
+     */
+    public synchronized List<Cita> paginaCitasPaciente(String idPaciente, Predicate<Cita> filtro, ClaveCita despuesDe, int limite) {
+        LineaDeTiempo linea = porPaciente.get(idPaciente);
+        return linea != null ? linea.despuesDe(despuesDe, limite, filtro) : new ArrayList<>();
+    }
+
+    /**
+     * @param estado Estado de las citas
+     * @return Cantidad de citas en ese estado, en O(1)
+     */
+    public synchronized int contarPorEstado(citaState estado) {
+        return estado != null ? conteoPorEstado.get(estado) : 0;
+    }
+
+    /**
+     * Carga de un medico dentro de una ventana, para repartir remisiones. Solo recorre las citas del
+     * medico en ese rango, asi las pendientes viejas que nadie cerro no cuentan
+     * @param idMedico ID del medico
+     * @param desde Inicio de la ventana, incluido
+     * @param hasta Fin de la ventana, excluido
+     * @return Minutos de las citas vigentes (pendientes, confirmadas o en atencion) del medico que empiezan
+     *         en la ventana
+     */
+    public synchronized int minutosReservados(String idMedico, LocalDateTime desde, LocalDateTime hasta) {
+        LineaDeTiempo linea = activasPorMedico.get(idMedico);
+        if (linea == null) return 0;
+        return linea.contar(desde, hasta, cita -> esVigente(cita.getEstadoCita())) * Cita.DURACION_MINUTOS;
+    }
+
+    /**
+     * @return Copia de la cantidad de citas en cada estado, con todos los estados presentes
+     */
+    public synchronized Map<citaState, Integer> conteoPorEstado() {
+        return new EnumMap<>(conteoPorEstado);
+    }
+
+    /**
+     * Cuenta las citas de cada estado que empiezan dentro de un rango, por ejemplo las de hoy.
+     * Los estados vigentes se cuentan en su propia linea; las canceladas y completadas se cuentan
+     * recorriendo solo las citas del rango
+     * @param desde Inicio del rango, incluido
+     * @param hasta Fin del rango, excluido
+     * @return Cantidad de citas de cada estado en el rango, con todos los estados presentes
+     */
+    public synchronized Map<citaState, Integer> conteoPorEstado(LocalDateTime desde, LocalDateTime hasta) {
+        EnumMap<citaState, Integer> conteo = new EnumMap<>(citaState.class);
+        for (citaState estado : citaState.values()) {
+            conteo.put(estado, 0);
+        }
+        for (Map.Entry<citaState, LineaDeTiempo> linea : vigentesPorEstado.entrySet()) {
+            conteo.put(linea.getKey(), linea.getValue().contar(desde, hasta, null));
+        }
+        for (Cita cita : porFecha.entre(desde, hasta)) {
+            if (!esVigente(cita.getEstadoCita())) {
+                conteo.merge(cita.getEstadoCita(), 1, Integer::sum);
+            }
+        }
+        return conteo;
+    }
+
+    /**
+     * Obtiene las citas de un estado ordenadas por fecha. Para los estados vigentes solo se recorren
+     * las citas de ese estado, nunca el historial de canceladas y completadas
+     * @param estado Estado de las citas
+     * @param desde Fecha minima, incluida; null para no poner limite
+     * @param hasta Fecha maxima, excluida; null para no poner limite
+     * @return Lista nueva ordenada por fecha e ID
+     */
+    public synchronized List<Cita> citasPorEstado(citaState estado, LocalDateTime desde, LocalDateTime hasta) {
+        LineaDeTiempo linea = vigentesPorEstado.get(estado);
+        if (linea != null) {
+            return linea.consultar(desde, hasta, false, null, 0, Integer.MAX_VALUE, null);
+        }
+        return porFecha.consultar(desde, hasta, false, null, 0, Integer.MAX_VALUE, cita -> cita.getEstadoCita() == estado);
+    }
+
+    /**
+     * Obtiene una pagina de las citas que cumplen un filtro, recorriendo todas las citas en orden de fecha
+     * hasta llenar la pagina
+     * @param filtro Condicion de las citas
+     * @param despuesDe Clave de la ultima cita de la pagina anterior; null para la primera pagina
+     * @param limite Cantidad maxima de citas
+     * @return Citas de la pagina
+     */
+    public synchronized List<Cita> paginaFiltrada(Predicate<Cita> filtro, ClaveCita despuesDe, int limite) {
+        return porFecha.despuesDe(despuesDe, limite, filtro);
+    }
+
+    /**
+     * Consulta una pagina de citas que cumplen un filtro. Se recorre solo el indice mas chico que puede
+     * contener las citas pedidas: el del paciente, el del medico o el del estado; sin esas condiciones,
+     * todas las citas del rango de fechas
+     * @param filtro Condiciones y orden de la consulta
+     * @param despuesDe Clave de la ultima cita ya vista en el orden del filtro; null para empezar por el principio
+     * @param saltar Cantidad de citas a saltar despues del cursor
+     * @param limite Cantidad maxima de citas
+     * @return Citas de la pagina
+     */
+    public synchronized List<Cita> consultar(FiltroCitas filtro, ClaveCita despuesDe, int saltar, int limite) {
+        LineaDeTiempo linea = lineaPara(filtro);
+        if (linea == null) return new ArrayList<>();
+        return linea.consultar(filtro.getDesde(), filtro.getHasta(), filtro.isDescendente(),
+                despuesDe, saltar, limite, filtro.revisaCitas() ? filtro::acepta : null);
+    }
+
+    /**
+     * Si el filtro solo pide un estado se lee su contador en O(1); si no, se cuenta sobre el indice mas chico
+     * @param filtro Condiciones de la consulta
+     * @return Cantidad de citas que cumplen el filtro
+     */
+    public synchronized int contar(FiltroCitas filtro) {
+        if (filtro.getEstado() != null && filtro.getIdMedico() == null && filtro.getIdPaciente() == null
+                && filtro.getDesde() == null && filtro.getHasta() == null) {
+            return conteoPorEstado.get(filtro.getEstado());
+        }
+        LineaDeTiempo linea = lineaPara(filtro);
+        if (linea == null) return 0;
+        return linea.contar(filtro.getDesde(), filtro.getHasta(), filtro.revisaCitas() ? filtro::acepta : null);
+    }
+
+    /**
+     * Elige el indice mas chico que contiene todas las citas que pueden cumplir el filtro.
+     * Devuelve null si el filtro pide un medico o paciente sin citas
+     */
+    private LineaDeTiempo lineaPara(FiltroCitas filtro) {
+        LineaDeTiempo elegida = porFecha;
+        if (filtro.getIdPaciente() != null) {
+            LineaDeTiempo delPaciente = porPaciente.get(filtro.getIdPaciente());
+            if (delPaciente == null) return null;
+            elegida = masChica(elegida, delPaciente);
+        }
+        if (filtro.getIdMedico() != null) {
+            boolean soloActivas = filtro.getEstado() != null && estaActiva(filtro.getEstado());
+            LineaDeTiempo delMedico = (soloActivas ? activasPorMedico : porMedico).get(filtro.getIdMedico());
+            if (delMedico == null) return null;
+            elegida = masChica(elegida, delMedico);
+        }
+        if (filtro.getEstado() != null && esVigente(filtro.getEstado())) {
+            elegida = masChica(elegida, vigentesPorEstado.get(filtro.getEstado()));
+        }
+        return elegida;
+    }
+
+    private static LineaDeTiempo masChica(LineaDeTiempo una, LineaDeTiempo otra) {
+        return otra.tamano() < una.tamano() ? otra : una;
+    }
+
+    @Override
+    public synchronized void fechaCambiada(Cita cita, LocalDateTime fechaAnterior) {
+        porFecha.quitar(cita, fechaAnterior);
+        porFecha.agregar(cita);
+        if (cita.getPaciente() != null) {
+            LineaDeTiempo delPaciente = porPaciente.computeIfAbsent(cita.getPaciente().getId(), k -> new LineaDeTiempo());
+            delPaciente.quitar(cita, fechaAnterior);
+            delPaciente.agregar(cita);
+        }
+        if (cita.getMedico() != null) {
+            LineaDeTiempo delMedico = porMedico.computeIfAbsent(cita.getMedico().getId(), k -> new LineaDeTiempo());
+            delMedico.quitar(cita, fechaAnterior);
+            delMedico.agregar(cita);
+        }
+        LineaDeTiempo delEstado = vigentesPorEstado.get(cita.getEstadoCita());
+        if (delEstado != null) {
+            delEstado.quitar(cita, fechaAnterior);
+            delEstado.agregar(cita);
+        }
+        if (cita.getMedico() != null) {
+            cita.getMedico().reubicarCita(cita);
+        }
+        if (!estaActiva(cita.getEstadoCita())) return;
+        desindexar(cita, fechaAnterior);
+        indexar(cita);
+    }
+
+    @Override
+    public synchronized void estadoCambiado(Cita cita, citaState estadoAnterior) {
+        salirDeEstado(cita, estadoAnterior);
+        entrarEnEstado(cita, cita.getEstadoCita());
+        boolean antes = estaActiva(estadoAnterior);
+        boolean ahora = estaActiva(cita.getEstadoCita());
+        if (antes && !ahora) {
+            desindexar(cita, cita.getFecha());
+        } else if (!antes && ahora) {
+            indexar(cita);
+        }
+    }
+
+    private void entrarEnEstado(Cita cita, citaState estado) {
+        if (estado == null) return;
+        conteoPorEstado.merge(estado, 1, Integer::sum);
+        LineaDeTiempo linea = vigentesPorEstado.get(estado);
+        if (linea != null) {
+            linea.agregar(cita);
+        }
+    }
+
+    private void salirDeEstado(Cita cita, citaState estado) {
+        if (estado == null) return;
+        conteoPorEstado.merge(estado, -1, Integer::sum);
+        LineaDeTiempo linea = vigentesPorEstado.get(estado);
+        if (linea != null) {
+            linea.quitar(cita, cita.getFecha());
+        }
+    }
+
+    /**
+     * Una cita esta vigente mientras todavia puede cambiar de estado; las canceladas y completadas son historial
+     */
+    private static boolean esVigente(citaState estado) {
+        return estado != citaState.CANCELADA && estado != citaState.COMPLETADA;
+    }
+
+    /**
+     * Una cita ocupa el horario del medico mientras no este cancelada
+     */
+    private static boolean estaActiva(citaState estado) {
+        return estado != citaState.CANCELADA;
+    }
+
+    private void indexar(Cita cita) {
+        if (cita.getMedico() != null) {
+            activasPorMedico.computeIfAbsent(cita.getMedico().getId(), k -> new LineaDeTiempo()).agregar(cita);
+        }
+        Consultorio consultorio = cita.getConsultorio();
+        if (consultorio != null && cita.getFecha() != null) {
+            activasPorConsultorio.computeIfAbsent(consultorio.getNumero(), k -> new LineaDeTiempo()).agregar(cita);
+            consultorio.marcarOcupado(cita.getFecha());
+        }
+    }
+
+    private void desindexar(Cita cita, LocalDateTime fecha) {
+        if (cita.getMedico() != null) {
+            LineaDeTiempo linea = activasPorMedico.get(cita.getMedico().getId());
+            if (linea != null) {
+                linea.quitar(cita, fecha);
+            }
+        }
+        Consultorio consultorio = cita.getConsultorio();
+        LineaDeTiempo linea = consultorio != null ? activasPorConsultorio.get(consultorio.getNumero()) : null;
+        if (linea != null && linea.quitar(cita, fecha)) {
+            // Una franja puede tener varias citas, asi que los dias que tocaba la cita se recalculan
+            LocalDate primerDia = fecha.toLocalDate();
+            LocalDate ultimoDia = fecha.plusMinutes(Cita.DURACION_MINUTOS).toLocalDate();
+            for (LocalDate dia = primerDia; !dia.isAfter(ultimoDia); dia = dia.plusDays(1)) {
+                consultorio.limpiarDia(dia);
+                LocalDateTime inicioDia = dia.atStartOfDay();
+                for (Cita otra : linea.entre(inicioDia.minusMinutes(Cita.DURACION_MINUTOS), inicioDia.plusDays(1))) {
+                    consultorio.marcarOcupado(otra.getFecha());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Clave de ordenamiento de una cita: primero por fecha y luego por ID.
+ * <p>
+ *     Dos citas a la misma hora quedan como entradas distintas. Una clave con ID null
+ *     queda antes de cualquier cita con la misma fecha, por lo que sirve como cota inferior
+ *     en las busquedas por rango.
+ * </p>
+ */
+public final class ClaveCita implements Comparable<ClaveCita> {
+    private final LocalDateTime fecha;
+    private final String id;
+
+    /**
+     * @param fecha Fecha de inicio de la cita
+     * @param id ID de la cita, null para usar la clave como cota inferior
+     */
+    public ClaveCita(LocalDateTime fecha, String id) {
+        this.fecha = Objects.requireNonNull(fecha, "fecha");
+        this.id = id;
+    }
+
+    /**
+     * @param cita Cita con fecha asignada
+     * @return Clave de la cita con su fecha actual
+     */
+    public static ClaveCita de(Cita cita) {
+        return new ClaveCita(cita.getFecha(), cita.getId() != null ? cita.getId() : "");
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public int compareTo(ClaveCita otra) {
+        int porFecha = fecha.compareTo(otra.fecha);
+        if (porFecha != 0) return porFecha;
+        if (id == null) return otra.id == null ? 0 : -1;
+        if (otra.id == null) return 1;
+        return id.compareTo(otra.id);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ClaveCita)) return false;
+        ClaveCita otra = (ClaveCita) o;
+        return fecha.equals(otra.fecha) && Objects.equals(id, otra.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fecha, id);
+    }
+
+    @Override
+    public String toString() {
+        return fecha + "/" + id;
+    }
+}
@@ -1,15 +1,33 @@
 package modelo;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Clase que representa al consultorio dentro del sistema medico
  *
  * Cada consultorio recibe un numero que funciona como identificador(ID),
  * una disponibilidad y una ubicacion que representa un espacio fisico.
+ *
+ * <p>
+ *     Tambien lleva un calendario de ocupacion: por cada dia un long en el que el bit i indica
+ *     que la franja de 30 minutos numero i (00:00, 00:30, ...) tiene al menos una cita activa.
+ *     Lo mantiene el repositorio de citas.
+ * </p>
  */
 public class Consultorio {
+    /**
+     * Cantidad de franjas de {@link Cita#DURACION_MINUTOS} minutos en un dia
+     */
+    public static final int FRANJAS_POR_DIA = 24 * 60 / Cita.DURACION_MINUTOS;
+
     private String numero;
     private boolean disponibilidad;
     private String ubicacion;
+    private final Map<LocalDate, Long> ocupacionPorDia = new HashMap<>();
+    private String descripcion;
 
     /**
      * Constructor de la clase Consultorio.
@@ -47,6 +65,69 @@ public class Consultorio {
         return ubicacion;
     }
 
+    /**
+     * Obtiene las franjas ocupadas de un dia
+     * @param dia Dia a consultar
+     * @return long cuyo bit i esta encendido si la franja i tiene alguna cita activa
+     */
+    public long ocupacionDelDia(LocalDate dia) {
+        return ocupacionPorDia.getOrDefault(dia, 0L);
+    }
+
+    /**
+     * @param fechaHora Hora a convertir
+     * @return Numero de la franja de 30 minutos que contiene esa hora
+     */
+    public static int franja(LocalDateTime fechaHora) {
+        return (fechaHora.getHour() * 60 + fechaHora.getMinute()) / Cita.DURACION_MINUTOS;
+    }
+
+    /**
+     * Indica si todas las franjas que toca un turno que empieza en inicio estan vacias.
+     * Si devuelve true el consultorio esta libre con seguridad; si devuelve false puede
+     * haber un choque y hay que revisarlo con las citas.
+     * @param inicio Inicio del turno
+     * @return true si el turno no toca ninguna franja ocupada
+     */
+    boolean franjasLibres(LocalDateTime inicio) {
+        if ((ocupacionDelDia(inicio.toLocalDate()) & (1L << franja(inicio))) != 0) {
+            return false;
+        }
+        if (!alineado(inicio)) {
+            LocalDateTime siguiente = inicio.plusMinutes(Cita.DURACION_MINUTOS);
+            return (ocupacionDelDia(siguiente.toLocalDate()) & (1L << franja(siguiente))) == 0;
+        }
+        return true;
+    }
+
+    /**
+     * Enciende las franjas que toca un turno que empieza en inicio
+     * @param inicio Inicio del turno
+     */
+    void marcarOcupado(LocalDateTime inicio) {
+        encender(inicio);
+        if (!alineado(inicio)) {
+            encender(inicio.plusMinutes(Cita.DURACION_MINUTOS));
+        }
+    }
+
+    /**
+     * Borra las franjas de un dia para que el repositorio las vuelva a marcar
+     * @param dia Dia a limpiar
+     */
+    void limpiarDia(LocalDate dia) {
+        ocupacionPorDia.remove(dia);
+    }
+
+    private void encender(LocalDateTime fechaHora) {
+        ocupacionPorDia.merge(fechaHora.toLocalDate(), 1L << franja(fechaHora), (a, b) -> a | b);
+    }
+
+    private static boolean alineado(LocalDateTime fechaHora) {
+        return fechaHora.getMinute() % Cita.DURACION_MINUTOS == 0
+                && fechaHora.getSecond() == 0 && fechaHora.getNano() == 0;
+    }
+
     /**
      * Convierte todos los datos del consultorio en formato CSV para guardarlo en el archivo.
      * @return String en formato csv
@@ -63,9 +144,16 @@ public class Consultorio {
      */
     public static Consultorio fromCSV(String csv){
         if(csv == null || csv.trim().isEmpty()) return null;
+        return fromCampos(csv.split(";", -1));
+    }
 
+    /**
+     * Crea un consultorio con los campos de una linea ya separada
+     * @param linea Campos numero, ubicacion y disponibilidad
+     * @return Consultorio con esos datos, o null si faltan campos
+     */
+    public static Consultorio fromCampos(String[] linea){
         try {
-            String[] linea = csv.split(";", -1);
             if (linea.length < 3) return null;
 
             String numero = linea[0].trim();
@@ -84,10 +172,16 @@ public class Consultorio {
      */
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append(numero).append("\n");
-        sb.append("Ubicación: ").append(ubicacion).append(" ");
-        sb.append("~~~ Estado: ").append(disponibilidad ? "Disponible" : "Ocupado").append("\n");
-        return sb.toString();
+        // Numero, ubicacion y disponibilidad no cambian, el texto se arma una sola vez
+        String texto = descripcion;
+        if (texto == null) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(numero).append("\n");
+            sb.append("Ubicación: ").append(ubicacion).append(" ");
+            sb.append("~~~ Estado: ").append(disponibilidad ? "Disponible" : "Ocupado").append("\n");
+            texto = sb.toString();
+            descripcion = texto;
+        }
+        return texto;
     }
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reescribe archivos completos sin dejarlos a medio escribir si el programa se cae.
+ * <p>
+ *     El contenido se escribe en un archivo temporal junto al destino, se pasa a disco si la
+ *     {@link PoliticaFsync} lo pide y luego reemplaza al destino con un movimiento atomico. Despues
+ *     del movimiento, con la misma condicion, se pasa a disco el directorio para que el cambio de nombre sobreviva
+ *     a una caida. Si algo falla el destino queda como estaba; ante una caida del equipo esto solo se
+ *     garantiza cuando la politica pasa el temporal a disco.
+ * </p>
+ */
+public final class EscrituraAtomica {
+    private static final String EXTENSION_TEMPORAL = ".tmp";
+
+    /**
+     * Contenido a escribir en el archivo temporal
+     */
+    @FunctionalInterface
+    public interface Contenido {
+        void escribir(Writer escritor) throws IOException;
+    }
+
+    private EscrituraAtomica() { }
+
+    /**
+     * @param destino Archivo a reemplazar; su directorio se crea si no existe
+     * @param juegoCaracteres Codificacion del texto; los caracteres que no puede representar se escriben
+     *                        como el caracter de reemplazo, igual que un FileWriter
+     * @param politica Si se espera a que el archivo y el directorio lleguen a disco
+     * @param contenido Escribe el contenido completo del archivo
+     * @return Bytes escritos
+     * @throws IOException si no se pudo escribir o mover el temporal; el destino no cambia
+     */
+    public static long escribir(Path destino, Charset juegoCaracteres, PoliticaFsync politica, Contenido contenido)
+            throws IOException {
+        Path directorio = destino.toAbsolutePath().getParent();
+        Files.createDirectories(directorio);
+        Path temporal = destino.resolveSibling(destino.getFileName() + EXTENSION_TEMPORAL);
+        long bytes;
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            CharsetEncoder codificador = juegoCaracteres.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            Writer escritor = new BufferedWriter(Channels.newWriter(canal, codificador, -1));
+            contenido.escribir(escritor);
+            escritor.flush();
+            bytes = canal.size();
+            if (politica.sincronizaArchivos()) {
+                canal.force(false);
+            }
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(temporal);
+            throw ex;
+        }
+        Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (politica.sincronizaArchivos()) {
+            sincronizarDirectorio(directorio);
+        }
+        return bytes;
+    }
+
+    /**
+     * Pasa a disco las entradas de un directorio. No todos los sistemas permiten abrir un directorio;
+     * en esos casos no se hace nada.
+     */
+    public static void sincronizarDirectorio(Path directorio) {
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException ignored) { }
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Condiciones para consultar citas en el repositorio.
+ * <p>
+ *     El rango de fechas y el orden se resuelven sobre los indices ordenados por fecha. El paciente, el
+ *     medico y los estados vigentes tienen cada uno su indice (el del medico sin canceladas cuando se
+ *     pide un estado activo) y se recorre el mas chico de los que aplican. El resto de las condiciones
+ *     se revisa cita por cita dentro de ese rango. Los campos null no filtran.
+ * </p>
+ */
+public final class FiltroCitas {
+    private static final FiltroCitas TODAS = new FiltroCitas(null, null, null, null, null, false);
+
+    private final String idMedico;
+    private final String idPaciente;
+    private final citaState estado;
+    private final LocalDateTime desde;
+    private final LocalDateTime hasta;
+    private final boolean descendente;
+
+    /**
+     * @param idMedico ID del medico de las citas
+     * @param idPaciente ID del paciente de las citas
+     * @param estado Estado de las citas
+     * @param desde Fecha minima, incluida
+     * @param hasta Fecha maxima, excluida
+     * @param descendente true para ordenar de la cita mas tardia a la mas temprana
+     */
+    public FiltroCitas(String idMedico, String idPaciente, citaState estado,
+                       LocalDateTime desde, LocalDateTime hasta, boolean descendente) {
+        this.idMedico = idMedico;
+        this.idPaciente = idPaciente;
+        this.estado = estado;
+        this.desde = desde;
+        this.hasta = hasta;
+        this.descendente = descendente;
+    }
+
+    /**
+     * @return Filtro que acepta todas las citas ordenadas por fecha ascendente
+     */
+    public static FiltroCitas todas() {
+        return TODAS;
+    }
+
+    public String getIdMedico() {
+        return idMedico;
+    }
+
+    public String getIdPaciente() {
+        return idPaciente;
+    }
+
+    public citaState getEstado() {
+        return estado;
+    }
+
+    public LocalDateTime getDesde() {
+        return desde;
+    }
+
+    public LocalDateTime getHasta() {
+        return hasta;
+    }
+
+    public boolean isDescendente() {
+        return descendente;
+    }
+
+    /**
+     * @return true si alguna condicion se revisa cita por cita, fuera del rango de fechas
+     */
+    public boolean revisaCitas() {
+        return idMedico != null || idPaciente != null || estado != null;
+    }
+
+    /**
+     * Revisa las condiciones de medico, paciente y estado; el rango de fechas lo aplica el indice
+     * @param cita Cita a revisar
+     * @return true si la cita cumple el filtro
+     */
+    public boolean acepta(Cita cita) {
+        if (idMedico != null && (cita.getMedico() == null || !idMedico.equals(cita.getMedico().getId()))) return false;
+        if (idPaciente != null && (cita.getPaciente() == null || !idPaciente.equals(cita.getPaciente().getId()))) return false;
+        return estado == null || estado == cita.getEstadoCita();
+    }
+}
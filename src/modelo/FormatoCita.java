@@ -0,0 +1,142 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe la informacion de las citas en un texto que entrega quien llama.
+ * <p>
+ *     Los listados reutilizan un mismo {@link StringBuilder} para todas las filas: las fechas se
+ *     escriben digito por digito y los textos de usuarios y consultorios ya vienen armados
+ *     ({@link Usuario#nombreCompleto()}, {@link Consultorio#toString()}), asi escribir una cita
+ *     no crea objetos mientras el texto tenga capacidad.
+ * </p>
+ * Tambien reune los formatos de fecha del sistema para que no se creen en cada uso.
+ */
+public final class FormatoCita {
+    /**
+     * Formato con el que se leen y escriben las fechas de las citas
+     */
+    public static final DateTimeFormatter FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    /**
+     * Linea que separa las citas en los listados de texto
+     */
+    public static final String SEPARADOR = "-".repeat(70);
+
+    private FormatoCita() {
+    }
+
+    /**
+     * Escribe la ficha completa de una cita, igual a {@link Cita#toString()}
+     * @param cita Cita a escribir
+     * @param destino Texto al que se agrega la ficha
+     */
+    public static void escribirTarjeta(Cita cita, StringBuilder destino) {
+        try {
+            escribirTarjeta(cita, (Appendable) destino);
+        } catch (IOException e) {
+            // StringBuilder nunca lanza IOException
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escribe la ficha completa de una cita en cualquier destino de texto
+     * @param cita Cita a escribir
+     * @param destino Destino al que se agrega la ficha
+     * @throws IOException si el destino falla al escribir
+     */
+    public static void escribirTarjeta(Cita cita, Appendable destino) throws IOException {
+        destino.append("ID Cita: ").append(cita.getId()).append('\n');
+        destino.append("Fecha: ");
+        escribirFecha(cita.getFecha(), true, destino);
+        destino.append('\n');
+        destino.append("Estado: ").append(cita.getEstadoCita().name()).append('\n');
+        destino.append("Paciente: ").append(cita.getPaciente().nombreCompleto()).append('\n');
+        destino.append("Historia clinica: ").append(cita.getPaciente().getHistoriaClinica()).append('\n');
+        destino.append("Medico: Dr(a). ").append(cita.getMedico().nombreCompleto()).append('\n');
+        destino.append("Especialidad del medico: ").append(cita.getMedico().getEspecialidad()).append('\n');
+        destino.append("Consultorio: ").append(cita.getConsultorio().toString());
+        destino.append("Motivos: ").append(cita.getMotivo()).append('\n');
+
+        if (!cita.getDiagnostico().isEmpty()) {
+            destino.append("Diagnostico: ").append(cita.getDiagnostico()).append('\n');
+        }
+        if (!cita.getObservaciones().isEmpty()) {
+            destino.append("Observaciones: ").append(cita.getObservaciones()).append('\n');
+        }
+        if (!cita.getTratamiento().isEmpty()) {
+            destino.append("Tratamiento: ").append(cita.getTratamiento()).append('\n');
+        }
+    }
+
+    /**
+     * Igual que {@link #escribirFecha(LocalDateTime, boolean, Appendable)} para un {@link StringBuilder}
+     */
+    public static void escribirFecha(LocalDateTime fecha, boolean conSegundos, StringBuilder destino) {
+        try {
+            escribirFecha(fecha, conSegundos, (Appendable) destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Igual que {@link #escribirHora(LocalDateTime, Appendable)} para un {@link StringBuilder}
+     */
+    public static void escribirHora(LocalDateTime fecha, StringBuilder destino) {
+        try {
+            escribirHora(fecha, (Appendable) destino);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Escribe una fecha como dd/MM/yyyy HH:mm, o dd/MM/yyyy HH:mm:ss si se piden segundos
+     * @param fecha Fecha a escribir
+     * @param conSegundos true para agregar los segundos
+     * @param destino Destino al que se agrega la fecha
+     * @throws IOException si el destino falla al escribir
+     */
+    public static void escribirFecha(LocalDateTime fecha, boolean conSegundos, Appendable destino) throws IOException {
+        dosDigitos(fecha.getDayOfMonth(), destino);
+        destino.append('/');
+        dosDigitos(fecha.getMonthValue(), destino);
+        destino.append('/');
+        int anio = fecha.getYear();
+        dosDigitos(anio / 100, destino);
+        dosDigitos(anio % 100, destino);
+        destino.append(' ');
+        escribirHora(fecha, destino);
+        if (conSegundos) {
+            destino.append(':');
+            dosDigitos(fecha.getSecond(), destino);
+        }
+    }
+
+    /**
+     * Escribe solo la hora de una fecha como HH:mm
+     * @param fecha Fecha de la que se toma la hora
+     * @param destino Destino al que se agrega la hora
+     * @throws IOException si el destino falla al escribir
+     */
+    public static void escribirHora(LocalDateTime fecha, Appendable destino) throws IOException {
+        dosDigitos(fecha.getHour(), destino);
+        destino.append(':');
+        dosDigitos(fecha.getMinute(), destino);
+    }
+
+    private static void dosDigitos(int valor, Appendable destino) throws IOException {
+        destino.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+}
@@ -6,161 +6,540 @@
 
 package modelo;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Gestiona los usuarios y consultorios del sistema y da acceso al repositorio de citas.
+ * <p>
+ *     Puede usarse desde varios hilos: las listas son copy-on-write y los indices concurrentes,
+ *     asi que las lecturas no bloquean; los registros se serializan para que listas e indices
+ *     cambien juntos.
+ * </p>
+ * <p>
+ *     Cada registro marca el archivo de su tipo como modificado y {@link #guardarEnArchivo()} solo
+ *     reescribe los archivos marcados. {@link #guardarCambios()} agrupa los cambios que llegan dentro de
+ *     una ventana de tiempo en una sola escritura; la ventana se configura con la propiedad del sistema
+ *     usuarios.guardado.ventanaMs (por defecto 5, 0 escribe en el hilo que llama).
+ * </p>
+ * <p>
+ *     Cada archivo se reemplaza completo con {@link EscrituraAtomica}, asi una caida durante la
+ *     escritura deja la version anterior; la {@link PoliticaFsync} decide si se espera al disco.
+ * </p>
+ */
 public class GestionarUsuario {
+    public static final long VENTANA_GUARDADO_POR_DEFECTO = 5;
+
+    /**
+     * Archivos de usuarios y consultorios que se pueden marcar como modificados
+     */
+    private enum Conjunto { PACIENTES, MEDICOS, RECEPCIONISTAS, CONSULTORIOS }
+
     private List<Paciente> pacientes;
     private List<Medico> medicos;
     private List<Recepcionista> recepcionistas;
-    private List<Cita> citas;
+    private final CitaRepository citaRepository;
     private List<Consultorio> consultorios;
-    private final String archivoPacientes = "./archivos/pacientes.txt";
-    private final String archivoMedicos = "./archivos/medicos.txt";
-    private final String archivoRecepcionistas = "./archivos/recepcionistas.txt";
-    private final String archivoCitas = "./archivos/citas.txt";
-    private final String archivoConsultorios = "./archivos/consultorios.txt";
+
+    // Indices por ID de cada rol y uno comun a todos los usuarios, para buscar en O(1)
+    private final Map<String, Paciente> pacientesPorId;
+    private final Map<String, Medico> medicosPorId;
+    private final Map<String, Recepcionista> recepcionistasPorId;
+    private final Map<String, Consultorio> consultoriosPorNumero;
+    private final Map<String, Usuario> usuariosPorId;
+    // Especialidad normalizada -> medicos de esa especialidad, en orden de registro
+    private final Map<String, List<Medico>> medicosPorEspecialidad;
+
+    /**
+     * Nombres de los archivos de cada tipo de registro dentro del directorio de archivos
+     */
+    public static final String ARCHIVO_PACIENTES = "pacientes.txt";
+    public static final String ARCHIVO_MEDICOS = "medicos.txt";
+    public static final String ARCHIVO_RECEPCIONISTAS = "recepcionistas.txt";
+    public static final String ARCHIVO_CONSULTORIOS = "consultorios.txt";
+
+    // Bytes de cada trozo de archivo que se convierte por separado
+    private static final int BYTES_POR_TROZO = 1 << 20;
+
+    private final String directorioArchivos;
+    private final String archivoPacientes;
+    private final String archivoMedicos;
+    private final String archivoRecepcionistas;
+    private final String archivoConsultorios;
+
+    // Conjuntos con cambios que aun no se escriben; protegido por this
+    private final Set<Conjunto> modificados;
+    // Solo un hilo escribe a la vez, asi el ultimo archivo escrito siempre tiene el estado mas reciente
+    private final Object escritura;
+    private final long ventanaGuardado;
+    private final PoliticaFsync politicaFsync;
+    private ScheduledExecutorService guardador;
+    private CompletableFuture<Void> lotePendiente;
+
+    /**
+     * Archivo donde se guardaban las citas antes del repositorio unico; solo se lee
+     * una vez para migrarlo al almacen de citas.
+     */
+    public static final String ARCHIVO_CITAS_ANTERIOR = "./archivos/citas.txt";
 
     public GestionarUsuario() {
-        pacientes = new ArrayList<>();
-        medicos = new ArrayList<>();
-        recepcionistas = new ArrayList<>();
-        citas = new ArrayList<>();
-        consultorios = new ArrayList<>();
+        this("./archivos");
     }
 
-    public void cargarDesdeArchivo() {
-        cargarArchivoPacientes();
-        cargarArchivoMedicos();
-        cargarArchivoRecepcionistas();
-        cargarArchivoConsultorios();
-        cargarArchivoCitas();
+    /**
+     * @param directorioArchivos Directorio donde estan los archivos de usuarios y consultorios
+     */
+    public GestionarUsuario(String directorioArchivos) {
+        this(directorioArchivos, Long.getLong("usuarios.guardado.ventanaMs", VENTANA_GUARDADO_POR_DEFECTO),
+                PoliticaFsync.configurada());
     }
 
-    private void cargarArchivoPacientes() {
-        cargarArchivo(archivoPacientes, pacientes, Paciente::fromCSV);
+    /**
+     * @param directorioArchivos Directorio donde estan los archivos de usuarios y consultorios
+     * @param ventanaGuardado Milisegundos que {@link #guardarCambios()} espera para agrupar cambios; 0 o
+     *                        negativo escribe de inmediato
+     * @param politicaFsync Si cada archivo reescrito se espera hasta que llegue a disco
+     */
+    public GestionarUsuario(String directorioArchivos, long ventanaGuardado, PoliticaFsync politicaFsync) {
+        this.directorioArchivos = directorioArchivos;
+        this.ventanaGuardado = ventanaGuardado;
+        this.politicaFsync = politicaFsync;
+        this.modificados = EnumSet.noneOf(Conjunto.class);
+        this.escritura = new Object();
+        archivoPacientes = directorioArchivos + "/" + ARCHIVO_PACIENTES;
+        archivoMedicos = directorioArchivos + "/" + ARCHIVO_MEDICOS;
+        archivoRecepcionistas = directorioArchivos + "/" + ARCHIVO_RECEPCIONISTAS;
+        archivoConsultorios = directorioArchivos + "/" + ARCHIVO_CONSULTORIOS;
+        pacientes = new CopyOnWriteArrayList<>();
+        medicos = new CopyOnWriteArrayList<>();
+        recepcionistas = new CopyOnWriteArrayList<>();
+        citaRepository = new CitaRepository();
+        consultorios = new CopyOnWriteArrayList<>();
+        pacientesPorId = new ConcurrentHashMap<>();
+        medicosPorId = new ConcurrentHashMap<>();
+        recepcionistasPorId = new ConcurrentHashMap<>();
+        consultoriosPorNumero = new ConcurrentHashMap<>();
+        usuariosPorId = new ConcurrentHashMap<>();
+        medicosPorEspecialidad = new ConcurrentHashMap<>();
     }
 
-    private void cargarArchivoMedicos() {
-        cargarArchivo(archivoMedicos, medicos, Medico::fromCSV);
+    /**
+     * Carga los usuarios y consultorios. Las citas las carga el almacen de citas.
+     * <p>
+     *     Los cuatro archivos se leen a la vez por trozos con {@link LectorCsv}, y los trozos
+     *     de cada uno se convierten en el pool fork-join comun. Cuando todos terminan, los registros se agregan a las listas e indices
+     *     en un solo paso por tipo, en el mismo orden que antes (pacientes, medicos, recepcionistas y
+     *     consultorios), asi un ID repetido entre roles se queda con el primero.
+     * </p>
+     * @return Duracion de la lectura de cada archivo y del registro
+     */
+    public TiemposCarga cargarDesdeArchivo() {
+        TiemposCarga tiempos = new TiemposCarga();
+        long inicio = System.nanoTime();
+        CompletableFuture<List<Paciente>> pacientesLeidos = leerArchivo(archivoPacientes, Paciente::fromCampos, tiempos);
+        CompletableFuture<List<Medico>> medicosLeidos = leerArchivo(archivoMedicos, Medico::fromCampos, tiempos);
+        CompletableFuture<List<Recepcionista>> recepcionistasLeidos =
+                leerArchivo(archivoRecepcionistas, Recepcionista::fromCampos, tiempos);
+        CompletableFuture<List<Consultorio>> consultoriosLeidos =
+                leerArchivo(archivoConsultorios, Consultorio::fromCampos, tiempos);
+
+        CompletableFuture.allOf(pacientesLeidos, medicosLeidos, recepcionistasLeidos, consultoriosLeidos).join();
+
+        tiempos.medir("usuarios: registro", () -> {
+            registrarUsuarios(pacientesLeidos.join(), pacientesPorId, pacientes);
+            indexarEspecialidades(registrarUsuarios(medicosLeidos.join(), medicosPorId, medicos));
+            registrarUsuarios(recepcionistasLeidos.join(), recepcionistasPorId, recepcionistas);
+            registrarConsultorios(consultoriosLeidos.join());
+        });
+        tiempos.registrar("usuarios: total", Duration.ofNanos(System.nanoTime() - inicio));
+        return tiempos;
     }
 
-    private void cargarArchivoRecepcionistas() {
-        cargarArchivo(archivoRecepcionistas, recepcionistas, Recepcionista::fromCSV);
+    /**
+     * Lee un archivo en segundo plano y convierte sus trozos en paralelo
+     * @param creador Conversion de los campos de una linea; devuelve null si la linea no es valida
+     * @return Futuro con los objetos validos en el orden del archivo
+     */
+    private <T> CompletableFuture<List<T>> leerArchivo(String archivo, Function<String[], T> creador, TiemposCarga tiempos) {
+        String fase = "usuarios: " + new File(archivo).getName();
+        return CompletableFuture.supplyAsync(() -> tiempos.medir(fase, () -> {
+            Path ruta = Paths.get(archivo);
+            if (!Files.exists(ruta)) return Collections.<T>emptyList();
+
+            List<ByteBuffer> trozos;
+            try {
+                trozos = LectorCsv.trozos(ruta, BYTES_POR_TROZO);
+            } catch (IOException ex) {
+                System.out.println("Error al cargar archivo " + archivo);
+                return Collections.<T>emptyList();
+            }
+            Stream<ByteBuffer> flujo = trozos.size() > 1 ? trozos.parallelStream() : trozos.stream();
+            return flujo.flatMap(trozo -> convertir(trozo, creador).stream())
+                    .collect(Collectors.toList());
+        }), ForkJoinPool.commonPool());
     }
 
-    private void cargarArchivoCitas() {
-        File file = new File(archivoCitas);
-        if (!file.exists()) return;
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String linea;
-            while ((linea = br.readLine()) != null) {
-                if (linea.trim().isEmpty()) continue;
-                Cita c = Cita.fromCSV(linea, this);
-                if (c != null) citas.add(c);
+    private static <T> List<T> convertir(ByteBuffer trozo, Function<String[], T> creador) {
+        List<T> convertidos = new ArrayList<>();
+        LectorCsv lector = new LectorCsv(trozo, Charset.defaultCharset());
+        while (lector.siguienteLinea()) {
+            T convertido = creador.apply(lector.campos());
+            if (convertido != null) {
+                convertidos.add(convertido);
             }
-        } catch (IOException ex) {
-            System.err.println("Error leyendo " + archivoCitas + ": " + ex.getMessage());
         }
+        return convertidos;
     }
 
-    private void cargarArchivoConsultorios() {
-        cargarArchivo(archivoConsultorios, consultorios, Consultorio::fromCSV);
+    /**
+     * Escribe los archivos de los tipos que cambiaron desde la ultima escritura y espera a que terminen.
+     * Si un archivo no se puede escribir queda marcado para el siguiente intento.
+     * @throws UncheckedIOException si algun archivo no se pudo escribir; los demas si se escriben
+     */
+    public void guardarEnArchivo() {
+        synchronized (escritura) {
+            Set<Conjunto> pendientes;
+            synchronized (this) {
+                if (modificados.isEmpty()) return;
+                pendientes = EnumSet.copyOf(modificados);
+                modificados.clear();
+            }
+            IOException error = null;
+            for (Conjunto conjunto : pendientes) {
+                try {
+                    guardar(conjunto);
+                } catch (IOException ex) {
+                    marcarModificado(conjunto);
+                    if (error == null) error = ex;
+                    else error.addSuppressed(ex);
+                }
+            }
+            if (error != null) {
+                throw new UncheckedIOException("No se pudieron guardar los usuarios: " + error.getMessage(), error);
+            }
+        }
     }
 
-    private <T> void cargarArchivo(String archivo, List<T> lista, Function<String, T> creador) {
-        File file = new File(archivo);
-        if (!file.exists()) return;
+    /**
+     * Pide escribir los cambios hechos hasta ahora, agrupandolos con los que lleguen dentro de la
+     * ventana de guardado. Todos los que piden durante la misma ventana comparten una escritura.
+     * @return Futuro que se completa cuando los archivos con esos cambios ya se escribieron
+     */
+    public CompletableFuture<Void> guardarCambios() {
+        if (ventanaGuardado <= 0) {
+            guardarEnArchivo();
+            return CompletableFuture.completedFuture(null);
+        }
+        synchronized (this) {
+            if (lotePendiente == null) {
+                lotePendiente = new CompletableFuture<>();
+                guardador().schedule(this::cerrarLote, ventanaGuardado, TimeUnit.MILLISECONDS);
+            }
+            return lotePendiente;
+        }
+    }
 
-        try(BufferedReader buffer = new BufferedReader(new FileReader(file))){
-            String linea;
-            while ((linea = buffer.readLine()) != null){
-                if (linea.trim().isEmpty()) {
-                    continue;
-                }
+    private void cerrarLote() {
+        CompletableFuture<Void> lote;
+        synchronized (this) {
+            lote = lotePendiente;
+            lotePendiente = null;
+        }
+        try {
+            guardarEnArchivo();
+            lote.complete(null);
+        } catch (RuntimeException ex) {
+            lote.completeExceptionally(ex);
+        }
+    }
 
-                T objeto = creador.apply(linea);
+    private synchronized ScheduledExecutorService guardador() {
+        if (guardador == null) {
+            guardador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "guardado-usuarios");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+        }
+        return guardador;
+    }
 
-                if (objeto != null) {
-                    lista.add(objeto);
-                }
+    /**
+     * Escribe los cambios pendientes y detiene el hilo de guardado agrupado.
+     */
+    public void detener() {
+        ScheduledExecutorService anterior;
+        synchronized (this) {
+            anterior = guardador;
+            guardador = null;
+        }
+        if (anterior != null) {
+            anterior.shutdown();
+            try {
+                anterior.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
             }
-        } catch (IOException ex) {
-            System.out.println("Error al cargar archivo " + archivo);
         }
+        guardarEnArchivo();
     }
 
-    public void guardarEnArchivo() {
-        guardarArchivo(archivoPacientes, pacientes);
-        guardarArchivo(archivoMedicos, medicos);
-        guardarArchivo(archivoRecepcionistas, recepcionistas);
-        guardarArchivoConsultorio();
-        guardarArchivoCitas();
+    private synchronized void marcarModificado(Conjunto conjunto) {
+        modificados.add(conjunto);
     }
 
-    private void guardarArchivo(String rutaArchivo, List<? extends Usuario> lista) {
-        try {
-            File nuevoArchivo = new File("./archivos");
-            if (!nuevoArchivo.exists()) nuevoArchivo.mkdirs();
+    private void guardar(Conjunto conjunto) throws IOException {
+        switch (conjunto) {
+            case PACIENTES: guardarArchivo(archivoPacientes, pacientes); break;
+            case MEDICOS: guardarArchivo(archivoMedicos, medicos); break;
+            case RECEPCIONISTAS: guardarArchivo(archivoRecepcionistas, recepcionistas); break;
+            default: guardarArchivoConsultorio();
+        }
+    }
 
-            PrintWriter escritor = new PrintWriter(new FileWriter(rutaArchivo));
-            for (Usuario usuario : lista) {
-                escritor.println(usuario.toCSV());
-            }
-            escritor.close();
+    private void guardarArchivo(String rutaArchivo, List<? extends Usuario> lista) throws IOException {
+        try {
+            EscrituraAtomica.escribir(Paths.get(rutaArchivo), Charset.defaultCharset(), politicaFsync, escritor -> {
+                for (Usuario usuario : lista) {
+                    escritor.write(usuario.toCSV());
+                    escritor.write(System.lineSeparator());
+                }
+            });
         } catch (IOException ex) {
-            System.out.println("Error al escribir el archivo" + rutaArchivo);
+            throw new IOException("Error al escribir el archivo " + rutaArchivo, ex);
         }
     }
 
-    private void guardarArchivoCitas() {
+    public void agregarCita(Cita c) { citaRepository.agregar(c); }
+
+    private void guardarArchivoConsultorio() throws IOException {
         try {
-            File dir = new File("./archivos");
-            if (!dir.exists()) dir.mkdirs();
-            try (PrintWriter pw = new PrintWriter(new FileWriter(archivoCitas))) {
-                for (Cita c : citas) {
-                    pw.println(c.toCSV());
+            EscrituraAtomica.escribir(Paths.get(archivoConsultorios), Charset.defaultCharset(), politicaFsync, escritor -> {
+                for (Consultorio consultorio : consultorios) {
+                    escritor.write(consultorio.toCSV());
+                    escritor.write(System.lineSeparator());
                 }
-            }
+            });
         } catch (IOException ex) {
-            System.err.println("Error escribiendo " + archivoCitas + ": " + ex.getMessage());
+            throw new IOException("Error al escribir el archivo " + archivoConsultorios, ex);
         }
     }
-    public void agregarCita(Cita c) { if (c != null) citas.add(c); }
 
-    private void guardarArchivoConsultorio() {
-        try {
-            File nuevoArchivo = new File("./archivos");
-            if (!nuevoArchivo.exists()) nuevoArchivo.mkdirs();
+    /**
+     * Registra un paciente y lo agrega a los indices.
+     * @param paciente Paciente a registrar
+     * @return false si ya existe un usuario con ese ID
+     */
+    public synchronized boolean registrarPaciente(Paciente paciente) {
+        if (!indexarUsuario(paciente)) return false;
+        pacientesPorId.put(paciente.getId(), paciente);
+        pacientes.add(paciente);
+        modificados.add(Conjunto.PACIENTES);
+        return true;
+    }
+
+    /**
+     * Registra un medico y lo agrega a los indices.
+     * @param medico Medico a registrar
+     * @return false si ya existe un usuario con ese ID
+     */
+    public synchronized boolean registrarMedico(Medico medico) {
+        if (!indexarUsuario(medico)) return false;
+        medicosPorId.put(medico.getId(), medico);
+        medicos.add(medico);
+        medicosPorEspecialidad.computeIfAbsent(normalizarEspecialidad(medico.getEspecialidad()),
+                k -> new CopyOnWriteArrayList<>()).add(medico);
+        modificados.add(Conjunto.MEDICOS);
+        return true;
+    }
+
+    /**
+     * Registra un recepcionista y lo agrega a los indices.
+     * @param recepcionista Recepcionista a registrar
+     * @return false si ya existe un usuario con ese ID
+     */
+    public synchronized boolean registrarRecepcionista(Recepcionista recepcionista) {
+        if (!indexarUsuario(recepcionista)) return false;
+        recepcionistasPorId.put(recepcionista.getId(), recepcionista);
+        recepcionistas.add(recepcionista);
+        modificados.add(Conjunto.RECEPCIONISTAS);
+        return true;
+    }
 
-            PrintWriter escritor = new PrintWriter(new FileWriter(archivoConsultorios));
-            for (Consultorio consultorio : consultorios) {
-                escritor.println(consultorio.toCSV());
+    /**
+     * Registra un consultorio y lo agrega al indice por numero.
+     * @param consultorio Consultorio a registrar
+     * @return false si ya existe un consultorio con ese numero
+     */
+    public synchronized boolean registrarConsultorio(Consultorio consultorio) {
+        if (consultorio == null || consultoriosPorNumero.putIfAbsent(consultorio.getNumero(), consultorio) != null) {
+            return false;
+        }
+        consultorios.add(consultorio);
+        modificados.add(Conjunto.CONSULTORIOS);
+        return true;
+    }
+
+    /**
+     * Registra muchos usuarios de un rol copiando la lista copy-on-write una sola vez
+     */
+    private synchronized <T extends Usuario> List<T> registrarUsuarios(List<T> nuevos, Map<String, T> indice, List<T> lista) {
+        List<T> aceptados = new ArrayList<>(nuevos.size());
+        for (T usuario : nuevos) {
+            if (indexarUsuario(usuario)) {
+                indice.put(usuario.getId(), usuario);
+                aceptados.add(usuario);
+            }
+        }
+        lista.addAll(aceptados);
+        return aceptados;
+    }
+
+    /**
+     * Agrega medicos al indice por especialidad, copiando cada lista copy-on-write una sola vez
+     */
+    private synchronized void indexarEspecialidades(List<Medico> nuevos) {
+        Map<String, List<Medico>> porEspecialidad = new LinkedHashMap<>();
+        for (Medico medico : nuevos) {
+            porEspecialidad.computeIfAbsent(normalizarEspecialidad(medico.getEspecialidad()), k -> new ArrayList<>()).add(medico);
+        }
+        for (Map.Entry<String, List<Medico>> grupo : porEspecialidad.entrySet()) {
+            medicosPorEspecialidad.computeIfAbsent(grupo.getKey(), k -> new CopyOnWriteArrayList<>()).addAll(grupo.getValue());
+        }
+    }
+
+    /**
+     * Clave del indice por especialidad: sin espacios alrededor y en mayusculas, como compara equalsIgnoreCase
+     */
+    private static String normalizarEspecialidad(String especialidad) {
+        return especialidad == null ? "" : especialidad.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private synchronized void registrarConsultorios(List<Consultorio> nuevos) {
+        List<Consultorio> aceptados = new ArrayList<>(nuevos.size());
+        for (Consultorio consultorio : nuevos) {
+            if (consultoriosPorNumero.putIfAbsent(consultorio.getNumero(), consultorio) == null) {
+                aceptados.add(consultorio);
             }
-            escritor.close();
-        } catch (IOException ex) {
-            System.out.println("Error al escribir en el archivo" + archivoConsultorios);
         }
+        consultorios.addAll(aceptados);
+    }
+
+    private boolean indexarUsuario(Usuario usuario) {
+        if (usuario == null || usuario.getId() == null) return false;
+        return usuariosPorId.putIfAbsent(usuario.getId(), usuario) == null;
+    }
+
+    /**
+     * @param id ID del usuario, de cualquier rol
+     * @return el usuario con ese ID o null si no existe
+     */
+    public Usuario buscarUsuario(String id) {
+        return id == null ? null : usuariosPorId.get(id);
+    }
+
+    /**
+     * @param id ID del paciente
+     * @return el paciente con ese ID o null si no existe
+     */
+    public Paciente buscarPaciente(String id) {
+        return id == null ? null : pacientesPorId.get(id);
     }
 
+    /**
+     * @param id ID del medico
+     * @return el medico con ese ID o null si no existe
+     */
+    public Medico buscarMedico(String id) {
+        return id == null ? null : medicosPorId.get(id);
+    }
+
+    /**
+     * @param id ID del recepcionista
+     * @return el recepcionista con ese ID o null si no existe
+     */
+    public Recepcionista buscarRecepcionista(String id) {
+        return id == null ? null : recepcionistasPorId.get(id);
+    }
+
+    /**
+     * @param numero Numero del consultorio
+     * @return el consultorio con ese numero o null si no existe
+     */
+    public Consultorio buscarConsultorio(String numero) {
+        return numero == null ? null : consultoriosPorNumero.get(numero);
+    }
+
+    /**
+     * @return Lista de solo lectura con los pacientes; para agregar use {@link #registrarPaciente(Paciente)}
+     */
     public List<Paciente> getPacientes() {
-        return pacientes;
+        return Collections.unmodifiableList(pacientes);
     }
 
+    /**
+     * @return Lista de solo lectura con los medicos; para agregar use {@link #registrarMedico(Medico)}
+     */
     public List<Medico> getMedicos() {
-        return medicos;
+        return Collections.unmodifiableList(medicos);
+    }
+
+    /**
+     * @param especialidad Especialidad, sin distinguir mayusculas ni espacios alrededor
+     * @return Medicos de esa especialidad en orden de registro, vacia si no hay ninguno
+     */
+    public List<Medico> getMedicosPorEspecialidad(String especialidad) {
+        List<Medico> encontrados = medicosPorEspecialidad.get(normalizarEspecialidad(especialidad));
+        return encontrados != null ? Collections.unmodifiableList(encontrados) : Collections.emptyList();
     }
 
+    /**
+     * @return Lista de solo lectura con los recepcionistas; para agregar use {@link #registrarRecepcionista(Recepcionista)}
+     */
     public List<Recepcionista> getRecepcionistas() {
-        return recepcionistas;
+        return Collections.unmodifiableList(recepcionistas);
     }
 
+    /**
+     * @return Copia de todas las citas del repositorio
+     */
     public List<Cita> getCitas() {
-        return citas;
+        return citaRepository.todas();
+    }
+
+    /**
+     * @return Repositorio unico de citas del sistema
+     */
+    public CitaRepository getCitaRepository() {
+        return citaRepository;
     }
 
+    /**
+     * @return Lista de solo lectura con los consultorios; para agregar use {@link #registrarConsultorio(Consultorio)}
+     */
     public List<Consultorio> getConsultorios() {
-        return consultorios;
+        return Collections.unmodifiableList(consultorios);
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Intervalo de tiempo [inicio, fin), se usa para representar huecos libres en una agenda.
+ */
+public final class Intervalo {
+    private final LocalDateTime inicio;
+    private final LocalDateTime fin;
+
+    /**
+     * @param inicio Inicio del intervalo, incluido
+     * @param fin Fin del intervalo, excluido
+     */
+    public Intervalo(LocalDateTime inicio, LocalDateTime fin) {
+        this.inicio = inicio;
+        this.fin = fin;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    public LocalDateTime getFin() {
+        return fin;
+    }
+
+    /**
+     * Calcula la parte comun con otro intervalo
+     * @param otro Intervalo con el que se intersecta
+     * @return el intervalo comun o null si no se tocan
+     */
+    public Intervalo interseccion(Intervalo otro) {
+        LocalDateTime desde = inicio.isAfter(otro.inicio) ? inicio : otro.inicio;
+        LocalDateTime hasta = fin.isBefore(otro.fin) ? fin : otro.fin;
+        return desde.isBefore(hasta) ? new Intervalo(desde, hasta) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + inicio + ", " + fin + ")";
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Lector de archivos de lineas separadas por ';' que trabaja directamente sobre los bytes del archivo.
+ * <p>
+ *     {@link #trozos(Path, int)} lee el archivo con {@link FileChannel#read} y lo corta en trozos que
+ *     terminan en fin de linea, para leerlos en paralelo. Los trozos se copian al heap en lugar de
+ *     mapear el archivo: en Windows un archivo con un mapeo vivo no se puede reemplazar ni borrar, y el
+ *     mapeo solo se libera cuando el recolector lo decide. Sobre cada trozo el lector avanza
+ *     linea por linea y campo por campo buscando los bytes ';' y '\n', sin copiar la linea. Cada campo
+ *     se convierte solo si se necesita: como texto ({@link #texto()}), como fecha ({@link #fecha()}),
+ *     comparandolo con bytes conocidos ({@link #es(byte[])}) o buscandolo en una {@link TablaIds}.
+ * </p>
+ * Un lector no es seguro entre hilos; cada trozo se lee con su propio lector.
+ */
+public class LectorCsv {
+    private static final byte SEPARADOR = ';';
+    private static final byte FIN_LINEA = '\n';
+    // Un trozo vive en un arreglo, asi que una sola linea no puede acercarse a Integer.MAX_VALUE bytes
+    private static final int LINEA_MAXIMA = 1 << 30;
+
+    private final ByteBuffer datos;
+    private final Charset juegoCaracteres;
+    private int posicion;
+    private int inicioLinea;
+    private int finLinea;
+    private int inicioCampo;
+    private int finCampo;
+    private int siguienteCampo;
+
+    /**
+     * @param datos Bytes a leer, desde su posicion hasta su limite; se leen sin modificar el buffer
+     * @param juegoCaracteres Codificacion de los textos del archivo
+     */
+    public LectorCsv(ByteBuffer datos, Charset juegoCaracteres) {
+        this.datos = datos;
+        this.juegoCaracteres = juegoCaracteres;
+        this.posicion = datos.position();
+        this.siguienteCampo = -1;
+    }
+
+    /**
+     * Lee un archivo y lo corta en trozos de lineas completas
+     * @param archivo Archivo a leer
+     * @param tamanoTrozo Tamaño aproximado en bytes de cada trozo
+     * @return Trozos en el orden del archivo; vacio si el archivo no tiene bytes
+     * @throws IOException si no se puede abrir o leer el archivo
+     */
+    public static List<ByteBuffer> trozos(Path archivo, int tamanoTrozo) throws IOException {
+        List<ByteBuffer> trozos = new ArrayList<>();
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long restante = canal.size();
+            ByteBuffer arrastre = ByteBuffer.allocate(0);
+            while (restante > 0) {
+                int leer = (int) Math.min(Math.max(1, tamanoTrozo), restante);
+                if (arrastre.remaining() > LINEA_MAXIMA) {
+                    throw new IOException("Linea demasiado larga en " + archivo);
+                }
+                ByteBuffer trozo = ByteBuffer.allocate(arrastre.remaining() + leer);
+                trozo.put(arrastre);
+                while (trozo.hasRemaining()) {
+                    if (canal.read(trozo) < 0) break;
+                }
+                restante -= leer;
+                trozo.flip();
+                if (restante <= 0 || trozo.limit() < trozo.capacity()) {
+                    trozos.add(trozo);
+                    break;
+                }
+
+                // El trozo termina en su ultimo fin de linea; el resto pasa al siguiente
+                int fin = trozo.limit();
+                while (fin > 0 && trozo.get(fin - 1) != FIN_LINEA) {
+                    fin--;
+                }
+                if (fin == 0) {
+                    arrastre = trozo;
+                    continue;
+                }
+                arrastre = trozo.duplicate().position(fin).slice();
+                trozos.add(trozo.limit(fin));
+            }
+        }
+        return trozos;
+    }
+
+    /**
+     * Avanza a la siguiente linea que no este en blanco
+     * @return false si no quedan lineas
+     */
+    public boolean siguienteLinea() {
+        int limite = datos.limit();
+        while (posicion < limite) {
+            inicioLinea = posicion;
+            int fin = posicion;
+            while (fin < limite && datos.get(fin) != FIN_LINEA) {
+                fin++;
+            }
+            posicion = fin < limite ? fin + 1 : fin;
+            if (fin > inicioLinea && datos.get(fin - 1) == '\r') {
+                fin--;
+            }
+            finLinea = fin;
+            if (!enBlanco(inicioLinea, finLinea)) {
+                siguienteCampo = inicioLinea;
+                return true;
+            }
+        }
+        siguienteCampo = -1;
+        return false;
+    }
+
+    /**
+     * Avanza al siguiente campo de la linea actual
+     * @return false si la linea no tiene mas campos
+     */
+    public boolean siguienteCampo() {
+        if (siguienteCampo < 0 || siguienteCampo > finLinea) return false;
+        inicioCampo = siguienteCampo;
+        int fin = inicioCampo;
+        while (fin < finLinea && datos.get(fin) != SEPARADOR) {
+            fin++;
+        }
+        finCampo = fin;
+        siguienteCampo = fin + 1;
+        return true;
+    }
+
+    /**
+     * @return Campo actual como texto, sin los espacios de los extremos
+     */
+    public String texto() {
+        int inicio = inicioCampo;
+        int fin = finCampo;
+        while (inicio < fin && espacio(datos.get(inicio))) inicio++;
+        while (fin > inicio && espacio(datos.get(fin - 1))) fin--;
+        return decodificar(inicio, fin);
+    }
+
+    /**
+     * @return Todos los campos de la linea actual como texto, tal cual estan en el archivo
+     */
+    public String[] campos() {
+        List<String> campos = new ArrayList<>();
+        siguienteCampo = inicioLinea;
+        while (siguienteCampo()) {
+            campos.add(decodificar(inicioCampo, finCampo));
+        }
+        return campos.toArray(new String[0]);
+    }
+
+    /**
+     * @return La linea actual completa, para mensajes de error
+     */
+    public String linea() {
+        return decodificar(inicioLinea, finLinea);
+    }
+
+    /**
+     * @return true si el campo actual no tiene caracteres visibles
+     */
+    public boolean campoVacio() {
+        return enBlanco(inicioCampo, finCampo);
+    }
+
+    /**
+     * @param valor Bytes a comparar
+     * @return true si el campo actual tiene exactamente esos bytes
+     */
+    public boolean es(byte[] valor) {
+        if (finCampo - inicioCampo != valor.length) return false;
+        for (int i = 0; i < valor.length; i++) {
+            if (datos.get(inicioCampo + i) != valor[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Lee el campo actual con el formato dd/MM/yyyy HH:mm de {@link FormatoCita#FECHA_HORA}
+     * @return Fecha leida
+     * @throws DateTimeException si el campo no tiene ese formato o la fecha no existe
+     */
+    public LocalDateTime fecha() {
+        int inicio = inicioCampo;
+        int fin = finCampo;
+        while (inicio < fin && espacio(datos.get(inicio))) inicio++;
+        while (fin > inicio && espacio(datos.get(fin - 1))) fin--;
+        if (fin - inicio != 16 || datos.get(inicio + 2) != '/' || datos.get(inicio + 5) != '/'
+                || datos.get(inicio + 10) != ' ' || datos.get(inicio + 13) != ':') {
+            throw new DateTimeException("Fecha con formato invalido: " + decodificar(inicio, fin));
+        }
+        return LocalDateTime.of(numero(inicio + 6, 4), numero(inicio + 3, 2), numero(inicio, 2),
+                numero(inicio + 11, 2), numero(inicio + 14, 2));
+    }
+
+    /**
+     * Busca el campo actual, sin espacios en los extremos, en una tabla de IDs
+     * @return El valor asociado o null si no esta
+     */
+    public <T> T buscar(TablaIds<T> tabla) {
+        int inicio = inicioCampo;
+        int fin = finCampo;
+        while (inicio < fin && espacio(datos.get(inicio))) inicio++;
+        while (fin > inicio && espacio(datos.get(fin - 1))) fin--;
+        return tabla.buscar(datos, inicio, fin);
+    }
+
+    private int numero(int inicio, int digitos) {
+        int valor = 0;
+        for (int i = inicio; i < inicio + digitos; i++) {
+            int digito = datos.get(i) - '0';
+            if (digito < 0 || digito > 9) {
+                throw new DateTimeException("Fecha con digitos invalidos: " + decodificar(inicioCampo, finCampo));
+            }
+            valor = valor * 10 + digito;
+        }
+        return valor;
+    }
+
+    private boolean enBlanco(int inicio, int fin) {
+        for (int i = inicio; i < fin; i++) {
+            if (!espacio(datos.get(i))) return false;
+        }
+        return true;
+    }
+
+    // Los bytes negativos son parte de caracteres UTF-8 de varios bytes, nunca espacios
+    private static boolean espacio(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private String decodificar(int inicio, int fin) {
+        byte[] bytes = new byte[fin - inicio];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = datos.get(inicio + i);
+        }
+        return new String(bytes, juegoCaracteres);
+    }
+
+    /**
+     * Tabla de busqueda por ID que compara bytes del archivo con los IDs, sin crear textos.
+     * <p>
+     *     Direccionamiento abierto con sondeo lineal sobre los IDs codificados en UTF-8. Se arma una vez
+     *     y despues solo se lee, asi varios hilos pueden buscar en ella a la vez.
+     * </p>
+     * @param <T> Tipo de los valores
+     */
+    public static final class TablaIds<T> {
+        private final byte[][] claves;
+        private final Object[] valores;
+        private final int mascara;
+
+        /**
+         * @param valores Valores a indexar; si dos tienen el mismo ID se queda el primero
+         * @param id Forma de obtener el ID de cada valor
+         */
+        public TablaIds(Collection<T> valores, Function<T, String> id) {
+            int capacidad = Integer.highestOneBit(Math.max(4, valores.size() * 2 - 1)) << 1;
+            this.claves = new byte[capacidad][];
+            this.valores = new Object[capacidad];
+            this.mascara = capacidad - 1;
+            for (T valor : valores) {
+                byte[] clave = id.apply(valor).getBytes(StandardCharsets.UTF_8);
+                int i = hash(clave) & mascara;
+                while (claves[i] != null && !Arrays.equals(claves[i], clave)) {
+                    i = (i + 1) & mascara;
+                }
+                if (claves[i] == null) {
+                    claves[i] = clave;
+                    this.valores[i] = valor;
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        T buscar(ByteBuffer datos, int inicio, int fin) {
+            int h = 0;
+            for (int i = inicio; i < fin; i++) {
+                h = 31 * h + datos.get(i);
+            }
+            for (int i = mezclar(h) & mascara; claves[i] != null; i = (i + 1) & mascara) {
+                byte[] clave = claves[i];
+                if (clave.length == fin - inicio && iguales(clave, datos, inicio)) {
+                    return (T) valores[i];
+                }
+            }
+            return null;
+        }
+
+        private static boolean iguales(byte[] clave, ByteBuffer datos, int inicio) {
+            for (int i = 0; i < clave.length; i++) {
+                if (clave[i] != datos.get(inicio + i)) return false;
+            }
+            return true;
+        }
+
+        private static int hash(byte[] clave) {
+            int h = 0;
+            for (byte b : clave) {
+                h = 31 * h + b;
+            }
+            return mezclar(h);
+        }
+
+        // Reparte los bits altos en los bajos; los IDs secuenciales solo difieren en los ultimos digitos
+        private static int mezclar(int h) {
+            return h ^ (h >>> 16) ^ (h >>> 8);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Conjunto de citas ordenadas por fecha de inicio.
+ * <p>
+ *     Como todas las citas duran {@link Cita#DURACION_MINUTOS} minutos, saber si un turno se cruza
+ *     con otra cita solo requiere mirar la primera cita que empieza despues de
+ *     (inicio - duracion), lo que cuesta O(log n) en lugar de recorrer todas las citas.
+ * </p>
+ * No es segura para hilos, quien la usa debe sincronizar el acceso.
+ */
+public class LineaDeTiempo {
+    private final TreeMap<ClaveCita, Cita> citas;
+
+    /**
+     * Crea una linea de tiempo vacia
+     */
+    public LineaDeTiempo() {
+        this.citas = new TreeMap<>();
+    }
+
+    /**
+     * Agrega una cita usando su fecha actual, las citas sin fecha se ignoran
+     * @param cita Cita a agregar
+     */
+    public void agregar(Cita cita) {
+        if (cita != null && cita.getFecha() != null) {
+            citas.put(ClaveCita.de(cita), cita);
+        }
+    }
+
+    /**
+     * Quita una cita que fue agregada con la fecha indicada
+     * @param cita Cita a quitar
+     * @param fecha Fecha con la que se agrego la cita (puede ser distinta de la actual)
+     * @return true si la cita estaba en la linea de tiempo
+     */
+    public boolean quitar(Cita cita, LocalDateTime fecha) {
+        if (cita == null || fecha == null) return false;
+        return citas.remove(new ClaveCita(fecha, cita.getId() != null ? cita.getId() : "")) != null;
+    }
+
+    /**
+     * Indica si un turno de {@link Cita#DURACION_MINUTOS} minutos que empieza en inicio se cruza
+     * con alguna cita de la linea de tiempo
+     * @param inicio Hora de inicio del turno
+     * @return true si existe una cita que se solape con el turno
+     */
+    public boolean haySolapamiento(LocalDateTime inicio) {
+        return primeraSolapada(inicio) != null;
+    }
+
+    /**
+     * Busca la primera cita que se cruza con el turno que empieza en inicio
+     * @param inicio Hora de inicio del turno
+     * @return la cita mas temprana que se solapa o null si el turno esta libre
+     */
+    public Cita primeraSolapada(LocalDateTime inicio) {
+        // Una cita se solapa si empieza estrictamente dentro de (inicio - duracion, inicio + duracion)
+        LocalDateTime desde = inicio.minusMinutes(Cita.DURACION_MINUTOS).plusNanos(1);
+        Map.Entry<ClaveCita, Cita> siguiente = citas.ceilingEntry(new ClaveCita(desde, null));
+        if (siguiente == null) return null;
+        LocalDateTime fin = inicio.plusMinutes(Cita.DURACION_MINUTOS);
+        return siguiente.getKey().getFecha().isBefore(fin) ? siguiente.getValue() : null;
+    }
+
+    /**
+     * Obtiene las citas que empiezan dentro de un rango, ordenadas por fecha
+     * @param desde Inicio del rango, incluido
+     * @param hasta Fin del rango, excluido; null para no poner limite
+     * @return Lista nueva con las citas del rango
+     */
+    public List<Cita> entre(LocalDateTime desde, LocalDateTime hasta) {
+        ClaveCita inicio = new ClaveCita(desde, null);
+        Map<ClaveCita, Cita> rango = hasta == null
+                ? citas.tailMap(inicio, true)
+                : citas.subMap(inicio, true, new ClaveCita(hasta, null), false);
+        return new ArrayList<>(rango.values());
+    }
+
+    /**
+     * Obtiene una pagina de citas a partir de un cursor, para recorrer la linea de tiempo por partes
+     * sin importar cuantas citas tenga antes
+     * @param despuesDe Clave de la ultima cita de la pagina anterior, excluida; null para empezar desde el principio
+     * @param limite Cantidad maxima de citas a devolver
+     * @param filtro Condicion que deben cumplir las citas de la pagina
+     * @return Lista nueva con a lo sumo limite citas ordenadas por fecha e ID
+     */
+    public List<Cita> despuesDe(ClaveCita despuesDe, int limite, Predicate<Cita> filtro) {
+        return consultar(null, null, false, despuesDe, 0, limite, filtro);
+    }
+
+    /**
+     * Consulta una pagina de citas dentro de un rango de fechas, en cualquiera de los dos ordenes.
+     * Ubicar el rango y el cursor cuesta O(log n); solo se recorren las citas saltadas y las de la pagina
+     * @param desde Fecha minima, incluida; null para no poner limite
+     * @param hasta Fecha maxima, excluida; null para no poner limite
+     * @param descendente true para recorrer de la cita mas tardia a la mas temprana
+     * @param despuesDe Clave de la ultima cita ya vista en este orden, excluida; null para empezar por el extremo
+     * @param saltar Cantidad de citas que cumplen el filtro a saltar despues del cursor
+     * @param limite Cantidad maxima de citas a devolver
+     * @param filtro Condicion que deben cumplir las citas; null para aceptar todas
+     * @return Lista nueva con a lo sumo limite citas
+     */
+    public List<Cita> consultar(LocalDateTime desde, LocalDateTime hasta, boolean descendente,
+                                ClaveCita despuesDe, int saltar, int limite, Predicate<Cita> filtro) {
+        NavigableMap<ClaveCita, Cita> rango = rango(desde, hasta);
+        if (descendente) rango = rango.descendingMap();
+        if (despuesDe != null) rango = rango.tailMap(despuesDe, false);
+
+        List<Cita> pagina = new ArrayList<>(Math.min(limite, 128));
+        for (Cita cita : rango.values()) {
+            if (pagina.size() >= limite) break;
+            if (filtro != null && !filtro.test(cita)) continue;
+            if (saltar > 0) {
+                saltar--;
+            } else {
+                pagina.add(cita);
+            }
+        }
+        return pagina;
+    }
+
+    /**
+     * Cuenta las citas de un rango que cumplen un filtro. Sin rango ni filtro cuesta O(1),
+     * en otro caso recorre el rango
+     * @param desde Fecha minima, incluida; null para no poner limite
+     * @param hasta Fecha maxima, excluida; null para no poner limite
+     * @param filtro Condicion que deben cumplir las citas; null para aceptar todas
+     * @return Cantidad de citas
+     */
+    public int contar(LocalDateTime desde, LocalDateTime hasta, Predicate<Cita> filtro) {
+        if (desde == null && hasta == null && filtro == null) {
+            return citas.size();
+        }
+        int cantidad = 0;
+        for (Cita cita : rango(desde, hasta).values()) {
+            if (filtro == null || filtro.test(cita)) {
+                cantidad++;
+            }
+        }
+        return cantidad;
+    }
+
+    private NavigableMap<ClaveCita, Cita> rango(LocalDateTime desde, LocalDateTime hasta) {
+        if (desde != null && hasta != null) {
+            if (!desde.isBefore(hasta)) return Collections.emptyNavigableMap();
+            return citas.subMap(new ClaveCita(desde, null), true, new ClaveCita(hasta, null), false);
+        }
+        if (desde != null) return citas.tailMap(new ClaveCita(desde, null), true);
+        if (hasta != null) return citas.headMap(new ClaveCita(hasta, null), false);
+        return citas;
+    }
+
+    /**
+     * Obtiene una pagina de citas por posicion. Saltar las primeras citas cuesta O(desde),
+     * para recorridos largos conviene {@link #despuesDe(ClaveCita, int, Predicate)}
+     * @param desde Posicion de la primera cita, empezando en 0
+     * @param limite Cantidad maxima de citas a devolver
+     * @return Lista nueva con a lo sumo limite citas ordenadas por fecha e ID
+     */
+    public List<Cita> enPosicion(int desde, int limite) {
+        List<Cita> pagina = new ArrayList<>(Math.min(limite, 64));
+        int posicion = 0;
+        for (Cita cita : citas.values()) {
+            if (pagina.size() >= limite) break;
+            if (posicion++ >= desde) {
+                pagina.add(cita);
+            }
+        }
+        return pagina;
+    }
+
+    /**
+     * Calcula los huecos libres entre desde y hasta uniendo las citas que se solapan
+     * @param desde Inicio del rango
+     * @param hasta Fin del rango, excluido
+     * @return Huecos libres ordenados, sin solaparse entre si
+     */
+    public List<Intervalo> libresEntre(LocalDateTime desde, LocalDateTime hasta) {
+        List<Intervalo> libres = new ArrayList<>();
+        LocalDateTime cursor = desde;
+        // Una cita que empezo hasta media hora antes de desde todavia ocupa el comienzo del rango
+        for (Cita cita : entre(desde.minusMinutes(Cita.DURACION_MINUTOS).plusNanos(1), hasta)) {
+            LocalDateTime inicio = cita.getFecha();
+            if (inicio.isAfter(cursor)) {
+                libres.add(new Intervalo(cursor, inicio));
+            }
+            LocalDateTime fin = inicio.plusMinutes(Cita.DURACION_MINUTOS);
+            if (fin.isAfter(cursor)) {
+                cursor = fin;
+            }
+        }
+        if (cursor.isBefore(hasta)) {
+            libres.add(new Intervalo(cursor, hasta));
+        }
+        return libres;
+    }
+
+    /**
+     * @return Cantidad de citas en la linea de tiempo
+     */
+    public int tamano() {
+        return citas.size();
+    }
+
+    /**
+     * @return true si no tiene citas
+     */
+    public boolean estaVacia() {
+        return citas.isEmpty();
+    }
+}
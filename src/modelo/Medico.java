@@ -5,8 +5,19 @@
  */
 
 package modelo;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
 
 /**
  * Clase que representa a un medico.
@@ -14,11 +25,22 @@ import java.util.List;
  *     Hereda de la clase Usuario y le incluye informacion adicional
  *     y unica del medico.
  * </p>
+ * <p>
+ *     La agenda se guarda ordenada por (fecha, ID) y sin IDs repetidos, asi los rangos
+ *     ("hoy", "esta semana") se leen sin recorrer ni reordenar todas las citas. Las citas sin
+ *     fecha (por ejemplo con una fecha invalida en el archivo) se recuerdan pero no aparecen
+ *     en la agenda hasta que se reprograman.
+ * </p>
  */
 public class Medico extends Usuario {
     private String consultorioAsignado;
     private final String especialidad;
-    private final List<Cita>  agenda;
+    private final NavigableMap<ClaveCita, Cita> agenda;
+    // ID normalizado -> clave en la agenda; null para las citas sin fecha
+    private final Map<String, ClaveCita> clavesPorId;
+    private final List<Cita> vistaAgenda;
+    // Copia inmutable de la agenda para la vista en lista; null cuando la agenda cambio
+    private List<Cita> copiaAgenda;
 
     /**
      * Constructor de la clase que crea un medico con toda la informacion proporcionada.
@@ -35,7 +57,9 @@ public class Medico extends Usuario {
         super(id, nombre, apellido, telefono, email, password);
         this.especialidad = especialidad;
         this.consultorioAsignado = "";
-        this.agenda = new ArrayList<>();
+        this.agenda = new TreeMap<>();
+        this.clavesPorId = new HashMap<>();
+        this.vistaAgenda = new VistaAgenda();
     }
 
     /**
@@ -55,11 +79,51 @@ public class Medico extends Usuario {
     }
 
     /**
-     * Crea una Llista en la cual guarda todas las citas que tiene agendadas el medico
+     * Lista con todas las citas que tiene agendadas el medico, ordenadas por fecha.
+     * Refleja los cambios posteriores de la agenda; agregar a la lista equivale a {@link #agregarCita(Cita)}.
+     * Los recorridos trabajan sobre una copia tomada al empezar, asi otro hilo puede modificar la agenda mientras tanto.
      * @return Una Lista con todas las citas que tiene el medico agendadas
      */
     public List<Cita> getAgenda() {
-        return agenda;
+        return vistaAgenda;
+    }
+
+    /**
+     * Citas de la agenda que empiezan en el rango [desde, hasta), ordenadas por fecha
+     * @param desde Inicio del rango, null para no limitarlo
+     * @param hasta Fin del rango (excluido), null para no limitarlo
+     * @return Copia de las citas del rango
+     */
+    public synchronized List<Cita> agendaEntre(LocalDateTime desde, LocalDateTime hasta) {
+        NavigableMap<ClaveCita, Cita> rango = agenda;
+        if (desde != null) rango = rango.tailMap(new ClaveCita(desde, null), true);
+        if (hasta != null) rango = rango.headMap(new ClaveCita(hasta, null), false);
+        return new ArrayList<>(rango.values());
+    }
+
+    /**
+     * @param dia Dia a consultar
+     * @return Citas de la agenda de ese dia, ordenadas por fecha
+     */
+    public List<Cita> agendaDelDia(LocalDate dia) {
+        return agendaEntre(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * @param dia Cualquier dia de la semana a consultar
+     * @return Citas de la agenda de lunes a domingo de esa semana, ordenadas por fecha
+     */
+    public List<Cita> agendaDeLaSemana(LocalDate dia) {
+        LocalDate lunes = dia.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        return agendaEntre(lunes.atStartOfDay(), lunes.plusWeeks(1).atStartOfDay());
+    }
+
+    /**
+     * @param cita Cita a buscar
+     * @return true si la agenda ya tiene una cita con el mismo ID (sin distinguir mayusculas ni espacios)
+     */
+    public synchronized boolean tieneCita(Cita cita) {
+        return clavesPorId.containsKey(idDe(cita));
     }
 
     /**
@@ -71,26 +135,71 @@ public class Medico extends Usuario {
     }
 
     /**
-     * Agrega una nueva cita a la lista que contiene la agenda del medico
+     * Agrega una nueva cita a la agenda del medico. Si ya habia una cita con el mismo ID se
+     * reemplaza, asi la agenda nunca tiene la misma cita dos veces.
      * @param cita Cita medica que se va a añadir a la agenda
+     * @return true si la agenda no tenia una cita con ese ID
+     */
+    public synchronized boolean agregarCita(Cita cita) {
+        String id = idDe(cita);
+        boolean nueva = !clavesPorId.containsKey(id);
+        ClaveCita clave = cita.getFecha() != null ? ClaveCita.de(cita) : null;
+        ClaveCita anterior = clavesPorId.put(id, clave);
+        if (anterior != null) agenda.remove(anterior);
+        if (clave != null) agenda.put(clave, cita);
+        copiaAgenda = null;
+        return nueva;
+    }
+
+    /**
+     * Vuelve a ubicar la cita en la agenda segun su fecha actual. Lo llama el repositorio de
+     * citas cuando una cita se reprograma.
+     * @param cita Cita que cambio de fecha
      */
-    public void agregarCita(Cita cita) {
-        this.agenda.add(cita);
+    public synchronized void reubicarCita(Cita cita) {
+        if (clavesPorId.containsKey(idDe(cita))) agregarCita(cita);
     }
 
     /**
      * Elimina una cita existente de la agenda del medico
      * @param cita Cita medica que se va a eliminar de la agenda del medico
      */
-    public void removerCita(Cita cita) {
-        this.agenda.remove(cita);
+    public synchronized void removerCita(Cita cita) {
+        ClaveCita clave = clavesPorId.remove(idDe(cita));
+        if (clave != null) {
+            agenda.remove(clave);
+            copiaAgenda = null;
+        }
+    }
+
+    private synchronized List<Cita> instantaneaAgenda() {
+        if (copiaAgenda == null) {
+            copiaAgenda = Collections.unmodifiableList(new ArrayList<>(agenda.values()));
+        }
+        return copiaAgenda;
+    }
+
+    private synchronized boolean enAgenda(Cita cita) {
+        return clavesPorId.get(idDe(cita)) != null;
+    }
+
+    private static String idDe(Cita cita) {
+        return cita.getId() != null ? CitaRepository.normalizarId(cita.getId()) : "";
     }
 
     public static Medico fromCSV(String csv) {
         if (csv == null || csv.trim().isEmpty()) {
             return null;
         }
-        String[] line = csv.split(";");
+        return fromCampos(csv.split(";"));
+    }
+
+    /**
+     * Crea un medico con los campos de una linea ya separada, en el orden de {@link #toCSV()}
+     * @param line Campos de la linea
+     * @return Medico con esos datos
+     */
+    public static Medico fromCampos(String[] line) {
         return new Medico(line[0], line[1],  line[2], line[3], line[4], line[5], line[6]);
     }
 
@@ -117,4 +226,45 @@ public class Medico extends Usuario {
         sb.append("Consultorio Asignado: ").append(consultorioAsignado != null && !consultorioAsignado.isEmpty() ? consultorioAsignado : "Sin asignar").append("\n");
         return sb.toString();
     }
+
+    /**
+     * Vista de la agenda como lista en orden de fecha. Lee una copia que solo se rehace cuando la
+     * agenda cambia, asi el acceso por indice es O(1) y los recorridos no ven cambios a medias.
+     */
+    private final class VistaAgenda extends AbstractList<Cita> {
+        @Override
+        public Cita get(int indice) {
+            return instantaneaAgenda().get(indice);
+        }
+
+        @Override
+        public int size() {
+            synchronized (Medico.this) {
+                return agenda.size();
+            }
+        }
+
+        @Override
+        public Iterator<Cita> iterator() {
+            return instantaneaAgenda().iterator();
+        }
+
+        @Override
+        public boolean add(Cita cita) {
+            agregarCita(cita);
+            return true;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Cita && enAgenda((Cita) o);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Cita) || !enAgenda((Cita) o)) return false;
+            removerCita((Cita) o);
+            return true;
+        }
+    }
 }
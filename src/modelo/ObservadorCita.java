@@ -0,0 +1,33 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.LocalDateTime;
+
+/**
+ * Interfaz que permite ser notificado cuando una cita cambia de fecha o de estado.
+ * <p>
+ *     La implementa el repositorio de citas para mantener sus indices al dia sin que
+ *     el servicio tenga que avisarle de cada modificacion.
+ * </p>
+ */
+public interface ObservadorCita {
+
+    /**
+     * Se llama despues de que la cita cambio de fecha
+     * @param cita Cita modificada, ya con la fecha nueva
+     * @param fechaAnterior Fecha que tenia la cita antes del cambio
+     */
+    void fechaCambiada(Cita cita, LocalDateTime fechaAnterior);
+
+    /**
+     * Se llama despues de que la cita cambio de estado
+     * @param cita Cita modificada, ya con el estado nuevo
+     * @param estadoAnterior Estado que tenia la cita antes del cambio
+     */
+    void estadoCambiado(Cita cita, citaState estadoAnterior);
+}
@@ -99,8 +99,17 @@ public class Paciente extends Usuario {
         if (csv == null || csv.trim().isEmpty()) {
             return null;
         }
-        String[] line = csv.split(";");
-        return new Paciente(line[0], line[1], line[2], line[3], line[4], line[5], line[6], line[7], line[8], line[9]);
+        return fromCampos(csv.split(";"));
+    }
+
+    /**
+     * Crea un paciente con los campos de una linea ya separada, en el orden de {@link #toCSV()}
+     * @param line Campos de la linea
+     * @return Paciente con esos datos
+     */
+    public static Paciente fromCampos(String[] line) {
+        // toCSV escribe la fecha de nacimiento antes que la historia clinica
+        return new Paciente(line[0], line[1], line[2], line[3], line[4], line[5], line[7], line[6], line[8], line[9]);
     }
 
     @Override
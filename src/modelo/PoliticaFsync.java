@@ -0,0 +1,63 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.util.Locale;
+
+/**
+ * Cuando se obliga al sistema operativo a pasar a disco lo que se escribe (fsync), para elegir
+ * entre latencia de escritura y durabilidad ante una caida del equipo.
+ * <p>
+ *     En todas las politicas los archivos completos se escriben en un temporal que luego reemplaza
+ *     al original con un movimiento atomico ({@link EscrituraAtomica}), asi si el programa se cae a
+ *     mitad de la escritura el archivo anterior queda intacto. Ante una caida del equipo eso solo se
+ *     cumple si el temporal se paso a disco antes del movimiento, que es lo que decide la politica.
+ * </p>
+ * Se configura con la propiedad del sistema persistencia.fsync (por defecto POR_LOTES).
+ */
+public enum PoliticaFsync {
+    /**
+     * Cada archivo reescrito y cada linea anexada al journal se pasa a disco antes de responder.
+     */
+    SIEMPRE,
+
+    /**
+     * Los archivos reescritos se pasan a disco antes de reemplazar al original; como ya se escriben
+     * por lotes, cuesta una espera por lote. Las lineas del journal se pasan a disco juntas cada
+     * pocos milisegundos, asi una caida puede perder solo las ultimas.
+     */
+    POR_LOTES,
+
+    /**
+     * Nunca se espera al disco; el sistema operativo decide cuando escribir. Una caida del equipo
+     * puede perder los ultimos cambios y, como el cambio de nombre puede llegar a disco antes que el
+     * contenido, un archivo reescrito poco antes puede quedar vacio o incompleto. Una caida solo del
+     * programa no pierde nada de lo ya escrito.
+     */
+    SISTEMA_OPERATIVO;
+
+    /**
+     * @return La politica de la propiedad persistencia.fsync, o {@link #POR_LOTES} si no esta o no es valida
+     */
+    public static PoliticaFsync configurada() {
+        String valor = System.getProperty("persistencia.fsync");
+        if (valor == null) return POR_LOTES;
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Politica de fsync desconocida " + valor + ", se usa " + POR_LOTES);
+            return POR_LOTES;
+        }
+    }
+
+    /**
+     * @return true si los archivos completos se pasan a disco antes de reemplazar al original
+     */
+    public boolean sincronizaArchivos() {
+        return this != SISTEMA_OPERATIVO;
+    }
+}
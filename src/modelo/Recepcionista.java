@@ -47,7 +47,15 @@ public class Recepcionista extends Usuario {
         if (csv == null || csv.trim().isEmpty()) {
             return null;
         }
-        String[] line = csv.split(";");
+        return fromCampos(csv.split(";"));
+    }
+
+    /**
+     * Crea un recepcionista con los campos de una linea ya separada, en el orden de {@link #toCSV()}
+     * @param line Campos de la linea
+     * @return Recepcionista con esos datos
+     */
+    public static Recepcionista fromCampos(String[] line) {
         return new Recepcionista(line[0], line[1],  line[2], line[3], line[4], line[5], line[6]);
     }
 
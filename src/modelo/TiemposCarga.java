@@ -0,0 +1,77 @@
+/**
+ * @author Samuel David Dau Fernández
+ * @author Santiago Duica Plata
+ * @author Gustavo Daniel Olivos Rodríguez
+ */
+
+package modelo;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Duracion de cada fase de la carga inicial, en el orden en que terminaron.
+ * Las fases que corren en paralelo se pueden registrar desde varios hilos.
+ */
+public class TiemposCarga {
+    private final Map<String, Duration> fases = new LinkedHashMap<>();
+
+    /**
+     * Ejecuta un trabajo y registra cuanto tardo
+     * @param fase Nombre de la fase
+     * @param trabajo Trabajo a medir
+     * @return El resultado del trabajo
+     */
+    public <T> T medir(String fase, Supplier<T> trabajo) {
+        long inicio = System.nanoTime();
+        try {
+            return trabajo.get();
+        } finally {
+            registrar(fase, Duration.ofNanos(System.nanoTime() - inicio));
+        }
+    }
+
+    /**
+     * Igual que {@link #medir(String, Supplier)} para un trabajo sin resultado
+     */
+    public void medir(String fase, Runnable trabajo) {
+        medir(fase, () -> {
+            trabajo.run();
+            return null;
+        });
+    }
+
+    /**
+     * @param fase Nombre de la fase; si ya existe se reemplaza su duracion
+     * @param duracion Tiempo que tardo la fase
+     */
+    public synchronized void registrar(String fase, Duration duracion) {
+        fases.put(fase, duracion);
+    }
+
+    /**
+     * Agrega al final las fases de otra carga
+     * @param otros Tiempos a agregar
+     */
+    public synchronized void agregar(TiemposCarga otros) {
+        fases.putAll(otros.getFases());
+    }
+
+    /**
+     * @return Copia de las fases registradas con su duracion
+     */
+    public synchronized Map<String, Duration> getFases() {
+        return new LinkedHashMap<>(fases);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Duration> fase : fases.entrySet()) {
+            sb.append("  ").append(fase.getKey()).append(": ").append(fase.getValue().toMillis()).append(" ms\n");
+        }
+        return sb.toString();
+    }
+}
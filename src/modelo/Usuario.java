@@ -17,6 +17,7 @@ public abstract class Usuario {
     protected String telefono;
     protected String email;
     protected String password;
+    private String nombreCompleto;
 
     /**
      * Constructor de la clase Usuario
@@ -89,7 +90,13 @@ public abstract class Usuario {
      * @return el nombre completo del usuario
      */
     public String nombreCompleto() {
-        return nombre + " " + apellido;
+        // El nombre no cambia despues de crear el usuario, se arma una sola vez para los listados
+        String completo = nombreCompleto;
+        if (completo == null) {
+            completo = nombre + " " + apellido;
+            nombreCompleto = completo;
+        }
+        return completo;
     }
 
     public abstract String getTipo();
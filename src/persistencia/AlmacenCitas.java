@@ -0,0 +1,410 @@
+package persistencia;
+
+import modelo.Cita;
+import modelo.EscrituraAtomica;
+import modelo.GestionarUsuario;
+import modelo.PoliticaFsync;
+import modelo.TiemposCarga;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Almacen persistente de las citas formado por snapshots y un journal segmentado.
+ * <p>
+ *     Los cambios se anexan al journal ({@link JournalCitas}). Periodicamente un hilo en segundo
+ *     plano escribe un snapshot con las citas vivas y elimina los segmentos que ese snapshot ya
+ *     cubre, asi el arranque solo carga el snapshot mas reciente y reproduce la cola del journal.
+ * </p>
+ * Estructura de la carpeta de datos:
+ * <ul>
+ *     <li>journal/citas-NNNNNN.journal: segmentos del journal</li>
+ *     <li>snapshots/citas-NNNNNN.snapshot: snapshot que cubre todos los segmentos menores a NNNNNN</li>
+ *     <li>citas.hwm: marca de agua de los IDs de citas reservados ({@link GeneradorIdCitas})</li>
+ *     <li>citas.txt y citas.journal: formato anterior, solo se leen si aun no hay snapshots</li>
+ * </ul>
+ * Mientras no exista ningun snapshot, los archivos CSV del formato anterior (incluyendo los
+ * agregados con {@link #agregarArchivoAnterior(Path)}) se combinan en una sola carga; el primer
+ * snapshot que se escribe despues completa esa migracion y desde entonces ya no se leen.
+ * Los CSV anteriores se leen en UTF-8 o, si no lo son, con la codificacion del sistema con la que
+ * los escribia la version anterior. Si alguno no se puede leer no se escriben snapshots, para no
+ * dejar atras las citas que contiene.
+ * Configuracion mediante propiedades del sistema:
+ * <ul>
+ *     <li>citas.journal.tamanoSegmento: bytes por segmento (por defecto 4 MB)</li>
+ *     <li>citas.snapshot.intervaloSegundos: segundos entre snapshots, 0 desactiva el compactador (por defecto 300)</li>
+ *     <li>persistencia.fsync y persistencia.fsync.intervaloMs: ver {@link PoliticaFsync}</li>
+ * </ul>
+ * Los snapshots se escriben con {@link EscrituraAtomica}: un snapshot a medio escribir nunca reemplaza al anterior,
+ * salvo ante una caida del equipo con {@link PoliticaFsync#SISTEMA_OPERATIVO}.
+ */
+public class AlmacenCitas {
+    public static final long TAMANO_SEGMENTO_POR_DEFECTO = 4L * 1024 * 1024;
+    public static final long INTERVALO_SNAPSHOT_POR_DEFECTO = 300;
+
+    private static final String PREFIJO_SNAPSHOT = "citas-";
+    private static final String EXTENSION_SNAPSHOT = ".snapshot";
+
+    private final List<Path> archivosBaseAnteriores;
+    private final Path journalAnterior;
+    private final Path directorioJournal;
+    private final Path directorioSnapshots;
+    private final long intervaloSnapshot;
+    private final PoliticaFsync politica;
+    private final JournalCitas journal;
+    private final GeneradorIdCitas generadorIds;
+
+    private Supplier<List<Cita>> proveedorCitas;
+    private ScheduledExecutorService compactador;
+    private volatile EstadisticasCompactacion ultimaCompactacion;
+    private boolean migracionPendiente;
+    private boolean migracionFallida;
+
+    /**
+     * Crea el almacen leyendo la configuracion de las propiedades del sistema.
+     * @param directorio Carpeta de datos de las citas
+     */
+    public AlmacenCitas(Path directorio) {
+        this(directorio,
+                Long.getLong("citas.journal.tamanoSegmento", TAMANO_SEGMENTO_POR_DEFECTO),
+                Long.getLong("citas.snapshot.intervaloSegundos", INTERVALO_SNAPSHOT_POR_DEFECTO));
+    }
+
+    /**
+     * @param directorio Carpeta de datos de las citas
+     * @param tamanoSegmento Bytes a partir de los cuales se abre un nuevo segmento del journal
+     * @param intervaloSnapshot Segundos entre snapshots; 0 o negativo desactiva el compactador
+     */
+    public AlmacenCitas(Path directorio, long tamanoSegmento, long intervaloSnapshot) {
+        this(directorio, tamanoSegmento, intervaloSnapshot, PoliticaFsync.configurada());
+    }
+
+    /**
+     * @param directorio Carpeta de datos de las citas
+     * @param tamanoSegmento Bytes a partir de los cuales se abre un nuevo segmento del journal
+     * @param intervaloSnapshot Segundos entre snapshots; 0 o negativo desactiva el compactador
+     * @param politica Cuando se pasan a disco el journal y los snapshots
+     */
+    public AlmacenCitas(Path directorio, long tamanoSegmento, long intervaloSnapshot, PoliticaFsync politica) {
+        this.politica = politica;
+        this.archivosBaseAnteriores = new ArrayList<>();
+        this.archivosBaseAnteriores.add(directorio.resolve("citas.txt"));
+        this.journalAnterior = directorio.resolve("citas.journal");
+        this.directorioJournal = directorio.resolve("journal");
+        this.directorioSnapshots = directorio.resolve("snapshots");
+        this.intervaloSnapshot = intervaloSnapshot;
+
+        long siguiente = Math.max(1, ultimoSnapshot());
+        List<Long> segmentos = JournalCitas.segmentosExistentes(directorioJournal);
+        if (!segmentos.isEmpty()) {
+            siguiente = Math.max(siguiente, segmentos.get(segmentos.size() - 1) + 1);
+        }
+        this.journal = new JournalCitas(directorioJournal, tamanoSegmento, siguiente, politica,
+                Long.getLong("persistencia.fsync.intervaloMs", JournalCitas.INTERVALO_FSYNC_POR_DEFECTO));
+        this.generadorIds = new GeneradorIdCitas(rutaMarcaIds(directorio),
+                Long.getLong("citas.ids.bloque", GeneradorIdCitas.BLOQUE_POR_DEFECTO), politica);
+    }
+
+    /**
+     * @return Journal donde se deben registrar los cambios de las citas
+     */
+    public JournalCitas getJournal() {
+        return journal;
+    }
+
+    /**
+     * @return Generador de IDs de citas respaldado por la marca de agua de esta carpeta
+     */
+    public GeneradorIdCitas getGeneradorIds() {
+        return generadorIds;
+    }
+
+    /**
+     * Agrega otro archivo CSV del formato anterior que se debe combinar en la migracion.
+     * Debe llamarse antes de {@link #cargar(GestionarUsuario)}.
+     * @param archivo Archivo con una cita por linea en el formato de {@link Cita#toCSV()}
+     */
+    public void agregarArchivoAnterior(Path archivo) {
+        archivosBaseAnteriores.add(archivo);
+    }
+
+    /**
+     * Carga las citas desde el snapshot mas reciente y reproduce los segmentos que no cubre.
+     * Si todavia no hay snapshots se combinan los archivos del formato anterior como base.
+     * @param gu Gestor de usuarios para resolver las referencias de las citas
+     * @return Citas cargadas indexadas por ID, en el orden en que fueron creadas
+     */
+    public Map<String, Cita> cargar(GestionarUsuario gu) {
+        return cargar(gu, new TiemposCarga());
+    }
+
+    /**
+     * Igual que {@link #cargar(GestionarUsuario)}, registrando la duracion de cada fase
+     * @param gu Gestor de usuarios, con todos sus usuarios y consultorios ya cargados
+     * @param tiempos Donde se registra la duracion de la carga del snapshot y del journal
+     * @return Citas cargadas indexadas por ID, en el orden en que fueron creadas
+     */
+    public Map<String, Cita> cargar(GestionarUsuario gu, TiemposCarga tiempos) {
+        Map<String, Cita> cargadas = new LinkedHashMap<>();
+        long snapshot = ultimoSnapshot();
+
+        ReferenciasCitas referencias = tiempos.medir("citas: referencias", () -> new ReferenciasCitas(gu));
+
+        if (snapshot > 0) {
+            tiempos.medir("citas: snapshot", () -> JournalCitas.reproducir(rutaSnapshot(snapshot), cargadas, referencias));
+        } else {
+            tiempos.medir("citas: formato anterior", () -> {
+                migracionFallida = false;
+                for (Path archivo : archivosBaseAnteriores) {
+                    if (!cargarArchivoBaseAnterior(archivo, cargadas, gu)) {
+                        migracionFallida = true;
+                    }
+                }
+                JournalCitas.reproducir(journalAnterior, cargadas, referencias);
+            });
+            migracionPendiente = hayArchivosAnteriores();
+        }
+        tiempos.medir("citas: journal", () -> journal.reproducirDesde(snapshot, cargadas, referencias));
+        return cargadas;
+    }
+
+    /**
+     * @return true si la ultima carga combino archivos del formato anterior que aun no estan en un snapshot
+     */
+    public boolean isMigracionPendiente() {
+        return migracionPendiente;
+    }
+
+    /**
+     * @return true si la ultima carga no pudo leer algun archivo del formato anterior; mientras tanto no se compacta
+     */
+    public boolean isMigracionFallida() {
+        return migracionFallida;
+    }
+
+    /**
+     * @param directorio Carpeta de datos de las citas
+     * @return true si la carpeta ya tiene citas guardadas en cualquiera de sus formatos
+     */
+    public static boolean contieneCitas(Path directorio) {
+        AlmacenCitas almacen = new AlmacenCitas(directorio, TAMANO_SEGMENTO_POR_DEFECTO, 0);
+        return almacen.ultimoSnapshot() > 0 || almacen.hayArchivosAnteriores()
+                || !JournalCitas.segmentosExistentes(almacen.directorioJournal).isEmpty();
+    }
+
+    /**
+     * Ruta del primer snapshot de una carpeta de datos, que no cubre ningun segmento del journal.
+     * Permite escribir una carpeta completa de citas sin pasar por el journal.
+     * @param directorio Carpeta de datos de las citas
+     * @return Ruta del snapshot numero 1
+     */
+    public static Path rutaSnapshotInicial(Path directorio) {
+        return directorio.resolve("snapshots").resolve(String.format("%s%06d%s", PREFIJO_SNAPSHOT, 1, EXTENSION_SNAPSHOT));
+    }
+
+    /**
+     * @param directorio Carpeta de datos de las citas
+     * @return Archivo con la marca de agua de los IDs de citas de esa carpeta
+     */
+    public static Path rutaMarcaIds(Path directorio) {
+        return directorio.resolve("citas.hwm");
+    }
+
+    private boolean hayArchivosAnteriores() {
+        for (Path archivo : archivosBaseAnteriores) {
+            if (Files.exists(archivo)) return true;
+        }
+        return Files.exists(journalAnterior);
+    }
+
+    /**
+     * @return false si el archivo existe pero no se pudo leer
+     */
+    private boolean cargarArchivoBaseAnterior(Path archivo, Map<String, Cita> cargadas, GestionarUsuario gu) {
+        if (!Files.exists(archivo)) {
+            return true;
+        }
+        try {
+            List<String> lines = leerArchivoAnterior(archivo);
+            for (String line : lines) {
+                if (line == null || line.trim().isEmpty()) continue;
+                try {
+                    Cita c = Cita.fromCSV(line, gu);
+                    if (c == null) continue;
+
+                    if (c.getPaciente() == null || c.getMedico() == null || c.getConsultorio() == null) {
+                        System.err.println("Se omitió cargar cita por referencias faltantes: " + line);
+                        continue;
+                    }
+
+                    if (cargadas.putIfAbsent(c.getId(), c) != null) {
+                        System.err.println("Se omitió cita repetida al migrar " + archivo + ": " + line);
+                    }
+                } catch (Exception ex) {
+                    System.err.println("Error parseando línea de cita: " + line + " -> " + ex.getMessage());
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("No se pudieron migrar las citas de " + archivo + " (" + e
+                    + "); no se escribiran snapshots hasta que se pueda leer");
+            return false;
+        }
+    }
+
+    /**
+     * La version anterior escribia data/citas.txt en UTF-8 y archivos/citas.txt con la codificacion del sistema
+     */
+    private static List<String> leerArchivoAnterior(Path archivo) throws IOException {
+        try {
+            return Files.readAllLines(archivo, StandardCharsets.UTF_8);
+        } catch (MalformedInputException e) {
+            if (Charset.defaultCharset().equals(StandardCharsets.UTF_8)) throw e;
+            return Files.readAllLines(archivo, Charset.defaultCharset());
+        }
+    }
+
+    /**
+     * Inicia el compactador en segundo plano, si el intervalo configurado es positivo.
+     * @param proveedorCitas Devuelve una copia de las citas vivas en el momento de la llamada
+     */
+    public synchronized void iniciarCompactacion(Supplier<List<Cita>> proveedorCitas) {
+        this.proveedorCitas = proveedorCitas;
+        if (intervaloSnapshot <= 0 || compactador != null) {
+            return;
+        }
+        compactador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "compactador-citas");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        compactador.scheduleWithFixedDelay(() -> {
+            try {
+                compactar();
+            } catch (RuntimeException ex) {
+                System.err.println("Error compactando citas: " + ex.getMessage());
+            }
+        }, intervaloSnapshot, intervaloSnapshot, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Detiene el compactador en segundo plano y cierra el segmento activo.
+     */
+    public synchronized void detener() {
+        if (compactador != null) {
+            compactador.shutdownNow();
+            compactador = null;
+        }
+        journal.cerrar();
+    }
+
+    /**
+     * Escribe un snapshot de las citas vivas y elimina los segmentos del journal que cubre.
+     * No hace nada si no hubo cambios desde el ultimo snapshot.
+     * @return Costo de la compactacion, o null si no fue necesaria
+     */
+    public synchronized EstadisticasCompactacion compactar() {
+        if (proveedorCitas == null) {
+            return null;
+        }
+        if (migracionFallida) {
+            System.err.println("Compactación de citas omitida: hay citas del formato anterior sin migrar");
+            return null;
+        }
+        long inicio = System.nanoTime();
+        long anterior = ultimoSnapshot();
+        long desde = journal.rotar();
+
+        boolean hayCambios = JournalCitas.segmentosExistentes(directorioJournal).stream().anyMatch(n -> n < desde)
+                || (anterior == 0 && hayArchivosAnteriores());
+        if (!hayCambios || desde <= anterior) {
+            return null;
+        }
+
+        List<Cita> vivas = proveedorCitas.get();
+        Path destino = rutaSnapshot(desde);
+        long bytes;
+        try {
+            bytes = EscrituraAtomica.escribir(destino, StandardCharsets.UTF_8, politica, escritor -> {
+                for (Cita c : vivas) {
+                    escritor.write(JournalCitas.lineaCreacion(c));
+                    escritor.write('\n');
+                    if (!c.getDiagnostico().isEmpty() || !c.getTratamiento().isEmpty() || !c.getObservaciones().isEmpty()) {
+                        escritor.write(JournalCitas.lineaNotas(c));
+                        escritor.write('\n');
+                    }
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("Error escribiendo snapshot de citas: " + e.getMessage());
+            return null;
+        }
+
+        int eliminados = journal.eliminarSegmentosAnteriores(desde);
+        try {
+            if (Files.deleteIfExists(journalAnterior)) eliminados++;
+            for (long numero : snapshotsExistentes()) {
+                if (numero < desde) Files.deleteIfExists(rutaSnapshot(numero));
+            }
+        } catch (IOException e) {
+            System.err.println("Error eliminando archivos compactados: " + e.getMessage());
+        }
+
+        migracionPendiente = false;
+        ultimaCompactacion = new EstadisticasCompactacion(desde, vivas.size(), bytes, eliminados,
+                Duration.ofNanos(System.nanoTime() - inicio));
+        System.out.println("Compactación de citas: " + ultimaCompactacion);
+        return ultimaCompactacion;
+    }
+
+    /**
+     * @return Costo de la ultima compactacion realizada, o null si aun no hay ninguna
+     */
+    public EstadisticasCompactacion getUltimaCompactacion() {
+        return ultimaCompactacion;
+    }
+
+    private long ultimoSnapshot() {
+        List<Long> snapshots = snapshotsExistentes();
+        return snapshots.isEmpty() ? 0 : snapshots.get(snapshots.size() - 1);
+    }
+
+    private List<Long> snapshotsExistentes() {
+        List<Long> numeros = new ArrayList<>();
+        if (!Files.isDirectory(directorioSnapshots)) return numeros;
+
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorioSnapshots,
+                PREFIJO_SNAPSHOT + "*" + EXTENSION_SNAPSHOT)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                String numero = nombre.substring(PREFIJO_SNAPSHOT.length(), nombre.length() - EXTENSION_SNAPSHOT.length());
+                try {
+                    numeros.add(Long.parseLong(numero));
+                } catch (NumberFormatException ignored) { }
+            }
+        } catch (IOException e) {
+            System.err.println("Error listando snapshots de citas: " + e.getMessage());
+        }
+        Collections.sort(numeros);
+        return numeros;
+    }
+
+    private Path rutaSnapshot(long numero) {
+        return directorioSnapshots.resolve(String.format("%s%06d%s", PREFIJO_SNAPSHOT, numero, EXTENSION_SNAPSHOT));
+    }
+}
@@ -0,0 +1,57 @@
+package persistencia;
+
+import java.time.Duration;
+
+/**
+ * Costo de una compactacion del almacen de citas: cuanto tardo, cuanto escribio
+ * y cuantos archivos del journal dejo de ser necesarios.
+ */
+public class EstadisticasCompactacion {
+    private final long segmento;
+    private final int citasEscritas;
+    private final long bytesEscritos;
+    private final int segmentosEliminados;
+    private final Duration duracion;
+
+    /**
+     * @param segmento Primer segmento del journal que no cubre el snapshot
+     * @param citasEscritas Cantidad de citas guardadas en el snapshot
+     * @param bytesEscritos Tamaño en bytes del snapshot
+     * @param segmentosEliminados Segmentos del journal eliminados por quedar cubiertos
+     * @param duracion Tiempo total de la compactacion
+     */
+    public EstadisticasCompactacion(long segmento, int citasEscritas, long bytesEscritos,
+                                    int segmentosEliminados, Duration duracion) {
+        this.segmento = segmento;
+        this.citasEscritas = citasEscritas;
+        this.bytesEscritos = bytesEscritos;
+        this.segmentosEliminados = segmentosEliminados;
+        this.duracion = duracion;
+    }
+
+    public long getSegmento() {
+        return segmento;
+    }
+
+    public int getCitasEscritas() {
+        return citasEscritas;
+    }
+
+    public long getBytesEscritos() {
+        return bytesEscritos;
+    }
+
+    public int getSegmentosEliminados() {
+        return segmentosEliminados;
+    }
+
+    public Duration getDuracion() {
+        return duracion;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("snapshot hasta segmento %d: %d citas, %d bytes, %d segmentos eliminados, %d ms",
+                segmento, citasEscritas, bytesEscritos, segmentosEliminados, duracion.toMillis());
+    }
+}
@@ -0,0 +1,147 @@
+package persistencia;
+
+import modelo.EscrituraAtomica;
+import modelo.PoliticaFsync;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de IDs de citas sin bloqueos ni colisiones, incluso entre reinicios.
+ * <p>
+ *     Los IDs salen de un contador atomico. El generador reserva bloques de IDs y guarda en disco la
+ *     marca de agua (el primer numero que todavia no esta reservado) antes de entregar cualquier ID del
+ *     bloque. Entregar un ID dentro del bloque no hace I/O ni toma candados; solo el hilo que agota el
+ *     bloque escribe la nueva marca. Al reiniciar se continua desde la marca guardada, los numeros que
+ *     quedaron sin usar del ultimo bloque simplemente se saltan.
+ * </p>
+ * <p>
+ *     La marca se escribe con {@link EscrituraAtomica} segun la {@link PoliticaFsync}; con
+ *     SISTEMA_OPERATIVO una caida del equipo puede perder la ultima marca aunque ya esten en disco
+ *     lineas del journal con IDs del bloque nuevo. Por eso, haya marca o no, quien carga las citas
+ *     llama a {@link #asegurarMayorQue(long)} con el mayor ID cargado.
+ * </p>
+ * Configuracion mediante la propiedad del sistema citas.ids.bloque: IDs por bloque (por defecto 1000).
+ */
+public class GeneradorIdCitas {
+    public static final long BLOQUE_POR_DEFECTO = 1000;
+    public static final String PREFIJO = "CITA-A";
+
+    private final Path archivoMarca;
+    private final long tamanoBloque;
+    private final PoliticaFsync politica;
+    private final AtomicLong siguiente;
+    private final boolean marcaExistente;
+    // Primer numero fuera del bloque reservado; solo crece y se publica despues de persistirlo
+    private volatile long limite;
+
+    /**
+     * @param archivoMarca Archivo donde se guarda la marca de agua
+     */
+    public GeneradorIdCitas(Path archivoMarca) {
+        this(archivoMarca, Long.getLong("citas.ids.bloque", BLOQUE_POR_DEFECTO));
+    }
+
+    /**
+     * @param archivoMarca Archivo donde se guarda la marca de agua
+     * @param tamanoBloque Cantidad de IDs que se reservan en cada escritura
+     */
+    public GeneradorIdCitas(Path archivoMarca, long tamanoBloque) {
+        this(archivoMarca, tamanoBloque, PoliticaFsync.configurada());
+    }
+
+    /**
+     * @param archivoMarca Archivo donde se guarda la marca de agua
+     * @param tamanoBloque Cantidad de IDs que se reservan en cada escritura
+     * @param politica Si se espera a que cada marca llegue a disco
+     */
+    public GeneradorIdCitas(Path archivoMarca, long tamanoBloque, PoliticaFsync politica) {
+        this.archivoMarca = archivoMarca;
+        this.tamanoBloque = Math.max(1, tamanoBloque);
+        this.politica = politica;
+        long marca = leerMarca(archivoMarca);
+        this.marcaExistente = marca > 0;
+        this.siguiente = new AtomicLong(Math.max(1, marca));
+        this.limite = siguiente.get();
+    }
+
+    /**
+     * @return true si habia una marca de agua en disco
+     */
+    public boolean isMarcaExistente() {
+        return marcaExistente;
+    }
+
+    /**
+     * Entrega un ID nuevo con el formato CITA-A0000001
+     * @return ID que no se ha entregado antes
+     * @throws IllegalStateException si no se pudo guardar la marca de un bloque nuevo
+     */
+    public String siguienteId() {
+        long numero = siguiente.getAndIncrement();
+        if (numero >= limite) {
+            reservarHasta(numero);
+        }
+        return String.format(PREFIJO + "%07d", numero);
+    }
+
+    /**
+     * Hace que el proximo ID sea mayor que el numero indicado. Se usa al cargar las citas, por si la
+     * marca guardada quedo atras de los IDs que ya estan en disco.
+     * @param numero Mayor numero de ID que ya existe
+     */
+    public void asegurarMayorQue(long numero) {
+        siguiente.accumulateAndGet(numero + 1, Math::max);
+    }
+
+    /**
+     * Extrae el numero de un ID con el formato de este generador
+     * @param id ID de una cita
+     * @return el numero del ID o -1 si no tiene el formato
+     */
+    public static long numeroDe(String id) {
+        if (id == null || !id.startsWith(PREFIJO)) return -1;
+        try {
+            return Long.parseLong(id.substring(PREFIJO.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void reservarHasta(long numero) {
+        if (numero < limite) return;
+        long nuevoLimite = numero + tamanoBloque;
+        try {
+            guardarMarca(archivoMarca, nuevoLimite, politica);
+        } catch (IOException e) {
+            throw new IllegalStateException("No se pudo reservar un bloque de IDs de citas: " + e.getMessage(), e);
+        }
+        limite = nuevoLimite;
+    }
+
+    /**
+     * Escribe una marca de agua de forma atomica. Lo usan tambien quienes crean carpetas de datos
+     * completas, para que los IDs nuevos empiecen despues de los que ya escribieron.
+     * @param archivoMarca Archivo donde se guarda la marca de agua
+     * @param marca Primer numero de ID que aun no se ha usado
+     * @param politica Si se espera a que la marca llegue a disco
+     * @throws IOException si no se pudo escribir el archivo
+     */
+    public static void guardarMarca(Path archivoMarca, long marca, PoliticaFsync politica) throws IOException {
+        EscrituraAtomica.escribir(archivoMarca, StandardCharsets.UTF_8, politica,
+                escritor -> escritor.write(Long.toString(marca)));
+    }
+
+    private static long leerMarca(Path archivo) {
+        if (!Files.exists(archivo)) return 0;
+        try {
+            return Long.parseLong(new String(Files.readAllBytes(archivo), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Marca de IDs de citas ilegible, se recalcula desde las citas: " + e.getMessage());
+            return 0;
+        }
+    }
+}
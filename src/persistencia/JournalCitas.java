@@ -0,0 +1,553 @@
+package persistencia;
+
+import modelo.Cita;
+import modelo.Consultorio;
+import modelo.EscrituraAtomica;
+import modelo.FormatoCita;
+import modelo.GestionarUsuario;
+import modelo.LectorCsv;
+import modelo.Medico;
+import modelo.Paciente;
+import modelo.PoliticaFsync;
+import modelo.citaState;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registro de solo-anexado (journal) de las mutaciones de las citas.
+ * <p>
+ *     Cada alta, reprogramacion, cambio de estado o nota clinica se escribe como
+ *     una unica linea al final del segmento activo, de modo que guardar un cambio cuesta lo
+ *     mismo sin importar cuantas citas existan. Cuando el segmento activo supera el tamaño
+ *     configurado se abre uno nuevo; los segmentos cerrados se pueden eliminar una vez que
+ *     un snapshot los cubre.
+ * </p>
+ * Formato de cada linea (separado por ';'):
+ * <ul>
+ *     <li>CREAR;&lt;linea de {@link Cita#toCSV()}&gt;</li>
+ *     <li>REPROGRAMAR;idCita;dd/MM/yyyy HH:mm</li>
+ *     <li>ESTADO;idCita;ESTADO</li>
+ *     <li>NOTA;idCita;diagnostico;tratamiento;observaciones</li>
+ * </ul>
+ * Cuando cada linea llega a disco lo decide la {@link PoliticaFsync}; con POR_LOTES el intervalo entre
+ * cada paso a disco se configura con la propiedad persistencia.fsync.intervaloMs (por defecto 20).
+ */
+public class JournalCitas {
+    public static final String CREAR = "CREAR";
+    public static final String REPROGRAMAR = "REPROGRAMAR";
+    public static final String ESTADO = "ESTADO";
+    public static final String NOTA = "NOTA";
+
+    private static final String PREFIJO_SEGMENTO = "citas-";
+    private static final String EXTENSION_SEGMENTO = ".journal";
+    private static final DateTimeFormatter FORMATTER = FormatoCita.FECHA_HORA;
+    public static final long INTERVALO_FSYNC_POR_DEFECTO = 20;
+
+    // Bytes que se interpretan juntos al reproducir un archivo
+    private static final int BYTES_POR_TROZO = 1 << 20;
+
+    private static final byte[] BYTES_CREAR = CREAR.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BYTES_REPROGRAMAR = REPROGRAMAR.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BYTES_ESTADO = ESTADO.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] BYTES_NOTA = NOTA.getBytes(StandardCharsets.UTF_8);
+    private static final citaState[] ESTADOS = citaState.values();
+    private static final byte[][] BYTES_ESTADOS = new byte[ESTADOS.length][];
+
+    static {
+        for (int i = 0; i < ESTADOS.length; i++) {
+            BYTES_ESTADOS[i] = ESTADOS[i].name().getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private final Path directorio;
+    private final long tamanoSegmento;
+    private final PoliticaFsync politica;
+    private final long intervaloFsync;
+    private FileChannel canal;
+    private Writer escritor;
+    private long segmentoActivo;
+    private long bytesSegmento;
+    // Hay lineas escritas que todavia no se pasan a disco
+    private boolean sinSincronizar;
+    private ScheduledExecutorService sincronizador;
+
+    /**
+     * Crea el journal con la politica de fsync de las propiedades del sistema.
+     * @param directorio Carpeta donde se guardan los segmentos del journal
+     * @param tamanoSegmento Tamaño aproximado en bytes a partir del cual se abre un segmento nuevo
+     * @param segmentoInicial Numero del primer segmento en el que se escribira
+     */
+    public JournalCitas(Path directorio, long tamanoSegmento, long segmentoInicial) {
+        this(directorio, tamanoSegmento, segmentoInicial, PoliticaFsync.configurada(),
+                Long.getLong("persistencia.fsync.intervaloMs", INTERVALO_FSYNC_POR_DEFECTO));
+    }
+
+    /**
+     * @param directorio Carpeta donde se guardan los segmentos del journal
+     * @param tamanoSegmento Tamaño aproximado en bytes a partir del cual se abre un segmento nuevo
+     * @param segmentoInicial Numero del primer segmento en el que se escribira
+     * @param politica Cuando se pasan a disco las lineas anexadas
+     * @param intervaloFsync Milisegundos entre cada paso a disco con {@link PoliticaFsync#POR_LOTES}
+     */
+    public JournalCitas(Path directorio, long tamanoSegmento, long segmentoInicial, PoliticaFsync politica, long intervaloFsync) {
+        this.directorio = directorio;
+        this.tamanoSegmento = tamanoSegmento;
+        this.segmentoActivo = segmentoInicial;
+        this.politica = politica;
+        this.intervaloFsync = Math.max(1, intervaloFsync);
+    }
+
+    /**
+     * Registra la creacion de una cita nueva.
+     * @param cita Cita recien creada
+     */
+    public void registrarCreacion(Cita cita) {
+        anexar(lineaCreacion(cita));
+    }
+
+    /**
+     * Registra el cambio de fecha de una cita.
+     * @param cita Cita que ya tiene asignada la nueva fecha
+     */
+    public void registrarReprogramacion(Cita cita) {
+        anexar(REPROGRAMAR + ";" + cita.getId() + ";" + cita.getFecha().format(FORMATTER));
+    }
+
+    /**
+     * Registra el estado actual de una cita.
+     * @param cita Cita cuyo estado cambio
+     */
+    public void registrarEstado(Cita cita) {
+        anexar(ESTADO + ";" + cita.getId() + ";" + cita.getEstadoCita().name());
+    }
+
+    /**
+     * Registra el diagnostico, tratamiento y observaciones de una cita atendida.
+     * @param cita Cita con las notas clinicas ya asignadas
+     */
+    public void registrarNotas(Cita cita) {
+        anexar(lineaNotas(cita));
+    }
+
+    static String lineaCreacion(Cita cita) {
+        return CREAR + ";" + cita.toCSV();
+    }
+
+    static String lineaNotas(Cita cita) {
+        return NOTA + ";" + cita.getId() + ";" + limpiar(cita.getDiagnostico()) + ";"
+                + limpiar(cita.getTratamiento()) + ";" + limpiar(cita.getObservaciones());
+    }
+
+    /**
+     * Escribe una linea al final del segmento activo y la vacia al sistema operativo. Con
+     * {@link PoliticaFsync#SIEMPRE} ademas espera a que llegue a disco.
+     * El tamaño del segmento se toma de la posicion del canal, es decir de los bytes UTF-8 realmente
+     * escritos y no de la cantidad de caracteres.
+     * Los errores de escritura se reportan pero no detienen la aplicacion.
+     */
+    private synchronized void anexar(String linea) {
+        try {
+            if (escritor == null) {
+                abrirSegmentoActivo();
+            }
+            escritor.write(linea);
+            escritor.write('\n');
+            escritor.flush();
+            if (politica == PoliticaFsync.SIEMPRE) {
+                canal.force(false);
+            } else {
+                sinSincronizar = true;
+            }
+
+            bytesSegmento = canal.position();
+            if (bytesSegmento >= tamanoSegmento) {
+                cerrarSegmentoActivo();
+            }
+        } catch (IOException e) {
+            System.err.println("Error escribiendo en el journal de citas: " + e.getMessage());
+        }
+    }
+
+    private void abrirSegmentoActivo() throws IOException {
+        boolean nuevoDirectorio = !Files.isDirectory(directorio);
+        Files.createDirectories(directorio);
+        Path archivo = rutaSegmento(segmentoActivo);
+        boolean nuevoArchivo = !Files.exists(archivo);
+        canal = FileChannel.open(archivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        escritor = new BufferedWriter(Channels.newWriter(canal, StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE), -1));
+        bytesSegmento = canal.size();
+        if (politica.sincronizaArchivos() && (nuevoDirectorio || nuevoArchivo)) {
+            // El segmento nuevo debe sobrevivir a una caida igual que sus lineas
+            if (nuevoDirectorio) EscrituraAtomica.sincronizarDirectorio(directorio.toAbsolutePath().getParent());
+            EscrituraAtomica.sincronizarDirectorio(directorio);
+        }
+        if (politica == PoliticaFsync.POR_LOTES && sincronizador == null) {
+            sincronizador = Executors.newSingleThreadScheduledExecutor(tarea -> {
+                Thread hilo = new Thread(tarea, "fsync-journal-citas");
+                hilo.setDaemon(true);
+                return hilo;
+            });
+            sincronizador.scheduleWithFixedDelay(this::sincronizar, intervaloFsync, intervaloFsync, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Pasa a disco las lineas del segmento activo que aun no lo estan. Con {@link PoliticaFsync#POR_LOTES}
+     * se llama periodicamente, asi muchas lineas comparten una sola espera al disco.
+     */
+    public synchronized void sincronizar() {
+        if (!sinSincronizar || canal == null) return;
+        try {
+            canal.force(false);
+            sinSincronizar = false;
+        } catch (IOException e) {
+            System.err.println("Error pasando a disco el journal de citas: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cierra el segmento activo y dirige las escrituras siguientes a uno nuevo.
+     * @return Numero del nuevo segmento activo; todos los anteriores quedan cerrados
+     */
+    public synchronized long rotar() {
+        cerrarSegmentoActivo();
+        return segmentoActivo;
+    }
+
+    private void cerrarSegmentoActivo() {
+        if (escritor != null) {
+            if (politica.sincronizaArchivos()) {
+                sincronizar();
+            }
+            try {
+                escritor.close();
+            } catch (IOException e) {
+                System.err.println("Error cerrando segmento del journal: " + e.getMessage());
+            }
+            escritor = null;
+            canal = null;
+            sinSincronizar = false;
+            segmentoActivo++;
+        }
+    }
+
+    /**
+     * Cierra el segmento activo sin abrir uno nuevo.
+     */
+    public synchronized void cerrar() {
+        cerrarSegmentoActivo();
+        if (sincronizador != null) {
+            sincronizador.shutdownNow();
+            sincronizador = null;
+        }
+    }
+
+    private Path rutaSegmento(long numero) {
+        return directorio.resolve(String.format("%s%06d%s", PREFIJO_SEGMENTO, numero, EXTENSION_SEGMENTO));
+    }
+
+    /**
+     * Lista los numeros de los segmentos existentes en la carpeta, en orden ascendente.
+     * @param directorio Carpeta del journal
+     * @return Numeros de segmento encontrados
+     */
+    public static List<Long> segmentosExistentes(Path directorio) {
+        List<Long> numeros = new ArrayList<>();
+        if (!Files.isDirectory(directorio)) return numeros;
+
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio,
+                PREFIJO_SEGMENTO + "*" + EXTENSION_SEGMENTO)) {
+            for (Path archivo : archivos) {
+                String nombre = archivo.getFileName().toString();
+                String numero = nombre.substring(PREFIJO_SEGMENTO.length(), nombre.length() - EXTENSION_SEGMENTO.length());
+                try {
+                    numeros.add(Long.parseLong(numero));
+                } catch (NumberFormatException ignored) { }
+            }
+        } catch (IOException e) {
+            System.err.println("Error listando segmentos del journal: " + e.getMessage());
+        }
+        Collections.sort(numeros);
+        return numeros;
+    }
+
+    /**
+     * Reproduce, en orden, los segmentos con numero mayor o igual al indicado.
+     * @param desde Primer segmento a reproducir
+     * @param citas Citas indexadas por ID; las creaciones se agregan aqui
+     * @param gu Gestor de usuarios para resolver las referencias de las citas creadas
+     * @return Cantidad de registros aplicados
+     */
+    public int reproducirDesde(long desde, Map<String, Cita> citas, GestionarUsuario gu) {
+        return reproducirDesde(desde, citas, new ReferenciasCitas(gu));
+    }
+
+    int reproducirDesde(long desde, Map<String, Cita> citas, ReferenciasCitas referencias) {
+        int aplicados = 0;
+        for (long numero : segmentosExistentes(directorio)) {
+            if (numero >= desde) {
+                aplicados += reproducir(rutaSegmento(numero), citas, referencias);
+            }
+        }
+        return aplicados;
+    }
+
+    /**
+     * Elimina los segmentos cerrados con numero menor al indicado.
+     * @param hasta Primer segmento que se conserva
+     * @return Cantidad de segmentos eliminados
+     */
+    public int eliminarSegmentosAnteriores(long hasta) {
+        int eliminados = 0;
+        for (long numero : segmentosExistentes(directorio)) {
+            if (numero >= hasta) break;
+            try {
+                Files.deleteIfExists(rutaSegmento(numero));
+                eliminados++;
+            } catch (IOException e) {
+                System.err.println("Error eliminando segmento del journal: " + e.getMessage());
+            }
+        }
+        return eliminados;
+    }
+
+    /**
+     * Reproduce un archivo con registros del journal sobre las citas ya cargadas.
+     * Las lineas dañadas (por ejemplo una escritura interrumpida) se omiten.
+     * @param archivo Segmento o snapshot a reproducir
+     * @param citas Citas indexadas por ID; las creaciones se agregan aqui
+     * @param gu Gestor de usuarios para resolver las referencias de las citas creadas
+     * @return Cantidad de registros aplicados
+     */
+    public static int reproducir(Path archivo, Map<String, Cita> citas, GestionarUsuario gu) {
+        return reproducir(archivo, citas, new ReferenciasCitas(gu));
+    }
+
+    /**
+     * Reproduce un archivo leyendolo por trozos de bytes con {@link LectorCsv}.
+     * <p>
+     *     El archivo se corta en trozos de lineas completas y cada trozo se interpreta en el pool
+     *     fork-join comun: los IDs de paciente, medico y consultorio se buscan por sus bytes en las
+     *     tablas de referencias, y las fechas y estados se leen de los bytes sin crear textos. Los trozos
+     *     se aplican en el orden del archivo desde el hilo que llama, y solo se adelantan unos pocos.
+     * </p>
+     */
+    static int reproducir(Path archivo, Map<String, Cita> citas, ReferenciasCitas referencias) {
+        if (!Files.exists(archivo)) {
+            return 0;
+        }
+        List<ByteBuffer> trozos;
+        try {
+            trozos = LectorCsv.trozos(archivo, BYTES_POR_TROZO);
+        } catch (IOException e) {
+            System.err.println("Error leyendo " + archivo + ": " + e.getMessage());
+            return 0;
+        }
+        if (trozos.size() == 1) {
+            return aplicar(interpretar(trozos.get(0), referencias), citas);
+        }
+
+        int aplicados = 0;
+        int maximoPendientes = Math.max(2, 2 * ForkJoinPool.getCommonPoolParallelism());
+        Deque<CompletableFuture<List<Registro>>> pendientes = new ArrayDeque<>();
+        for (ByteBuffer trozo : trozos) {
+            pendientes.add(CompletableFuture.supplyAsync(() -> interpretar(trozo, referencias), ForkJoinPool.commonPool()));
+            if (pendientes.size() >= maximoPendientes) {
+                aplicados += aplicar(pendientes.poll().join(), citas);
+            }
+        }
+        while (!pendientes.isEmpty()) {
+            aplicados += aplicar(pendientes.poll().join(), citas);
+        }
+        return aplicados;
+    }
+
+    /**
+     * Interpreta las lineas de un trozo sin modificar las citas cargadas
+     * @return Registros validos en el orden de las lineas
+     */
+    private static List<Registro> interpretar(ByteBuffer trozo, ReferenciasCitas referencias) {
+        List<Registro> registros = new ArrayList<>();
+        LectorCsv lector = new LectorCsv(trozo, StandardCharsets.UTF_8);
+        while (lector.siguienteLinea()) {
+            try {
+                Registro registro = interpretar(lector, referencias);
+                if (registro != null) {
+                    registros.add(registro);
+                }
+            } catch (RuntimeException ex) {
+                System.err.println("Se omitió registro del journal: " + lector.linea() + " -> " + ex.getMessage());
+            }
+        }
+        return registros;
+    }
+
+    private static Registro interpretar(LectorCsv lector, ReferenciasCitas referencias) {
+        if (!lector.siguienteCampo()) return null;
+        if (lector.es(BYTES_CREAR)) {
+            return interpretarCreacion(lector, referencias);
+        }
+
+        String tipo = lector.es(BYTES_REPROGRAMAR) ? REPROGRAMAR
+                : lector.es(BYTES_ESTADO) ? ESTADO
+                : lector.es(BYTES_NOTA) ? NOTA : null;
+        if (tipo == null || !lector.siguienteCampo()) return null;
+        String idCita = lector.texto();
+        campoSiguiente(lector);
+
+        switch (tipo) {
+            case REPROGRAMAR:
+                try {
+                    return new Registro(tipo, idCita, null, lector.fecha(), null, null);
+                } catch (DateTimeException ex) {
+                    return null;
+                }
+            case ESTADO:
+                return new Registro(tipo, idCita, null, null, estado(lector), null);
+            default:
+                String diagnostico = lector.texto();
+                campoSiguiente(lector);
+                String tratamiento = lector.texto();
+                campoSiguiente(lector);
+                return new Registro(tipo, idCita, null, null, null, new String[]{diagnostico, tratamiento, lector.texto()});
+        }
+    }
+
+    /**
+     * Interpreta una creacion con los campos de {@link Cita#toCSV()}: id, paciente, medico, consultorio,
+     * motivo, fecha y estado. Una fecha invalida queda null y un estado invalido deja la cita pendiente,
+     * igual que en {@link Cita#fromCSV(String, GestionarUsuario)}.
+     */
+    private static Registro interpretarCreacion(LectorCsv lector, ReferenciasCitas referencias) {
+        campoSiguiente(lector);
+        String id = lector.texto();
+        campoSiguiente(lector);
+        Paciente paciente = lector.buscar(referencias.pacientes);
+        campoSiguiente(lector);
+        Medico medico = lector.buscar(referencias.medicos);
+        campoSiguiente(lector);
+        Consultorio consultorio = lector.buscar(referencias.consultorios);
+        if (paciente == null || medico == null || consultorio == null) {
+            System.err.println("Se omitió cita del journal por referencias faltantes: " + lector.linea());
+            return null;
+        }
+        campoSiguiente(lector);
+        String motivo = lector.texto();
+        campoSiguiente(lector);
+        LocalDateTime fecha = null;
+        if (!lector.campoVacio()) {
+            try {
+                fecha = lector.fecha();
+            } catch (DateTimeException ignored) { }
+        }
+
+        Cita cita = new Cita(id, paciente, medico, consultorio, motivo, fecha);
+        if (lector.siguienteCampo() && !lector.campoVacio()) {
+            try {
+                cita.setEstadoCita(estado(lector));
+            } catch (IllegalArgumentException ignored) { }
+        }
+        return new Registro(CREAR, id, cita, null, null, null);
+    }
+
+    private static void campoSiguiente(LectorCsv lector) {
+        if (!lector.siguienteCampo()) {
+            throw new IllegalArgumentException("faltan campos");
+        }
+    }
+
+    private static citaState estado(LectorCsv lector) {
+        for (int i = 0; i < ESTADOS.length; i++) {
+            if (lector.es(BYTES_ESTADOS[i])) return ESTADOS[i];
+        }
+        throw new IllegalArgumentException("estado desconocido " + lector.texto());
+    }
+
+    private static int aplicar(List<Registro> registros, Map<String, Cita> citas) {
+        int aplicados = 0;
+        for (Registro registro : registros) {
+            if (registro.aplicar(citas)) {
+                aplicados++;
+            }
+        }
+        return aplicados;
+    }
+
+    /**
+     * Linea del journal ya interpretada, lista para aplicarse sobre las citas cargadas
+     */
+    private static final class Registro {
+        private final String tipo;
+        private final String idCita;
+        private final Cita creada;
+        private final LocalDateTime fecha;
+        private final citaState estado;
+        private final String[] notas;
+
+        private Registro(String tipo, String idCita, Cita creada, LocalDateTime fecha, citaState estado, String[] notas) {
+            this.tipo = tipo;
+            this.idCita = idCita;
+            this.creada = creada;
+            this.fecha = fecha;
+            this.estado = estado;
+            this.notas = notas;
+        }
+
+        private boolean aplicar(Map<String, Cita> citas) {
+            if (creada != null) {
+                // un snapshot puede contener ya la cita con cambios posteriores a su creacion
+                return citas.putIfAbsent(idCita, creada) == null;
+            }
+            Cita cita = citas.get(idCita);
+            if (cita == null) return false;
+
+            switch (tipo) {
+                case REPROGRAMAR:
+                    cita.setFecha(fecha);
+                    return true;
+                case ESTADO:
+                    cita.setEstadoCita(estado);
+                    return true;
+                case NOTA:
+                    cita.setDiagnostico(notas[0]);
+                    cita.setTratamiento(notas[1]);
+                    cita.setObservaciones(notas[2]);
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    private static String limpiar(String s) {
+        if (s == null) return "";
+        return s.replace(";", ",").replace("\n", " ").replace("\r", " ").trim();
+    }
+}
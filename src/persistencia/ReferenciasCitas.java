@@ -0,0 +1,23 @@
+package persistencia;
+
+import modelo.Consultorio;
+import modelo.GestionarUsuario;
+import modelo.LectorCsv.TablaIds;
+import modelo.Medico;
+import modelo.Paciente;
+
+/**
+ * Pacientes, medicos y consultorios indexados por los bytes de su ID, para resolver las referencias de
+ * las citas directamente desde el archivo. Se arma una vez por carga, cuando los usuarios ya estan cargados.
+ */
+class ReferenciasCitas {
+    final TablaIds<Paciente> pacientes;
+    final TablaIds<Medico> medicos;
+    final TablaIds<Consultorio> consultorios;
+
+    ReferenciasCitas(GestionarUsuario gu) {
+        this.pacientes = new TablaIds<>(gu.getPacientes(), Paciente::getId);
+        this.medicos = new TablaIds<>(gu.getMedicos(), Medico::getId);
+        this.consultorios = new TablaIds<>(gu.getConsultorios(), Consultorio::getNumero);
+    }
+}
@@ -0,0 +1,65 @@
+package service;
+
+import modelo.Consultorio;
+import modelo.Medico;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Candados por franjas (lock striping) para las agendas de medicos y consultorios.
+ *
+ * <p>
+ *     Cada medico y cada consultorio cae, segun su hash, en uno de N candados. Una reserva toma el
+ *     candado de su medico y el de su consultorio, siempre en orden de indice para no provocar
+ *     interbloqueos. Dos reservas con medicos y consultorios distintos casi nunca comparten candado y
+ *     avanzan en paralelo, mientras que dos reservas sobre el mismo medico o consultorio se serializan,
+ *     por lo que validar el horario y agregar la cita ocurre sin que nadie se cuele en medio.
+ * </p>
+ */
+public class BloqueosAgenda {
+    private final ReentrantLock[] candados;
+
+    /**
+     * Crea los candados con la cantidad de franjas indicada
+     * @param franjas Cantidad de candados, se redondea a la siguiente potencia de dos
+     */
+    public BloqueosAgenda(int franjas) {
+        int tamano = Integer.highestOneBit(Math.max(1, franjas - 1)) << 1;
+        this.candados = new ReentrantLock[tamano];
+        for (int i = 0; i < tamano; i++) {
+            candados[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Ejecuta una accion con los candados del medico y del consultorio tomados
+     * @param medico Medico de la cita, puede ser null
+     * @param consultorio Consultorio de la cita, puede ser null
+     * @param accion Accion a ejecutar
+     * @return lo que devuelva la accion
+     */
+    public <T> T conBloqueo(Medico medico, Consultorio consultorio, Supplier<T> accion) {
+        int a = medico != null ? indice("M" + medico.getId()) : -1;
+        int b = consultorio != null ? indice("C" + consultorio.getNumero()) : -1;
+        int primero = Math.min(a, b) >= 0 ? Math.min(a, b) : Math.max(a, b);
+        int segundo = Math.max(a, b) != primero ? Math.max(a, b) : -1;
+
+        if (primero >= 0) candados[primero].lock();
+        try {
+            if (segundo >= 0) candados[segundo].lock();
+            try {
+                return accion.get();
+            } finally {
+                if (segundo >= 0) candados[segundo].unlock();
+            }
+        } finally {
+            if (primero >= 0) candados[primero].unlock();
+        }
+    }
+
+    private int indice(String clave) {
+        int h = clave.hashCode();
+        return (h ^ (h >>> 16)) & (candados.length - 1);
+    }
+}
@@ -0,0 +1,177 @@
+package service;
+
+import modelo.*;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Busca los primeros horarios en los que un especialista y un consultorio estan libres a la vez.
+ *
+ * <p>
+ *     Pide al repositorio los huecos libres de cada medico en la ventana de busqueda y recorre los
+ *     turnos de la cuadricula de media hora dentro de ellos. Para los consultorios usa el calendario
+ *     de ocupacion de cada dia: la interseccion (AND) de los calendarios de todas las salas dice con
+ *     una operacion de bits si a esa hora hay alguna sala libre, y solo entonces se busca cual.
+ * </p>
+ * Los especialistas salen del indice por especialidad del gestor de usuarios y se ordenan por los
+ * minutos que cada uno tiene reservados dentro de la ventana de busqueda (ver {@link PoliticaRemision}).
+ */
+public class BuscadorHorarios {
+    private static final long NANOS_TURNO = Duration.ofMinutes(Cita.DURACION_MINUTOS).toNanos();
+
+    private final CitaRepository citas;
+    private final GestionarUsuario gestionarUsuario;
+
+    /**
+     * @param citas Repositorio con los indices de citas por medico y consultorio
+     * @param gestionarUsuario Gestor de donde salen los medicos y consultorios
+     */
+    public BuscadorHorarios(CitaRepository citas, GestionarUsuario gestionarUsuario) {
+        this.citas = citas;
+        this.gestionarUsuario = gestionarUsuario;
+    }
+
+    /**
+     * Busca los primeros horarios disponibles de una especialidad.
+     * @param especialidad Especialidad requerida; si es null se usa la del medico preferido
+     * @param desde Hora desde la que se puede agendar
+     * @param hasta Ultima hora en la que puede empezar la cita
+     * @param preferido Medico preferido, gana los empates de hora; puede ser null
+     * @param consultorios Consultorios permitidos; null para usar todos
+     * @param limite Cantidad maxima de horarios a devolver
+     * @return Horarios ordenados por hora, a lo sumo uno por medico y hora
+     */
+    public List<HorarioDisponible> buscar(String especialidad, LocalDateTime desde, LocalDateTime hasta,
+                                          Medico preferido, Collection<Consultorio> consultorios, int limite) {
+        List<Medico> especialistas = especialistas(especialidad != null ? especialidad
+                : preferido != null ? preferido.getEspecialidad() : null, preferido, desde, hasta);
+        return buscar(especialistas, desde, hasta, consultorios, limite);
+    }
+
+    /**
+     * Busca un horario para remitir a un paciente a un especialista.
+     * @param especialidad Especialidad requerida
+     * @param desde Hora desde la que se puede agendar
+     * @param hasta Ultima hora en la que puede empezar la cita
+     * @param consultorios Consultorios permitidos; null para usar todos
+     * @param politica Como se elige entre los especialistas
+     * @return el horario elegido o null si ningun especialista tiene horario en la ventana
+     */
+    public HorarioDisponible horarioParaRemision(String especialidad, LocalDateTime desde, LocalDateTime hasta,
+                                                 Collection<Consultorio> consultorios, PoliticaRemision politica) {
+        List<Medico> especialistas = especialistas(especialidad, null, desde, hasta);
+        if (politica == PoliticaRemision.PRIMER_HORARIO) {
+            List<HorarioDisponible> horarios = buscar(especialistas, desde, hasta, consultorios, 1);
+            return horarios.isEmpty() ? null : horarios.get(0);
+        }
+        // Ya vienen ordenados de menor a mayor carga; el primero con algun horario libre se queda con la cita
+        for (Medico medico : especialistas) {
+            List<HorarioDisponible> horarios = buscar(Collections.singletonList(medico), desde, hasta, consultorios, 1);
+            if (!horarios.isEmpty()) return horarios.get(0);
+        }
+        return null;
+    }
+
+    private List<HorarioDisponible> buscar(List<Medico> especialistas, LocalDateTime desde, LocalDateTime hasta,
+                                           Collection<Consultorio> consultorios, int limite) {
+        List<HorarioDisponible> resultado = new ArrayList<>();
+        if (limite <= 0 || desde == null || hasta == null) return resultado;
+
+        Collection<Consultorio> salas = consultorios != null ? consultorios : gestionarUsuario.getConsultorios();
+        if (especialistas.isEmpty() || salas.isEmpty()) return resultado;
+
+        LocalDateTime inicio = alinear(desde);
+        LocalDateTime fin = hasta.plusMinutes(Cita.DURACION_MINUTOS);
+        if (!inicio.isBefore(fin)) return resultado;
+
+        List<Consultorio> listaSalas = new ArrayList<>(salas);
+        Map<LocalDate, long[]> ocupacionPorDia = new HashMap<>();
+        for (Medico medico : especialistas) {
+            int encontrados = 0;
+            for (Intervalo libre : citas.libresMedico(medico.getId(), inicio, fin)) {
+                LocalDateTime turno = alinear(libre.getInicio());
+                while (encontrados < limite && !turno.plusMinutes(Cita.DURACION_MINUTOS).isAfter(libre.getFin())) {
+                    long[] ocupacion = ocupacionPorDia.computeIfAbsent(turno.toLocalDate(),
+                            dia -> ocupacionConInterseccion(listaSalas, dia));
+                    int sala = primeraSalaLibre(ocupacion, Consultorio.franja(turno));
+                    if (sala >= 0) {
+                        resultado.add(new HorarioDisponible(medico, listaSalas.get(sala), turno));
+                        encontrados++;
+                    }
+                    turno = turno.plusMinutes(Cita.DURACION_MINUTOS);
+                }
+                if (encontrados >= limite) break;
+            }
+        }
+
+        // El orden de los especialistas (preferido primero) desempata horarios a la misma hora
+        resultado.sort(Comparator.comparing(HorarioDisponible::getInicio));
+        return resultado.size() > limite ? new ArrayList<>(resultado.subList(0, limite)) : resultado;
+    }
+
+    /**
+     * Especialistas del indice por especialidad, el preferido primero y los demas de menor a mayor carga
+     * dentro de la ventana; asi los empates de hora no recaen siempre en el mismo medico
+     */
+    private List<Medico> especialistas(String especialidad, Medico preferido, LocalDateTime desde, LocalDateTime hasta) {
+        List<Medico> especialistas = new ArrayList<>();
+        if (especialidad != null && desde != null && hasta != null) {
+            for (Medico medico : gestionarUsuario.getMedicosPorEspecialidad(especialidad)) {
+                if (medico != preferido) {
+                    especialistas.add(medico);
+                }
+            }
+            Map<Medico, Integer> carga = new HashMap<>();
+            for (Medico medico : especialistas) {
+                carga.put(medico, citas.minutosReservados(medico.getId(), desde, hasta.plusMinutes(Cita.DURACION_MINUTOS)));
+            }
+            especialistas.sort(Comparator.comparing(carga::get));
+        }
+        if (preferido != null && (especialidad == null || preferido.getEspecialidad() != null
+                && especialidad.trim().equalsIgnoreCase(preferido.getEspecialidad().trim()))) {
+            especialistas.add(0, preferido);
+        }
+        return especialistas;
+    }
+
+    /**
+     * Calendario del dia de cada sala y, en la ultima posicion, su AND: las franjas en que todas estan ocupadas
+     */
+    private long[] ocupacionConInterseccion(List<Consultorio> salas, LocalDate dia) {
+        long[] porSala = citas.ocupacionDelDia(salas, dia);
+        long[] ocupacion = Arrays.copyOf(porSala, porSala.length + 1);
+        long todas = -1L;
+        for (long sala : porSala) {
+            todas &= sala;
+        }
+        ocupacion[porSala.length] = todas;
+        return ocupacion;
+    }
+
+    /**
+     * @return Posicion de la primera sala libre en la franja, en el orden recibido, o -1 si todas estan ocupadas
+     */
+    private static int primeraSalaLibre(long[] ocupacion, int franja) {
+        long bit = 1L << franja;
+        int salas = ocupacion.length - 1;
+        if ((ocupacion[salas] & bit) != 0) return -1;
+        for (int i = 0; i < salas; i++) {
+            if ((ocupacion[i] & bit) == 0) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Redondea hacia arriba a la siguiente media hora
+     */
+    static LocalDateTime alinear(LocalDateTime fecha) {
+        LocalDateTime hora = fecha.truncatedTo(ChronoUnit.HOURS);
+        long nanos = Duration.between(hora, fecha).toNanos();
+        long turnos = (nanos + NANOS_TURNO - 1) / NANOS_TURNO;
+        return hora.plusMinutes(turnos * Cita.DURACION_MINUTOS);
+    }
+}
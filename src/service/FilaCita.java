@@ -0,0 +1,104 @@
+package service;
+
+import modelo.Cita;
+import modelo.ClaveCita;
+import modelo.FormatoCita;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Datos de una cita que se muestran en una fila de un listado.
+ * <p>
+ *     Solo copia los textos que se ven en pantalla, asi un listado no retiene citas,
+ *     pacientes ni medicos y no arma el detalle completo de cada cita.
+ * </p>
+ */
+public class FilaCita {
+    private static final DateTimeFormatter FORMATO = FormatoCita.FECHA_HORA;
+
+    private final String id;
+    private final LocalDateTime fecha;
+    private final String estado;
+    private final String idPaciente;
+    private final String paciente;
+    private final String idMedico;
+    private final String medico;
+    private final String especialidad;
+    private final String consultorio;
+    private final String motivo;
+
+    private FilaCita(Cita cita) {
+        this.id = cita.getId();
+        this.fecha = cita.getFecha();
+        this.estado = cita.getEstadoCita() != null ? cita.getEstadoCita().name() : "";
+        this.idPaciente = cita.getPaciente() != null ? cita.getPaciente().getId() : "";
+        this.paciente = cita.getPaciente() != null ? cita.getPaciente().nombreCompleto() : "";
+        this.idMedico = cita.getMedico() != null ? cita.getMedico().getId() : "";
+        this.medico = cita.getMedico() != null ? cita.getMedico().nombreCompleto() : "";
+        this.especialidad = cita.getMedico() != null ? cita.getMedico().getEspecialidad() : "";
+        this.consultorio = cita.getConsultorio() != null ? cita.getConsultorio().getNumero() : "";
+        this.motivo = cita.getMotivo() != null ? cita.getMotivo() : "";
+    }
+
+    /**
+     * @param cita Cita con fecha asignada
+     * @return Fila con los datos actuales de la cita
+     */
+    public static FilaCita de(Cita cita) {
+        return new FilaCita(cita);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public String getIdPaciente() {
+        return idPaciente;
+    }
+
+    public String getPaciente() {
+        return paciente;
+    }
+
+    public String getIdMedico() {
+        return idMedico;
+    }
+
+    public String getMedico() {
+        return medico;
+    }
+
+    public String getEspecialidad() {
+        return especialidad;
+    }
+
+    public String getConsultorio() {
+        return consultorio;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    /**
+     * @return Cursor que ubica esta fila en los listados ordenados por fecha
+     */
+    public ClaveCita getClave() {
+        return new ClaveCita(fecha, id != null ? id : "");
+    }
+
+    @Override
+    public String toString() {
+        return id + " | " + FORMATO.format(fecha) + " | " + estado + " | " + paciente
+                + " | Dr(a). " + medico + " (" + especialidad + ") | Consultorio " + consultorio + " | " + motivo;
+    }
+}
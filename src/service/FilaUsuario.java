@@ -0,0 +1,69 @@
+package service;
+
+import modelo.Medico;
+import modelo.Paciente;
+
+/**
+ * Datos de un paciente o medico que se muestran en una fila de un listado.
+ */
+public class FilaUsuario {
+    private final String id;
+    private final String nombre;
+    private final String telefono;
+    private final String email;
+    private final String detalle;
+
+    private FilaUsuario(String id, String nombre, String telefono, String email, String detalle) {
+        this.id = id;
+        this.nombre = nombre;
+        this.telefono = telefono;
+        this.email = email;
+        this.detalle = detalle;
+    }
+
+    /**
+     * @param paciente Paciente a mostrar
+     * @return Fila cuyo detalle es la historia clinica del paciente
+     */
+    public static FilaUsuario de(Paciente paciente) {
+        return new FilaUsuario(paciente.getId(), paciente.nombreCompleto(), paciente.getTelefono(),
+                paciente.getEmail(), paciente.getHistoriaClinica());
+    }
+
+    /**
+     * @param medico Medico a mostrar
+     * @return Fila cuyo detalle es la especialidad del medico
+     */
+    public static FilaUsuario de(Medico medico) {
+        return new FilaUsuario(medico.getId(), medico.nombreCompleto(), medico.getTelefono(),
+                medico.getEmail(), medico.getEspecialidad());
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getTelefono() {
+        return telefono;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * @return Especialidad para los medicos, historia clinica para los pacientes
+     */
+    public String getDetalle() {
+        return detalle;
+    }
+
+    @Override
+    public String toString() {
+        return id + " | " + nombre + " | " + detalle + " | " + telefono + " | " + email;
+    }
+}
@@ -0,0 +1,48 @@
+package service;
+
+import modelo.Consultorio;
+import modelo.FormatoCita;
+import modelo.Medico;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Combinacion de medico, consultorio y hora en la que se puede agendar una cita.
+ */
+public class HorarioDisponible {
+    private static final DateTimeFormatter FORMATO = FormatoCita.FECHA_HORA;
+
+    private final Medico medico;
+    private final Consultorio consultorio;
+    private final LocalDateTime inicio;
+
+    /**
+     * @param medico Medico libre en ese horario
+     * @param consultorio Consultorio libre en ese horario
+     * @param inicio Hora de inicio del turno
+     */
+    public HorarioDisponible(Medico medico, Consultorio consultorio, LocalDateTime inicio) {
+        this.medico = medico;
+        this.consultorio = consultorio;
+        this.inicio = inicio;
+    }
+
+    public Medico getMedico() {
+        return medico;
+    }
+
+    public Consultorio getConsultorio() {
+        return consultorio;
+    }
+
+    public LocalDateTime getInicio() {
+        return inicio;
+    }
+
+    @Override
+    public String toString() {
+        return FORMATO.format(inicio) + " - Dr(a). " + medico.nombreCompleto()
+                + " (" + medico.getEspecialidad() + ") - Consultorio " + consultorio.getNumero();
+    }
+}
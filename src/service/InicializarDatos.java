@@ -3,6 +3,7 @@ package service;
 import data.DatosEjemplo;
 import modelo.*;
 
+import java.io.UncheckedIOException;
 import java.util.List;
 
 public class InicializarDatos {
@@ -12,23 +13,21 @@ public class InicializarDatos {
         this.gestionarUsuario = gestionarUsuario;
     }
 
+    /**
+     * Llena con datos de ejemplo solo los conjuntos que quedaron vacios despues de cargar los archivos.
+     * Los usuarios ya cargados nunca se borran, asi que faltar un archivo no reemplaza los demas.
+     */
     public void inicializarDatosEjemplo() {
-        if (gestionarUsuario.getPacientes().isEmpty()
-                || gestionarUsuario.getMedicos().isEmpty()
-                || gestionarUsuario.getRecepcionistas().isEmpty()
-                || gestionarUsuario.getConsultorios().isEmpty()) {
-
-            gestionarUsuario.getPacientes().clear();
-            gestionarUsuario.getMedicos().clear();
-            gestionarUsuario.getRecepcionistas().clear();
-            gestionarUsuario.getConsultorios().clear();
-
-            agregarPacientesEjemplo();
-            agregarMedicosEjemplo();
-            agregarRecepcionistasEjemplo();
-            agregarConsultoriosEjemplo();
+        if (gestionarUsuario.getPacientes().isEmpty()) agregarPacientesEjemplo();
+        if (gestionarUsuario.getMedicos().isEmpty()) agregarMedicosEjemplo();
+        if (gestionarUsuario.getRecepcionistas().isEmpty()) agregarRecepcionistasEjemplo();
+        if (gestionarUsuario.getConsultorios().isEmpty()) agregarConsultoriosEjemplo();
 
+        try {
             gestionarUsuario.guardarEnArchivo();
+        } catch (UncheckedIOException ex) {
+            System.err.println("No se pudieron guardar los datos de ejemplo, se reintentara en el siguiente guardado: "
+                    + ex.getMessage());
         }
     }
 
@@ -37,7 +36,7 @@ public class InicializarDatos {
             List<Paciente> pacientes = DatosEjemplo.inicializarPacienteEJ();
             if (pacientes != null) {
                 for (Paciente paciente : pacientes) {
-                    gestionarUsuario.getPacientes().add(paciente);
+                    gestionarUsuario.registrarPaciente(paciente);
                 }
             }
         } catch (Exception ignored) { }
@@ -48,7 +47,7 @@ public class InicializarDatos {
             List<Medico> medicos = DatosEjemplo.inicializarMedicoEJ();
             if (medicos != null) {
                 for (Medico medico : medicos) {
-                    gestionarUsuario.getMedicos().add(medico);
+                    gestionarUsuario.registrarMedico(medico);
                 }
             }
         } catch (Exception ignored) { }
@@ -59,7 +58,7 @@ public class InicializarDatos {
             List<Recepcionista> recepcs = DatosEjemplo.inicializarRecepcionista();
             if (recepcs != null) {
                 for (Recepcionista r : recepcs) {
-                    gestionarUsuario.getRecepcionistas().add(r);
+                    gestionarUsuario.registrarRecepcionista(r);
                 }
             }
         } catch (Exception ignored) { }
@@ -70,15 +69,15 @@ public class InicializarDatos {
             List<Consultorio> consultorios = DatosEjemplo.inicializarConsultorioEJ();
             if (consultorios != null && !consultorios.isEmpty()) {
                 for (Consultorio c : consultorios) {
-                    gestionarUsuario.getConsultorios().add(c);
+                    gestionarUsuario.registrarConsultorio(c);
                 }
             } else {
-                gestionarUsuario.getConsultorios().add(new Consultorio("1", true, "Consultorio Piso 1"));
-                gestionarUsuario.getConsultorios().add(new Consultorio("2", true, "Consultorio Piso 1"));
+                gestionarUsuario.registrarConsultorio(new Consultorio("1", true, "Consultorio Piso 1"));
+                gestionarUsuario.registrarConsultorio(new Consultorio("2", true, "Consultorio Piso 1"));
             }
         } catch (Exception ignored) {
-            gestionarUsuario.getConsultorios().add(new Consultorio("1", true, "Consultorio Piso 1"));
-            gestionarUsuario.getConsultorios().add(new Consultorio("2", true, "Consultorio Piso 1"));
+            gestionarUsuario.registrarConsultorio(new Consultorio("1", true, "Consultorio Piso 1"));
+            gestionarUsuario.registrarConsultorio(new Consultorio("2", true, "Consultorio Piso 1"));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package service;
+
+import modelo.ClaveCita;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parte de un listado, con lo necesario para pedir la siguiente.
+ * <p>
+ *     Los listados de citas se recorren con un cursor: la clave (fecha, id) de la ultima fila,
+ *     que se pasa tal cual para pedir la pagina siguiente. Los listados de usuarios se recorren por posicion.
+ * </p>
+ * @param <T> Tipo de las filas
+ */
+public class Pagina<T> {
+    /**
+     * Total desconocido, para listados que tendrian que recorrerse completos para contarlos
+     */
+    public static final int TOTAL_DESCONOCIDO = -1;
+
+    private final List<T> filas;
+    private final int desde;
+    private final int total;
+    private final boolean hayMas;
+    private final ClaveCita cursor;
+
+    /**
+     * @param filas Filas de la pagina
+     * @param desde Posicion de la primera fila dentro del listado completo, -1 si se pidio por cursor
+     * @param total Cantidad de filas del listado completo o {@link #TOTAL_DESCONOCIDO}
+     * @param hayMas true si existen filas despues de esta pagina
+     * @param cursor Cursor para pedir la pagina siguiente, null si el listado no usa cursor
+     */
+    public Pagina(List<T> filas, int desde, int total, boolean hayMas, ClaveCita cursor) {
+        this.filas = Collections.unmodifiableList(filas);
+        this.desde = desde;
+        this.total = total;
+        this.hayMas = hayMas;
+        this.cursor = cursor;
+    }
+
+    public List<T> getFilas() {
+        return filas;
+    }
+
+    /**
+     * @return Posicion de la primera fila, -1 en las paginas pedidas por cursor
+     */
+    public int getDesde() {
+        return desde;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public boolean hayMas() {
+        return hayMas;
+    }
+
+    /**
+     * @return Clave de la ultima fila, para pedir la pagina siguiente; null si no hay filas o no aplica
+     */
+    public ClaveCita getCursor() {
+        return cursor;
+    }
+}
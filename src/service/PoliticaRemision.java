@@ -0,0 +1,34 @@
+package service;
+
+import java.util.Locale;
+
+/**
+ * Como se elige al especialista cuando se remite a un paciente.
+ * Se configura con la propiedad del sistema citas.remision.politica (por defecto MENOR_CARGA).
+ */
+public enum PoliticaRemision {
+    /**
+     * El especialista con menos minutos de citas vigentes dentro de la ventana que tenga algun horario
+     * libre en ella, en su primer horario. Reparte las remisiones entre los especialistas.
+     */
+    MENOR_CARGA,
+
+    /**
+     * El horario mas temprano de cualquier especialista; a la misma hora gana el de menor carga.
+     */
+    PRIMER_HORARIO;
+
+    /**
+     * @return La politica de la propiedad citas.remision.politica, o {@link #MENOR_CARGA} si no esta o no es valida
+     */
+    public static PoliticaRemision configurada() {
+        String valor = System.getProperty("citas.remision.politica");
+        if (valor == null) return MENOR_CARGA;
+        try {
+            return valueOf(valor.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            System.err.println("Politica de remision desconocida " + valor + ", se usa " + MENOR_CARGA);
+            return MENOR_CARGA;
+        }
+    }
+}
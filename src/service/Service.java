@@ -1,89 +1,133 @@
 package service;
 
 import data.DatosEjemplo;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import modelo.*;
+import persistencia.AlmacenCitas;
+import persistencia.GeneradorIdCitas;
+import persistencia.JournalCitas;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 
 /**
  * Archivo 'service' que contiene toda la logica de negocio del programa.
+ * <p>
+ *     Varias recepciones pueden reservar a la vez: las operaciones que validan un horario y luego
+ *     modifican citas se hacen con los candados del medico y del consultorio tomados (ver {@link BloqueosAgenda}).
+ * </p>
  */
 public class Service {
-    private final List<Cita> citas;
+    private final CitaRepository citas;
     private final GestionarUsuario gestionarUsuario;
-    private int contadorCitas;
 
-    // Archivo donde se persisten las citas (puedes cambiar la ruta si quieres)
-    private static final Path CITAS_FILE = Paths.get("data", "citas.txt");
-    private static final DateTimeFormatter FILE_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    // Snapshots y journal donde se anexa cada cambio de las citas
+    private final AlmacenCitas almacenCitas;
+    private final JournalCitas journal;
+    private final GeneradorIdCitas generadorIds;
+    private final BuscadorHorarios buscadorHorarios;
+    private final BloqueosAgenda bloqueos;
+    private final TiemposCarga tiemposCarga;
+    private volatile PoliticaRemision politicaRemision;
 
     /**
-     * constructor del programa
+     * constructor del programa, guarda las citas en la carpeta "data"
      */
     public Service(GestionarUsuario gestionarUsuario) {
-        this.citas = new ArrayList<>();
+        this(gestionarUsuario, Paths.get("data"), Paths.get(GestionarUsuario.ARCHIVO_CITAS_ANTERIOR));
+    }
+
+    /**
+     * constructor que permite indicar la carpeta donde se guardan las citas, sin migrar el archivo anterior
+     * @param directorioDatos carpeta con los snapshots y el journal de citas
+     */
+    public Service(GestionarUsuario gestionarUsuario, Path directorioDatos) {
+        this(gestionarUsuario, directorioDatos, null);
+    }
+
+    private Service(GestionarUsuario gestionarUsuario, Path directorioDatos, Path archivoAnterior) {
         this.gestionarUsuario = gestionarUsuario;
-        this.contadorCitas = 1;
+        this.citas = gestionarUsuario.getCitaRepository();
+        this.almacenCitas = new AlmacenCitas(directorioDatos);
+        if (archivoAnterior != null) {
+            this.almacenCitas.agregarArchivoAnterior(archivoAnterior);
+        }
+        this.journal = almacenCitas.getJournal();
+        this.generadorIds = almacenCitas.getGeneradorIds();
+        this.buscadorHorarios = new BuscadorHorarios(citas, gestionarUsuario);
+        this.bloqueos = new BloqueosAgenda(64);
+        this.tiemposCarga = new TiemposCarga();
+        this.politicaRemision = PoliticaRemision.configurada();
 
         // Cargar citas desde archivo al iniciar
         cargarCitasDesdeArchivo();
+        almacenCitas.iniciarCompactacion(citas::todas);
+        if (almacenCitas.isMigracionPendiente()) {
+            almacenCitas.compactar();
+        }
     }
 
     /**
-     * metodo encargado de generar un id a cada cita nueva que se genere
+     * @return duracion de cada fase de la carga de las citas al crear el servicio
      */
-    public String generadorIdCita(){
-        return String.format("CITA-A%07d", contadorCitas++);
+    public TiemposCarga getTiemposCarga() {
+        return tiemposCarga;
     }
 
-    // -------------------- búsquedas -------------------- //
+    /**
+     * @param politicaRemision como elegir al especialista en {@link #remitirPaciente(String, String, String)}
+     */
+    public void setPoliticaRemision(PoliticaRemision politicaRemision) {
+        this.politicaRemision = politicaRemision;
+    }
 
-    public Usuario searchUserById(String id){
-        for(Usuario paciente : gestionarUsuario.getPacientes()){
-            if(paciente.getId().equals(id)){
-                return paciente;
-            }
-        }
+    /**
+     * @return gestor de usuarios y consultorios del servicio
+     */
+    public GestionarUsuario getGestionarUsuario() {
+        return gestionarUsuario;
+    }
 
-        for(Usuario medico : gestionarUsuario.getMedicos()){
-            if(medico.getId().equals(id)){
-                return medico;
-            }
-        }
+    /**
+     * @return almacen de las citas, permite consultar el costo de la ultima compactacion
+     */
+    public AlmacenCitas getAlmacenCitas() {
+        return almacenCitas;
+    }
 
-        for(Usuario Recepcionista : gestionarUsuario.getRecepcionistas()){
-            if(Recepcionista.getId().equals(id)){
-                return Recepcionista;
-            }
-        }
 
-        return null;
+    /**
+     * metodo encargado de generar un id a cada cita nueva que se genere; no hace I/O salvo
+     * cuando se agota el bloque de IDs reservado en disco
+     */
+    public String generadorIdCita(){
+        return generadorIds.siguienteId();
+    }
+
+    // -------------------- búsquedas -------------------- //
+
+    public Usuario searchUserById(String id){
+        return gestionarUsuario.buscarUsuario(id);
     }
 
     public Consultorio searchConsultorioByNumero(String numero) {
-        for (Consultorio c1 : gestionarUsuario.getConsultorios()) {
-            if (c1.getNumero().equals(numero)) {
-                return c1;
-            }
-        }
-        return null;
+        return gestionarUsuario.buscarConsultorio(numero);
     }
 
     /**
-     * Agrega una cita en memoria y persiste inmediatamente a archivo.
+     * Agrega una cita en memoria y la anexa inmediatamente al journal.
      */
     public void agregarCita(Cita cita){
-        citas.add(cita);
+        citas.agregar(cita);
         if (cita.getMedico() != null) {
             cita.getMedico().agregarCita(cita);
         }
-        guardarCitasEnArchivo();
+        journal.registrarCreacion(cita);
     }
 
     public Cita crearCita(String id, Paciente paciente, Medico medico, Consultorio consultorio, String motivo, LocalDateTime fecha){
@@ -95,56 +139,82 @@ public class Service {
     }
 
     public Cita searchCitaById(String id) {
-        if (id == null) return null;
-        String buscado = id.trim();
-        if (buscado.isEmpty()) return null;
-
-        for (Cita c : gestionarUsuario.getCitas()) {
-            if (c != null && c.getId() != null && c.getId().trim().equalsIgnoreCase(buscado)) {
-                return c;
-            }
-        }
-        return null;
+        return citas.buscarPorId(id);
     }
 
+    /**
+     * @param idPaciente ID del paciente
+     * @return Citas no canceladas del paciente ordenadas por fecha, leidas del indice del paciente
+     */
     public List<Cita> verCitasPaciente(String idPaciente) {
-        return citas.stream()
-                .filter(cita -> cita.getPaciente().getId().equals(idPaciente))
-                .filter(cita -> !cita.getEstadoCita().equals(citaState.CANCELADA))
-                .sorted(Comparator.comparing(Cita::getFecha))
-                .collect(Collectors.toList());
+        return citas.citasPaciente(idPaciente, null, null, false,
+                cita -> cita.getEstadoCita() != citaState.CANCELADA);
     }
 
+    /**
+     * @param idMedico ID del medico
+     * @return Citas no canceladas del medico ordenadas por fecha, leidas de su agenda
+     */
     public List<Cita> verAgendaMedico(String idMedico) {
-        return citas.stream()
-                .filter(cita -> cita.getMedico().getId().equals(idMedico))
-                .filter(cita -> !cita.getEstadoCita().equals(citaState.CANCELADA))
-                .sorted(Comparator.comparing(Cita::getFecha))
-                .collect(Collectors.toList());
+        return verAgendaMedico(idMedico, null, null);
+    }
+
+    /**
+     * Tramo de la agenda del medico, leido del rango de su agenda ordenada sin recorrer las demas citas
+     * @param idMedico ID del medico
+     * @param desde Inicio del rango, null para no limitarlo
+     * @param hasta Fin del rango (excluido), null para no limitarlo
+     * @return Citas no canceladas del medico en el rango, ordenadas por fecha; vacia si el medico no existe
+     */
+    public List<Cita> verAgendaMedico(String idMedico, LocalDateTime desde, LocalDateTime hasta) {
+        Medico medico = gestionarUsuario.buscarMedico(idMedico);
+        if (medico == null) return new ArrayList<>();
+        List<Cita> agenda = medico.agendaEntre(desde, hasta);
+        agenda.removeIf(cita -> cita.getEstadoCita() == citaState.CANCELADA);
+        return agenda;
     }
 
+    /**
+     * @param idMedico ID del medico
+     * @param dia Dia a consultar
+     * @return Citas no canceladas del medico ese dia, ordenadas por fecha; vacia si el medico no existe
+     */
+    public List<Cita> agendaMedicoDelDia(String idMedico, LocalDate dia) {
+        Medico medico = gestionarUsuario.buscarMedico(idMedico);
+        if (medico == null) return new ArrayList<>();
+        List<Cita> agenda = medico.agendaDelDia(dia);
+        agenda.removeIf(cita -> cita.getEstadoCita() == citaState.CANCELADA);
+        return agenda;
+    }
+
+    /**
+     * @param idMedico ID del medico
+     * @param dia Cualquier dia de la semana a consultar
+     * @return Citas no canceladas del medico de lunes a domingo de esa semana, ordenadas por fecha;
+     *         vacia si el medico no existe
+     */
+    public List<Cita> agendaMedicoDeLaSemana(String idMedico, LocalDate dia) {
+        Medico medico = gestionarUsuario.buscarMedico(idMedico);
+        if (medico == null) return new ArrayList<>();
+        List<Cita> agenda = medico.agendaDeLaSemana(dia);
+        agenda.removeIf(cita -> cita.getEstadoCita() == citaState.CANCELADA);
+        return agenda;
+    }
+
+    /**
+     * Valida que el medico no tenga otra cita activa que se cruce con el turno de 30 minutos
+     * que empieza en fechaHora. Consulta el indice por medico del repositorio en O(log n).
+     */
     public boolean validarHorarioMedico(Medico medico, LocalDateTime fechaHora){
-        LocalDateTime finalCita = fechaHora.plusMinutes(30);
-        return citas.stream()
-                .filter(cita -> cita.getMedico().getId().equals(medico.getId()))
-                .filter(cita -> cita.getEstadoCita() != citaState.CANCELADA)
-                .noneMatch(cita ->{
-                    LocalDateTime inicioCitaCreada = cita.getFecha();
-                    LocalDateTime finCitaCreada = inicioCitaCreada.plusMinutes(30);
-                    return fechaHora.isBefore(finCitaCreada) && finalCita.isAfter(inicioCitaCreada);
-                });
+        return !citas.medicoOcupado(medico.getId(), fechaHora);
     }
 
+    /**
+     * Valida que el consultorio no tenga otra cita activa en el turno de 30 minutos que empieza en
+     * fechaHora. Usa el calendario de ocupacion del consultorio y solo revisa citas si la franja esta marcada.
+     */
     public boolean validarHorarioConsultorio(Consultorio consultorio, LocalDateTime fechaHora){
-        LocalDateTime finalCita = fechaHora.plusMinutes(30);
-        return citas.stream()
-                .filter(cita -> cita.getConsultorio().getNumero().equals(consultorio.getNumero()))
-                .filter(cita -> cita.getEstadoCita() != citaState.CANCELADA)
-                .noneMatch(cita ->{
-                    LocalDateTime inicioCitaCreada = cita.getFecha();
-                    LocalDateTime finCitaCreada = inicioCitaCreada.plusMinutes(30);
-                    return fechaHora.isBefore(finCitaCreada) && finalCita.isAfter(inicioCitaCreada);
-                });
+        return !citas.consultorioOcupado(consultorio, fechaHora);
     }
 
     public Usuario iniciarSesion (String id, String password){
@@ -158,22 +228,9 @@ public class Service {
             return null;
         }
 
-        for(Paciente paciente : gestionarUsuario.getPacientes()){
-            if(paciente.getId().equals(id) && paciente.getPassword().equals(password)){
-                return paciente;
-            }
-        }
-
-        for(Medico medico : gestionarUsuario.getMedicos()){
-            if(medico.getId().equals(id) && medico.getPassword().equals(password)){
-                return medico;
-            }
-        }
-
-        for(Recepcionista recepcionista : gestionarUsuario.getRecepcionistas()){
-            if(recepcionista.getId().equals(id) && recepcionista.getPassword().equals(password)){
-                return recepcionista;
-            }
+        Usuario usuario = gestionarUsuario.buscarUsuario(id);
+        if(usuario != null && usuario.getPassword().equals(password)){
+            return usuario;
         }
         return null;
     }
@@ -188,9 +245,9 @@ public class Service {
      */
     public Cita reservarCita(String idPaciente, String idMedico, String numeroConsultorio, String motivo, LocalDateTime fecha) {
 
-        Paciente p = null; for (Paciente px: gestionarUsuario.getPacientes()) if (idPaciente.equals(px.getId())) { p = px; break; }
-        Medico m = null; for (Medico mx: gestionarUsuario.getMedicos()) if (idMedico.equals(mx.getId())) { m = mx; break; }
-        Consultorio c = null; for (Consultorio cx: gestionarUsuario.getConsultorios()) if (numeroConsultorio.equals(cx.getNumero())) { c = cx; break; }
+        Paciente p = gestionarUsuario.buscarPaciente(idPaciente);
+        Medico m = gestionarUsuario.buscarMedico(idMedico);
+        Consultorio c = gestionarUsuario.buscarConsultorio(numeroConsultorio);
 
         if (p == null) throw new IllegalArgumentException("Paciente no encontrado: " + idPaciente);
         if (m == null) throw new IllegalArgumentException("Médico no encontrado: " + idMedico);
@@ -198,14 +255,19 @@ public class Service {
         if (fecha == null) throw new IllegalArgumentException("Fecha inválida");
         if (fecha.isBefore(LocalDateTime.now())) throw new IllegalArgumentException("La fecha debe ser futura");
 
-        String newId = "C" + (gestionarUsuario.getCitas().size() + 1);
-
-        Cita cita = new Cita(newId, p, m, c, motivo, fecha);
-
-        gestionarUsuario.agregarCita(cita);
-        gestionarUsuario.guardarEnArchivo();
+        // Validar y agregar con los candados tomados, asi dos reservas no pueden quedarse con el mismo turno
+        return bloqueos.conBloqueo(m, c, () -> {
+            if (!validarHorarioMedico(m, fecha)) {
+                throw new IllegalArgumentException("El médico no está disponible en la fecha y hora seleccionadas.");
+            }
+            if (!validarHorarioConsultorio(c, fecha)) {
+                throw new IllegalArgumentException("El consultorio no está disponible en la fecha y hora seleccionadas.");
+            }
 
-        return cita;
+            Cita cita = new Cita(generadorIdCita(), p, m, c, motivo, fecha);
+            agregarCita(cita);
+            return cita;
+        });
     }
 
     /**
@@ -219,18 +281,14 @@ public class Service {
         Cita cita = searchCitaById(buscado);
         if (cita == null) return false;
 
-
-        if (cita.getEstadoCita() == citaState.PENDIENTE || cita.getEstadoCita() == citaState.CONFIRMADA) {
-            cita.setEstadoCita(citaState.CANCELADA);
-
-            try {
-                gestionarUsuario.guardarEnArchivo();
-            } catch (Exception e) {
-                e.printStackTrace();
+        return bloqueos.conBloqueo(cita.getMedico(), cita.getConsultorio(), () -> {
+            if (cita.getEstadoCita() == citaState.PENDIENTE || cita.getEstadoCita() == citaState.CONFIRMADA) {
+                cita.setEstadoCita(citaState.CANCELADA);
+                journal.registrarEstado(cita);
+                return true;
             }
-            return true;
-        }
-        return false;
+            return false;
+        });
     }
 
     /**
@@ -238,29 +296,34 @@ public class Service {
      */
     public boolean reprogramarCita(String idCita, LocalDateTime nuevaFecha) {
         Cita cita = searchCitaById(idCita);
-
-        if(cita == null || cita.getEstadoCita() == citaState.COMPLETADA || cita.getEstadoCita() == citaState.CANCELADA){
+        if(cita == null){
             return false;
         }
 
-        if(!validarHorarioMedico(cita.getMedico(), nuevaFecha)){
-            throw new IllegalArgumentException("El médico no está disponible en la fecha y hora seleccionadas.");
-        }
+        return bloqueos.conBloqueo(cita.getMedico(), cita.getConsultorio(), () -> {
+            if(cita.getEstadoCita() == citaState.COMPLETADA || cita.getEstadoCita() == citaState.CANCELADA){
+                return false;
+            }
 
-        if(!validarHorarioConsultorio(cita.getConsultorio(), nuevaFecha)){
-            throw new IllegalArgumentException("El consultorio no está disponible en la fecha y hora seleccionadas.");
-        }
+            if(!validarHorarioMedico(cita.getMedico(), nuevaFecha)){
+                throw new IllegalArgumentException("El médico no está disponible en la fecha y hora seleccionadas.");
+            }
+
+            if(!validarHorarioConsultorio(cita.getConsultorio(), nuevaFecha)){
+                throw new IllegalArgumentException("El consultorio no está disponible en la fecha y hora seleccionadas.");
+            }
 
-        cita.setFecha(nuevaFecha);
-        guardarCitasEnArchivo();
-        return true;
+            cita.setFecha(nuevaFecha);
+            journal.registrarReprogramacion(cita);
+            return true;
+        });
     }
 
     /**
      * consultarHistoriaClinicaPaciente (sin cambios funcionales)
      */
     public String consultarHistoriaClinicaPaciente(String idPaciente) {
-        Paciente paciente = (Paciente) searchUserById(idPaciente);
+        Paciente paciente = gestionarUsuario.buscarPaciente(idPaciente);
         if(paciente == null){
             return "Paciente no encontrado";
         }
@@ -277,11 +340,7 @@ public class Service {
         sb.append("Número de Teléfono: ").append(paciente.getTelefono()).append("\n");
         sb.append("\n");
 
-        List<Cita> pacienteCitas = citas.stream()
-                .filter(c -> c.getPaciente().getId().equals(paciente.getId()))
-                .filter(c -> c.getEstadoCita() == citaState.COMPLETADA)
-                .sorted(Comparator.comparing(Cita::getFecha).reversed())
-                .collect(Collectors.toList());
+        List<Cita> pacienteCitas = historialPaciente(paciente.getId());
 
         sb.append("=== HISTORIAL DE CITAS ===\n\n");
 
@@ -289,139 +348,197 @@ public class Service {
             sb.append("No hay citas completadas.\n");
         } else {
             for (Cita c : pacienteCitas) {
-                sb.append(c.toString()).append("\n");
-                sb.append("-".repeat(70)).append("\n\n");
+                FormatoCita.escribirTarjeta(c, sb);
+                sb.append('\n').append(FormatoCita.SEPARADOR).append("\n\n");
             }
         }
         return sb.toString();
     }
 
+    /**
+     * @param idPaciente ID del paciente
+     * @return Citas completadas del paciente, de la mas reciente a la mas antigua
+     */
+    public List<Cita> historialPaciente(String idPaciente) {
+        return citas.citasPaciente(idPaciente, null, null, true,
+                c -> c.getEstadoCita() == citaState.COMPLETADA);
+    }
+
     //---------------metodos de medico---------------//
 
+    /**
+     * @param idMedico ID del medico
+     * @return Citas completadas del medico, de la mas reciente a la mas antigua, leidas del indice del medico
+     */
+    public List<Cita> historialMedico(String idMedico) {
+        Medico medico = gestionarUsuario.buscarMedico(idMedico);
+        if (medico == null) return new ArrayList<>();
+        return citas.consultar(new FiltroCitas(medico.getId(), null, citaState.COMPLETADA, null, null, true),
+                null, 0, Integer.MAX_VALUE);
+    }
+
     /**
      * Atender cita
      */
     public boolean atenderCita(String idCita, String diagnostico, String tratamiento, String observaciones) {
         Cita cita = searchCitaById(idCita);
+        if(cita == null){
+            return false;
+        }
 
-        if(cita != null && (cita.getEstadoCita() == citaState.CONFIRMADA ||
-                cita.getEstadoCita() == citaState.PENDIENTE)) {
+        return bloqueos.conBloqueo(cita.getMedico(), cita.getConsultorio(), () -> {
+            if(cita.getEstadoCita() != citaState.CONFIRMADA && cita.getEstadoCita() != citaState.PENDIENTE) {
+                return false;
+            }
             cita.iniciarAtencion();
             cita.setDiagnostico(diagnostico);
             cita.setTratamiento(tratamiento);
             cita.setObservaciones(observaciones);
             cita.completar();
-            Medico m = cita.getMedico();
-            if (m != null) {
-                boolean existe = false;
-                for (Cita cc : m.getAgenda()) {
-                    if (cc != null && cc.getId() != null && cc.getId().trim().equalsIgnoreCase(cita.getId().trim())) {
-                        existe = true;
-                        break;
-                    }
-                }
-                if (!existe) {
-                    m.getAgenda().add(cita);
-                }
+            if (cita.getMedico() != null) {
+                cita.getMedico().agregarCita(cita);
             }
-            guardarCitasEnArchivo();
+            journal.registrarNotas(cita);
+            journal.registrarEstado(cita);
             return true;
-        }
-        return false;
+        });
     }
 
     /**
-     * Remitir paciente: intenta buscar turno disponible y crea nueva cita (persistida por agregarCita) y marca completada la original
+     * Remitir paciente: intenta buscar turno disponible y crea nueva cita (persistida por agregarCita) y marca completada la original.
+     * El especialista se elige segun la {@link PoliticaRemision} del servicio
      */
     public String remitirPaciente(String idCita, String especialidad, String motivo) {
+        return remitirPaciente(idCita, especialidad, motivo, null);
+    }
+
+    /**
+     * Remite al paciente como {@link #remitirPaciente(String, String, String)}, pero solo en los consultorios indicados
+     * @param consultorios Numeros de los consultorios permitidos; null o vacio para usar todos
+     * @throws IllegalArgumentException si la cita o alguno de los consultorios no existe
+     */
+    public String remitirPaciente(String idCita, String especialidad, String motivo, Collection<String> consultorios) {
+        List<Consultorio> permitidos = consultoriosPermitidos(consultorios);
         Cita cita = searchCitaById(idCita);
         if (cita == null) {
             throw new IllegalArgumentException("La cita no se encuentra.");
         }
 
-        List<Medico> especialistas = gestionarUsuario.getMedicos().stream()
-                .filter(doc -> doc.getEspecialidad().equalsIgnoreCase(especialidad))
-                .collect(Collectors.toList());
-
-        if (especialistas.isEmpty()) {
+        if (gestionarUsuario.getMedicosPorEspecialidad(especialidad).isEmpty()) {
             return "No hay especialistas disponibles en la especialidad " + especialidad;
         }
 
         StringBuilder sb = new StringBuilder();
-        boolean creada = false;
-        Medico medicoAsignado = especialistas.get(0);
-        Paciente paciente = cita.getPaciente();
-        Consultorio consultorioAsignado = null;
         LocalDateTime propuesta = LocalDateTime.now().plusHours(1);
 
         int minutos = propuesta.getMinute() < 30 ? 0 : 30;
         propuesta = propuesta.withMinute(minutos).withSecond(0).withNano(0);
 
         LocalDateTime limiteHorario = propuesta.plusDays(30);
-
-        while (!creada && !propuesta.isAfter(limiteHorario)) {
-            if (validarHorarioMedico(medicoAsignado, propuesta)) {
-                if (consultorioAsignado == null || !validarHorarioConsultorio(consultorioAsignado, propuesta)) {
-                    for (Consultorio c : gestionarUsuario.getConsultorios()) {
-                        if (validarHorarioConsultorio(c, propuesta)) {
-                            consultorioAsignado = c;
-                            break;
-                        }
-                    }
-                }
-
-                if (consultorioAsignado != null) {
-                    String idNuevaCita = generadorIdCita();
-                    Cita nuevaCita = new Cita(idNuevaCita, paciente, medicoAsignado, consultorioAsignado, motivo, propuesta);
-
-                    agregarCita(nuevaCita); // esto ya guarda el archivo
-
-                    sb.append("\n ======= Cita creada para remision de paciente =======  \n");
-                    sb.append(nuevaCita).append("\n");
-                    creada = true;
-
-                    cita.completar();
-                    guardarCitasEnArchivo(); // guardar que la cita original quedó completada
-                    break;
+        Cita nuevaCita = null;
+        HorarioDisponible horario;
+
+        // La busqueda se hace sin candados; si otra recepcion toma el turno antes de reservarlo se busca de nuevo
+        while (nuevaCita == null
+                && (horario = buscadorHorarios.horarioParaRemision(especialidad, propuesta, limiteHorario,
+                        permitidos, politicaRemision)) != null) {
+            final HorarioDisponible elegido = horario;
+            nuevaCita = bloqueos.conBloqueo(elegido.getMedico(), elegido.getConsultorio(), () -> {
+                if (!validarHorarioMedico(elegido.getMedico(), elegido.getInicio())
+                        || !validarHorarioConsultorio(elegido.getConsultorio(), elegido.getInicio())) {
+                    return null;
                 }
-            }
-            propuesta = propuesta.plusMinutes(30);
+                Cita remision = new Cita(generadorIdCita(), cita.getPaciente(), elegido.getMedico(),
+                        elegido.getConsultorio(), motivo, elegido.getInicio());
+                agregarCita(remision); // esto ya lo anexa al journal
+                return remision;
+            });
         }
 
-        if (!creada) {
+        if (nuevaCita != null) {
+            sb.append("\n ======= Cita creada para remision de paciente =======  \n");
+            sb.append(nuevaCita).append("\n");
+
+            bloqueos.conBloqueo(cita.getMedico(), cita.getConsultorio(), () -> {
+                cita.completar();
+                journal.registrarEstado(cita); // guardar que la cita original quedó completada
+                return null;
+            });
+        } else {
             sb.append("\n No se encontro un horario disponible con algun especialista en los proximos 30 dias. \n");
         }
 
         return sb.toString();
     }
 
+    /**
+     * Busca los primeros horarios en que un especialista y un consultorio estan libres a la vez
+     * @param especialidad Especialidad requerida
+     * @param desde Hora desde la que se puede agendar
+     * @param hasta Ultima hora en la que puede empezar la cita
+     * @param idMedicoPreferido ID del medico preferido, puede ser null
+     * @param consultorios Numeros de los consultorios permitidos; null o vacio para usar todos
+     * @param limite Cantidad maxima de horarios
+     * @return Horarios ordenados del mas temprano al mas tardio
+     * @throws IllegalArgumentException si alguno de los consultorios no existe
+     */
+    public List<HorarioDisponible> buscarHorarios(String especialidad, LocalDateTime desde, LocalDateTime hasta,
+                                                  String idMedicoPreferido, Collection<String> consultorios, int limite) {
+        Medico preferido = idMedicoPreferido != null ? gestionarUsuario.buscarMedico(idMedicoPreferido) : null;
+        return buscadorHorarios.buscar(especialidad, desde, hasta, preferido, consultoriosPermitidos(consultorios), limite);
+    }
+
+    /**
+     * @return Los consultorios con esos numeros, o null si no se restringe ninguno
+     */
+    private List<Consultorio> consultoriosPermitidos(Collection<String> numeros) {
+        if (numeros == null || numeros.isEmpty()) return null;
+        List<Consultorio> permitidos = new ArrayList<>();
+        for (String numero : numeros) {
+            Consultorio consultorio = gestionarUsuario.buscarConsultorio(numero);
+            if (consultorio == null) {
+                throw new IllegalArgumentException("Consultorio no encontrado: " + numero);
+            }
+            permitidos.add(consultorio);
+        }
+        return permitidos;
+    }
+
     //--------------- metodos de recepcionista ---------------//
 
+    /**
+     * Espera a que se escriban los usuarios registrados
+     * @throws UncheckedIOException si los archivos no se pudieron escribir; el registro sigue en memoria
+     * y se vuelve a intentar en el siguiente guardado
+     */
+    private void guardarUsuarios() {
+        try {
+            gestionarUsuario.guardarCambios().join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof UncheckedIOException) throw (UncheckedIOException) ex.getCause();
+            throw ex;
+        }
+    }
+
     public Medico registrarMedico(String id, String nombre, String apellido, String telefono, String email, String password, String especialidad) {
         Medico nuevoMedico = new Medico(id, nombre, apellido, telefono, email, password, especialidad);
-        for (Medico m : gestionarUsuario.getMedicos()) {
-            if (m.getId().equals(id)) {
-                System.out.println("Ya existe un recepcionista con ese ID");
-                return null;
-            }
+        if (!gestionarUsuario.registrarMedico(nuevoMedico)) {
+            System.out.println("Ya existe un usuario con ese ID");
+            return null;
         }
-        gestionarUsuario.getMedicos().add(nuevoMedico);
-        gestionarUsuario.guardarEnArchivo();
+        guardarUsuarios();
         return nuevoMedico;
     }
 
     public Recepcionista registrarRecepcionista(String id, String nombre, String apellido,
                                                 String telefono, String email, String password,
                                                 String state) {
-        for (Recepcionista r : gestionarUsuario.getRecepcionistas()) {
-            if (r.getId().equals(id)) {
-                System.out.println("Ya existe un recepcionista con ese ID");
-                return null;
-            }
-        }
         Recepcionista nuevoRecepcionista = new Recepcionista(id, nombre, apellido, telefono, email, password, state);
-        gestionarUsuario.getRecepcionistas().add(nuevoRecepcionista);
-        gestionarUsuario.guardarEnArchivo();
+        if (!gestionarUsuario.registrarRecepcionista(nuevoRecepcionista)) {
+            System.out.println("Ya existe un usuario con ese ID");
+            return null;
+        }
+        guardarUsuarios();
         System.out.println("Recepcionista registrado exitosamente: " + nuevoRecepcionista.nombreCompleto());
         return nuevoRecepcionista;
     }
@@ -431,19 +548,16 @@ public class Service {
                                       String fechaNacimiento, String tipoSangre, String sexo) {
         Paciente nuevoPaciente = new Paciente(id, nombre, apellido, telefono, email, password,
                 historiaClinica, fechaNacimiento, tipoSangre, sexo);
-        for (Paciente p : gestionarUsuario.getPacientes()){
-            if (p.getId().equals(id)) {
-                System.out.println("Ya existe un recepcionista con ese ID");
-                return null;
-            }
+        if (!gestionarUsuario.registrarPaciente(nuevoPaciente)) {
+            System.out.println("Ya existe un usuario con ese ID");
+            return null;
         }
-        gestionarUsuario.getPacientes().add(nuevoPaciente);
-        gestionarUsuario.guardarEnArchivo();
+        guardarUsuarios();
         return nuevoPaciente;
     }
 
     public boolean asignarConsultorioAMedico(String idMedico, String numeroConsultorio, LocalDateTime fecha) {
-        Medico medico = (Medico) searchUserById(idMedico);
+        Medico medico = gestionarUsuario.buscarMedico(idMedico);
         Consultorio consultorio = searchConsultorioByNumero(numeroConsultorio);
 
         if(medico != null && consultorio != null) {
@@ -454,7 +568,7 @@ public class Service {
     }
 
     public String consultarPaciente(String idPaciente) {
-        Paciente paciente = (Paciente) searchUserById(idPaciente);
+        Paciente paciente = gestionarUsuario.buscarPaciente(idPaciente);
         if (paciente != null) {
             return paciente.toString();
         }
@@ -462,7 +576,7 @@ public class Service {
     }
 
     public String consultarMedico(String idMedico) {
-        Medico medico = (Medico) searchUserById(idMedico);
+        Medico medico = gestionarUsuario.buscarMedico(idMedico);
         if(medico != null) {
             return medico.toString();
         }
@@ -471,34 +585,34 @@ public class Service {
 
     public String obtenerDetalleConsultorios() {
         StringBuilder sb = new StringBuilder();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+        LocalDateTime ahora = LocalDateTime.now();
 
         for (Consultorio consultorio : gestionarUsuario.getConsultorios()) {
             sb.append("Consultorio: ").append(consultorio.getNumero()).append("\n");
             sb.append("Ubicación: ").append(consultorio.getUbicacion()).append("\n");
             sb.append("Estado: ").append(consultorio.isDisponibilidad() ? "Disponible" : "Ocupado").append("\n");
 
-            List<Cita> citasConsultorio = citas.stream()
-                    .filter(c -> c.getConsultorio().getNumero().equals(consultorio.getNumero()))
-                    .filter(c -> c.getEstadoCita() != citaState.CANCELADA && c.getEstadoCita() != citaState.COMPLETADA)
-                    .filter(c -> c.getFecha().isAfter(LocalDateTime.now()))
-                    .sorted(Comparator.comparing(Cita::getFecha))
+            // Las citas activas del consultorio ya vienen ordenadas por fecha desde el repositorio
+            List<Cita> citasConsultorio = citas.activasConsultorioDesde(consultorio.getNumero(), ahora).stream()
+                    .filter(c -> c.getEstadoCita() != citaState.COMPLETADA)
+                    .filter(c -> c.getFecha().isAfter(ahora))
                     .collect(Collectors.toList());
 
             if (!citasConsultorio.isEmpty()) {
                 sb.append("\nHorarios Ocupados:\n");
                 for (Cita cita : citasConsultorio) {
                     LocalDateTime inicio = cita.getFecha();
-                    LocalDateTime fin = inicio.plusMinutes(30);
-                    sb.append("  • ").append(formatter.format(inicio))
-                            .append(" - ").append(fin.format(DateTimeFormatter.ofPattern("HH:mm")))
-                            .append(" (Dr(a). ").append(cita.getMedico().nombreCompleto()).append(")\n");
+                    sb.append("  • ");
+                    FormatoCita.escribirFecha(inicio, false, sb);
+                    sb.append(" - ");
+                    FormatoCita.escribirHora(inicio.plusMinutes(Cita.DURACION_MINUTOS), sb);
+                    sb.append(" (Dr(a). ").append(cita.getMedico().nombreCompleto()).append(")\n");
                 }
             } else {
                 sb.append("\nNo hay citas programadas.\n");
             }
 
-            sb.append("\n").append("-".repeat(70)).append("\n");
+            sb.append("\n").append(FormatoCita.SEPARADOR).append("\n");
         }
 
         return sb.toString();
@@ -516,74 +630,169 @@ public class Service {
         return new ArrayList<>(gestionarUsuario.getConsultorios());
     }
 
-    public List<Cita> enlistarCitas() {return gestionarUsuario.getCitas();}
+    public List<Cita> enlistarCitas() {return citas.todas();}
+
+    //--------------- listados paginados ---------------//
 
     /**
-     * Guarda todas las citas en el archivo CITAS_FILE (una cita por línea en CSV)
+     * Pagina de todas las citas del sistema ordenadas por fecha, recorrida con cursor
+     * @param despuesDe Cursor de la pagina anterior ({@link Pagina#getCursor()}); null para la primera
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de citas
      */
-    private void guardarCitasEnArchivo() {
-        try {
-            // Asegurar directorio
-            if (CITAS_FILE.getParent() != null) {
-                Files.createDirectories(CITAS_FILE.getParent());
-            }
+    public Pagina<FilaCita> paginaCitas(ClaveCita despuesDe, int limite) {
+        List<Cita> encontradas = citas.paginaCitas(despuesDe, limite + 1);
+        return paginaDeCitas(encontradas, Pagina.TOTAL_DESCONOCIDO, citas.tamanoPaginable(), limite);
+    }
 
-            List<String> lines = new ArrayList<>();
-            for (Cita c : citas) {
-                lines.add(c.toCSV());
-            }
+    /**
+     * Pagina de todas las citas del sistema ordenadas por fecha, ubicada por posicion
+     * @param desde Posicion de la primera fila, empezando en 0
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de citas
+     */
+    public Pagina<FilaCita> paginaCitas(int desde, int limite) {
+        List<Cita> encontradas = citas.paginaCitas(desde, limite + 1);
+        return paginaDeCitas(encontradas, desde, citas.tamanoPaginable(), limite);
+    }
 
-            Files.write(CITAS_FILE, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
-        } catch (IOException e) {
-            System.err.println("Error guardando citas en archivo: " + e.getMessage());
-        }
+    /**
+     * Pagina de la agenda de un medico: sus citas no canceladas ordenadas por fecha
+     * @param idMedico ID del medico
+     * @param despuesDe Cursor de la pagina anterior; null para la primera
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de citas
+     */
+    public Pagina<FilaCita> paginaAgendaMedico(String idMedico, ClaveCita despuesDe, int limite) {
+        List<Cita> encontradas = citas.paginaAgendaMedico(idMedico, despuesDe, limite + 1);
+        return paginaDeCitas(encontradas, Pagina.TOTAL_DESCONOCIDO, citas.tamanoAgendaMedico(idMedico), limite);
     }
 
     /**
-     * Carga las citas desde el archivo. Si una línea no puede parsearse o faltan usuarios referenciados,
-     * se ignora esa línea y se continúa. También actualiza contadorCitas para no repetir IDs.
+     * Pagina de las citas no canceladas de un paciente ordenadas por fecha
+     * @param idPaciente ID del paciente
+     * @param despuesDe Cursor de la pagina anterior; null para la primera
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de citas, sin total
      */
-    private void cargarCitasDesdeArchivo() {
-        if (!Files.exists(CITAS_FILE)) {
-            return;
-        }
+    public Pagina<FilaCita> paginaCitasPaciente(String idPaciente, ClaveCita despuesDe, int limite) {
+        List<Cita> encontradas = citas.paginaCitasPaciente(idPaciente,
+                cita -> cita.getEstadoCita() != citaState.CANCELADA, despuesDe, limite + 1);
+        return paginaDeCitas(encontradas, Pagina.TOTAL_DESCONOCIDO, Pagina.TOTAL_DESCONOCIDO, limite);
+    }
 
-        int maxIdNum = 0;
+    /**
+     * Consulta una pagina de citas con filtros y orden resueltos sobre los indices del repositorio
+     * @param filtro Condiciones y orden de la consulta
+     * @param despuesDe Clave de la ultima fila ya vista en ese orden; null para empezar por el principio
+     * @param saltar Cantidad de filas a saltar despues del cursor
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de citas, sin total (ver {@link #contarCitas(FiltroCitas)})
+     */
+    public Pagina<FilaCita> consultarCitas(FiltroCitas filtro, ClaveCita despuesDe, int saltar, int limite) {
+        List<Cita> encontradas = citas.consultar(filtro, despuesDe, saltar, limite + 1);
+        return paginaDeCitas(encontradas, Pagina.TOTAL_DESCONOCIDO, Pagina.TOTAL_DESCONOCIDO, limite);
+    }
 
-        try {
-            List<String> lines = Files.readAllLines(CITAS_FILE, StandardCharsets.UTF_8);
-            for (String line : lines) {
-                if (line == null || line.trim().isEmpty()) continue;
-                try {
-                    Cita c = Cita.fromCSV(line, gestionarUsuario);
-                    if (c == null) continue;
-
-                    if (c.getPaciente() == null || c.getMedico() == null || c.getConsultorio() == null) {
-                        System.err.println("Se omitió cargar cita por referencias faltantes: " + line);
-                        continue;
-                    }
-
-                    citas.add(c);
-
-                    c.getMedico().agregarCita(c);
-
-                    String id = c.getId();
-                    String prefix = "CITA-A";
-                    if (id != null && id.startsWith(prefix)) {
-                        String numberPart = id.substring(prefix.length());
-                        try {
-                            int num = Integer.parseInt(numberPart);
-                            if (num > maxIdNum) maxIdNum = num;
-                        } catch (NumberFormatException ignored) { }
-                    }
-                } catch (Exception ex) {
-                    System.err.println("Error parseando línea de cita: " + line + " -> " + ex.getMessage());
-                }
+    /**
+     * @param filtro Condiciones de la consulta
+     * @return Cantidad de citas que cumplen el filtro
+     */
+    public int contarCitas(FiltroCitas filtro) {
+        return citas.contar(filtro);
+    }
+
+    /**
+     * @return Cantidad de citas en cada estado, leida de los contadores del repositorio
+     */
+    public Map<citaState, Integer> contarCitasPorEstado() {
+        return citas.conteoPorEstado();
+    }
+
+    /**
+     * @param dia Dia a resumir
+     * @return Cantidad de citas de cada estado que empiezan ese dia
+     */
+    public Map<citaState, Integer> contarCitasPorEstado(LocalDate dia) {
+        return citas.conteoPorEstado(dia.atStartOfDay(), dia.plusDays(1).atStartOfDay());
+    }
+
+    /**
+     * @param estado Estado de las citas, por ejemplo EN_ATENCION
+     * @return Citas en ese estado ordenadas por fecha
+     */
+    public List<Cita> citasEnEstado(citaState estado) {
+        return citas.citasPorEstado(estado, null, null);
+    }
+
+    /**
+     * Pagina de los pacientes en el orden en que se registraron
+     * @param desde Posicion del primer paciente, empezando en 0
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de pacientes
+     */
+    public Pagina<FilaUsuario> paginaPacientes(int desde, int limite) {
+        return paginaDeUsuarios(gestionarUsuario.getPacientes(), desde, limite, FilaUsuario::de);
+    }
+
+    /**
+     * Pagina de los medicos en el orden en que se registraron
+     * @param desde Posicion del primer medico, empezando en 0
+     * @param limite Cantidad maxima de filas
+     * @return Pagina de medicos
+     */
+    public Pagina<FilaUsuario> paginaMedicos(int desde, int limite) {
+        return paginaDeUsuarios(gestionarUsuario.getMedicos(), desde, limite, FilaUsuario::de);
+    }
+
+    /**
+     * Arma la pagina a partir de las citas pedidas con una de mas, que solo sirve para saber si hay siguiente
+     * @param desde Posicion de la primera cita si se conoce, o {@link Pagina#TOTAL_DESCONOCIDO}
+     */
+    private static Pagina<FilaCita> paginaDeCitas(List<Cita> encontradas, int desde, int total, int limite) {
+        boolean hayMas = encontradas.size() > limite;
+        List<FilaCita> filas = new ArrayList<>(Math.min(encontradas.size(), limite));
+        for (int i = 0; i < encontradas.size() && i < limite; i++) {
+            filas.add(FilaCita.de(encontradas.get(i)));
+        }
+        ClaveCita cursor = filas.isEmpty() ? null : filas.get(filas.size() - 1).getClave();
+        return new Pagina<>(filas, desde, total, hayMas, cursor);
+    }
+
+    private static <U> Pagina<FilaUsuario> paginaDeUsuarios(List<U> usuarios, int desde, int limite,
+                                                            Function<U, FilaUsuario> fila) {
+        // Las listas de usuarios son copy-on-write: el iterador recorre una foto fija sin copiarla
+        int total = 0;
+        List<FilaUsuario> filas = new ArrayList<>();
+        for (U usuario : usuarios) {
+            if (total >= desde && filas.size() < limite) {
+                filas.add(fila.apply(usuario));
+            }
+            total++;
+        }
+        int inicio = Math.min(Math.max(desde, 0), total);
+        return new Pagina<>(filas, inicio, total, inicio + filas.size() < total, null);
+    }
+
+    /**
+     * Carga las citas desde el snapshot mas reciente y reproduce el journal encima. Las líneas que no
+     * pueden parsearse o con usuarios faltantes se ignoran. Los IDs cargados se recorren siempre, aunque
+     * haya marca de agua: con SISTEMA_OPERATIVO una caida puede dejar en disco lineas del journal con
+     * IDs posteriores a la ultima marca guardada, y el generador no debe repetirlos.
+     */
+    private void cargarCitasDesdeArchivo() {
+        Map<String, Cita> cargadas = almacenCitas.cargar(gestionarUsuario, tiemposCarga);
+        tiemposCarga.medir("citas: indices", () -> {
+            citas.agregarTodas(cargadas.values());
+            for (Cita c : cargadas.values()) {
+                c.getMedico().agregarCita(c);
             }
+        });
 
-            this.contadorCitas = Math.max(this.contadorCitas, maxIdNum + 1);
-        } catch (IOException e) {
-            System.err.println("Error cargando citas desde archivo: " + e.getMessage());
+        long maxIdNum = 0;
+        for (Cita c : cargadas.values()) {
+            maxIdNum = Math.max(maxIdNum, GeneradorIdCitas.numeroDe(c.getId()));
         }
+        generadorIds.asegurarMayorQue(maxIdNum);
     }
-}
\ No newline at end of file
+}
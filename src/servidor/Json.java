@@ -0,0 +1,205 @@
+package servidor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilidades minimas de JSON para el servidor, sin dependencias externas.
+ * <p>
+ *     Solo se leen objetos planos (los cuerpos de las peticiones): cada valor es un texto, un numero,
+ *     true/false o null y se devuelve como String. Para escribir se usa {@link Objeto}, que arma el
+ *     texto directamente en un StringBuilder.
+ * </p>
+ */
+public final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Lee un objeto JSON plano
+     * @param texto Texto JSON, vacio se interpreta como objeto vacio
+     * @return Mapa con cada campo y su valor como texto (null para null)
+     * @throws IllegalArgumentException si el texto no es un objeto plano valido
+     */
+    public static Map<String, String> leerObjeto(String texto) {
+        Map<String, String> campos = new LinkedHashMap<>();
+        if (texto == null || texto.trim().isEmpty()) return campos;
+
+        Lector lector = new Lector(texto);
+        lector.esperar('{');
+        if (lector.siguienteEs('}')) {
+            lector.esperar('}');
+        } else {
+            do {
+                String clave = lector.leerTexto();
+                lector.esperar(':');
+                campos.put(clave, lector.leerValor());
+            } while (lector.consumirSi(','));
+            lector.esperar('}');
+        }
+        lector.esperarFin();
+        return campos;
+    }
+
+    /**
+     * Escribe un texto como literal JSON entre comillas
+     * @param sb Destino
+     * @param valor Texto a escribir, null escribe null
+     */
+    public static void escribirTexto(StringBuilder sb, String valor) {
+        if (valor == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * Constructor de un objeto JSON campo por campo
+     */
+    public static final class Objeto {
+        private final StringBuilder sb = new StringBuilder("{");
+        private boolean vacio = true;
+
+        public Objeto texto(String campo, String valor) {
+            clave(campo);
+            escribirTexto(sb, valor);
+            return this;
+        }
+
+        public Objeto numero(String campo, long valor) {
+            clave(campo).append(valor);
+            return this;
+        }
+
+        public Objeto booleano(String campo, boolean valor) {
+            clave(campo).append(valor);
+            return this;
+        }
+
+        /**
+         * Agrega un valor que ya esta en formato JSON (un objeto o un arreglo)
+         */
+        public Objeto crudo(String campo, String json) {
+            clave(campo).append(json);
+            return this;
+        }
+
+        private StringBuilder clave(String campo) {
+            if (!vacio) sb.append(',');
+            vacio = false;
+            escribirTexto(sb, campo);
+            return sb.append(':');
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString() + "}";
+        }
+    }
+
+    private static final class Lector {
+        private final String texto;
+        private int pos;
+
+        Lector(String texto) {
+            this.texto = texto;
+        }
+
+        void saltarEspacios() {
+            while (pos < texto.length() && Character.isWhitespace(texto.charAt(pos))) pos++;
+        }
+
+        boolean siguienteEs(char c) {
+            saltarEspacios();
+            return pos < texto.length() && texto.charAt(pos) == c;
+        }
+
+        boolean consumirSi(char c) {
+            if (siguienteEs(c)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        void esperar(char c) {
+            if (!consumirSi(c)) throw error("se esperaba '" + c + "'");
+        }
+
+        void esperarFin() {
+            saltarEspacios();
+            if (pos != texto.length()) throw error("contenido despues del objeto");
+        }
+
+        String leerValor() {
+            saltarEspacios();
+            if (pos >= texto.length()) throw error("falta el valor");
+            char c = texto.charAt(pos);
+            if (c == '"') return leerTexto();
+            if (c == '{' || c == '[') throw error("solo se admiten objetos planos");
+            int inicio = pos;
+            while (pos < texto.length() && ",}] \t\r\n".indexOf(texto.charAt(pos)) < 0) pos++;
+            String literal = texto.substring(inicio, pos);
+            if (literal.equals("null")) return null;
+            if (literal.equals("true") || literal.equals("false")) return literal;
+            try {
+                Double.parseDouble(literal);
+                return literal;
+            } catch (NumberFormatException e) {
+                throw error("valor invalido '" + literal + "'");
+            }
+        }
+
+        String leerTexto() {
+            esperar('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < texto.length()) {
+                char c = texto.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= texto.length()) break;
+                char e = texto.charAt(pos++);
+                switch (e) {
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'u':
+                        if (pos + 4 > texto.length()) throw error("escape unicode incompleto");
+                        sb.append((char) Integer.parseInt(texto.substring(pos, pos + 4), 16));
+                        pos += 4;
+                        break;
+                    default: sb.append(e);
+                }
+            }
+            throw error("texto sin cerrar");
+        }
+
+        IllegalArgumentException error(String mensaje) {
+            return new IllegalArgumentException("JSON invalido en la posicion " + pos + ": " + mensaje);
+        }
+    }
+}
@@ -0,0 +1,474 @@
+package servidor;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import modelo.Cita;
+import modelo.FormatoCita;
+import modelo.Medico;
+import modelo.Paciente;
+import modelo.Recepcionista;
+import modelo.Usuario;
+import modelo.citaState;
+import service.HorarioDisponible;
+import service.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP sin interfaz grafica que expone las operaciones del servicio como JSON.
+ *
+ * <p>
+ *     Usa el servidor embebido del JDK (com.sun.net.httpserver) y un grupo acotado de hilos, uno por
+ *     nucleo, con una cola limitada; cuando la cola se llena el hilo que acepta conexiones atiende la
+ *     peticion el mismo, lo que frena la entrada en lugar de acumular trabajo sin limite. No usa ninguna
+ *     clase de Swing ni del controlador grafico.
+ * </p>
+ * <p>
+ *     Por defecto solo escucha en la interfaz local (127.0.0.1). /api/login devuelve un token de sesion
+ *     ({@link Sesiones}) que las demas rutas exigen en el encabezado Authorization: Bearer &lt;token&gt;.
+ *     Cada rol solo ve y modifica lo suyo: el paciente sus propias citas, el medico su agenda, sus citas
+ *     y la historia de los pacientes que atiende, y el recepcionista todo.
+ * </p>
+ * Rutas (las fechas usan el formato dd/MM/yyyy HH:mm):
+ * <ul>
+ *     <li>POST /api/login {id, password}</li>
+ *     <li>POST /api/logout</li>
+ *     <li>POST /api/citas {idPaciente, idMedico, consultorio, motivo, fecha}</li>
+ *     <li>POST /api/citas/{id}/cancelar</li>
+ *     <li>POST /api/citas/{id}/reprogramar {fecha}</li>
+ *     <li>GET /api/medicos/{id}/agenda?desde=...&amp;hasta=...</li>
+ *     <li>GET /api/pacientes/{id}/citas</li>
+ *     <li>GET /api/pacientes/{id}/historia</li>
+ *     <li>GET /api/horarios?especialidad=...&amp;medico=...&amp;consultorios=1,2&amp;limite=...</li>
+ *     <li>GET /api/citas?estado=... (solo recepcion)</li>
+ *     <li>GET /api/citas/estados?dia=dd/MM/yyyy (solo recepcion; sin dia cuenta todas las citas)</li>
+ * </ul>
+ */
+public class ServidorCitas {
+    public static final int PUERTO_POR_DEFECTO = 8080;
+    private static final int LIMITE_MAXIMO_HORARIOS = 100;
+    private static final int TAMANO_COLA = 256;
+    private static final DateTimeFormatter FORMATO_FECHA = FormatoCita.FECHA_HORA;
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final Service service;
+    private final Sesiones sesiones;
+    private final HttpServer servidor;
+    private final ThreadPoolExecutor trabajadores;
+
+    /**
+     * Crea el servidor escuchando solo en la interfaz local, sin empezar a atender peticiones
+     * @param service Servicio con la logica de negocio
+     * @param puerto Puerto TCP, 0 para elegir uno libre
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorCitas(Service service, int puerto) throws IOException {
+        this(service, new InetSocketAddress(InetAddress.getLoopbackAddress(), puerto));
+    }
+
+    /**
+     * Crea el servidor sin empezar a atender peticiones. Las sesiones vencen tras los minutos de
+     * inactividad de la propiedad servidor.sesion.minutosInactividad (por defecto 30).
+     * @param service Servicio con la logica de negocio
+     * @param direccion Interfaz y puerto donde escuchar
+     * @throws IOException si no se puede abrir el puerto
+     */
+    public ServidorCitas(Service service, InetSocketAddress direccion) throws IOException {
+        this.service = service;
+        this.sesiones = new Sesiones(Duration.ofMinutes(
+                Long.getLong("servidor.sesion.minutosInactividad", Sesiones.MINUTOS_INACTIVIDAD_POR_DEFECTO)));
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        AtomicInteger contador = new AtomicInteger();
+        this.trabajadores = new ThreadPoolExecutor(nucleos, nucleos, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(TAMANO_COLA),
+                tarea -> {
+                    Thread hilo = new Thread(tarea, "servidor-citas-" + contador.incrementAndGet());
+                    hilo.setDaemon(true);
+                    return hilo;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.servidor = HttpServer.create(direccion, 0);
+        this.servidor.setExecutor(trabajadores);
+        this.servidor.createContext("/api/", this::atender);
+    }
+
+    /**
+     * Empieza a atender peticiones
+     */
+    public void iniciar() {
+        servidor.start();
+        System.out.println("Servidor de citas escuchando en " + servidor.getAddress().getHostString() + ":" + getPuerto());
+    }
+
+    /**
+     * Deja de aceptar peticiones, espera hasta un segundo a las que estan en curso y libera los hilos
+     */
+    public void detener() {
+        servidor.stop(1);
+        trabajadores.shutdown();
+    }
+
+    /**
+     * @return Puerto en el que escucha el servidor
+     */
+    public int getPuerto() {
+        return servidor.getAddress().getPort();
+    }
+
+    private void atender(HttpExchange intercambio) throws IOException {
+        int estado;
+        String respuesta;
+        try {
+            String metodo = intercambio.getRequestMethod();
+            String[] ruta = intercambio.getRequestURI().getPath().substring("/api/".length()).split("/");
+            Respuesta resultado = enrutar(metodo, ruta, intercambio);
+            estado = resultado.estado;
+            respuesta = resultado.cuerpo;
+        } catch (AccesoProhibido e) {
+            estado = 403;
+            respuesta = error(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            estado = 400;
+            respuesta = error(e.getMessage());
+        } catch (Exception e) {
+            e.printStackTrace();
+            estado = 500;
+            respuesta = error("ERROR inesperado: " + (e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage()));
+        }
+
+        byte[] bytes = respuesta.getBytes(StandardCharsets.UTF_8);
+        intercambio.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        intercambio.sendResponseHeaders(estado, bytes.length);
+        try (OutputStream salida = intercambio.getResponseBody()) {
+            salida.write(bytes);
+        }
+    }
+
+    private Respuesta enrutar(String metodo, String[] ruta, HttpExchange intercambio) throws IOException {
+        boolean post = metodo.equals("POST");
+        boolean get = metodo.equals("GET");
+
+        if (post && ruta.length == 1 && ruta[0].equals("login")) {
+            return login(leerCuerpo(intercambio));
+        }
+        String token = token(intercambio);
+        Usuario usuario = sesiones.usuario(token);
+        if (usuario == null) {
+            return new Respuesta(401, error("Falta el token de sesión o ya venció; inicie sesión en /api/login"));
+        }
+
+        if (post && ruta.length == 1 && ruta[0].equals("logout")) {
+            sesiones.cerrar(token);
+            return new Respuesta(200, new Json.Objeto().texto("estado", "sesión cerrada").toString());
+        }
+        if (post && ruta.length == 1 && ruta[0].equals("citas")) {
+            return reservar(usuario, leerCuerpo(intercambio));
+        }
+        if (post && ruta.length == 3 && ruta[0].equals("citas") && ruta[2].equals("cancelar")) {
+            return cancelar(usuario, ruta[1]);
+        }
+        if (post && ruta.length == 3 && ruta[0].equals("citas") && ruta[2].equals("reprogramar")) {
+            return reprogramar(usuario, ruta[1], leerCuerpo(intercambio));
+        }
+        if (get && ruta.length == 3 && ruta[0].equals("medicos") && ruta[2].equals("agenda")) {
+            if (!(usuario instanceof Recepcionista) && !esElMismo(usuario, ruta[1])) {
+                throw new AccesoProhibido("Solo el médico o recepción pueden ver esta agenda");
+            }
+            Map<String, String> consulta = leerConsulta(intercambio);
+            LocalDateTime desde = consulta.containsKey("desde") ? fecha(consulta.get("desde")) : null;
+            LocalDateTime hasta = consulta.containsKey("hasta") ? fecha(consulta.get("hasta")) : null;
+            return new Respuesta(200, listaCitas(service.verAgendaMedico(ruta[1], desde, hasta)));
+        }
+        if (get && ruta.length == 3 && ruta[0].equals("pacientes") && ruta[2].equals("citas")) {
+            verificarAccesoPaciente(usuario, ruta[1]);
+            return new Respuesta(200, listaCitas(service.verCitasPaciente(ruta[1])));
+        }
+        if (get && ruta.length == 3 && ruta[0].equals("pacientes") && ruta[2].equals("historia")) {
+            verificarAccesoPaciente(usuario, ruta[1]);
+            if (!(service.searchUserById(ruta[1]) instanceof Paciente)) return new Respuesta(404, error("Paciente no encontrado"));
+            return new Respuesta(200, listaCitas(service.historialPaciente(ruta[1])));
+        }
+        if (get && ruta.length == 1 && ruta[0].equals("horarios")) {
+            return horarios(leerConsulta(intercambio));
+        }
+        if (get && ruta.length == 1 && ruta[0].equals("citas")) {
+            verificarRecepcion(usuario);
+            return new Respuesta(200, listaCitas(service.citasEnEstado(estado(requerido(leerConsulta(intercambio), "estado")))));
+        }
+        if (get && ruta.length == 2 && ruta[0].equals("citas") && ruta[1].equals("estados")) {
+            verificarRecepcion(usuario);
+            return conteoPorEstado(leerConsulta(intercambio));
+        }
+        return new Respuesta(404, error("Ruta no encontrada: " + metodo + " " + intercambio.getRequestURI().getPath()));
+    }
+
+    /**
+     * El paciente solo ve sus datos, el medico los de los pacientes con los que tiene alguna cita
+     * y el recepcionista los de todos
+     */
+    private void verificarAccesoPaciente(Usuario usuario, String idPaciente) {
+        if (usuario instanceof Recepcionista || esElMismo(usuario, idPaciente)) return;
+        if (usuario instanceof Medico) {
+            for (Cita cita : service.verCitasPaciente(idPaciente)) {
+                if (esElMismo(usuario, cita.getMedico())) return;
+            }
+        }
+        throw new AccesoProhibido("No tiene acceso a los datos de este paciente");
+    }
+
+    /**
+     * Los resumenes de todas las citas son solo para recepcion
+     */
+    private static void verificarRecepcion(Usuario usuario) {
+        if (!(usuario instanceof Recepcionista)) {
+            throw new AccesoProhibido("Solo recepción puede consultar las citas de todos los pacientes");
+        }
+    }
+
+    /**
+     * El paciente y el medico solo pueden modificar las citas en las que participan
+     */
+    private static void verificarAccesoCita(Usuario usuario, Cita cita) {
+        if (usuario instanceof Recepcionista
+                || esElMismo(usuario, cita.getPaciente())
+                || esElMismo(usuario, cita.getMedico())) {
+            return;
+        }
+        throw new AccesoProhibido("No tiene acceso a esta cita");
+    }
+
+    private static boolean esElMismo(Usuario usuario, Usuario otro) {
+        return otro != null && esElMismo(usuario, otro.getId());
+    }
+
+    private static boolean esElMismo(Usuario usuario, String id) {
+        return id != null && usuario.getId().trim().equalsIgnoreCase(id.trim());
+    }
+
+    private static String token(HttpExchange intercambio) {
+        String autorizacion = intercambio.getRequestHeaders().getFirst("Authorization");
+        if (autorizacion == null || !autorizacion.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return autorizacion.substring(7).trim();
+    }
+
+    private Respuesta login(Map<String, String> cuerpo) {
+        Usuario usuario = service.iniciarSesion(cuerpo.get("id"), cuerpo.get("password"));
+        if (usuario == null) {
+            return new Respuesta(401, error("Usuario o contraseña incorrectos"));
+        }
+        return new Respuesta(200, new Json.Objeto()
+                .texto("token", sesiones.abrir(usuario))
+                .texto("id", usuario.getId())
+                .texto("tipo", usuario.getTipo())
+                .texto("nombre", usuario.nombreCompleto())
+                .toString());
+    }
+
+    private Respuesta reservar(Usuario usuario, Map<String, String> cuerpo) {
+        String idPaciente = requerido(cuerpo, "idPaciente");
+        String idMedico = requerido(cuerpo, "idMedico");
+        if (usuario instanceof Paciente && !esElMismo(usuario, idPaciente)) {
+            throw new AccesoProhibido("Un paciente solo puede reservar citas para sí mismo");
+        }
+        if (usuario instanceof Medico && !esElMismo(usuario, idMedico)) {
+            throw new AccesoProhibido("Un médico solo puede reservar citas en su propia agenda");
+        }
+        Cita cita = service.reservarCita(
+                idPaciente,
+                idMedico,
+                requerido(cuerpo, "consultorio"),
+                cuerpo.getOrDefault("motivo", ""),
+                fecha(requerido(cuerpo, "fecha")));
+        return new Respuesta(201, cita(cita));
+    }
+
+    private Respuesta cancelar(Usuario usuario, String idCita) {
+        Cita existente = service.searchCitaById(idCita);
+        if (existente == null) return new Respuesta(404, error("Cita no encontrada: " + idCita));
+        verificarAccesoCita(usuario, existente);
+        if (!service.cancelarCita(idCita)) {
+            return new Respuesta(409, error("La cita no se puede cancelar en su estado actual"));
+        }
+        return new Respuesta(200, cita(service.searchCitaById(idCita)));
+    }
+
+    private Respuesta reprogramar(Usuario usuario, String idCita, Map<String, String> cuerpo) {
+        Cita existente = service.searchCitaById(idCita);
+        if (existente == null) return new Respuesta(404, error("Cita no encontrada: " + idCita));
+        verificarAccesoCita(usuario, existente);
+        if (!service.reprogramarCita(idCita, fecha(requerido(cuerpo, "fecha")))) {
+            return new Respuesta(409, error("La cita no se puede reprogramar en su estado actual"));
+        }
+        return new Respuesta(200, cita(service.searchCitaById(idCita)));
+    }
+
+    private Respuesta horarios(Map<String, String> consulta) {
+        int limite = consulta.containsKey("limite") ? limite(consulta.get("limite")) : 10;
+        LocalDateTime desde = LocalDateTime.now().plusMinutes(30);
+        List<HorarioDisponible> horarios = service.buscarHorarios(requerido(consulta, "especialidad"),
+                desde, desde.plusDays(30), consulta.get("medico"), consultorios(consulta.get("consultorios")), limite);
+
+        StringBuilder sb = new StringBuilder("[");
+        for (HorarioDisponible horario : horarios) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(new Json.Objeto()
+                    .texto("fecha", FORMATO_FECHA.format(horario.getInicio()))
+                    .texto("idMedico", horario.getMedico().getId())
+                    .texto("medico", horario.getMedico().nombreCompleto())
+                    .texto("consultorio", horario.getConsultorio().getNumero()));
+        }
+        return new Respuesta(200, sb.append(']').toString());
+    }
+
+    private Respuesta conteoPorEstado(Map<String, String> consulta) {
+        Map<citaState, Integer> conteo = consulta.containsKey("dia")
+                ? service.contarCitasPorEstado(dia(consulta.get("dia")))
+                : service.contarCitasPorEstado();
+        Json.Objeto objeto = new Json.Objeto();
+        for (Map.Entry<citaState, Integer> entrada : conteo.entrySet()) {
+            objeto.numero(entrada.getKey().name(), entrada.getValue());
+        }
+        return new Respuesta(200, objeto.toString());
+    }
+
+    private static String listaCitas(List<Cita> citas) {
+        StringBuilder sb = new StringBuilder("[");
+        for (Cita c : citas) {
+            if (sb.length() > 1) sb.append(',');
+            sb.append(cita(c));
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String cita(Cita cita) {
+        Json.Objeto objeto = new Json.Objeto()
+                .texto("id", cita.getId())
+                .texto("fecha", cita.getFecha() != null ? FORMATO_FECHA.format(cita.getFecha()) : null)
+                .texto("estado", cita.getEstadoCita().name())
+                .texto("idPaciente", cita.getPaciente() != null ? cita.getPaciente().getId() : null)
+                .texto("idMedico", cita.getMedico() != null ? cita.getMedico().getId() : null)
+                .texto("consultorio", cita.getConsultorio() != null ? cita.getConsultorio().getNumero() : null)
+                .texto("motivo", cita.getMotivo());
+        if (!cita.getDiagnostico().isEmpty()) objeto.texto("diagnostico", cita.getDiagnostico());
+        if (!cita.getTratamiento().isEmpty()) objeto.texto("tratamiento", cita.getTratamiento());
+        if (!cita.getObservaciones().isEmpty()) objeto.texto("observaciones", cita.getObservaciones());
+        return objeto.toString();
+    }
+
+    private static String error(String mensaje) {
+        return new Json.Objeto().texto("error", mensaje).toString();
+    }
+
+    private static String requerido(Map<String, String> campos, String nombre) {
+        String valor = campos.get(nombre);
+        if (valor == null || valor.trim().isEmpty()) {
+            throw new IllegalArgumentException("Falta el campo " + nombre);
+        }
+        return valor.trim();
+    }
+
+    private static int limite(String texto) {
+        int limite;
+        try {
+            limite = Integer.parseInt(texto.trim());
+        } catch (NumberFormatException e) {
+            limite = 0;
+        }
+        if (limite <= 0 || limite > LIMITE_MAXIMO_HORARIOS) {
+            throw new IllegalArgumentException("El parámetro limite debe ser un número entero entre 1 y "
+                    + LIMITE_MAXIMO_HORARIOS + ": " + texto);
+        }
+        return limite;
+    }
+
+    private static LocalDateTime fecha(String texto) {
+        try {
+            return LocalDateTime.parse(texto, FORMATO_FECHA);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de fecha inválido. Use: dd/MM/yyyy HH:mm");
+        }
+    }
+
+    private static List<String> consultorios(String texto) {
+        List<String> numeros = new ArrayList<>();
+        if (texto == null) return numeros;
+        for (String numero : texto.split(",")) {
+            if (!numero.trim().isEmpty()) numeros.add(numero.trim());
+        }
+        return numeros;
+    }
+
+    private static LocalDate dia(String texto) {
+        try {
+            return LocalDate.parse(texto.trim(), FORMATO_DIA);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Formato de día inválido. Use: dd/MM/yyyy");
+        }
+    }
+
+    private static citaState estado(String texto) {
+        try {
+            return citaState.valueOf(texto.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Estado de cita inválido: " + texto);
+        }
+    }
+
+    private static Map<String, String> leerCuerpo(HttpExchange intercambio) throws IOException {
+        try (InputStream entrada = intercambio.getRequestBody()) {
+            return Json.leerObjeto(new String(entrada.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    private static Map<String, String> leerConsulta(HttpExchange intercambio) {
+        Map<String, String> consulta = new HashMap<>();
+        String texto = intercambio.getRequestURI().getRawQuery();
+        if (texto == null) return consulta;
+        for (String par : texto.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual <= 0) continue;
+            consulta.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                    URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+        }
+        return consulta;
+    }
+
+    private static final class Respuesta {
+        final int estado;
+        final String cuerpo;
+
+        Respuesta(int estado, String cuerpo) {
+            this.estado = estado;
+            this.cuerpo = cuerpo;
+        }
+    }
+
+    /**
+     * El usuario de la sesion no tiene permiso sobre el recurso pedido; se responde 403
+     */
+    private static final class AccesoProhibido extends RuntimeException {
+        AccesoProhibido(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package servidor;
+
+import modelo.Usuario;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sesiones abiertas en el servidor HTTP, identificadas por un token aleatorio.
+ * <p>
+ *     El token se entrega en /api/login y las demas peticiones lo envian en el encabezado
+ *     Authorization: Bearer &lt;token&gt;. Una sesion vence si pasa el tiempo de inactividad sin usarse.
+ * </p>
+ */
+public final class Sesiones {
+    public static final long MINUTOS_INACTIVIDAD_POR_DEFECTO = 30;
+    private static final int BYTES_TOKEN = 32;
+
+    private final SecureRandom aleatorio = new SecureRandom();
+    private final Map<String, Sesion> abiertas = new ConcurrentHashMap<>();
+    private final long inactividadNanos;
+
+    /**
+     * @param inactividad Tiempo sin usar una sesion tras el cual se cierra
+     */
+    public Sesiones(Duration inactividad) {
+        this.inactividadNanos = inactividad.toNanos();
+    }
+
+    /**
+     * Abre una sesion para el usuario
+     * @param usuario Usuario que ya se autentico
+     * @return Token de la sesion
+     */
+    public String abrir(Usuario usuario) {
+        long ahora = System.nanoTime();
+        abiertas.values().removeIf(sesion -> sesion.vencida(ahora, inactividadNanos));
+        byte[] bytes = new byte[BYTES_TOKEN];
+        aleatorio.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        abiertas.put(token, new Sesion(usuario, ahora));
+        return token;
+    }
+
+    /**
+     * Busca la sesion del token y renueva su tiempo de inactividad
+     * @param token Token recibido, puede ser null
+     * @return Usuario de la sesion, o null si el token no existe o ya vencio
+     */
+    public Usuario usuario(String token) {
+        if (token == null) return null;
+        Sesion sesion = abiertas.get(token);
+        if (sesion == null) return null;
+        long ahora = System.nanoTime();
+        if (sesion.vencida(ahora, inactividadNanos)) {
+            abiertas.remove(token, sesion);
+            return null;
+        }
+        sesion.ultimoUso = ahora;
+        return sesion.usuario;
+    }
+
+    /**
+     * @param token Token de la sesion a cerrar
+     */
+    public void cerrar(String token) {
+        if (token != null) abiertas.remove(token);
+    }
+
+    private static final class Sesion {
+        final Usuario usuario;
+        volatile long ultimoUso;
+
+        Sesion(Usuario usuario, long ultimoUso) {
+            this.usuario = usuario;
+            this.ultimoUso = ultimoUso;
+        }
+
+        boolean vencida(long ahora, long inactividadNanos) {
+            return ahora - ultimoUso > inactividadNanos;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package vista;
+
+import modelo.ClaveCita;
+import service.Pagina;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Dialogo que muestra un listado de a una pagina por vez.
+ *
+ * <p>
+ *     Solo se piden al controlador las filas de la pagina visible. Cada pagina se pide a partir de la
+ *     anterior (su cursor o su posicion), por eso el dialogo guarda las paginas recorridas para poder
+ *     volver atras pidiendo de nuevo la pagina con datos actualizados.
+ * </p>
+ * @param <T> Tipo de las filas
+ */
+public class ListadoPaginado<T> extends JDialog {
+    /**
+     * Filas que se piden por pagina
+     */
+    public static final int FILAS_POR_PAGINA = 50;
+
+    /**
+     * Forma de pedir una pagina al controlador
+     * @param <T> Tipo de las filas
+     */
+    @FunctionalInterface
+    public interface Cargador<T> {
+        /**
+         * @param anterior Pagina anterior a la que se pide, null para pedir la primera
+         * @param limite Cantidad maxima de filas
+         * @return Futuro con la pagina pedida
+         */
+        CompletableFuture<Pagina<T>> cargar(Pagina<T> anterior, int limite);
+    }
+
+    private final Cargador<T> cargador;
+    private final String vacio;
+    // Paginas ya recorridas, la ultima es la que se esta mostrando
+    private final List<Pagina<T>> recorridas;
+    private final DefaultListModel<T> modelo;
+    private final JLabel lblPosicion;
+    private final JButton btnAnterior;
+    private final JButton btnSiguiente;
+
+    private ListadoPaginado(Component padre, String titulo, String vacio, Cargador<T> cargador) {
+        super(SwingUtilities.getWindowAncestor(padre), titulo, ModalityType.APPLICATION_MODAL);
+        this.cargador = cargador;
+        this.vacio = vacio;
+        this.recorridas = new ArrayList<>();
+        this.modelo = new DefaultListModel<>();
+
+        JList<T> lista = new JList<>(modelo);
+        lista.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        JScrollPane scrollPane = new JScrollPane(lista);
+        scrollPane.setPreferredSize(new Dimension(900, 500));
+
+        lblPosicion = new JLabel();
+        btnAnterior = new JButton("← Anterior");
+        btnSiguiente = new JButton("Siguiente →");
+        JButton btnCerrar = new JButton("Cerrar");
+        btnAnterior.addActionListener(e -> cargar(recorridas.size() - 2));
+        btnSiguiente.addActionListener(e -> cargar(recorridas.size()));
+        btnCerrar.addActionListener(e -> dispose());
+
+        JPanel panelBotones = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        panelBotones.add(lblPosicion);
+        panelBotones.add(btnAnterior);
+        panelBotones.add(btnSiguiente);
+        panelBotones.add(btnCerrar);
+
+        JPanel panel = new JPanel(new BorderLayout(10, 10));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(panelBotones, BorderLayout.SOUTH);
+        setContentPane(panel);
+        pack();
+        setLocationRelativeTo(padre);
+    }
+
+    /**
+     * Pide la primera pagina y, cuando llega, abre el dialogo
+     * @param padre Componente sobre el que se abre el dialogo
+     * @param titulo Titulo del dialogo
+     * @param vacio Texto a mostrar si el listado no tiene filas
+     * @param cargador Forma de pedir cada pagina
+     */
+    public static <T> void mostrar(Component padre, String titulo, String vacio, Cargador<T> cargador) {
+        ListadoPaginado<T> dialogo = new ListadoPaginado<>(padre, titulo, vacio, cargador);
+        TareaVista.ejecutar(padre, "Cargando...",
+                avance -> cargador.cargar(null, FILAS_POR_PAGINA),
+                pagina -> {
+                    if (pagina.getFilas().isEmpty()) {
+                        JOptionPane.showMessageDialog(padre, vacio, titulo, JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+                    dialogo.mostrarPagina(0, pagina);
+                    dialogo.setVisible(true);
+                });
+    }
+
+    /**
+     * @param anterior Pagina anterior, null si se pide la primera
+     * @return Cursor para pedir la pagina que sigue a anterior en un listado de citas
+     */
+    public static ClaveCita cursorSiguiente(Pagina<?> anterior) {
+        return anterior != null ? anterior.getCursor() : null;
+    }
+
+    /**
+     * @param anterior Pagina anterior, null si se pide la primera
+     * @return Posicion de la primera fila de la pagina que sigue a anterior en un listado por posicion
+     */
+    public static int posicionSiguiente(Pagina<?> anterior) {
+        return anterior != null ? anterior.getDesde() + anterior.getFilas().size() : 0;
+    }
+
+    /**
+     * Pide la pagina en la posicion indicada usando la pagina anterior ya recorrida
+     */
+    private void cargar(int numero) {
+        if (numero < 0) return;
+        Pagina<T> anterior = numero == 0 ? null : recorridas.get(numero - 1);
+        btnAnterior.setEnabled(false);
+        btnSiguiente.setEnabled(false);
+        TareaVista.ejecutar(this, "Cargando...",
+                avance -> cargador.cargar(anterior, FILAS_POR_PAGINA),
+                pagina -> mostrarPagina(numero, pagina));
+    }
+
+    private void mostrarPagina(int numero, Pagina<T> pagina) {
+        while (recorridas.size() > numero) {
+            recorridas.remove(recorridas.size() - 1);
+        }
+        recorridas.add(pagina);
+
+        modelo.clear();
+        for (T fila : pagina.getFilas()) {
+            modelo.addElement(fila);
+        }
+
+        int primera = numero * FILAS_POR_PAGINA + 1;
+        int ultima = primera + pagina.getFilas().size() - 1;
+        if (pagina.getFilas().isEmpty()) {
+            lblPosicion.setText(vacio);
+        } else if (pagina.getTotal() == Pagina.TOTAL_DESCONOCIDO) {
+            lblPosicion.setText("Mostrando " + primera + " - " + ultima);
+        } else {
+            lblPosicion.setText("Mostrando " + primera + " - " + ultima + " de " + pagina.getTotal());
+        }
+        btnAnterior.setEnabled(numero > 0);
+        btnSiguiente.setEnabled(pagina.hayMas());
+    }
+}
@@ -7,6 +7,9 @@
 package vista;
 
 import controlador.Controlador;
+import controlador.ControladorAsincrono;
+import service.FilaCita;
+import service.Pagina;
 import javax.swing.*;
 import java.awt.*;
 
@@ -20,6 +23,7 @@ public class MedicoVista extends JFrame {
     private final String especialidad;
     private final String consultorioAsignado;
     private final Controlador controlador;
+    private final ControladorAsincrono asincrono;
 
     /**
      * Constructor de la vista del médico.
@@ -38,6 +42,7 @@ public class MedicoVista extends JFrame {
         this.especialidad = especialidad;
         this.consultorioAsignado = consultorioAsignado;
         this.controlador = controlador;
+        this.asincrono = controlador.getAsincrono();
 
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -175,20 +180,26 @@ public class MedicoVista extends JFrame {
     }
 
     /**
-     * Muestra la agenda actual del médico, incluyendo las citas programadas.
+     * Muestra la agenda del médico: las citas de hoy, las de esta semana o la agenda completa por páginas.
      * Delega al controlador la obtención de la agenda.
      */
     private void verAgenda() {
-        String agenda = controlador.obtenerAgendaMedico(idMedico);
-
-        JTextArea textArea = new JTextArea(agenda);
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(600, 400));
-
-        JOptionPane.showMessageDialog(this, scrollPane, "Mi Agenda", JOptionPane.INFORMATION_MESSAGE);
+        String[] opciones = {"Hoy", "Esta semana", "Completa"};
+        int opcion = JOptionPane.showOptionDialog(this, "¿Qué parte de la agenda desea ver?", "Mi Agenda",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, opciones, opciones[0]);
+        if (opcion == 0) {
+            TareaVista.ejecutar(this, "Cargando agenda...",
+                    avance -> asincrono.obtenerAgendaDelDia(idMedico),
+                    agenda -> mostrarTexto(agenda, "Agenda de Hoy"));
+        } else if (opcion == 1) {
+            TareaVista.ejecutar(this, "Cargando agenda...",
+                    avance -> asincrono.obtenerAgendaDeLaSemana(idMedico),
+                    agenda -> mostrarTexto(agenda, "Agenda de la Semana"));
+        } else if (opcion == 2) {
+            ListadoPaginado.mostrar(this, "Mi Agenda", "No hay citas asignadas a este médico.",
+                    (Pagina<FilaCita> anterior, int limite) -> asincrono.paginaAgendaMedico(idMedico,
+                            ListadoPaginado.cursorSiguiente(anterior), limite));
+        }
     }
 
     /**
@@ -221,18 +232,19 @@ public class MedicoVista extends JFrame {
         String observaciones = JOptionPane.showInputDialog(this, "Observaciones:");
         observaciones = (observaciones == null) ? "" : observaciones.trim();
 
-        String resultado = controlador.procesarAtencionCita(
-                idCita,
-                diagnostico,
-                tratamiento,
-                observaciones
-        );
-
-        if (resultado == null) {
-            JOptionPane.showMessageDialog(this, "Cita atendida exitosamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String cita = idCita;
+        String diag = diagnostico;
+        String trat = tratamiento;
+        String obs = observaciones;
+        TareaVista.ejecutar(this, "Registrando atención...",
+                avance -> asincrono.procesarAtencionCita(cita, diag, trat, obs),
+                resultado -> {
+                    if (resultado == null) {
+                        JOptionPane.showMessageDialog(this, "Cita atendida exitosamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
     }
 
     /**
@@ -242,17 +254,19 @@ public class MedicoVista extends JFrame {
     private void verHistoriaClinicaPaciente() {
         String idPaciente = JOptionPane.showInputDialog(this, "Ingrese el ID del paciente:");
         if (idPaciente != null && !idPaciente.trim().isEmpty()) {
-            String historia = controlador.consultarHistoriaClinica(idPaciente);
-
-            JTextArea textArea = new JTextArea(historia);
-            textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-            JScrollPane scrollPane = new JScrollPane(textArea);
-            scrollPane.setPreferredSize(new Dimension(600, 400));
-
-            JOptionPane.showMessageDialog(this, scrollPane,
-                    "Historia Clínica del Paciente", JOptionPane.INFORMATION_MESSAGE);
+            TareaVista.ejecutar(this, "Consultando historia clínica...",
+                    avance -> asincrono.consultarHistoriaClinica(idPaciente),
+                    historia -> {
+                        JTextArea textArea = new JTextArea(historia);
+                        textArea.setEditable(false);
+                        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+                        JScrollPane scrollPane = new JScrollPane(textArea);
+                        scrollPane.setPreferredSize(new Dimension(600, 400));
+
+                        JOptionPane.showMessageDialog(this, scrollPane,
+                                "Historia Clínica del Paciente", JOptionPane.INFORMATION_MESSAGE);
+                    });
         }
     }
 
@@ -267,9 +281,14 @@ public class MedicoVista extends JFrame {
             if (especialidad != null && !especialidad.trim().isEmpty()) {
                 String motivo = JOptionPane.showInputDialog(this, "Motivo de la remisión:");
                 if (motivo != null && !motivo.trim().isEmpty()) {
-                    String resultado = controlador.remitirPaciente(idCita, especialidad, motivo);
-                    JOptionPane.showMessageDialog(this, resultado, "Remisión",
-                            JOptionPane.INFORMATION_MESSAGE);
+                    String consultorios = JOptionPane.showInputDialog(this,
+                            "Consultorios permitidos (opcional, separados por comas):");
+                    if (consultorios != null) {
+                        TareaVista.ejecutar(this, "Buscando horario con el especialista...",
+                                avance -> asincrono.remitirPaciente(idCita, especialidad, motivo, consultorios),
+                                resultado -> JOptionPane.showMessageDialog(this, resultado, "Remisión",
+                                        JOptionPane.INFORMATION_MESSAGE));
+                    }
                 }
             }
         }
@@ -288,12 +307,16 @@ public class MedicoVista extends JFrame {
             return;
         }
 
-        String resultado = controlador.procesarCancelacionCita(idCita);
-        if (resultado == null) {
-            JOptionPane.showMessageDialog(this, "Cita cancelada exitosamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
-        } else {
-            JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        String cita = idCita;
+        TareaVista.ejecutar(this, "Cancelando cita...",
+                avance -> asincrono.procesarCancelacionCita(cita),
+                resultado -> {
+                    if (resultado == null) {
+                        JOptionPane.showMessageDialog(this, "Cita cancelada exitosamente", "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
     }
 
     /**
@@ -301,16 +324,23 @@ public class MedicoVista extends JFrame {
      * Delega al controlador la obtención del historial.
      */
     private void verHistorial() {
-        String historial = controlador.obtenerHistorialCitasMedico(idMedico);
+        TareaVista.ejecutar(this, "Cargando historial...",
+                avance -> asincrono.obtenerHistorialCitasMedico(idMedico, avance),
+                historial -> mostrarTexto(historial, "Historial"));
+    }
 
-        JTextArea textArea = new JTextArea(historial);
+    /**
+     * Muestra un texto largo en un diálogo con barra de desplazamiento.
+     */
+    private void mostrarTexto(String texto, String titulo) {
+        JTextArea textArea = new JTextArea(texto);
         textArea.setEditable(false);
         textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
 
         JScrollPane scrollPane = new JScrollPane(textArea);
         scrollPane.setPreferredSize(new Dimension(600, 400));
 
-        JOptionPane.showMessageDialog(this, scrollPane, "Historial", JOptionPane.INFORMATION_MESSAGE);
+        JOptionPane.showMessageDialog(this, scrollPane, titulo, JOptionPane.INFORMATION_MESSAGE);
     }
 
     /**
@@ -0,0 +1,194 @@
+package vista;
+
+import controlador.ControladorAsincrono;
+import modelo.ClaveCita;
+import modelo.FiltroCitas;
+import modelo.FormatoCita;
+import service.FilaCita;
+import service.Pagina;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Modelo de tabla de citas que solo tiene en memoria las filas cercanas a las visibles.
+ *
+ * <p>
+ *     La tabla pide filas por bloques a medida que aparecen en pantalla; mientras un bloque llega se
+ *     muestra una fila de espera. Se guardan los ultimos bloques usados y, por cada bloque cargado,
+ *     la clave de su ultima cita: el bloque siguiente se pide con esa clave como cursor, y un salto a
+ *     una fila lejana solo recorre las citas desde el cursor conocido mas cercano.
+ * </p>
+ * <p>
+ *     Si el conteo o un bloque fallan se informa el error y ese bloque no se vuelve a pedir hasta el
+ *     siguiente filtro; si no, cada repintado lo pediria otra vez.
+ * </p>
+ * Todos los metodos se usan desde el hilo de eventos de Swing.
+ */
+public class ModeloTablaCitas extends AbstractTableModel {
+    private static final int FILAS_POR_BLOQUE = 100;
+    private static final int BLOQUES_EN_MEMORIA = 64;
+    private static final String[] COLUMNAS = {"ID", "Fecha", "Estado", "Paciente", "Médico", "Especialidad", "Consultorio", "Motivo"};
+    private static final DateTimeFormatter FORMATO = FormatoCita.FECHA_HORA;
+
+    private final ControladorAsincrono asincrono;
+    private FiltroCitas filtro;
+    private int filas;
+    // Cambia con cada filtro para descartar las respuestas de consultas anteriores
+    private int generacion;
+
+    // Bloques cargados, del usado hace mas tiempo al mas reciente
+    private final LinkedHashMap<Integer, List<FilaCita>> bloques;
+    private final Set<Integer> pedidos;
+    private final Set<Integer> fallidos;
+    private Consumer<String> alFallar;
+    // Fila -> clave de la cita anterior a esa fila, para pedir desde ahi con cursor
+    private final TreeMap<Integer, ClaveCita> cursores;
+
+    /**
+     * @param asincrono Controlador al que se piden las filas
+     */
+    public ModeloTablaCitas(ControladorAsincrono asincrono) {
+        this.asincrono = asincrono;
+        this.filtro = FiltroCitas.todas();
+        this.bloques = new LinkedHashMap<Integer, List<FilaCita>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, List<FilaCita>> mayor) {
+                return size() > BLOQUES_EN_MEMORIA;
+            }
+        };
+        this.pedidos = new HashSet<>();
+        this.fallidos = new HashSet<>();
+        this.alFallar = mensaje -> { };
+        this.cursores = new TreeMap<>();
+        this.cursores.put(0, null);
+    }
+
+    /**
+     * Cambia el filtro, descarta las filas cargadas y cuenta de nuevo las citas
+     * @param filtro Nuevas condiciones y orden
+     * @param alContar Accion a ejecutar con la cantidad de citas, en el hilo de eventos
+     * @param alFallar Accion a ejecutar con el mensaje si falla el conteo o la carga de un bloque,
+     *                 en el hilo de eventos
+     */
+    public void setFiltro(FiltroCitas filtro, IntConsumer alContar, Consumer<String> alFallar) {
+        this.filtro = filtro;
+        this.alFallar = alFallar;
+        int actual = ++generacion;
+        bloques.clear();
+        pedidos.clear();
+        fallidos.clear();
+        cursores.clear();
+        cursores.put(0, null);
+        asincrono.contarCitas(filtro).whenComplete((cantidad, error) -> SwingUtilities.invokeLater(() -> {
+            if (actual != generacion) return;
+            filas = error == null ? cantidad : 0;
+            fireTableDataChanged();
+            if (error == null) {
+                alContar.accept(filas);
+            } else {
+                alFallar.accept(mensaje(error));
+            }
+        }));
+    }
+
+    public FiltroCitas getFiltro() {
+        return filtro;
+    }
+
+    @Override
+    public int getRowCount() {
+        return filas;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNAS.length;
+    }
+
+    @Override
+    public String getColumnName(int columna) {
+        return COLUMNAS[columna];
+    }
+
+    @Override
+    public Object getValueAt(int fila, int columna) {
+        FilaCita cita = filaEn(fila);
+        if (cita == null) {
+            if (columna != 0) return "";
+            return fallidos.contains(fila / FILAS_POR_BLOQUE) ? "Error al cargar" : "Cargando...";
+        }
+        switch (columna) {
+            case 0: return cita.getId();
+            case 1: return FORMATO.format(cita.getFecha());
+            case 2: return cita.getEstado();
+            case 3: return cita.getPaciente();
+            case 4: return cita.getMedico();
+            case 5: return cita.getEspecialidad();
+            case 6: return cita.getConsultorio();
+            default: return cita.getMotivo();
+        }
+    }
+
+    /**
+     * @param fila Fila de la tabla
+     * @return La cita de esa fila o null si su bloque todavia no llega
+     */
+    public FilaCita filaEn(int fila) {
+        int bloque = fila / FILAS_POR_BLOQUE;
+        List<FilaCita> filasBloque = bloques.get(bloque);
+        if (filasBloque == null) {
+            pedir(bloque);
+            return null;
+        }
+        int posicion = fila % FILAS_POR_BLOQUE;
+        return posicion < filasBloque.size() ? filasBloque.get(posicion) : null;
+    }
+
+    private void pedir(int bloque) {
+        if (fallidos.contains(bloque) || !pedidos.add(bloque)) return;
+        int primera = bloque * FILAS_POR_BLOQUE;
+        Map.Entry<Integer, ClaveCita> cercano = cursores.floorEntry(primera);
+        int actual = generacion;
+        asincrono.consultarCitas(filtro, cercano.getValue(), primera - cercano.getKey(), FILAS_POR_BLOQUE)
+                .whenComplete((pagina, error) -> SwingUtilities.invokeLater(() -> recibir(actual, bloque, pagina, error)));
+    }
+
+    private void recibir(int generacionPedida, int bloque, Pagina<FilaCita> pagina, Throwable error) {
+        if (generacionPedida != generacion) return;
+        pedidos.remove(bloque);
+        int primera = bloque * FILAS_POR_BLOQUE;
+        int ultima = Math.min(filas, primera + FILAS_POR_BLOQUE) - 1;
+        if (error != null || pagina == null) {
+            fallidos.add(bloque);
+            if (ultima >= primera) {
+                fireTableRowsUpdated(primera, ultima);
+            }
+            alFallar.accept(error != null ? mensaje(error) : "No se recibieron las citas");
+            return;
+        }
+
+        bloques.put(bloque, pagina.getFilas());
+        if (pagina.getCursor() != null) {
+            cursores.put((bloque + 1) * FILAS_POR_BLOQUE, pagina.getCursor());
+        }
+        if (ultima >= primera) {
+            fireTableRowsUpdated(primera, ultima);
+        }
+    }
+
+    private static String mensaje(Throwable error) {
+        Throwable causa = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return causa.getMessage() != null ? causa.getMessage() : causa.getClass().getSimpleName();
+    }
+}
@@ -1,6 +1,11 @@
 package vista;
 
 import controlador.Controlador;
+import controlador.ControladorAsincrono;
+import service.FilaCita;
+import service.FilaUsuario;
+import service.Pagina;
+import service.HorarioDisponible;
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDateTime;
@@ -17,6 +22,7 @@ public class PacienteVista extends JFrame {
     private String historiaClinica;
     private String tipoSangre;
     private Controlador controlador;
+    private ControladorAsincrono asincrono;
 
     /**
      * Constructor de la vista principal del paciente.
@@ -35,6 +41,7 @@ public class PacienteVista extends JFrame {
         this.historiaClinica = historiaClinica;
         this.tipoSangre = tipoSangre;
         this.controlador = controlador;
+        this.asincrono = controlador.getAsincrono();
 
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -160,6 +167,10 @@ public class PacienteVista extends JFrame {
         gbc.gridx = 2;
         panel.add(crearBotonOpcion("Médicos Disponibles", "👨‍⚕️", e -> verMedicos()), gbc);
 
+        gbc.gridx = 1;
+        gbc.gridy = 2;
+        panel.add(crearBotonOpcion("Buscar Horario", "🔍", e -> buscarHorario()), gbc);
+
         return panel;
     }
 
@@ -225,22 +236,8 @@ public class PacienteVista extends JFrame {
                 DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
                 LocalDateTime fecha = LocalDateTime.parse(txtFecha.getText().trim(), formatter);
 
-                String resultado = controlador.procesarReservaCita(
-                        idPaciente,
-                        txtIdMedico.getText().trim(),
-                        txtConsultorio.getText().trim(),
-                        txtMotivo.getText().trim(),
-                        fecha
-                );
-
-                if (resultado == null) {
-                    JOptionPane.showMessageDialog(this,
-                            "Cita reservada exitosamente",
-                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this, resultado,
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                reservar(txtIdMedico.getText().trim(), txtConsultorio.getText().trim(),
+                        txtMotivo.getText().trim(), fecha);
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this,
                         "Error en el formato de fecha. Use: dd/MM/yyyy HH:mm",
@@ -249,6 +246,73 @@ public class PacienteVista extends JFrame {
         }
     }
 
+    /**
+     * Busca los primeros horarios libres de una especialidad y permite reservar uno de ellos.
+     * El médico preferido es opcional y gana cuando hay horarios a la misma hora; los consultorios
+     * también son opcionales y limitan la búsqueda a esas salas.
+     */
+    private void buscarHorario() {
+        JPanel panel = new JPanel(new GridLayout(4, 2, 10, 10));
+
+        JTextField txtEspecialidad = new JTextField();
+        JTextField txtIdMedico = new JTextField();
+        JTextField txtConsultorios = new JTextField();
+        JTextField txtMotivo = new JTextField();
+
+        panel.add(new JLabel("Especialidad:"));
+        panel.add(txtEspecialidad);
+        panel.add(new JLabel("ID del Médico preferido (opcional):"));
+        panel.add(txtIdMedico);
+        panel.add(new JLabel("Consultorios (opcional, separados por comas):"));
+        panel.add(txtConsultorios);
+        panel.add(new JLabel("Motivo:"));
+        panel.add(txtMotivo);
+
+        int result = JOptionPane.showConfirmDialog(this, panel,
+                "Buscar Horario Disponible", JOptionPane.OK_CANCEL_OPTION);
+        if (result != JOptionPane.OK_OPTION || txtEspecialidad.getText().trim().isEmpty()) {
+            return;
+        }
+
+        TareaVista.ejecutar(this, "Buscando horarios disponibles...",
+                avance -> asincrono.buscarHorariosDisponibles(txtEspecialidad.getText().trim(), txtIdMedico.getText(),
+                        txtConsultorios.getText(), 10),
+                horarios -> {
+                    if (horarios.isEmpty()) {
+                        JOptionPane.showMessageDialog(this,
+                                "No hay horarios disponibles en los próximos 30 días",
+                                "Sin horarios", JOptionPane.INFORMATION_MESSAGE);
+                        return;
+                    }
+
+                    HorarioDisponible elegido = (HorarioDisponible) JOptionPane.showInputDialog(this,
+                            "Seleccione un horario:", "Horarios Disponibles", JOptionPane.QUESTION_MESSAGE,
+                            null, horarios.toArray(), horarios.get(0));
+                    if (elegido != null) {
+                        reservar(elegido.getMedico().getId(), elegido.getConsultorio().getNumero(),
+                                txtMotivo.getText().trim(), elegido.getInicio());
+                    }
+                });
+    }
+
+    /**
+     * Envía la reserva al controlador fuera del hilo de eventos y muestra el resultado.
+     */
+    private void reservar(String idMedico, String numeroConsultorio, String motivo, LocalDateTime fecha) {
+        TareaVista.ejecutar(this, "Reservando cita...",
+                avance -> asincrono.procesarReservaCita(idPaciente, idMedico, numeroConsultorio, motivo, fecha),
+                resultado -> {
+                    if (resultado == null) {
+                        JOptionPane.showMessageDialog(this,
+                                "Cita reservada exitosamente",
+                                "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                    } else {
+                        JOptionPane.showMessageDialog(this, resultado,
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                });
+    }
+
     /**
      * Permite al paciente cancelar una cita previamente agendada.
      * Captura el ID y delega al controlador el procesamiento.
@@ -256,16 +320,18 @@ public class PacienteVista extends JFrame {
     private void cancelarCita() {
         String idCita = JOptionPane.showInputDialog(this, "Ingrese el ID de la cita a cancelar:");
         if (idCita != null && !idCita.trim().isEmpty()) {
-            String resultado = controlador.procesarCancelacionCita(idCita);
-
-            if (resultado == null) {
-                JOptionPane.showMessageDialog(this,
-                        "Cita cancelada exitosamente",
-                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, resultado,
-                        "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            TareaVista.ejecutar(this, "Cancelando cita...",
+                    avance -> asincrono.procesarCancelacionCita(idCita),
+                    resultado -> {
+                        if (resultado == null) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Cita cancelada exitosamente",
+                                    "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(this, resultado,
+                                    "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
         }
     }
 
@@ -284,16 +350,18 @@ public class PacienteVista extends JFrame {
                     DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
                     LocalDateTime fecha = LocalDateTime.parse(nuevaFecha.trim(), formatter);
 
-                    String resultado = controlador.procesarReprogramacionCita(idCita, fecha);
-
-                    if (resultado == null) {
-                        JOptionPane.showMessageDialog(this,
-                                "Cita reprogramada exitosamente",
-                                "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    } else {
-                        JOptionPane.showMessageDialog(this, resultado,
-                                "Error", JOptionPane.ERROR_MESSAGE);
-                    }
+                    TareaVista.ejecutar(this, "Reprogramando cita...",
+                            avance -> asincrono.procesarReprogramacionCita(idCita, fecha),
+                            resultado -> {
+                                if (resultado == null) {
+                                    JOptionPane.showMessageDialog(this,
+                                            "Cita reprogramada exitosamente",
+                                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                                } else {
+                                    JOptionPane.showMessageDialog(this, resultado,
+                                            "Error", JOptionPane.ERROR_MESSAGE);
+                                }
+                            });
                 } catch (Exception ex) {
                     JOptionPane.showMessageDialog(this,
                             "Error en el formato de fecha. Use: dd/MM/yyyy HH:mm",
@@ -308,16 +376,9 @@ public class PacienteVista extends JFrame {
      * Delega al controlador la obtención de las citas.
      */
     private void verMisCitas() {
-        String citas = controlador.obtenerCitasPaciente(idPaciente);
-
-        JTextArea textArea = new JTextArea(citas);
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(600, 400));
-
-        JOptionPane.showMessageDialog(this, scrollPane, "Mis Citas", JOptionPane.INFORMATION_MESSAGE);
+        ListadoPaginado.mostrar(this, "Mis Citas", "No tienes citas agendadas.",
+                (Pagina<FilaCita> anterior, int limite) -> asincrono.paginaCitasPaciente(idPaciente,
+                        ListadoPaginado.cursorSiguiente(anterior), limite));
     }
 
     /**
@@ -325,17 +386,19 @@ public class PacienteVista extends JFrame {
      * Delega al controlador la obtención de la información.
      */
     private void verHistoriaClinica() {
-        String historia = controlador.consultarHistoriaClinica(idPaciente);
-
-        JTextArea textArea = new JTextArea(historia);
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(600, 400));
-
-        JOptionPane.showMessageDialog(this, scrollPane,
-                "Mi Historia Clínica", JOptionPane.INFORMATION_MESSAGE);
+        TareaVista.ejecutar(this, "Consultando historia clínica...",
+                avance -> asincrono.consultarHistoriaClinica(idPaciente),
+                historia -> {
+                    JTextArea textArea = new JTextArea(historia);
+                    textArea.setEditable(false);
+                    textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+                    JScrollPane scrollPane = new JScrollPane(textArea);
+                    scrollPane.setPreferredSize(new Dimension(600, 400));
+
+                    JOptionPane.showMessageDialog(this, scrollPane,
+                            "Mi Historia Clínica", JOptionPane.INFORMATION_MESSAGE);
+                });
     }
 
     /**
@@ -343,17 +406,9 @@ public class PacienteVista extends JFrame {
      * Delega al controlador la obtención de la lista.
      */
     private void verMedicos() {
-        String medicos = controlador.obtenerListaMedicos();
-
-        JTextArea textArea = new JTextArea(medicos);
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(700, 400));
-
-        JOptionPane.showMessageDialog(this, scrollPane,
-                "Médicos Disponibles", JOptionPane.INFORMATION_MESSAGE);
+        ListadoPaginado.mostrar(this, "Médicos Disponibles", "No hay médicos registrados.",
+                (Pagina<FilaUsuario> anterior, int limite) -> asincrono.paginaMedicos(
+                        ListadoPaginado.posicionSiguiente(anterior), limite));
     }
 
     /**
@@ -1,6 +1,9 @@
 package vista;
 
 import controlador.Controlador;
+import controlador.ControladorAsincrono;
+import service.FilaUsuario;
+import service.Pagina;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionListener;
@@ -12,12 +15,14 @@ public class RecepcionistaVista extends JFrame {
     private String nombreCompleto;
     private String turno;
     private Controlador controlador;
+    private ControladorAsincrono asincrono;
 
     public RecepcionistaVista(String nombreCompleto, String turno, Controlador controlador) {
         super("Panel del Recepcionista - " + nombreCompleto);
         this.nombreCompleto = nombreCompleto;
         this.turno = turno;
         this.controlador = controlador;
+        this.asincrono = controlador.getAsincrono();
 
         setExtendedState(JFrame.MAXIMIZED_BOTH);
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -191,23 +196,25 @@ public class RecepcionistaVista extends JFrame {
                 "Registrar Nuevo Médico", JOptionPane.OK_CANCEL_OPTION);
 
         if (result == JOptionPane.OK_OPTION) {
-            String resultado = controlador.procesarRegistroMedico(
-                    txtId.getText().trim(),
-                    txtNombre.getText().trim(),
-                    txtApellido.getText().trim(),
-                    txtTelefono.getText().trim(),
-                    txtEmail.getText().trim(),
-                    new String(txtPassword.getPassword()),
-                    txtEspecialidad.getText().trim()
-            );
-
-            if (resultado == null) {
-                JOptionPane.showMessageDialog(this,
-                        "Médico registrado exitosamente",
-                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            TareaVista.ejecutar(this, "Registrando médico...",
+                    avance -> asincrono.procesarRegistroMedico(
+                            txtId.getText().trim(),
+                            txtNombre.getText().trim(),
+                            txtApellido.getText().trim(),
+                            txtTelefono.getText().trim(),
+                            txtEmail.getText().trim(),
+                            new String(txtPassword.getPassword()),
+                            txtEspecialidad.getText().trim()
+                    ),
+                    resultado -> {
+                        if (resultado == null) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Médico registrado exitosamente",
+                                    "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
         }
     }
 
@@ -249,26 +256,28 @@ public class RecepcionistaVista extends JFrame {
         if (result == JOptionPane.OK_OPTION) {
             String historiaClinica = "HC-" + txtId.getText().trim();
 
-            String resultado = controlador.procesarRegistroPaciente(
-                    txtId.getText().trim(),
-                    txtNombre.getText().trim(),
-                    txtApellido.getText().trim(),
-                    txtTelefono.getText().trim(),
-                    txtEmail.getText().trim(),
-                    new String(txtPassword.getPassword()),
-                    historiaClinica,
-                    txtFechaNacimiento.getText().trim(),
-                    (String) cmbTipoSangre.getSelectedItem(),
-                    (String) cmbSexo.getSelectedItem()
-            );
-
-            if (resultado == null) {
-                JOptionPane.showMessageDialog(this,
-                        "Paciente registrado exitosamente\nHistoria Clínica: " + historiaClinica,
-                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
-            } else {
-                JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            TareaVista.ejecutar(this, "Registrando paciente...",
+                    avance -> asincrono.procesarRegistroPaciente(
+                            txtId.getText().trim(),
+                            txtNombre.getText().trim(),
+                            txtApellido.getText().trim(),
+                            txtTelefono.getText().trim(),
+                            txtEmail.getText().trim(),
+                            new String(txtPassword.getPassword()),
+                            historiaClinica,
+                            txtFechaNacimiento.getText().trim(),
+                            (String) cmbTipoSangre.getSelectedItem(),
+                            (String) cmbSexo.getSelectedItem()
+                    ),
+                    resultado -> {
+                        if (resultado == null) {
+                            JOptionPane.showMessageDialog(this,
+                                    "Paciente registrado exitosamente\nHistoria Clínica: " + historiaClinica,
+                                    "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                        } else {
+                            JOptionPane.showMessageDialog(this, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                        }
+                    });
         }
     }
 
@@ -294,21 +303,23 @@ public class RecepcionistaVista extends JFrame {
                 DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
                 LocalDateTime fecha = LocalDateTime.parse(txtFecha.getText().trim(), formatter);
 
-                boolean exito = controlador.asignarConsultorioAMedico(
-                        txtIdMedico.getText().trim(),
-                        txtNumConsultorio.getText().trim(),
-                        fecha
-                );
-
-                if (exito) {
-                    JOptionPane.showMessageDialog(this,
-                            "Consultorio asignado exitosamente",
-                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                } else {
-                    JOptionPane.showMessageDialog(this,
-                            "Error al asignar. Verifica los datos.",
-                            "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                TareaVista.ejecutar(this, "Asignando consultorio...",
+                        avance -> asincrono.asignarConsultorioAMedico(
+                                txtIdMedico.getText().trim(),
+                                txtNumConsultorio.getText().trim(),
+                                fecha
+                        ),
+                        exito -> {
+                            if (exito) {
+                                JOptionPane.showMessageDialog(this,
+                                        "Consultorio asignado exitosamente",
+                                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                            } else {
+                                JOptionPane.showMessageDialog(this,
+                                        "Error al asignar. Verifica los datos.",
+                                        "Error", JOptionPane.ERROR_MESSAGE);
+                            }
+                        });
             } catch (Exception ex) {
                 JOptionPane.showMessageDialog(this,
                         "Error en el formato de fecha. Use: dd/MM/yyyy HH:mm",
@@ -320,107 +331,79 @@ public class RecepcionistaVista extends JFrame {
     private void consultarPaciente() {
         String idPaciente = JOptionPane.showInputDialog(this, "Ingrese el ID del paciente:");
         if (idPaciente != null && !idPaciente.trim().isEmpty()) {
-            String info = controlador.consultarPaciente(idPaciente);
-
-            JTextArea textArea = new JTextArea(info);
-            textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-            JScrollPane scrollPane = new JScrollPane(textArea);
-            scrollPane.setPreferredSize(new Dimension(500, 300));
-
-            JOptionPane.showMessageDialog(this, scrollPane,
-                    "Información del Paciente", JOptionPane.INFORMATION_MESSAGE);
+            TareaVista.ejecutar(this, "Consultando paciente...",
+                    avance -> asincrono.consultarPaciente(idPaciente),
+                    info -> {
+                        JTextArea textArea = new JTextArea(info);
+                        textArea.setEditable(false);
+                        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+                        JScrollPane scrollPane = new JScrollPane(textArea);
+                        scrollPane.setPreferredSize(new Dimension(500, 300));
+
+                        JOptionPane.showMessageDialog(this, scrollPane,
+                                "Información del Paciente", JOptionPane.INFORMATION_MESSAGE);
+                    });
         }
     }
 
     private void consultarMedico() {
         String idMedico = JOptionPane.showInputDialog(this, "Ingrese el ID del médico:");
         if (idMedico != null && !idMedico.trim().isEmpty()) {
-            String info = controlador.consultarMedico(idMedico);
-
-            JTextArea textArea = new JTextArea(info);
-            textArea.setEditable(false);
-            textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
-
-            JScrollPane scrollPane = new JScrollPane(textArea);
-            scrollPane.setPreferredSize(new Dimension(500, 300));
-
-            JOptionPane.showMessageDialog(this, scrollPane,
-                    "Información del Médico", JOptionPane.INFORMATION_MESSAGE);
+            TareaVista.ejecutar(this, "Consultando médico...",
+                    avance -> asincrono.consultarMedico(idMedico),
+                    info -> {
+                        JTextArea textArea = new JTextArea(info);
+                        textArea.setEditable(false);
+                        textArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
+
+                        JScrollPane scrollPane = new JScrollPane(textArea);
+                        scrollPane.setPreferredSize(new Dimension(500, 300));
+
+                        JOptionPane.showMessageDialog(this, scrollPane,
+                                "Información del Médico", JOptionPane.INFORMATION_MESSAGE);
+                    });
         }
     }
 
     private void verTodasCitas() {
-        StringBuilder citas = new StringBuilder("TODAS LAS CITAS DEL SISTEMA\n\n");
-
-        String listaCitas = controlador.obtenerTodasLasCitas();
-
-        if (listaCitas.isEmpty()) {
-            citas.append("No hay citas registradas.");
-        } else {
-            citas.append(listaCitas);
-        }
-
-        JTextArea textArea = new JTextArea(citas.toString());
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(800, 500));
-
-        JOptionPane.showMessageDialog(this, scrollPane,
-                "Todas las Citas", JOptionPane.INFORMATION_MESSAGE);
+        new TablaCitasVista(this, asincrono).setVisible(true);
     }
 
     private void listarMedicos() {
-        String medicos = controlador.obtenerListaMedicos();
-
-        JTextArea textArea = new JTextArea(medicos);
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(800, 400));
-
-        JOptionPane.showMessageDialog(this, scrollPane,
-                "Lista de Médicos", JOptionPane.INFORMATION_MESSAGE);
+        ListadoPaginado.mostrar(this, "Lista de Médicos", "No hay médicos registrados.",
+                (Pagina<FilaUsuario> anterior, int limite) -> asincrono.paginaMedicos(
+                        ListadoPaginado.posicionSiguiente(anterior), limite));
     }
 
     private void listarPacientes() {
-        String pacientes = controlador.obtenerListaPacientes();
-
-        JTextArea textArea = new JTextArea(pacientes);
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(800, 400));
-
-        JOptionPane.showMessageDialog(this, scrollPane,
-                "Lista de Pacientes", JOptionPane.INFORMATION_MESSAGE);
+        ListadoPaginado.mostrar(this, "Lista de Pacientes", "No hay pacientes registrados.",
+                (Pagina<FilaUsuario> anterior, int limite) -> asincrono.paginaPacientes(
+                        ListadoPaginado.posicionSiguiente(anterior), limite));
     }
 
     private void listarConsultorios() {
         StringBuilder consultorios = new StringBuilder("CONSULTORIOS DEL SISTEMA\n\n");
 
-        String detalleConsultorios = controlador.obtenerDetalleConsultorios();
-
-        if (detalleConsultorios.isEmpty()) {
-            consultorios.append("No hay consultorios registrados.");
-        } else {
-            consultorios.append(detalleConsultorios);
-        }
-
-        JTextArea textArea = new JTextArea(consultorios.toString());
-        textArea.setEditable(false);
-        textArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
-
-        JScrollPane scrollPane = new JScrollPane(textArea);
-        scrollPane.setPreferredSize(new Dimension(800, 500));
-
-        JOptionPane.showMessageDialog(this, scrollPane,
-                "Lista de Consultorios", JOptionPane.INFORMATION_MESSAGE);
+        TareaVista.ejecutar(this, "Cargando consultorios...",
+                avance -> asincrono.obtenerDetalleConsultorios(),
+                detalleConsultorios -> {
+                    if (detalleConsultorios.isEmpty()) {
+                        consultorios.append("No hay consultorios registrados.");
+                    } else {
+                        consultorios.append(detalleConsultorios);
+                    }
+
+                    JTextArea textArea = new JTextArea(consultorios.toString());
+                    textArea.setEditable(false);
+                    textArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
+
+                    JScrollPane scrollPane = new JScrollPane(textArea);
+                    scrollPane.setPreferredSize(new Dimension(800, 500));
+
+                    JOptionPane.showMessageDialog(this, scrollPane,
+                            "Lista de Consultorios", JOptionPane.INFORMATION_MESSAGE);
+                });
     }
 
     private void cerrarSesion() {
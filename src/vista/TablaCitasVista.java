@@ -0,0 +1,131 @@
+package vista;
+
+import controlador.ControladorAsincrono;
+import modelo.FiltroCitas;
+import modelo.citaState;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Ventana de recepcion con todas las citas del sistema en una tabla.
+ *
+ * <p>
+ *     La tabla usa {@link ModeloTablaCitas}, que solo carga las filas que se ven. Los filtros por medico,
+ *     paciente, estado y rango de fechas, y el orden por fecha (clic en el encabezado "Fecha"), se resuelven
+ *     en el repositorio de citas; la tabla no ordena ni filtra en memoria.
+ * </p>
+ */
+public class TablaCitasVista extends JDialog {
+    private static final DateTimeFormatter FORMATO_DIA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int COLUMNA_FECHA = 1;
+
+    private final ModeloTablaCitas modelo;
+    private final JTextField txtMedico;
+    private final JTextField txtPaciente;
+    private final JComboBox<Object> cmbEstado;
+    private final JTextField txtDesde;
+    private final JTextField txtHasta;
+    private final JLabel lblTotal;
+    private boolean descendente;
+
+    /**
+     * @param padre Ventana de recepcion
+     * @param asincrono Controlador al que se piden las citas
+     */
+    public TablaCitasVista(Window padre, ControladorAsincrono asincrono) {
+        super(padre, "Todas las Citas", ModalityType.MODELESS);
+        this.modelo = new ModeloTablaCitas(asincrono);
+
+        txtMedico = new JTextField(8);
+        txtPaciente = new JTextField(8);
+        Object[] estados = new Object[citaState.values().length + 1];
+        estados[0] = "Todos";
+        System.arraycopy(citaState.values(), 0, estados, 1, citaState.values().length);
+        cmbEstado = new JComboBox<>(estados);
+        txtDesde = new JTextField(8);
+        txtHasta = new JTextField(8);
+        lblTotal = new JLabel();
+        JButton btnFiltrar = new JButton("Filtrar");
+        btnFiltrar.addActionListener(e -> aplicarFiltro());
+
+        JPanel panelFiltros = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        panelFiltros.add(new JLabel("ID Médico:"));
+        panelFiltros.add(txtMedico);
+        panelFiltros.add(new JLabel("ID Paciente:"));
+        panelFiltros.add(txtPaciente);
+        panelFiltros.add(new JLabel("Estado:"));
+        panelFiltros.add(cmbEstado);
+        panelFiltros.add(new JLabel("Desde (dd/MM/yyyy):"));
+        panelFiltros.add(txtDesde);
+        panelFiltros.add(new JLabel("Hasta:"));
+        panelFiltros.add(txtHasta);
+        panelFiltros.add(btnFiltrar);
+        panelFiltros.add(lblTotal);
+
+        JTable tabla = new JTable(modelo);
+        // Altura fija y sin RowSorter: la tabla nunca recorre todas las filas
+        tabla.setRowHeight(20);
+        tabla.setFillsViewportHeight(true);
+        tabla.getTableHeader().setReorderingAllowed(false);
+        tabla.getTableHeader().setToolTipText("Clic en \"Fecha\" para invertir el orden");
+        tabla.getTableHeader().addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (tabla.columnAtPoint(e.getPoint()) == COLUMNA_FECHA) {
+                    descendente = !descendente;
+                    aplicarFiltro();
+                }
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout(5, 5));
+        panel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        panel.add(panelFiltros, BorderLayout.NORTH);
+        panel.add(new JScrollPane(tabla), BorderLayout.CENTER);
+        setContentPane(panel);
+        setSize(1100, 600);
+        setLocationRelativeTo(padre);
+
+        aplicarFiltro();
+    }
+
+    private void aplicarFiltro() {
+        LocalDateTime desde;
+        LocalDateTime hasta;
+        try {
+            desde = dia(txtDesde);
+            // El dia "hasta" se incluye completo
+            hasta = dia(txtHasta);
+            hasta = hasta != null ? hasta.plusDays(1) : null;
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this,
+                    "Error en el formato de fecha. Use: dd/MM/yyyy",
+                    "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        Object estado = cmbEstado.getSelectedItem();
+        FiltroCitas filtro = new FiltroCitas(texto(txtMedico), texto(txtPaciente),
+                estado instanceof citaState ? (citaState) estado : null, desde, hasta, descendente);
+
+        lblTotal.setText("Buscando...");
+        modelo.setFiltro(filtro, total -> lblTotal.setText(total + " citas"),
+                error -> lblTotal.setText("Error al consultar las citas: " + error));
+    }
+
+    private static String texto(JTextField campo) {
+        String texto = campo.getText().trim();
+        return texto.isEmpty() ? null : texto;
+    }
+
+    private static LocalDateTime dia(JTextField campo) {
+        String texto = texto(campo);
+        return texto == null ? null : LocalDate.parse(texto, FORMATO_DIA).atStartOfDay();
+    }
+}
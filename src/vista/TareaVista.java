@@ -0,0 +1,100 @@
+package vista;
+
+import controlador.Avance;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Une una operacion del controlador asincrono con la interfaz grafica.
+ *
+ * <p>
+ *     La operacion corre fuera del hilo de eventos. Si tarda mas de medio segundo aparece un
+ *     {@link ProgressMonitor} con su avance y un boton para cancelarla; al terminar, el resultado se
+ *     entrega en el hilo de eventos. Si la operacion falla se muestra el error y si se cancelo no se
+ *     muestra nada.
+ * </p>
+ * @param <T> Tipo del resultado de la operacion
+ */
+public class TareaVista<T> extends SwingWorker<T, Void> implements Avance {
+    private final Component padre;
+    private final Consumer<T> alTerminar;
+    private final ProgressMonitor monitor;
+    private final Timer revisarCancelacion;
+    private volatile CompletableFuture<T> futuro;
+
+    private TareaVista(Component padre, String mensaje, Consumer<T> alTerminar) {
+        this.padre = padre;
+        this.alTerminar = alTerminar;
+        this.monitor = new ProgressMonitor(padre, mensaje, null, 0, 100);
+        this.monitor.setMillisToDecideToPopup(500);
+        this.monitor.setMillisToPopup(500);
+        this.revisarCancelacion = new Timer(200, e -> {
+            monitor.setProgress(getProgress());
+            if (monitor.isCanceled()) {
+                cancel(true);
+            }
+        });
+    }
+
+    /**
+     * Ejecuta una operacion del controlador asincrono y entrega su resultado en el hilo de eventos
+     * @param padre Componente sobre el que se muestran el progreso y los errores
+     * @param mensaje Texto que describe la operacion en el dialogo de progreso
+     * @param operacion Operacion a ejecutar; recibe el avance al que debe informar
+     * @param alTerminar Accion que recibe el resultado, se ejecuta en el hilo de eventos
+     */
+    public static <T> void ejecutar(Component padre, String mensaje,
+                                    Function<Avance, CompletableFuture<T>> operacion, Consumer<T> alTerminar) {
+        TareaVista<T> tarea = new TareaVista<>(padre, mensaje, alTerminar);
+        // La operacion se lanza desde el hilo de eventos para que lea los campos del formulario aqui
+        tarea.futuro = operacion.apply(tarea);
+        tarea.revisarCancelacion.start();
+        tarea.execute();
+    }
+
+    @Override
+    protected T doInBackground() throws Exception {
+        try {
+            return futuro.get();
+        } catch (InterruptedException e) {
+            futuro.cancel(true);
+            throw e;
+        }
+    }
+
+    @Override
+    public void reportar(int hechos, int total) {
+        setProgress(total <= 0 ? 0 : Math.min(100, (int) ((long) hechos * 100 / total)));
+    }
+
+    @Override
+    public boolean isCancelado() {
+        return isCancelled();
+    }
+
+    @Override
+    protected void done() {
+        revisarCancelacion.stop();
+        monitor.close();
+        if (isCancelled()) {
+            return;
+        }
+        try {
+            alTerminar.accept(get());
+        } catch (CancellationException | InterruptedException e) {
+            // El usuario cancelo, no hay nada que mostrar
+        } catch (ExecutionException e) {
+            Throwable causa = e.getCause() instanceof ExecutionException ? e.getCause().getCause() : e.getCause();
+            if (causa instanceof CancellationException) return;
+            JOptionPane.showMessageDialog(padre,
+                    "ERROR inesperado: " + (causa == null || causa.getMessage() == null ? String.valueOf(causa) : causa.getMessage()),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
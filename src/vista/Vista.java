@@ -166,27 +166,29 @@ public class Vista extends JFrame {
 
         btnRegistrar.addActionListener(e -> {
             if (validarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword, txtEspecialidad)) {
-                String resultado = controlador.procesarRegistroMedico(
-                        txtId.getText().trim(),
-                        txtNombre.getText().trim(),
-                        txtApellido.getText().trim(),
-                        txtTelefono.getText().trim(),
-                        txtEmail.getText().trim(),
-                        new String(txtPassword.getPassword()),
-                        txtEspecialidad.getText().trim()
-                );
-
-                if (resultado == null) {
-                    // Éxito - La Vista construye su propio mensaje
-                    JOptionPane.showMessageDialog(panel,
-                            "¡Registro exitoso!\nBienvenido Dr(a).",
-                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    limpiarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword, txtEspecialidad);
-                    cardLayout.show(panelPrincipal, "BIENVENIDA");
-                } else {
-                    // Error - Mostrar mensaje del controlador
-                    JOptionPane.showMessageDialog(panel, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                TareaVista.ejecutar(panel, "Registrando usuario...",
+                        avance -> controlador.getAsincrono().procesarRegistroMedico(
+                                txtId.getText().trim(),
+                                txtNombre.getText().trim(),
+                                txtApellido.getText().trim(),
+                                txtTelefono.getText().trim(),
+                                txtEmail.getText().trim(),
+                                new String(txtPassword.getPassword()),
+                                txtEspecialidad.getText().trim()
+                        ),
+                        resultado -> {
+                            if (resultado == null) {
+                                // Éxito - La Vista construye su propio mensaje
+                                JOptionPane.showMessageDialog(panel,
+                                        "¡Registro exitoso!\nBienvenido Dr(a).",
+                                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                                limpiarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword, txtEspecialidad);
+                                cardLayout.show(panelPrincipal, "BIENVENIDA");
+                            } else {
+                                // Error - Mostrar mensaje del controlador
+                                JOptionPane.showMessageDialog(panel, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                            }
+                        });
             }
         });
 
@@ -256,29 +258,31 @@ public class Vista extends JFrame {
             if (validarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword, txtFechaNacimiento)) {
                 String historiaClinica = "HC-" + txtId.getText().trim();
 
-                String resultado = controlador.procesarRegistroPaciente(
-                        txtId.getText().trim(),
-                        txtNombre.getText().trim(),
-                        txtApellido.getText().trim(),
-                        txtTelefono.getText().trim(),
-                        txtEmail.getText().trim(),
-                        new String(txtPassword.getPassword()),
-                        historiaClinica,
-                        txtFechaNacimiento.getText().trim(),
-                        (String) cmbTipoSangre.getSelectedItem(),
-                        (String) cmbSexo.getSelectedItem()
-                );
-
-                if (resultado == null) {
-                    // Éxito - La Vista construye su propio mensaje
-                    JOptionPane.showMessageDialog(panel,
-                            "¡Registro exitoso!\nBienvenido\nHistoria Clínica: " + historiaClinica,
-                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    limpiarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword, txtFechaNacimiento);
-                    cardLayout.show(panelPrincipal, "BIENVENIDA");
-                } else {
-                    JOptionPane.showMessageDialog(panel, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                TareaVista.ejecutar(panel, "Registrando usuario...",
+                        avance -> controlador.getAsincrono().procesarRegistroPaciente(
+                                txtId.getText().trim(),
+                                txtNombre.getText().trim(),
+                                txtApellido.getText().trim(),
+                                txtTelefono.getText().trim(),
+                                txtEmail.getText().trim(),
+                                new String(txtPassword.getPassword()),
+                                historiaClinica,
+                                txtFechaNacimiento.getText().trim(),
+                                (String) cmbTipoSangre.getSelectedItem(),
+                                (String) cmbSexo.getSelectedItem()
+                        ),
+                        resultado -> {
+                            if (resultado == null) {
+                                // Éxito - La Vista construye su propio mensaje
+                                JOptionPane.showMessageDialog(panel,
+                                        "¡Registro exitoso!\nBienvenido\nHistoria Clínica: " + historiaClinica,
+                                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                                limpiarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword, txtFechaNacimiento);
+                                cardLayout.show(panelPrincipal, "BIENVENIDA");
+                            } else {
+                                JOptionPane.showMessageDialog(panel, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                            }
+                        });
             }
         });
 
@@ -342,26 +346,28 @@ public class Vista extends JFrame {
 
         btnRegistrar.addActionListener(e -> {
             if (validarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword)) {
-                String resultado = controlador.procesarRegistroRecepcionista(
-                        txtId.getText().trim(),
-                        txtNombre.getText().trim(),
-                        txtApellido.getText().trim(),
-                        txtTelefono.getText().trim(),
-                        txtEmail.getText().trim(),
-                        new String(txtPassword.getPassword()),
-                        (String) cmbTurno.getSelectedItem()
-                );
-
-                if (resultado == null) {
-                    // Éxito - La Vista construye su propio mensaje
-                    JOptionPane.showMessageDialog(panel,
-                            "¡Registro exitoso!\nBienvenido",
-                            "Éxito", JOptionPane.INFORMATION_MESSAGE);
-                    limpiarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword);
-                    cardLayout.show(panelPrincipal, "BIENVENIDA");
-                } else {
-                    JOptionPane.showMessageDialog(panel, resultado, "Error", JOptionPane.ERROR_MESSAGE);
-                }
+                TareaVista.ejecutar(panel, "Registrando usuario...",
+                        avance -> controlador.getAsincrono().procesarRegistroRecepcionista(
+                                txtId.getText().trim(),
+                                txtNombre.getText().trim(),
+                                txtApellido.getText().trim(),
+                                txtTelefono.getText().trim(),
+                                txtEmail.getText().trim(),
+                                new String(txtPassword.getPassword()),
+                                (String) cmbTurno.getSelectedItem()
+                        ),
+                        resultado -> {
+                            if (resultado == null) {
+                                // Éxito - La Vista construye su propio mensaje
+                                JOptionPane.showMessageDialog(panel,
+                                        "¡Registro exitoso!\nBienvenido",
+                                        "Éxito", JOptionPane.INFORMATION_MESSAGE);
+                                limpiarCampos(txtId, txtNombre, txtApellido, txtTelefono, txtEmail, txtPassword);
+                                cardLayout.show(panelPrincipal, "BIENVENIDA");
+                            } else {
+                                JOptionPane.showMessageDialog(panel, resultado, "Error", JOptionPane.ERROR_MESSAGE);
+                            }
+                        });
             }
         });
 
@@ -0,0 +1,69 @@
+package benchmark;
+
+import data.GeneradorDatos;
+import modelo.GestionarUsuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el arranque completo: {@link GestionarUsuario#cargarDesdeArchivo()} seguido de la carga de
+ * las citas que hace {@link Service} desde el snapshot de la carpeta de datos.
+ * <p>
+ *     Los archivos se escriben con {@link GeneradorDatos} una vez por tamaño en una carpeta temporal y cada medicion es un arranque
+ *     en frio sobre objetos nuevos.
+ * </p>
+ * Ejecutar con: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CargaInicial -p tamano=100000"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CargaInicialBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tamano;
+
+    private Path directorio;
+    private Path directorioArchivos;
+    private Path directorioDatos;
+
+    @Setup
+    public void preparar() throws IOException {
+        directorio = DatosBenchmark.directorioTemporal("benchmark-carga");
+        directorioArchivos = directorio.resolve("archivos");
+        directorioDatos = directorio.resolve("data");
+        int medicos = DatosBenchmark.cantidadMedicos(tamano);
+        new GeneradorDatos(42, DatosBenchmark.cantidadPacientes(tamano), medicos, medicos, tamano)
+                .generar(directorioArchivos, directorioDatos);
+    }
+
+    @TearDown
+    public void terminar() {
+        DatosBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public GestionarUsuario cargarDesdeArchivo() {
+        GestionarUsuario gu = new GestionarUsuario(directorioArchivos.toString());
+        gu.cargarDesdeArchivo();
+        Service service = new Service(gu, directorioDatos);
+        service.getAlmacenCitas().detener();
+        return gu;
+    }
+}
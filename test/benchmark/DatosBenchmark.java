@@ -0,0 +1,120 @@
+package benchmark;
+
+import modelo.Cita;
+import modelo.Consultorio;
+import modelo.GestionarUsuario;
+import modelo.Medico;
+import modelo.Paciente;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Datos de prueba para los benchmarks, siempre iguales para un mismo tamaño.
+ * <p>
+ *     Cada medico tiene su propio consultorio y recibe las citas por turno de 30 minutos entre las
+ *     8:00 y las 18:00, asi la agenda no tiene cruces. Los pacientes y medicos crecen con la cantidad
+ *     de citas hasta un tope, porque registrar usuarios en las listas copy-on-write es cuadratico y
+ *     dominaria la preparacion de los tamaños grandes.
+ * </p>
+ */
+final class DatosBenchmark {
+    static final String[] ESPECIALIDADES = {"Medicina General", "Pediatria", "Cardiologia", "Dermatologia", "Neurologia"};
+    static final LocalDateTime INICIO = LocalDateTime.of(2025, 1, 6, 8, 0);
+    private static final int TURNOS_POR_DIA = 20;
+
+    final GestionarUsuario gu;
+    final List<Paciente> pacientes;
+    final List<Medico> medicos;
+    final List<Consultorio> consultorios;
+    final List<Cita> citas;
+
+    private DatosBenchmark(GestionarUsuario gu) {
+        this.gu = gu;
+        this.pacientes = new ArrayList<>();
+        this.medicos = new ArrayList<>();
+        this.consultorios = new ArrayList<>();
+        this.citas = new ArrayList<>();
+    }
+
+    /**
+     * Registra usuarios, consultorios y citas en gu; las citas quedan en el repositorio y en la agenda de su medico
+     * @param gu Gestor donde se registran los datos
+     * @param cantidadCitas Cantidad de citas a crear
+     * @param semilla Semilla para repartir pacientes y estados
+     */
+    static DatosBenchmark generar(GestionarUsuario gu, int cantidadCitas, long semilla) {
+        DatosBenchmark datos = new DatosBenchmark(gu);
+        Random random = new Random(semilla);
+        int cantidadMedicos = cantidadMedicos(cantidadCitas);
+        int cantidadPacientes = cantidadPacientes(cantidadCitas);
+
+        for (int i = 0; i < cantidadMedicos; i++) {
+            Medico medico = new Medico("M" + i, "Medico" + i, "Apellido" + i, "555-" + i, "m" + i + "@hospital.com",
+                    "clave" + i, ESPECIALIDADES[i % ESPECIALIDADES.length]);
+            Consultorio consultorio = new Consultorio(String.valueOf(100 + i), true, "Piso " + i % 4);
+            medico.setConsultorioAsignado(consultorio.getNumero());
+            gu.registrarMedico(medico);
+            gu.registrarConsultorio(consultorio);
+            datos.medicos.add(medico);
+            datos.consultorios.add(consultorio);
+        }
+        for (int i = 0; i < cantidadPacientes; i++) {
+            Paciente paciente = new Paciente("P" + i, "Paciente" + i, "Apellido" + i, "777-" + i, "p" + i + "@mail.com",
+                    "clave" + i, "HC-" + i, "01/01/1990", "O+", "Ninguno");
+            gu.registrarPaciente(paciente);
+            datos.pacientes.add(paciente);
+        }
+
+        for (int i = 0; i < cantidadCitas; i++) {
+            int turno = i / cantidadMedicos;
+            LocalDateTime fecha = INICIO.plusDays(turno / TURNOS_POR_DIA).plusMinutes(30L * (turno % TURNOS_POR_DIA));
+            Medico medico = datos.medicos.get(i % cantidadMedicos);
+            Cita cita = new Cita("CITA-" + i, datos.pacientes.get(random.nextInt(cantidadPacientes)), medico,
+                    datos.consultorios.get(i % cantidadMedicos), "Control " + i, fecha);
+            int estado = random.nextInt(10);
+            if (estado == 0) {
+                cita.cancelarCita();
+            } else if (estado < 4) {
+                cita.completar();
+            }
+            gu.agregarCita(cita);
+            medico.agregarCita(cita);
+            datos.citas.add(cita);
+        }
+        return datos;
+    }
+
+    static int cantidadMedicos(int cantidadCitas) {
+        return Math.max(10, Math.min(cantidadCitas / 2000, 500));
+    }
+
+    static int cantidadPacientes(int cantidadCitas) {
+        return Math.max(100, Math.min(cantidadCitas / 10, 20000));
+    }
+
+    static Path directorioTemporal(String prefijo) {
+        try {
+            return Files.createTempDirectory(prefijo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void borrar(Path directorio) {
+        if (directorio == null) return;
+        try (Stream<Path> rutas = Files.walk(directorio)) {
+            rutas.sorted(Comparator.reverseOrder()).forEach(ruta -> ruta.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
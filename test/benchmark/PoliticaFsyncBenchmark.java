@@ -0,0 +1,96 @@
+package benchmark;
+
+import modelo.Cita;
+import modelo.Consultorio;
+import modelo.EscrituraAtomica;
+import modelo.Medico;
+import modelo.Paciente;
+import modelo.PoliticaFsync;
+import modelo.citaState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import persistencia.JournalCitas;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de cada {@link PoliticaFsync} al anexar una linea al journal de citas y al reescribir el
+ * archivo de pacientes con {@link EscrituraAtomica}.
+ * <p>
+ *     Los resultados dependen mucho del disco: en discos con cache de escritura protegida la
+ *     diferencia entre SIEMPRE y SISTEMA_OPERATIVO es pequeña, en discos comunes es de varios ordenes.
+ *     Ejecutar con: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="PoliticaFsync"}
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PoliticaFsyncBenchmark {
+    private static final int PACIENTES = 1000;
+
+    @Param({"SIEMPRE", "POR_LOTES", "SISTEMA_OPERATIVO"})
+    public PoliticaFsync politica;
+
+    private Path directorio;
+    private JournalCitas journal;
+    private Cita cita;
+    private List<Paciente> pacientes;
+    private Path archivoPacientes;
+
+    @Setup
+    public void preparar() {
+        directorio = DatosBenchmark.directorioTemporal("benchmark-fsync");
+        journal = new JournalCitas(directorio.resolve("journal"), 64L * 1024 * 1024, 1, politica,
+                JournalCitas.INTERVALO_FSYNC_POR_DEFECTO);
+        pacientes = new ArrayList<>();
+        for (int i = 0; i < PACIENTES; i++) {
+            pacientes.add(new Paciente("P" + i, "Paciente" + i, "Apellido" + i, "777-" + i, "p" + i + "@mail.com",
+                    "x", "HC-" + i, "01/01/1990", "O+", "Otro"));
+        }
+        Medico medico = new Medico("M1", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "x", "Medicina General");
+        cita = new Cita("CITA-A1", pacientes.get(0), medico, new Consultorio("1", true, "Piso 1"), "Control",
+                LocalDateTime.of(2025, 1, 6, 8, 0));
+        cita.setEstadoCita(citaState.CONFIRMADA);
+        archivoPacientes = directorio.resolve("pacientes.txt");
+    }
+
+    @TearDown
+    public void terminar() {
+        journal.cerrar();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    @Benchmark
+    public void anexarAlJournal() {
+        journal.registrarEstado(cita);
+    }
+
+    @Benchmark
+    public long reescribirPacientes() throws IOException {
+        return EscrituraAtomica.escribir(archivoPacientes, Charset.defaultCharset(), politica, escritor -> {
+            for (Paciente paciente : pacientes) {
+                escritor.write(paciente.toCSV());
+                escritor.write(System.lineSeparator());
+            }
+        });
+    }
+}
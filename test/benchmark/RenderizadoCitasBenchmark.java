@@ -0,0 +1,106 @@
+package benchmark;
+
+import modelo.Cita;
+import modelo.Consultorio;
+import modelo.FormatoCita;
+import modelo.Medico;
+import modelo.Paciente;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara la forma anterior de armar el listado de citas (un {@code toString()} por cita que crea su
+ * formato de fecha y sus textos) con {@link FormatoCita} escribiendo en un solo texto reutilizado.
+ * <p>
+ *     Con {@code -prof gc} la columna {@code gc.alloc.rate.norm} muestra los bytes creados por cita.
+ *     Ejecutar con: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="RenderizadoCitas -prof gc"}
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderizadoCitasBenchmark {
+    private static final int CITAS = 1000;
+
+    private List<Cita> citas;
+    private StringBuilder texto;
+
+    @Setup
+    public void preparar() {
+        List<Medico> medicos = new ArrayList<>();
+        List<Paciente> pacientes = new ArrayList<>();
+        List<Consultorio> consultorios = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            medicos.add(new Medico("M" + i, "Medico" + i, "Apellido" + i, "555-" + i, "m" + i + "@hospital.com", "x", "Especialidad" + i % 5));
+            pacientes.add(new Paciente("P" + i, "Paciente" + i, "Apellido" + i, "777-" + i, "p" + i + "@mail.com", "x", "HC-" + i, "01/01/1990", "O+", "Otro"));
+            consultorios.add(new Consultorio(String.valueOf(i), true, "Piso " + i % 4));
+        }
+        citas = new ArrayList<>();
+        LocalDateTime inicio = LocalDateTime.of(2025, 1, 6, 8, 0);
+        for (int i = 0; i < CITAS; i++) {
+            citas.add(new Cita("CITA-" + i, pacientes.get(i % 20), medicos.get(i * 7 % 20), consultorios.get(i * 3 % 20),
+                    "Control", inicio.plusMinutes(30L * i)));
+        }
+        texto = new StringBuilder(CITAS * 512);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CITAS)
+    public int toStringAnterior() {
+        StringBuilder sb = new StringBuilder();
+        for (Cita cita : citas) {
+            sb.append(tarjetaAnterior(cita)).append("\n").append("-".repeat(70)).append("\n\n");
+        }
+        return sb.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CITAS)
+    public int formatoEnTextoReutilizado() {
+        texto.setLength(0);
+        for (Cita cita : citas) {
+            FormatoCita.escribirTarjeta(cita, texto);
+            texto.append('\n').append(FormatoCita.SEPARADOR).append("\n\n");
+        }
+        return texto.length();
+    }
+
+    /**
+     * Copia de como se armaba {@code Cita.toString()} antes de {@link FormatoCita}
+     */
+    private static String tarjetaAnterior(Cita cita) {
+        DateTimeFormatter fechaFormattter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+        StringBuilder sb = new StringBuilder();
+        sb.append("ID Cita: ").append(cita.getId()).append("\n");
+        sb.append("Fecha: ").append(fechaFormattter.format(cita.getFecha())).append("\n");
+        sb.append("Estado: ").append(cita.getEstadoCita().toString()).append("\n");
+        sb.append("Paciente: ").append(cita.getPaciente().getNombre() + " " + cita.getPaciente().getApellido()).append("\n");
+        sb.append("Historia clinica: ").append(cita.getPaciente().getHistoriaClinica()).append("\n");
+        sb.append("Medico: Dr(a). ").append(cita.getMedico().getNombre() + " " + cita.getMedico().getApellido()).append("\n");
+        sb.append("Especialidad del medico: ").append(cita.getMedico().getEspecialidad()).append("\n");
+        Consultorio consultorio = cita.getConsultorio();
+        sb.append("Consultorio: ").append(new StringBuilder().append(consultorio.getNumero()).append("\n")
+                .append("Ubicación: ").append(consultorio.getUbicacion()).append(" ")
+                .append("~~~ Estado: ").append(consultorio.isDisponibilidad() ? "Disponible" : "Ocupado").append("\n").toString());
+        sb.append("Motivos: ").append(cita.getMotivo()).append("\n");
+        return sb.toString();
+    }
+}
@@ -0,0 +1,162 @@
+package benchmark;
+
+import modelo.Cita;
+import modelo.Consultorio;
+import modelo.GestionarUsuario;
+import modelo.Medico;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import service.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide las operaciones mas usadas de {@link Service} sobre repositorios de distinto tamaño.
+ * <p>
+ *     Cada operacion recorre entradas elegidas al azar al preparar el estado (IDs existentes, medicos,
+ *     consultorios y fechas dentro de la agenda), asi todas las mediciones de un tamaño usan los mismos datos.
+ *     {@code remitirPaciente} crea una cita nueva en cada llamada, por eso el repositorio crece un poco
+ *     durante su medicion.
+ * </p>
+ * Ejecutar con: {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="ServiceBenchmark -p tamano=1000,10000"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceBenchmark {
+    private static final int ENTRADAS = 1024;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tamano;
+
+    private Path directorio;
+    private Service service;
+    private GestionarUsuario gu;
+
+    private String[] idsUsuarios;
+    private String[] clavesUsuarios;
+    private String[] idsCitas;
+    private String[] idsPacientes;
+    private String[] idsMedicos;
+    private Medico[] medicos;
+    private Consultorio[] consultorios;
+    private LocalDateTime[] fechas;
+    private Cita[] citas;
+    private String[] lineasCsv;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        directorio = DatosBenchmark.directorioTemporal("benchmark-service");
+        gu = new GestionarUsuario(directorio.resolve("archivos").toString());
+        DatosBenchmark datos = DatosBenchmark.generar(gu, tamano, 42);
+        service = new Service(gu, directorio.resolve("data"));
+
+        Random random = new Random(7);
+        List<Cita> todas = datos.citas;
+        LocalDateTime ultima = todas.get(todas.size() - 1).getFecha();
+        int dias = (int) Duration.between(DatosBenchmark.INICIO, ultima).toDays() + 1;
+
+        idsUsuarios = new String[ENTRADAS];
+        clavesUsuarios = new String[ENTRADAS];
+        idsCitas = new String[ENTRADAS];
+        idsPacientes = new String[ENTRADAS];
+        idsMedicos = new String[ENTRADAS];
+        medicos = new Medico[ENTRADAS];
+        consultorios = new Consultorio[ENTRADAS];
+        fechas = new LocalDateTime[ENTRADAS];
+        citas = new Cita[ENTRADAS];
+        lineasCsv = new String[ENTRADAS];
+        for (int i = 0; i < ENTRADAS; i++) {
+            int numeroMedico = random.nextInt(datos.medicos.size());
+            medicos[i] = datos.medicos.get(numeroMedico);
+            consultorios[i] = datos.consultorios.get(numeroMedico);
+            idsMedicos[i] = medicos[i].getId();
+            idsPacientes[i] = datos.pacientes.get(random.nextInt(datos.pacientes.size())).getId();
+            idsUsuarios[i] = i % 2 == 0 ? idsPacientes[i] : idsMedicos[i];
+            clavesUsuarios[i] = gu.buscarUsuario(idsUsuarios[i]).getPassword();
+            citas[i] = todas.get(random.nextInt(todas.size()));
+            idsCitas[i] = citas[i].getId();
+            lineasCsv[i] = citas[i].toCSV();
+            fechas[i] = DatosBenchmark.INICIO.plusDays(random.nextInt(dias)).plusMinutes(30L * random.nextInt(20));
+        }
+    }
+
+    @TearDown
+    public void terminar() {
+        service.getAlmacenCitas().detener();
+        DatosBenchmark.borrar(directorio);
+    }
+
+    private int siguiente() {
+        siguiente = (siguiente + 1) & (ENTRADAS - 1);
+        return siguiente;
+    }
+
+    @Benchmark
+    public Object iniciarSesion() {
+        int i = siguiente();
+        return service.iniciarSesion(idsUsuarios[i], clavesUsuarios[i]);
+    }
+
+    @Benchmark
+    public Cita searchCitaById() {
+        return service.searchCitaById(idsCitas[siguiente()]);
+    }
+
+    @Benchmark
+    public boolean validarHorarioMedico() {
+        int i = siguiente();
+        return service.validarHorarioMedico(medicos[i], fechas[i]);
+    }
+
+    @Benchmark
+    public boolean validarHorarioConsultorio() {
+        int i = siguiente();
+        return service.validarHorarioConsultorio(consultorios[i], fechas[i]);
+    }
+
+    @Benchmark
+    public String remitirPaciente() {
+        int i = siguiente();
+        return service.remitirPaciente(idsCitas[i], medicos[i].getEspecialidad(), "Remision");
+    }
+
+    @Benchmark
+    public List<Cita> verAgendaMedico() {
+        return service.verAgendaMedico(idsMedicos[siguiente()]);
+    }
+
+    @Benchmark
+    public String consultarHistoriaClinicaPaciente() {
+        return service.consultarHistoriaClinicaPaciente(idsPacientes[siguiente()]);
+    }
+
+    @Benchmark
+    public String toCSV() {
+        return citas[siguiente()].toCSV();
+    }
+
+    @Benchmark
+    public Cita fromCSV() {
+        return Cita.fromCSV(lineasCsv[siguiente()], gu);
+    }
+}
@@ -0,0 +1,69 @@
+package data;
+
+import modelo.Cita;
+import modelo.GestionarUsuario;
+import modelo.citaState;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import persistencia.AlmacenCitas;
+import service.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneradorDatosTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void mismaSemillaGeneraLosMismosArchivos() throws Exception {
+        new GeneradorDatos(7, 50, 6, 4, 500).generar(directorio.resolve("a/archivos"), directorio.resolve("a/data"));
+        new GeneradorDatos(7, 50, 6, 4, 500).generar(directorio.resolve("b/archivos"), directorio.resolve("b/data"));
+
+        for (String archivo : List.of(GestionarUsuario.ARCHIVO_PACIENTES, GestionarUsuario.ARCHIVO_MEDICOS)) {
+            assertArrayEquals(Files.readAllBytes(directorio.resolve("a/archivos").resolve(archivo)),
+                    Files.readAllBytes(directorio.resolve("b/archivos").resolve(archivo)));
+        }
+        assertArrayEquals(Files.readAllBytes(AlmacenCitas.rutaSnapshotInicial(directorio.resolve("a/data"))),
+                Files.readAllBytes(AlmacenCitas.rutaSnapshotInicial(directorio.resolve("b/data"))));
+    }
+
+    @Test
+    void losDatosGeneradosSeCarganSinCrucesDeHorario() throws Exception {
+        Path archivos = directorio.resolve("archivos");
+        Path datos = directorio.resolve("data");
+        GeneradorDatos generador = new GeneradorDatos(42, 30, 8, 5, 1000);
+        generador.setPesoEstado(citaState.CANCELADA, 0);
+        generador.generar(archivos, datos);
+
+        GestionarUsuario gu = new GestionarUsuario(archivos.toString());
+        gu.cargarDesdeArchivo();
+        Service service = new Service(gu, datos);
+        try {
+            List<Cita> citas = gu.getCitas();
+            assertEquals(1000, citas.size());
+            assertEquals(30, gu.getPacientes().size());
+            assertNotNull(service.iniciarSesion("P001", "paciente120"));
+
+            Set<String> medicos = new HashSet<>();
+            Set<String> consultorios = new HashSet<>();
+            Set<String> pacientes = new HashSet<>();
+            for (Cita cita : citas) {
+                assertNotEquals(citaState.CANCELADA, cita.getEstadoCita());
+                assertTrue(medicos.add(cita.getMedico().getId() + cita.getFecha()));
+                assertTrue(consultorios.add(cita.getConsultorio().getNumero() + cita.getFecha()));
+                assertTrue(pacientes.add(cita.getPaciente().getId() + cita.getFecha()));
+            }
+            assertEquals("CITA-A0001001", service.generadorIdCita());
+        } finally {
+            service.getAlmacenCitas().detener();
+        }
+
+        assertThrows(IllegalStateException.class, () -> generador.generar(archivos, datos));
+    }
+}
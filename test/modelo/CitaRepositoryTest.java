@@ -0,0 +1,193 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CitaRepositoryTest {
+    Medico m = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Medicina General");
+    Paciente p = new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino");
+    Consultorio c = new Consultorio("1", true, "Mar caribe norte, piso 2");
+    LocalDateTime fecha = LocalDateTime.of(2025, 11, 24, 10, 30);
+    CitaRepository repositorio = new CitaRepository();
+
+    @Test
+    void medicoOcupadoSoloEnTurnosQueSeCruzan() {
+        repositorio.agregar(new Cita("C1", p, m, c, "Consulta", fecha));
+
+        assertTrue(repositorio.medicoOcupado("M001", fecha));
+        assertTrue(repositorio.medicoOcupado("M001", fecha.minusMinutes(15)));
+        assertTrue(repositorio.medicoOcupado("M001", fecha.plusMinutes(29)));
+        assertFalse(repositorio.medicoOcupado("M001", fecha.minusMinutes(30)));
+        assertFalse(repositorio.medicoOcupado("M001", fecha.plusMinutes(30)));
+        assertFalse(repositorio.medicoOcupado("M002", fecha));
+    }
+
+    @Test
+    void indiceSeActualizaAlCancelarYReprogramar() {
+        Cita cita = new Cita("C1", p, m, c, "Consulta", fecha);
+        repositorio.agregar(cita);
+
+        cita.setFecha(fecha.plusHours(2));
+        assertFalse(repositorio.medicoOcupado("M001", fecha));
+        assertTrue(repositorio.medicoOcupado("M001", fecha.plusHours(2)));
+
+        cita.setEstadoCita(citaState.CANCELADA);
+        assertFalse(repositorio.medicoOcupado("M001", fecha.plusHours(2)));
+
+        cita.setEstadoCita(citaState.PENDIENTE);
+        cita.completar();
+        assertTrue(repositorio.medicoOcupado("M001", fecha.plusHours(2)));
+    }
+
+    @Test
+    void calendarioDelConsultorioMarcaYLiberaFranjas() {
+        Cita cita = new Cita("C1", p, m, c, "Consulta", fecha);
+        repositorio.agregar(cita);
+        Medico otro = new Medico("M002", "Ana", "Ruiz", "555-0102", "aruiz@hospital.com", "doc122", "Pediatria");
+        repositorio.agregar(new Cita("C2", p, otro, c, "Consulta", fecha.plusMinutes(45)));
+
+        assertEquals(0b111L << Consultorio.franja(fecha), c.ocupacionDelDia(fecha.toLocalDate()));
+        assertTrue(repositorio.consultorioOcupado(c, fecha));
+        assertTrue(repositorio.consultorioOcupado(c, fecha.plusMinutes(30)));
+        // Comparte franja con la cita de las 11:15 pero empieza justo cuando esta termina
+        assertFalse(repositorio.consultorioOcupado(c, fecha.plusMinutes(75)));
+
+        cita.cancelarCita();
+        assertEquals(0b110L << Consultorio.franja(fecha), c.ocupacionDelDia(fecha.toLocalDate()));
+        assertFalse(repositorio.consultorioOcupado(c, fecha));
+        Consultorio vacio = new Consultorio("2", true, "Piso 3");
+        assertArrayEquals(new long[] {0b110L << Consultorio.franja(fecha), 0L},
+                repositorio.ocupacionDelDia(List.of(c, vacio), fecha.toLocalDate()));
+    }
+
+    @Test
+    void paginasPorCursorRecorrenTodasLasCitasSinRepetir() {
+        for (int i = 0; i < 7; i++) {
+            repositorio.agregar(new Cita("C" + i, p, m, c, "Consulta", fecha.plusHours(7 - i)));
+        }
+        // Misma hora que C6: el ID desempata
+        repositorio.agregar(new Cita("C7", p, m, c, "Consulta", fecha.plusHours(1)));
+
+        List<Cita> primera = repositorio.paginaCitas(null, 3);
+        assertEquals(List.of("C6", "C7", "C5"), ids(primera));
+        List<Cita> segunda = repositorio.paginaCitas(ClaveCita.de(primera.get(2)), 3);
+        assertEquals(List.of("C4", "C3", "C2"), ids(segunda));
+        assertEquals(ids(segunda), ids(repositorio.paginaCitas(3, 3)));
+
+        // Al reprogramar una cita cambia de lugar en las paginas
+        segunda.get(0).setFecha(fecha.plusHours(20));
+        assertEquals(List.of("C3", "C2", "C1", "C0", "C4"), ids(repositorio.paginaCitas(ClaveCita.de(primera.get(2)), 10)));
+    }
+
+    @Test
+    void consultaFiltradaUsaRangoOrdenYCursor() {
+        Medico otro = new Medico("M002", "Ana", "Ruiz", "555-0102", "aruiz@hospital.com", "doc122", "Pediatria");
+        for (int i = 0; i < 6; i++) {
+            repositorio.agregar(new Cita("C" + i, p, i % 2 == 0 ? m : otro, c, "Consulta", fecha.plusDays(i)));
+        }
+        repositorio.buscarPorId("C4").cancelarCita();
+
+        FiltroCitas delMedico = new FiltroCitas("M001", null, null, null, null, true);
+        assertEquals(3, repositorio.contar(delMedico));
+        assertEquals(List.of("C4", "C2", "C0"), ids(repositorio.consultar(delMedico, null, 0, 10)));
+
+        FiltroCitas pendientes = new FiltroCitas("M001", null, citaState.PENDIENTE, null, null, false);
+        assertEquals(List.of("C0", "C2"), ids(repositorio.consultar(pendientes, null, 0, 10)));
+
+        FiltroCitas rango = new FiltroCitas(null, null, null, fecha.plusDays(1), fecha.plusDays(5), false);
+        assertEquals(4, repositorio.contar(rango));
+        List<Cita> primera = repositorio.consultar(rango, null, 0, 2);
+        assertEquals(List.of("C1", "C2"), ids(primera));
+        assertEquals(List.of("C4"), ids(repositorio.consultar(rango, ClaveCita.de(primera.get(1)), 1, 2)));
+        assertEquals(6, repositorio.contar(FiltroCitas.todas()));
+    }
+
+    @Test
+    void consultaPorPacienteOMedicoUsaSuIndice() {
+        Paciente otra = new Paciente("P002", "Ana", "Gil", "777-1002", "agil@hmail.com", "x", "HC-002", "15/03/1990", "A+", "Femenino");
+        Medico otro = new Medico("M002", "Ana", "Ruiz", "555-0102", "aruiz@hospital.com", "doc122", "Pediatria");
+        for (int i = 0; i < 6; i++) {
+            repositorio.agregar(new Cita("C" + i, i < 4 ? p : otra, i % 2 == 0 ? m : otro, c, "Consulta", fecha.plusDays(i)));
+        }
+        repositorio.buscarPorId("C2").cancelarCita();
+        repositorio.buscarPorId("C0").setFecha(fecha.plusDays(10));
+
+        FiltroCitas dePaciente = new FiltroCitas(null, "P001", null, null, null, false);
+        assertEquals(List.of("C1", "C2", "C3", "C0"), ids(repositorio.consultar(dePaciente, null, 0, 10)));
+        assertEquals(2, repositorio.contar(new FiltroCitas("M001", "P001", null, null, null, false)));
+        assertEquals(List.of("C0"), ids(repositorio.consultar(
+                new FiltroCitas("M001", null, null, fecha.plusDays(5), null, false), null, 0, 10)));
+        assertTrue(repositorio.consultar(new FiltroCitas(null, "P999", null, null, null, false), null, 0, 10).isEmpty());
+    }
+
+    @Test
+    void buscarPorIdSinDistinguirMayusculasNiEspacios() {
+        Cita primera = new Cita("CITA-A1", p, m, c, "Consulta", fecha);
+        repositorio.agregar(primera);
+        repositorio.agregar(new Cita(" cita-a1 ", p, m, c, "Repetida", fecha.plusHours(1)));
+
+        assertSame(primera, repositorio.buscarPorId("cita-a1"));
+        assertSame(primera, repositorio.buscarPorId("  CITA-A1\t"));
+        assertNull(repositorio.buscarPorId("CITA-A2"));
+        assertNull(repositorio.buscarPorId("   "));
+    }
+
+    @Test
+    void citasDelPacienteOrdenadasPorFechaSeActualizanAlReprogramar() {
+        Paciente otro = new Paciente("P002", "Luis", "Gómez", "777-1002", "lgomez@hmail.com", "paciente121", "HC-002", "01/01/1990", "A+", "Masculino");
+        Cita tarde = new Cita("C1", p, m, c, "Consulta", fecha.plusDays(2));
+        Cita temprano = new Cita("C2", p, m, c, "Consulta", fecha.plusDays(1));
+        repositorio.agregar(tarde);
+        repositorio.agregar(temprano);
+        repositorio.agregar(new Cita("C3", otro, m, c, "Consulta", fecha));
+
+        assertEquals(List.of("C2", "C1"), ids(repositorio.citasPaciente("P001", null, null, false, null)));
+
+        temprano.setFecha(fecha.plusDays(3));
+        assertEquals(List.of("C1", "C2"), ids(repositorio.citasPaciente("P001", null, null, false, null)));
+        assertEquals(List.of("C2"), ids(repositorio.citasPaciente("P001", fecha.plusDays(3), null, false, null)));
+
+        tarde.cancelarCita();
+        assertEquals(List.of("C2"), ids(repositorio.paginaCitasPaciente("P001",
+                cita -> cita.getEstadoCita() != citaState.CANCELADA, null, 10)));
+        assertTrue(repositorio.citasPaciente("P999", null, null, false, null).isEmpty());
+    }
+
+    @Test
+    void contadoresEIndicePorEstadoSiguenLasTransiciones() {
+        Cita primera = new Cita("C1", p, m, c, "Consulta", fecha);
+        Cita segunda = new Cita("C2", p, m, c, "Consulta", fecha.plusHours(1));
+        Cita otroDia = new Cita("C3", p, m, c, "Consulta", fecha.plusDays(1));
+        repositorio.agregar(primera);
+        repositorio.agregar(segunda);
+        repositorio.agregar(otroDia);
+        assertEquals(3, repositorio.contarPorEstado(citaState.PENDIENTE));
+
+        primera.iniciarAtencion();
+        segunda.cancelarCita();
+        assertEquals(1, repositorio.contarPorEstado(citaState.PENDIENTE));
+        assertEquals(1, repositorio.contarPorEstado(citaState.CANCELADA));
+        assertEquals(List.of("C1"), ids(repositorio.citasPorEstado(citaState.EN_ATENCION, null, null)));
+
+        primera.completar();
+        assertTrue(repositorio.citasPorEstado(citaState.EN_ATENCION, null, null).isEmpty());
+        assertEquals(1, repositorio.contar(new FiltroCitas(null, null, citaState.COMPLETADA, null, null, false)));
+
+        otroDia.setFecha(fecha.plusMinutes(90));
+        Map<citaState, Integer> hoy = repositorio.conteoPorEstado(fecha.toLocalDate().atStartOfDay(), fecha.toLocalDate().plusDays(1).atStartOfDay());
+        assertEquals(1, hoy.get(citaState.PENDIENTE));
+        assertEquals(1, hoy.get(citaState.CANCELADA));
+        assertEquals(1, hoy.get(citaState.COMPLETADA));
+        assertEquals(0, hoy.get(citaState.CONFIRMADA));
+        assertEquals(List.of("C3"), ids(repositorio.citasPorEstado(citaState.PENDIENTE, fecha, null)));
+    }
+
+    private static List<String> ids(List<Cita> citas) {
+        return citas.stream().map(Cita::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,43 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EscrituraAtomicaTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void escrituraFallidaConservaElArchivoAnterior() throws Exception {
+        Path archivo = directorio.resolve("datos").resolve("pacientes.txt");
+        EscrituraAtomica.escribir(archivo, StandardCharsets.UTF_8, PoliticaFsync.SIEMPRE, escritor -> escritor.write("P001;María\n"));
+        assertEquals("P001;María\n", Files.readString(archivo));
+
+        assertThrows(IOException.class, () -> EscrituraAtomica.escribir(archivo, StandardCharsets.UTF_8,
+                PoliticaFsync.POR_LOTES, escritor -> {
+                    escritor.write("P002;");
+                    throw new IOException("disco lleno");
+                }));
+
+        assertEquals("P001;María\n", Files.readString(archivo));
+        try (Stream<Path> archivos = Files.list(archivo.getParent())) {
+            assertEquals(1, archivos.count());
+        }
+    }
+
+    @Test
+    void caracteresSinRepresentacionSeReemplazan() throws Exception {
+        Path archivo = directorio.resolve("pacientes.txt");
+        EscrituraAtomica.escribir(archivo, StandardCharsets.US_ASCII, PoliticaFsync.SISTEMA_OPERATIVO,
+                escritor -> escritor.write("P001;María\n"));
+        assertEquals("P001;Mar?a\n", Files.readString(archivo, StandardCharsets.US_ASCII));
+    }
+}
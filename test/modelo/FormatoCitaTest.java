@@ -0,0 +1,50 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormatoCitaTest {
+    Medico m = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Medicina General");
+    Paciente p = new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino");
+    Consultorio c = new Consultorio("1", true, "Mar caribe norte, piso 2");
+
+    @Test
+    void fechaIgualAlFormatoDelSistema() {
+        DateTimeFormatter conSegundos = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+        for (LocalDateTime fecha : new LocalDateTime[]{
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5), LocalDateTime.of(1999, 12, 31, 23, 59, 59), LocalDateTime.of(2030, 10, 10, 0, 0)}) {
+            StringBuilder sb = new StringBuilder();
+            FormatoCita.escribirFecha(fecha, false, sb);
+            assertEquals(FormatoCita.FECHA_HORA.format(fecha), sb.toString());
+            sb.setLength(0);
+            FormatoCita.escribirFecha(fecha, true, sb);
+            assertEquals(conSegundos.format(fecha), sb.toString());
+        }
+    }
+
+    @Test
+    void tarjetaSeAgregaAlTextoRecibido() {
+        Cita cita = new Cita("C1", p, m, c, "Dolor de cabeza", LocalDateTime.of(2025, 11, 24, 10, 30));
+        cita.setDiagnostico("Migraña");
+
+        StringBuilder sb = new StringBuilder("inicio\n");
+        FormatoCita.escribirTarjeta(cita, sb);
+
+        assertEquals("inicio\n"
+                + "ID Cita: C1\n"
+                + "Fecha: 24/11/2025 10:30:00\n"
+                + "Estado: PENDIENTE\n"
+                + "Paciente: María López\n"
+                + "Historia clinica: HC-001\n"
+                + "Medico: Dr(a). Carlos Ramírez\n"
+                + "Especialidad del medico: Medicina General\n"
+                + "Consultorio: 1\nUbicación: Mar caribe norte, piso 2 ~~~ Estado: Disponible\n"
+                + "Motivos: Dolor de cabeza\n"
+                + "Diagnostico: Migraña\n", sb.toString());
+        assertEquals(sb.substring("inicio\n".length()), cita.toString());
+    }
+}
@@ -0,0 +1,83 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GestionarUsuarioTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void soloSeEscribenLosArchivosModificados() {
+        GestionarUsuario gu = new GestionarUsuario(directorio.toString(), 0, PoliticaFsync.SIEMPRE);
+        gu.registrarPaciente(paciente("P001"));
+        gu.guardarEnArchivo();
+
+        assertTrue(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_PACIENTES)));
+        assertFalse(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_MEDICOS)));
+        assertFalse(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_CONSULTORIOS)));
+
+        gu.registrarConsultorio(new Consultorio("1", true, "Piso 1"));
+        gu.guardarEnArchivo();
+        assertTrue(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_CONSULTORIOS)));
+        assertFalse(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_MEDICOS)));
+    }
+
+    @Test
+    void archivoCargadoSePuedeReescribir() {
+        GestionarUsuario gu = new GestionarUsuario(directorio.toString(), 0, PoliticaFsync.SISTEMA_OPERATIVO);
+        gu.registrarPaciente(paciente("P001"));
+        gu.guardarEnArchivo();
+
+        GestionarUsuario cargado = new GestionarUsuario(directorio.toString(), 0, PoliticaFsync.SISTEMA_OPERATIVO);
+        cargado.cargarDesdeArchivo();
+        cargado.registrarPaciente(paciente("P002"));
+        cargado.guardarEnArchivo();
+
+        GestionarUsuario releido = new GestionarUsuario(directorio.toString(), 0, PoliticaFsync.SISTEMA_OPERATIVO);
+        releido.cargarDesdeArchivo();
+        assertEquals(2, releido.getPacientes().size());
+    }
+
+    @Test
+    void cambiosDentroDeLaVentanaCompartenUnaEscritura() throws Exception {
+        GestionarUsuario gu = new GestionarUsuario(directorio.toString(), 200, PoliticaFsync.SISTEMA_OPERATIVO);
+        gu.registrarPaciente(paciente("P001"));
+        CompletableFuture<Void> primero = gu.guardarCambios();
+        gu.registrarPaciente(paciente("P002"));
+        CompletableFuture<Void> segundo = gu.guardarCambios();
+
+        assertSame(primero, segundo);
+        assertFalse(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_PACIENTES)));
+        segundo.join();
+
+        List<String> lineas = Files.readAllLines(directorio.resolve(GestionarUsuario.ARCHIVO_PACIENTES), Charset.defaultCharset());
+        assertEquals(2, lineas.size());
+        assertNotSame(segundo, gu.guardarCambios());
+        gu.detener();
+    }
+
+    @Test
+    void escrituraFallidaSeInformaYSeReintenta() throws Exception {
+        Path bloqueado = directorio.resolve("bloqueado");
+        Files.createFile(bloqueado);
+        GestionarUsuario gu = new GestionarUsuario(bloqueado.toString(), 0, PoliticaFsync.SISTEMA_OPERATIVO);
+        gu.registrarPaciente(paciente("P001"));
+
+        assertThrows(UncheckedIOException.class, gu::guardarEnArchivo);
+        assertThrows(UncheckedIOException.class, gu::guardarEnArchivo, "el archivo sigue pendiente");
+    }
+
+    private static Paciente paciente(String id) {
+        return new Paciente(id, "María", "López", "777-1001", "mlopez@hmail.com", "clave", "HC-" + id, "15/03/1985", "O+", "Femenino");
+    }
+}
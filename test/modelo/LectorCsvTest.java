@@ -0,0 +1,95 @@
+package modelo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LectorCsvTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void trozosTerminanEnFinDeLineaYConservanTodasLasLineas() throws Exception {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            texto.append("P").append(i).append(";Nombre").append(i).append("\r\n");
+        }
+        Path archivo = directorio.resolve("usuarios.txt");
+        Files.writeString(archivo, texto.toString());
+
+        List<ByteBuffer> trozos = LectorCsv.trozos(archivo, 64);
+        assertTrue(trozos.size() > 1);
+        int lineas = 0;
+        for (ByteBuffer trozo : trozos) {
+            LectorCsv lector = new LectorCsv(trozo, StandardCharsets.UTF_8);
+            while (lector.siguienteLinea()) {
+                String[] campos = lector.campos();
+                assertEquals("P" + lineas, campos[0]);
+                assertEquals("Nombre" + lineas, campos[1]);
+                lineas++;
+            }
+        }
+        assertEquals(500, lineas);
+    }
+
+    @Test
+    void losTrozosNoDejanElArchivoMapeado() throws Exception {
+        Path archivo = directorio.resolve("usuarios.txt");
+        Files.writeString(archivo, "P1;Uno\nP2;Dos sin fin de linea");
+
+        List<ByteBuffer> trozos = LectorCsv.trozos(archivo, 4);
+        assertTrue(trozos.stream().noneMatch(ByteBuffer::isDirect));
+        EscrituraAtomica.escribir(archivo, StandardCharsets.UTF_8, PoliticaFsync.SISTEMA_OPERATIVO,
+                escritor -> escritor.write("P3;Tres\n"));
+        Files.delete(archivo);
+
+        LectorCsv lector = new LectorCsv(trozos.get(trozos.size() - 1), StandardCharsets.UTF_8);
+        assertTrue(lector.siguienteLinea());
+        assertEquals("P2;Dos sin fin de linea", lector.linea());
+    }
+
+    @Test
+    void leeCamposSinCrearLaLinea() {
+        LectorCsv lector = lector("\n  \nM001 ; María Ramírez;24/11/2025 10:30;;x\n");
+        Medico medico = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Medicina General");
+        LectorCsv.TablaIds<Medico> medicos = new LectorCsv.TablaIds<>(List.of(medico), Usuario::getId);
+
+        assertTrue(lector.siguienteLinea());
+        assertTrue(lector.siguienteCampo());
+        assertSame(medico, lector.buscar(medicos));
+        assertTrue(lector.siguienteCampo());
+        assertEquals("María Ramírez", lector.texto());
+        assertNull(lector.buscar(medicos));
+        assertTrue(lector.siguienteCampo());
+        assertEquals(LocalDateTime.of(2025, 11, 24, 10, 30), lector.fecha());
+        assertTrue(lector.siguienteCampo());
+        assertTrue(lector.campoVacio());
+        assertTrue(lector.siguienteCampo());
+        assertTrue(lector.es("x".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(lector.siguienteCampo());
+        assertFalse(lector.siguienteLinea());
+    }
+
+    @Test
+    void fechaInvalidaLanzaExcepcion() {
+        LectorCsv lector = lector("24/11/2025;32/11/2025 10:30;ab/11/2025 10:30");
+        lector.siguienteLinea();
+        for (int i = 0; i < 3; i++) {
+            lector.siguienteCampo();
+            assertThrows(DateTimeException.class, lector::fecha);
+        }
+    }
+
+    private static LectorCsv lector(String texto) {
+        return new LectorCsv(ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+    }
+}
@@ -58,6 +58,27 @@ class MedicoTest {
         assertTrue(m.getAgenda().isEmpty());
     }
 
+    @Test
+    void agendaOrdenadaSinRepetidosYPorRangos() {
+        Cita tarde = new Cita("002", p, m, c, "Control", fecha.plusHours(3));
+        Cita otraSemana = new Cita("003", p, m, c, "Control", fecha.plusDays(7));
+        m.agregarCita(otraSemana);
+        m.agregarCita(tarde);
+        assertTrue(m.agregarCita(new Cita(" 001 ", p, m, c, "Consulta", fecha)));
+        assertFalse(m.agregarCita(cita));
+
+        assertEquals(List.of(cita, tarde, otraSemana), List.copyOf(m.getAgenda()));
+        assertEquals(List.of(cita, tarde), m.agendaDelDia(fecha.toLocalDate()));
+        assertEquals(List.of(cita, tarde), m.agendaDeLaSemana(LocalDate.of(2025, 11, 30)));
+        assertEquals(List.of(tarde), m.agendaEntre(fecha.plusMinutes(1), fecha.plusDays(7)));
+
+        CitaRepository repositorio = new CitaRepository();
+        repositorio.agregar(tarde);
+        tarde.setFecha(fecha.minusDays(1));
+        assertEquals(List.of(tarde, cita, otraSemana), List.copyOf(m.getAgenda()));
+        assertTrue(m.agendaDelDia(fecha.toLocalDate().plusDays(1)).isEmpty());
+    }
+
     @Test
     void fromCSV() {
         Medico m2 = Medico.fromCSV("M001;Carlos;Ramírez;555-0101;cramirez@hospital.com;doc121;Medicina General");
@@ -0,0 +1,143 @@
+package persistencia;
+
+import modelo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AlmacenCitasTest {
+    @TempDir
+    Path directorio;
+
+    GestionarUsuario gu = new GestionarUsuario();
+    Paciente p = new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino");
+    Medico m = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Medicina General");
+    Consultorio c = new Consultorio("1", true, "Mar caribe norte, piso 2");
+    LocalDateTime fecha = LocalDateTime.of(2030, 11, 24, 10, 30);
+
+    AlmacenCitasTest() {
+        gu.registrarPaciente(p);
+        gu.registrarMedico(m);
+        gu.registrarConsultorio(c);
+    }
+
+    @Test
+    void journalSeReproduceAlCargar() {
+        AlmacenCitas almacen = new AlmacenCitas(directorio, 1024, 0);
+        Cita cita = new Cita("CITA-A0000001", p, m, c, "Consulta", fecha);
+        almacen.getJournal().registrarCreacion(cita);
+        cita.setFecha(fecha.plusDays(1));
+        almacen.getJournal().registrarReprogramacion(cita);
+        cita.setDiagnostico("Gripa");
+        almacen.getJournal().registrarNotas(cita);
+        cita.completar();
+        almacen.getJournal().registrarEstado(cita);
+        almacen.detener();
+
+        Map<String, Cita> cargadas = new AlmacenCitas(directorio, 1024, 0).cargar(gu);
+
+        Cita recuperada = cargadas.get("CITA-A0000001");
+        assertEquals(fecha.plusDays(1), recuperada.getFecha());
+        assertEquals("Gripa", recuperada.getDiagnostico());
+        assertEquals(citaState.COMPLETADA, recuperada.getEstadoCita());
+    }
+
+    @Test
+    void compactarEliminaSegmentosCubiertosYConservaLaCola() throws Exception {
+        List<Cita> vivas = new ArrayList<>();
+        AlmacenCitas almacen = new AlmacenCitas(directorio, 64, 0);
+        almacen.iniciarCompactacion(() -> new ArrayList<>(vivas));
+        for (int i = 1; i <= 5; i++) {
+            Cita cita = new Cita("CITA-A000000" + i, p, m, c, "Consulta", fecha.plusHours(i));
+            vivas.add(cita);
+            almacen.getJournal().registrarCreacion(cita);
+        }
+
+        EstadisticasCompactacion estadisticas = almacen.compactar();
+        assertNotNull(estadisticas);
+        assertEquals(5, estadisticas.getCitasEscritas());
+        assertTrue(estadisticas.getBytesEscritos() > 0);
+        assertTrue(estadisticas.getSegmentosEliminados() > 0);
+        assertNull(almacen.compactar(), "sin cambios no debe escribirse otro snapshot");
+
+        vivas.get(0).cancelarCita();
+        almacen.getJournal().registrarEstado(vivas.get(0));
+        almacen.detener();
+
+        try (var archivos = Files.list(directorio.resolve("journal"))) {
+            assertEquals(1, archivos.count());
+        }
+        Map<String, Cita> cargadas = new AlmacenCitas(directorio, 64, 0).cargar(gu);
+        assertEquals(5, cargadas.size());
+        assertEquals(citaState.CANCELADA, cargadas.get("CITA-A0000001").getEstadoCita());
+    }
+
+    @Test
+    void reproduccionPorLotesConservaElOrdenDelArchivo() {
+        AlmacenCitas almacen = new AlmacenCitas(directorio, Long.MAX_VALUE, 0);
+        List<String> ids = new ArrayList<>();
+        for (int i = 1; i <= 20000; i++) {
+            Cita cita = new Cita(String.format("CITA-A%07d", i), p, m, c, "Consulta", fecha.plusMinutes(30L * i));
+            ids.add(cita.getId());
+            almacen.getJournal().registrarCreacion(cita);
+            if (i == 9000) {
+                cita.cancelarCita();
+                almacen.getJournal().registrarEstado(cita);
+            }
+        }
+        Cita ultima = new Cita("CITA-A0020000", p, m, c, "Consulta", fecha);
+        ultima.setDiagnostico("Control");
+        almacen.getJournal().registrarNotas(ultima);
+        almacen.detener();
+
+        TiemposCarga tiempos = new TiemposCarga();
+        Map<String, Cita> cargadas = new AlmacenCitas(directorio, Long.MAX_VALUE, 0).cargar(gu, tiempos);
+
+        assertEquals(ids, new ArrayList<>(cargadas.keySet()));
+        assertEquals(citaState.CANCELADA, cargadas.get("CITA-A0009000").getEstadoCita());
+        assertEquals("Control", cargadas.get("CITA-A0020000").getDiagnostico());
+        assertTrue(tiempos.getFases().containsKey("citas: journal"));
+    }
+
+    @Test
+    void archivoAnteriorIlegibleNoSeCompacta() throws Exception {
+        assumeTrue(Charset.defaultCharset().equals(StandardCharsets.UTF_8));
+        Files.write(directorio.resolve("citas.txt"),
+                "CITA-A0000001;P001;M001;1;Revisión;24/11/2030 10:30;PENDIENTE\n".getBytes(StandardCharsets.ISO_8859_1));
+
+        AlmacenCitas almacen = new AlmacenCitas(directorio, 1024, 0);
+        almacen.cargar(gu);
+        almacen.iniciarCompactacion(ArrayList::new);
+
+        assertTrue(almacen.isMigracionFallida());
+        assertNull(almacen.compactar());
+        assertFalse(Files.exists(directorio.resolve("snapshots")));
+        almacen.detener();
+    }
+
+    @Test
+    void archivoAnteriorSeLeeConLaCodificacionDelSistema() throws Exception {
+        assumeFalse(Charset.defaultCharset().equals(StandardCharsets.UTF_8));
+        Files.write(directorio.resolve("citas.txt"),
+                "CITA-A0000001;P001;M001;1;Revisión;24/11/2030 10:30;PENDIENTE\n".getBytes(Charset.defaultCharset()));
+
+        AlmacenCitas almacen = new AlmacenCitas(directorio, 1024, 0);
+        Map<String, Cita> cargadas = almacen.cargar(gu);
+
+        assertFalse(almacen.isMigracionFallida());
+        assertEquals(1, cargadas.size());
+        almacen.detener();
+    }
+}
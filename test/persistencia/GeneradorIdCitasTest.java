@@ -0,0 +1,55 @@
+package persistencia;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeneradorIdCitasTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void continuaDespuesDelBloqueReservadoAlReiniciar() throws Exception {
+        Path marca = directorio.resolve("citas.hwm");
+        GeneradorIdCitas generador = new GeneradorIdCitas(marca, 10);
+        assertFalse(generador.isMarcaExistente());
+        generador.asegurarMayorQue(41);
+
+        assertEquals("CITA-A0000042", generador.siguienteId());
+        assertEquals("CITA-A0000043", generador.siguienteId());
+        assertEquals("52", Files.readString(marca));
+
+        GeneradorIdCitas reiniciado = new GeneradorIdCitas(marca, 10);
+        assertTrue(reiniciado.isMarcaExistente());
+        assertEquals("CITA-A0000052", reiniciado.siguienteId());
+    }
+
+    @Test
+    void hilosConcurrentesNuncaRepitenIds() throws Exception {
+        GeneradorIdCitas generador = new GeneradorIdCitas(directorio.resolve("citas.hwm"), 16);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        List<Callable<Void>> tareas = new ArrayList<>();
+        for (int h = 0; h < 8; h++) {
+            tareas.add(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    assertTrue(ids.add(generador.siguienteId()));
+                }
+                return null;
+            });
+        }
+        for (Future<Void> tarea : hilos.invokeAll(tareas)) tarea.get();
+        hilos.shutdown();
+
+        assertEquals(8000, ids.size());
+        assertTrue(Long.parseLong(Files.readString(directorio.resolve("citas.hwm"))) > 8000);
+    }
+}
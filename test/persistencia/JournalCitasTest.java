@@ -0,0 +1,56 @@
+package persistencia;
+
+import modelo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalCitasTest {
+    @TempDir
+    Path directorio;
+
+    Paciente p = new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino");
+    Medico m = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Medicina General");
+    Consultorio c = new Consultorio("1", true, "Mar caribe norte, piso 2");
+
+    @Test
+    void elSegmentoSeMideEnBytesEscritos() throws Exception {
+        Cita cita = new Cita("CITA-A0000001", p, m, c, "Consulta", LocalDateTime.of(2030, 11, 24, 10, 30));
+        cita.setDiagnostico("Otitis aguda en oído izquierdo, niño con fiebre de 39°");
+        String linea = JournalCitas.lineaNotas(cita) + "\n";
+        long bytesLinea = linea.getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(bytesLinea > linea.length());
+
+        JournalCitas journal = new JournalCitas(directorio, bytesLinea, 0, PoliticaFsync.SISTEMA_OPERATIVO, 20);
+        journal.registrarNotas(cita);
+        journal.registrarNotas(cita);
+        journal.cerrar();
+
+        assertEquals(List.of(0L, 1L), JournalCitas.segmentosExistentes(directorio));
+        try (var archivos = Files.list(directorio)) {
+            archivos.forEach(archivo -> assertEquals(bytesLinea, archivo.toFile().length()));
+        }
+    }
+
+    @Test
+    void caracterSinRepresentacionNoCortaLaLinea() throws Exception {
+        Cita cita = new Cita("CITA-A0000001", p, m, c, "Consulta", LocalDateTime.of(2030, 11, 24, 10, 30));
+        cita.setDiagnostico("Gripa \uD83D");
+        cita.setTratamiento("Reposo");
+
+        JournalCitas journal = new JournalCitas(directorio, Long.MAX_VALUE, 0, PoliticaFsync.SISTEMA_OPERATIVO, 20);
+        journal.registrarNotas(cita);
+        journal.cerrar();
+
+        List<String> lineas = Files.readAllLines(directorio.resolve("citas-000000.journal"), StandardCharsets.UTF_8);
+        assertEquals(1, lineas.size());
+        assertEquals("NOTA;CITA-A0000001;Gripa ?;Reposo;", lineas.get(0));
+    }
+}
@@ -0,0 +1,99 @@
+package service;
+
+import modelo.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuscadorHorariosTest {
+    GestionarUsuario gu = new GestionarUsuario();
+    Paciente p = new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino");
+    Medico m1 = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Cardiologia");
+    Medico m2 = new Medico("M002", "Ana", "Ruiz", "555-0102", "aruiz@hospital.com", "doc122", "Cardiologia");
+    Consultorio c1 = new Consultorio("1", true, "Piso 1");
+    Consultorio c2 = new Consultorio("2", true, "Piso 2");
+    LocalDateTime fecha = LocalDateTime.of(2030, 11, 24, 10, 0);
+    BuscadorHorarios buscador = new BuscadorHorarios(gu.getCitaRepository(), gu);
+
+    BuscadorHorariosTest() {
+        gu.registrarPaciente(p);
+        gu.registrarMedico(m1);
+        gu.registrarMedico(m2);
+        gu.registrarConsultorio(c1);
+        gu.registrarConsultorio(c2);
+    }
+
+    @Test
+    void devuelveElPrimerHorarioEnQueMedicoYConsultorioEstanLibres() {
+        // M001 ocupado de 10:00 a 11:00; el consultorio 1 ocupado a las 11:00 por otro medico
+        gu.agregarCita(new Cita("C1", p, m1, c1, "Control", fecha));
+        gu.agregarCita(new Cita("C2", p, m1, c2, "Control", fecha.plusMinutes(30)));
+        gu.agregarCita(new Cita("C3", p, new Medico("M003", "Luis", "Gil", "1", "l@h.com", "x", "Pediatria"), c1, "Control", fecha.plusMinutes(60)));
+
+        List<HorarioDisponible> horarios = buscador.buscar("cardiologia", fecha, fecha.plusHours(3), m1, List.of(c1), 3);
+
+        // M002 esta libre a las 10:30 en el consultorio 1, M001 no lo esta hasta las 11:30
+        assertEquals(3, horarios.size());
+        assertEquals(fecha.plusMinutes(30), horarios.get(0).getInicio());
+        assertSame(m2, horarios.get(0).getMedico());
+        assertSame(c1, horarios.get(0).getConsultorio());
+        assertEquals(fecha.plusMinutes(90), horarios.get(1).getInicio());
+        assertSame(m1, horarios.get(1).getMedico());
+    }
+
+    @Test
+    void unaCitaFueraDeLaCuadriculaOcupaLasDosFranjasQueToca() {
+        // 10:15 a 10:45 en el consultorio 1: los turnos de las 10:00 y las 10:30 van al consultorio 2
+        gu.agregarCita(new Cita("C1", p, new Medico("M003", "Luis", "Gil", "1", "l@h.com", "x", "Pediatria"), c1, "Control", fecha.plusMinutes(15)));
+        gu.agregarCita(new Cita("C2", p, m1, c2, "Control", fecha.plusMinutes(60)));
+
+        List<HorarioDisponible> horarios = buscador.buscar("Cardiologia", fecha, fecha.plusHours(1), m1, null, 3);
+
+        assertEquals(3, horarios.size());
+        assertSame(c2, horarios.get(0).getConsultorio());
+        assertSame(m1, horarios.get(0).getMedico());
+        assertEquals(fecha.plusMinutes(30), horarios.get(2).getInicio());
+        assertSame(c2, horarios.get(2).getConsultorio());
+        assertTrue(buscador.buscar("Cardiologia", fecha.plusMinutes(60), fecha.plusMinutes(60), m1, List.of(c2), 3)
+                .stream().noneMatch(h -> h.getMedico() == m1));
+    }
+
+    @Test
+    void alineaLaVentanaALaSiguienteMediaHora() {
+        List<HorarioDisponible> horarios = buscador.buscar("Cardiologia", fecha.plusMinutes(5), fecha.plusHours(1), m2, null, 1);
+
+        assertEquals(1, horarios.size());
+        HorarioDisponible horario = horarios.get(0);
+        assertEquals(fecha.plusMinutes(30), horario.getInicio());
+        assertSame(m2, horario.getMedico());
+        assertTrue(buscador.buscar("Neurologia", fecha, fecha.plusHours(1), null, null, 1).isEmpty());
+    }
+
+    @Test
+    void remisionVaAlEspecialistaConMenosCarga() {
+        gu.agregarCita(new Cita("C1", p, m1, c1, "Control", fecha.plusDays(1)));
+        gu.agregarCita(new Cita("C2", p, m1, c1, "Control", fecha.plusDays(2)));
+        gu.agregarCita(new Cita("C3", p, m2, c2, "Control", fecha.plusDays(2).plusHours(1)));
+        // Pendientes viejas de M002 que nadie cerro; quedan fuera de la ventana
+        for (int i = 1; i <= 3; i++) {
+            gu.agregarCita(new Cita("V" + i, p, m2, c2, "Control", fecha.minusDays(10 + i)));
+        }
+        LocalDateTime hasta = fecha.plusDays(3);
+        assertEquals(60, gu.getCitaRepository().minutosReservados("M001", fecha, hasta));
+        assertEquals(30, gu.getCitaRepository().minutosReservados("M002", fecha, hasta));
+
+        HorarioDisponible horario = buscador.horarioParaRemision(" CARDIOLOGIA", fecha, hasta, null, PoliticaRemision.MENOR_CARGA);
+        assertSame(m2, horario.getMedico());
+        assertEquals(fecha, horario.getInicio());
+
+        gu.getCitaRepository().buscarPorId("C1").cancelarCita();
+        gu.getCitaRepository().buscarPorId("C2").completar();
+        assertEquals(0, gu.getCitaRepository().minutosReservados("M001", fecha, hasta));
+        assertSame(m1, buscador.horarioParaRemision("Cardiologia", fecha, hasta, null, PoliticaRemision.MENOR_CARGA).getMedico());
+        assertSame(m1, buscador.horarioParaRemision("Cardiologia", fecha, hasta, null, PoliticaRemision.PRIMER_HORARIO).getMedico());
+        assertNull(buscador.horarioParaRemision("Neurologia", fecha, hasta, null, PoliticaRemision.MENOR_CARGA));
+    }
+}
@@ -0,0 +1,34 @@
+package service;
+
+import modelo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InicializarDatosTest {
+    @TempDir
+    Path directorio;
+
+    @Test
+    void soloSeLlenanLosConjuntosVacios() {
+        GestionarUsuario gu = new GestionarUsuario(directorio.toString(), 0, PoliticaFsync.SISTEMA_OPERATIVO);
+        gu.registrarPaciente(new Paciente("P900", "Rosa", "Vega", "777-1900", "rvega@hmail.com", "clave", "HC-900", "01/01/1980", "O+", "Femenino"));
+        gu.registrarMedico(new Medico("M900", "Pedro", "Ruiz", "555-0900", "pruiz@hospital.com", "doc900", "Dermatología"));
+        gu.guardarEnArchivo();
+
+        GestionarUsuario cargado = new GestionarUsuario(directorio.toString(), 0, PoliticaFsync.SISTEMA_OPERATIVO);
+        cargado.cargarDesdeArchivo();
+        new InicializarDatos(cargado).inicializarDatosEjemplo();
+
+        assertEquals(1, cargado.getPacientes().size());
+        assertNotNull(cargado.buscarPaciente("P900"));
+        assertEquals(1, cargado.getMedicos().size());
+        assertFalse(cargado.getRecepcionistas().isEmpty());
+        assertFalse(cargado.getConsultorios().isEmpty());
+        assertTrue(Files.exists(directorio.resolve(GestionarUsuario.ARCHIVO_CONSULTORIOS)));
+    }
+}
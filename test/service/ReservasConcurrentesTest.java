@@ -0,0 +1,92 @@
+package service;
+
+import modelo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservasConcurrentesTest {
+    private static final int HILOS = 8;
+    private static final int MEDICOS = 6;
+    private static final int CONSULTORIOS = 4;
+    private static final int TURNOS = 40;
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void reservasSimultaneasNuncaDuplicanUnTurno() throws Exception {
+        GestionarUsuario gu = new GestionarUsuario();
+        gu.registrarPaciente(new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino"));
+        for (int i = 0; i < MEDICOS; i++) {
+            gu.registrarMedico(new Medico("M" + i, "Medico", "" + i, "555", "m" + i + "@hospital.com", "x", "Medicina General"));
+        }
+        for (int i = 0; i < CONSULTORIOS; i++) {
+            gu.registrarConsultorio(new Consultorio("" + i, true, "Piso " + i));
+        }
+        Service service = new Service(gu, directorio);
+        LocalDateTime inicio = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.DAYS).withHour(7);
+
+        // Cada hilo intenta todas las combinaciones (medico, consultorio, turno) en distinto orden
+        List<int[]> intentos = new ArrayList<>();
+        for (int m = 0; m < MEDICOS; m++)
+            for (int c = 0; c < CONSULTORIOS; c++)
+                for (int t = 0; t < TURNOS; t++)
+                    intentos.add(new int[]{m, c, t});
+
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        ExecutorService hilos = Executors.newFixedThreadPool(HILOS);
+        CountDownLatch salida = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (int h = 0; h < HILOS; h++) {
+            List<int[]> orden = new ArrayList<>(intentos);
+            Collections.shuffle(orden, new Random(h));
+            tareas.add(hilos.submit(() -> {
+                salida.await();
+                for (int[] intento : orden) {
+                    try {
+                        service.reservarCita("P001", "M" + intento[0], "" + intento[1], "Consulta",
+                                inicio.plusMinutes(30L * intento[2]));
+                        exitosas.incrementAndGet();
+                    } catch (IllegalArgumentException ocupado) {
+                        rechazadas.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long t0 = System.nanoTime();
+        salida.countDown();
+        for (Future<?> tarea : tareas) tarea.get(60, TimeUnit.SECONDS);
+        long nanos = System.nanoTime() - t0;
+        hilos.shutdown();
+        service.getAlmacenCitas().detener();
+
+        int total = exitosas.get() + rechazadas.get();
+        System.out.printf("Reservas concurrentes: %d intentos en %d ms (%.0f/s), %d exitosas%n",
+                total, nanos / 1_000_000, total / (nanos / 1e9), exitosas.get());
+
+        // Cada turno admite a lo sumo una cita por consultorio, y hay menos consultorios que medicos
+        assertEquals(CONSULTORIOS * TURNOS, exitosas.get());
+        List<Cita> citas = service.enlistarCitas();
+        assertEquals(exitosas.get(), citas.size());
+        assertEquals(citas.size(), new HashSet<>(citas.stream().map(Cita::getId).collect(Collectors.toList())).size());
+        Set<String> medicoTurno = new HashSet<>();
+        Set<String> consultorioTurno = new HashSet<>();
+        for (Cita cita : citas) {
+            assertTrue(medicoTurno.add(cita.getMedico().getId() + "@" + cita.getFecha()), "Medico duplicado: " + cita.getId());
+            assertTrue(consultorioTurno.add(cita.getConsultorio().getNumero() + "@" + cita.getFecha()), "Consultorio duplicado: " + cita.getId());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package service;
+
+import modelo.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServiceTest {
+    @TempDir
+    Path directorio;
+
+    GestionarUsuario gu = new GestionarUsuario();
+    Paciente p = new Paciente("P001", "María", "López", "777-1001", "mlopez@hmail.com", "paciente120", "HC-001", "15/03/1985", "O+", "Femenino");
+    Medico m = new Medico("M001", "Carlos", "Ramírez", "555-0101", "cramirez@hospital.com", "doc121", "Medicina General");
+    Consultorio c = new Consultorio("1", true, "Mar caribe norte, piso 2");
+
+    ServiceTest() {
+        gu.registrarPaciente(p);
+        gu.registrarMedico(m);
+        gu.registrarConsultorio(c);
+    }
+
+    @Test
+    void citaConFechaInvalidaNoImpideIniciar() throws Exception {
+        Files.write(directorio.resolve("citas.txt"), List.of(
+                "CITA-A0000001;P001;M001;1;Consulta;24/11/2030 10:30;PENDIENTE",
+                "CITA-A0000002;P001;M001;1;Control;31/02/2030 25:00;PENDIENTE"), StandardCharsets.UTF_8);
+
+        Service service = new Service(gu, directorio);
+
+        assertEquals(2, gu.getCitaRepository().tamano());
+        assertNull(service.searchCitaById("CITA-A0000002").getFecha());
+        assertTrue(m.tieneCita(service.searchCitaById("CITA-A0000002")));
+        assertEquals(1, m.getAgenda().size());
+        assertEquals(1, service.verAgendaMedico("M001").size());
+
+        assertTrue(service.reprogramarCita("CITA-A0000002", LocalDateTime.of(2030, 11, 25, 9, 0)));
+        assertEquals(2, service.verAgendaMedico("M001").size());
+    }
+
+    @Test
+    void historialYAgendaDelMedicoSalenDeSusIndices() {
+        Service service = new Service(gu, directorio);
+        LocalDateTime lunes = LocalDateTime.of(2030, 11, 25, 9, 0);
+        Cita primera = service.reservarCita("P001", "M001", "1", "Control", lunes);
+        Cita cancelada = service.reservarCita("P001", "M001", "1", "Control", lunes.plusHours(1));
+        Cita jueves = service.reservarCita("P001", "M001", "1", "Control", lunes.plusDays(3));
+        service.reservarCita("P001", "M001", "1", "Control", lunes.plusDays(7));
+        primera.completar();
+        jueves.completar();
+        service.cancelarCita(cancelada.getId());
+
+        assertEquals(List.of(jueves, primera), service.historialMedico("M001"));
+        assertEquals(List.of(primera), service.agendaMedicoDelDia("M001", lunes.toLocalDate()));
+        assertEquals(List.of(primera, jueves), service.agendaMedicoDeLaSemana("M001", lunes.toLocalDate().plusDays(6)));
+        assertTrue(service.historialMedico("M999").isEmpty());
+    }
+
+    @Test
+    void marcaDeIdsAtrasadaNoRepiteIdsCargados() throws Exception {
+        Files.write(directorio.resolve("citas.txt"), List.of(
+                "CITA-A0000005;P001;M001;1;Consulta;24/11/2030 10:30;PENDIENTE"), StandardCharsets.UTF_8);
+        Files.writeString(directorio.resolve("citas.hwm"), "2");
+
+        Service service = new Service(gu, directorio);
+        Cita nueva = service.reservarCita("P001", "M001", "1", "Control", LocalDateTime.of(2030, 11, 25, 9, 0));
+
+        assertEquals("CITA-A0000006", nueva.getId());
+        assertSame(nueva, service.searchCitaById("CITA-A0000006"));
+    }
+}
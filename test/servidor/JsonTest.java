@@ -0,0 +1,37 @@
+package servidor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void leeObjetosPlanosConEscapes() {
+        Map<String, String> campos = Json.leerObjeto("{ \"id\": \"P001\", \"motivo\": \"dolor \\\"fuerte\\\"\\n\", \"n\": 12, \"ok\": true, \"x\": null }");
+
+        assertEquals("P001", campos.get("id"));
+        assertEquals("dolor \"fuerte\"\n", campos.get("motivo"));
+        assertEquals("12", campos.get("n"));
+        assertEquals("true", campos.get("ok"));
+        assertTrue(campos.containsKey("x"));
+        assertNull(campos.get("x"));
+        assertTrue(Json.leerObjeto("").isEmpty());
+    }
+
+    @Test
+    void rechazaJsonInvalidoOAnidado() {
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"id\": }"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"id\": {\"a\": 1}}"));
+        assertThrows(IllegalArgumentException.class, () -> Json.leerObjeto("{\"id\": \"a\"} extra"));
+    }
+
+    @Test
+    void escribeObjetosEscapandoTextos() {
+        String json = new Json.Objeto().texto("a", "x\"y\\z").numero("b", 3).booleano("c", false).texto("d", null).toString();
+
+        assertEquals("{\"a\":\"x\\\"y\\\\z\",\"b\":3,\"c\":false,\"d\":null}", json);
+    }
+}
@@ -0,0 +1,128 @@
+package servidor;
+
+import modelo.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.Service;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServidorCitasTest {
+    @TempDir
+    Path directorio;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+    private ServidorCitas servidor;
+    private String idCita;
+
+    @BeforeEach
+    void iniciar() throws Exception {
+        GestionarUsuario gu = new GestionarUsuario();
+        gu.registrarPaciente(new Paciente("P001", "María", "López", "777-1001", "m@mail.com", "clave1", "HC-001", "15/03/1985", "O+", "Femenino"));
+        gu.registrarPaciente(new Paciente("P002", "Ana", "Gil", "777-1002", "a@mail.com", "clave2", "HC-002", "15/03/1990", "A+", "Femenino"));
+        gu.registrarMedico(new Medico("M001", "Carlos", "Ramírez", "555-0101", "c@hospital.com", "doc1", "Medicina General"));
+        gu.registrarRecepcionista(new Recepcionista("R001", "Laura", "Díaz", "555-0201", "l@hospital.com", "rec1", "Activo"));
+        gu.registrarConsultorio(new Consultorio("1", true, "Piso 1"));
+        Service service = new Service(gu, directorio);
+        idCita = service.reservarCita("P002", "M001", "1", "Control", LocalDateTime.now().plusDays(2).withHour(9).withMinute(0)).getId();
+        servidor = new ServidorCitas(service, 0);
+        servidor.iniciar();
+    }
+
+    @AfterEach
+    void detener() {
+        servidor.detener();
+    }
+
+    @Test
+    void lasRutasExigenUnaSesionDelPropioUsuario() throws Exception {
+        assertEquals(401, get("/api/pacientes/P001/historia", null).statusCode());
+        assertEquals(401, post("/api/login", null, "{\"id\":\"P001\",\"password\":\"mala\"}").statusCode());
+
+        String token = login("P001", "clave1");
+        assertEquals(200, get("/api/pacientes/P001/historia", token).statusCode());
+        assertEquals(403, get("/api/pacientes/P002/historia", token).statusCode());
+        assertEquals(403, get("/api/medicos/M001/agenda", token).statusCode());
+        assertEquals(403, post("/api/citas/" + idCita + "/cancelar", token, "").statusCode());
+
+        String medico = login("M001", "doc1");
+        assertEquals(200, get("/api/pacientes/P002/historia", medico).statusCode());
+        assertEquals(403, get("/api/pacientes/P001/historia", medico).statusCode());
+
+        assertEquals(200, post("/api/logout", token, "").statusCode());
+        assertEquals(401, get("/api/pacientes/P001/citas", token).statusCode());
+    }
+
+    @Test
+    void limiteInvalidoResponde400() throws Exception {
+        HttpResponse<String> respuesta = get("/api/horarios?especialidad=Medicina%20General&limite=abc", login("P001", "clave1"));
+        assertEquals(400, respuesta.statusCode());
+        assertTrue(respuesta.body().contains("limite"));
+
+        HttpResponse<String> demasiados = get("/api/horarios?especialidad=Medicina%20General&limite=101", login("P001", "clave1"));
+        assertEquals(400, demasiados.statusCode());
+        assertTrue(demasiados.body().contains("limite"));
+    }
+
+    @Test
+    void horariosSoloEnLosConsultoriosPedidos() throws Exception {
+        String token = login("P001", "clave1");
+        HttpResponse<String> respuesta = get("/api/horarios?especialidad=Medicina%20General&consultorios=1&limite=2", token);
+        assertEquals(200, respuesta.statusCode());
+        assertTrue(respuesta.body().contains("\"consultorio\":\"1\""));
+
+        respuesta = get("/api/horarios?especialidad=Medicina%20General&consultorios=1,9", token);
+        assertEquals(400, respuesta.statusCode());
+        assertTrue(respuesta.body().contains("Consultorio no encontrado: 9"));
+    }
+
+    @Test
+    void recepcionConsultaLasCitasPorEstado() throws Exception {
+        assertEquals(403, get("/api/citas/estados", login("P002", "clave2")).statusCode());
+
+        String recepcion = login("R001", "rec1");
+        Map<String, String> conteo = Json.leerObjeto(get("/api/citas/estados", recepcion).body());
+        assertEquals("1", conteo.get("PENDIENTE"));
+        assertEquals("0", conteo.get("CANCELADA"));
+        String dia = LocalDate.now().plusDays(2).format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
+        assertEquals("1", Json.leerObjeto(get("/api/citas/estados?dia=" + dia, recepcion).body()).get("PENDIENTE"));
+        assertEquals(400, get("/api/citas/estados?dia=ayer", recepcion).statusCode());
+
+        assertTrue(get("/api/citas?estado=pendiente", recepcion).body().contains(idCita));
+        assertEquals("[]", get("/api/citas?estado=EN_ATENCION", recepcion).body());
+        assertEquals(400, get("/api/citas?estado=OTRO", recepcion).statusCode());
+    }
+
+    private String login(String id, String password) throws Exception {
+        HttpResponse<String> respuesta = post("/api/login", null, "{\"id\":\"" + id + "\",\"password\":\"" + password + "\"}");
+        assertEquals(200, respuesta.statusCode());
+        return Json.leerObjeto(respuesta.body()).get("token");
+    }
+
+    private HttpResponse<String> get(String ruta, String token) throws Exception {
+        return cliente.send(peticion(ruta, token).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String ruta, String token, String cuerpo) throws Exception {
+        return cliente.send(peticion(ruta, token).POST(HttpRequest.BodyPublishers.ofString(cuerpo)).build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder peticion(String ruta, String token) {
+        HttpRequest.Builder constructor = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + servidor.getPuerto() + ruta));
+        if (token != null) constructor.header("Authorization", "Bearer " + token);
+        return constructor;
+    }
+}